@@ -0,0 +1,97 @@
+package com.flipkart.krystal.benchmarks.data;
+
+import static com.flipkart.krystal.data.Errable.withValue;
+
+import com.flipkart.krystal.data.FacetValue;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.data.FacetsSchema;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Compares map-backed and schema (array) backed {@link Facets}. */
+@State(Scope.Benchmark)
+public class FacetsBenchmark {
+
+  @Param({"4", "16"})
+  public int facetCount;
+
+  private List<String> facetNames;
+  private FacetsSchema schema;
+  private FacetValue<Object> value;
+  private Facets mapBackedFacets;
+  private Facets schemaBackedFacets;
+
+  @Setup
+  public void setUp() {
+    facetNames = new ArrayList<>();
+    for (int i = 0; i < facetCount; i++) {
+      facetNames.add("facet_" + i);
+    }
+    schema = FacetsSchema.of(facetNames);
+    value = withValue(1);
+    mapBackedFacets = buildMapBacked();
+    schemaBackedFacets = buildSchemaBacked();
+  }
+
+  @Benchmark
+  public Facets build_mapBacked() {
+    return buildMapBacked();
+  }
+
+  @Benchmark
+  public Facets build_schemaBacked() {
+    return buildSchemaBacked();
+  }
+
+  @Benchmark
+  public void read_mapBacked(Blackhole blackhole) {
+    read(mapBackedFacets, blackhole);
+  }
+
+  @Benchmark
+  public void read_schemaBacked(Blackhole blackhole) {
+    read(schemaBackedFacets, blackhole);
+  }
+
+  @Benchmark
+  public int hashCode_schemaBacked() {
+    // Facets are used as map keys by the output logic, so hashing a fresh instance is on the hot
+    // path
+    return buildSchemaBacked().hashCode();
+  }
+
+  @Benchmark
+  public int hashCode_mapBacked() {
+    return buildMapBacked().hashCode();
+  }
+
+  private Facets buildMapBacked() {
+    Map<String, FacetValue<Object>> values = new LinkedHashMap<>();
+    for (String facetName : facetNames) {
+      values.put(facetName, value);
+    }
+    return new Facets(values);
+  }
+
+  private Facets buildSchemaBacked() {
+    Facets.Builder builder = Facets.builder(schema);
+    for (int slot = 0; slot < facetCount; slot++) {
+      builder.set(slot, value);
+    }
+    return builder.build();
+  }
+
+  private void read(Facets facets, Blackhole blackhole) {
+    for (String facetName : facetNames) {
+      blackhole.consume(facets.getInputValue(facetName));
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package com.flipkart.krystal.benchmarks.krystex;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.ForkJoinExecutorPool;
+import com.flipkart.krystal.krystex.kryon.AutoFlushConfig;
+import com.flipkart.krystal.krystex.kryon.AutoFlushingKryonExecutor;
+import com.flipkart.krystal.krystex.kryon.KryonExecutionConfig;
+import com.flipkart.krystal.krystex.kryon.KryonExecutor;
+import com.flipkart.krystal.krystex.kryon.KryonExecutor.CommandQueueType;
+import com.flipkart.krystal.krystex.kryon.KryonExecutor.GraphTraversalStrategy;
+import com.flipkart.krystal.krystex.kryon.KryonExecutor.KryonExecStrategy;
+import com.flipkart.krystal.krystex.kryon.KryonExecutorConfig;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Executes a fanout kryon {@value #EXECUTIONS} times through an {@link AutoFlushingKryonExecutor}
+ * which flushes every {@link #executionsPerWindow} executions, so that the cost of opening a window
+ * per flush can be compared with the work the window saves by batching. Scores are per execution.
+ */
+@State(Scope.Benchmark)
+public class AutoFlushingExecutorBenchmark {
+
+  private static final int EXECUTIONS = 256;
+
+  @Param({"BATCH", "GRANULAR"})
+  public KryonExecStrategy kryonExecStrategy;
+
+  @Param({"1", "16", "256"})
+  public int executionsPerWindow;
+
+  @Param({"10"})
+  public int fanoutWidth;
+
+  private KryonGraphs kryonGraphs;
+  private ForkJoinExecutorPool executorPool;
+  private KryonId rootKryonId;
+  private AutoFlushingKryonExecutor autoFlushingExecutor;
+  private long executionCount;
+
+  @Setup
+  public void setUp() {
+    kryonGraphs = new KryonGraphs();
+    executorPool = new ForkJoinExecutorPool(1);
+    rootKryonId = kryonGraphs.fanout(fanoutWidth);
+    autoFlushingExecutor =
+        new AutoFlushingKryonExecutor(
+            kryonGraphs.kryonDefinitionRegistry(),
+            executorPool,
+            KryonExecutorConfig.builder().kryonExecStrategy(kryonExecStrategy).build(),
+            "benchmark",
+            // The linger time is long enough that windows are only flushed when they are full
+            AutoFlushConfig.builder()
+                .lingerTime(Duration.ofMinutes(1))
+                .maxPendingExecutions(executionsPerWindow)
+                .build());
+  }
+
+  @TearDown
+  public void tearDown() {
+    autoFlushingExecutor.close();
+    executorPool.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(EXECUTIONS)
+  public Object execute() throws Exception {
+    CompletableFuture<?>[] results = new CompletableFuture<?>[EXECUTIONS];
+    for (int i = 0; i < EXECUTIONS; i++) {
+      results[i] =
+          autoFlushingExecutor.executeKryon(
+              rootKryonId,
+              Facets.empty(),
+              KryonExecutionConfig.builder().executionId("r" + executionCount++).build());
+    }
+    return CompletableFuture.allOf(results).get(10, SECONDS);
+  }
+
+  /** The fixed cost of a window which is opened and flushed without any executions. */
+  @Benchmark
+  public Object openAndCloseEmptyExecutor() {
+    KryonExecutor kryonExecutor =
+        kryonGraphs.newExecutor(
+            executorPool,
+            kryonExecStrategy,
+            GraphTraversalStrategy.DEPTH,
+            CommandQueueType.EXECUTOR_SERVICE);
+    kryonExecutor.close();
+    return kryonExecutor;
+  }
+}
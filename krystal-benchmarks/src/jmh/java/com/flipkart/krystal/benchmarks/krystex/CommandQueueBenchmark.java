@@ -0,0 +1,76 @@
+package com.flipkart.krystal.benchmarks.krystex;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.ForkJoinExecutorPool;
+import com.flipkart.krystal.krystex.kryon.KryonExecutionConfig;
+import com.flipkart.krystal.krystex.kryon.KryonExecutor;
+import com.flipkart.krystal.krystex.kryon.KryonExecutor.CommandQueueType;
+import com.flipkart.krystal.krystex.kryon.KryonExecutor.GraphTraversalStrategy;
+import com.flipkart.krystal.krystex.kryon.KryonExecutor.KryonExecStrategy;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compares the command queue implementations of {@link KryonExecutor} for a fanout-heavy graph,
+ * where most of the time is spent enqueuing and dispatching kryon commands. With {@link #ioLeaf},
+ * the dependencies are IO kryons completed in another thread, so every dependency request and
+ * response goes through the command queue.
+ */
+@State(Scope.Benchmark)
+public class CommandQueueBenchmark {
+
+  @Param({"EXECUTOR_SERVICE", "COMMAND_LOOP"})
+  public CommandQueueType commandQueueType;
+
+  @Param({"BATCH", "GRANULAR"})
+  public KryonExecStrategy kryonExecStrategy;
+
+  @Param({"100"})
+  public int fanoutWidth;
+
+  @Param({"false", "true"})
+  public boolean ioLeaf;
+
+  private KryonGraphs kryonGraphs;
+  private ForkJoinExecutorPool executorPool;
+  private ExecutorService ioExecutor;
+  private KryonId rootKryonId;
+
+  @Setup
+  public void setUp() {
+    kryonGraphs = new KryonGraphs();
+    executorPool = new ForkJoinExecutorPool(1);
+    ioExecutor = Executors.newSingleThreadExecutor();
+    rootKryonId =
+        ioLeaf ? kryonGraphs.ioFanout(fanoutWidth, ioExecutor) : kryonGraphs.fanout(fanoutWidth);
+  }
+
+  @TearDown
+  public void tearDown() {
+    executorPool.close();
+    ioExecutor.shutdown();
+  }
+
+  @Benchmark
+  public Object execute() throws Exception {
+    CompletableFuture<Object> result;
+    try (KryonExecutor kryonExecutor =
+        kryonGraphs.newExecutor(
+            executorPool, kryonExecStrategy, GraphTraversalStrategy.DEPTH, commandQueueType)) {
+      result =
+          kryonExecutor.executeKryon(
+              rootKryonId, Facets.empty(), KryonExecutionConfig.builder().executionId("r").build());
+    }
+    return result.get(10, SECONDS);
+  }
+}
@@ -0,0 +1,70 @@
+package com.flipkart.krystal.benchmarks.krystex;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.ForkJoinExecutorPool;
+import com.flipkart.krystal.krystex.kryon.KryonExecutionConfig;
+import com.flipkart.krystal.krystex.kryon.KryonExecutor;
+import com.flipkart.krystal.krystex.kryon.KryonExecutor.CommandQueueType;
+import com.flipkart.krystal.krystex.kryon.KryonExecutor.GraphTraversalStrategy;
+import com.flipkart.krystal.krystex.kryon.KryonExecutor.KryonExecStrategy;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import java.util.concurrent.CompletableFuture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Executes a chain of {@link #chainDepth} kryons, comparing the kryon execution strategies and graph
+ * traversal strategies.
+ */
+@State(Scope.Benchmark)
+public class KryonChainBenchmark {
+
+  @Param({"BATCH", "GRANULAR"})
+  public KryonExecStrategy kryonExecStrategy;
+
+  @Param({"DEPTH", "BREADTH"})
+  public GraphTraversalStrategy graphTraversalStrategy;
+
+  @Param({"1", "10", "50"})
+  public int chainDepth;
+
+  private KryonGraphs kryonGraphs;
+  private ForkJoinExecutorPool executorPool;
+  private KryonId rootKryonId;
+
+  @Setup
+  public void setUp() {
+    kryonGraphs = new KryonGraphs();
+    executorPool = new ForkJoinExecutorPool(1);
+    rootKryonId = kryonGraphs.chain(chainDepth);
+  }
+
+  @TearDown
+  public void tearDown() {
+    executorPool.close();
+  }
+
+  @Benchmark
+  public Object execute() throws Exception {
+    CompletableFuture<Object> result;
+    try (KryonExecutor kryonExecutor =
+        kryonGraphs.newExecutor(
+            executorPool,
+            kryonExecStrategy,
+            graphTraversalStrategy,
+            CommandQueueType.EXECUTOR_SERVICE)) {
+      result =
+          kryonExecutor.executeKryon(
+              rootKryonId,
+              Facets.empty(),
+              KryonExecutionConfig.builder().executionId("r").build());
+    }
+    return result.get(10, SECONDS);
+  }
+}
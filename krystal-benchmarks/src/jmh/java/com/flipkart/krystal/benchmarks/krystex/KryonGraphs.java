@@ -0,0 +1,139 @@
+package com.flipkart.krystal.benchmarks.krystex;
+
+import static com.flipkart.krystal.data.Errable.computeErrableFrom;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.util.Collections.emptySet;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static java.util.function.Function.identity;
+
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.ComputeLogicDefinition;
+import com.flipkart.krystal.krystex.IOLogicDefinition;
+import com.flipkart.krystal.krystex.LogicDefinitionRegistry;
+import com.flipkart.krystal.krystex.OutputLogicDefinition;
+import com.flipkart.krystal.krystex.kryon.KryonDefinitionRegistry;
+import com.flipkart.krystal.krystex.kryon.KryonExecutor;
+import com.flipkart.krystal.krystex.kryon.KryonExecutor.CommandQueueType;
+import com.flipkart.krystal.krystex.kryon.KryonExecutor.GraphTraversalStrategy;
+import com.flipkart.krystal.krystex.kryon.KryonExecutor.KryonExecStrategy;
+import com.flipkart.krystal.krystex.kryon.KryonExecutorConfig;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.krystex.kryon.KryonLogicId;
+import com.flipkart.krystal.utils.LeasePool;
+import com.google.common.collect.ImmutableMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+
+/** Builds synthetic kryon graphs of configurable shape for the krystex benchmarks. */
+final class KryonGraphs {
+
+  private final LogicDefinitionRegistry logicDefinitionRegistry = new LogicDefinitionRegistry();
+  private final KryonDefinitionRegistry kryonDefinitionRegistry =
+      new KryonDefinitionRegistry(logicDefinitionRegistry);
+
+  KryonDefinitionRegistry kryonDefinitionRegistry() {
+    return kryonDefinitionRegistry;
+  }
+
+  /**
+   * A root kryon with {@code width} dependencies, all on the same leaf kryon. The dependencies have
+   * no resolvers, so each of them is triggered exactly once per request.
+   */
+  KryonId fanout(int width) {
+    KryonId leaf = newKryon("fanout_leaf", emptySet(), facets -> 1, ImmutableMap.of());
+    return fanoutRoot("fanout_root_" + width, leaf, width);
+  }
+
+  /**
+   * Like {@link #fanout(int)}, but the leaf is an IO kryon whose results are completed in {@code
+   * ioExecutor}. The requests to the leaf and its responses are then delivered through the command
+   * queue of the kryon executor, like the responses of network calls are.
+   */
+  KryonId ioFanout(int width, Executor ioExecutor) {
+    String leafId = "io_fanout_leaf";
+    IOLogicDefinition<Integer> leafLogic =
+        new IOLogicDefinition<>(
+            new KryonLogicId(new KryonId(leafId), leafId),
+            emptySet(),
+            facetsList ->
+                facetsList.stream()
+                    .collect(
+                        toImmutableMap(identity(), facets -> supplyAsync(() -> 1, ioExecutor))),
+            ImmutableMap.of());
+    logicDefinitionRegistry.addOutputLogic(leafLogic);
+    KryonId leaf =
+        kryonDefinitionRegistry
+            .newKryonDefinition(leafId, emptySet(), leafLogic.kryonLogicId(), ImmutableMap.of())
+            .kryonId();
+    return fanoutRoot("io_fanout_root_" + width, leaf, width);
+  }
+
+  private KryonId fanoutRoot(String kryonId, KryonId leaf, int width) {
+    Map<String, KryonId> dependencies = new LinkedHashMap<>();
+    for (int i = 0; i < width; i++) {
+      dependencies.put("dep_" + i, leaf);
+    }
+    return newKryon(
+        kryonId,
+        dependencies.keySet(),
+        facets -> dependencies.size(),
+        ImmutableMap.copyOf(dependencies));
+  }
+
+  /** A chain of {@code depth} kryons, each depending on the next one. */
+  KryonId chain(int depth) {
+    KryonId current = newKryon("chain_0", emptySet(), facets -> 0, ImmutableMap.of());
+    for (int i = 1; i < depth; i++) {
+      current =
+          newKryon(
+              "chain_" + i,
+              Set.of("dep"),
+              facets -> facets.getDepValue("dep").values().size(),
+              ImmutableMap.of("dep", current));
+    }
+    return current;
+  }
+
+  KryonExecutor newExecutor(
+      LeasePool<? extends ExecutorService> executorPool,
+      KryonExecStrategy kryonExecStrategy,
+      GraphTraversalStrategy graphTraversalStrategy,
+      CommandQueueType commandQueueType) {
+    return new KryonExecutor(
+        kryonDefinitionRegistry,
+        executorPool,
+        KryonExecutorConfig.builder()
+            .kryonExecStrategy(kryonExecStrategy)
+            .graphTraversalStrategy(graphTraversalStrategy)
+            .commandQueueType(commandQueueType)
+            .build(),
+        "benchmark");
+  }
+
+  private <T> KryonId newKryon(
+      String kryonId,
+      Set<String> logicInputs,
+      Function<Facets, T> logic,
+      ImmutableMap<String, KryonId> dependencies) {
+    OutputLogicDefinition<T> outputLogic =
+        new ComputeLogicDefinition<>(
+            new KryonLogicId(new KryonId(kryonId), kryonId),
+            logicInputs,
+            facetsList ->
+                facetsList.stream()
+                    .collect(toImmutableMap(identity(), computeErrableFrom(logic)))
+                    .entrySet()
+                    .stream()
+                    .collect(toImmutableMap(Entry::getKey, e -> e.getValue().toFuture())),
+            ImmutableMap.of());
+    logicDefinitionRegistry.addOutputLogic(outputLogic);
+    return kryonDefinitionRegistry
+        .newKryonDefinition(kryonId, emptySet(), outputLogic.kryonLogicId(), dependencies)
+        .kryonId();
+  }
+}
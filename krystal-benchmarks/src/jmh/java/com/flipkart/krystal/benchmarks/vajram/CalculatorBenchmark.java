@@ -0,0 +1,168 @@
+package com.flipkart.krystal.benchmarks.vajram;
+
+import static com.flipkart.krystal.vajram.VajramID.vajramID;
+import static com.flipkart.krystal.vajram.Vajrams.getVajramIdString;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import com.flipkart.krystal.krystex.kryon.DependantChain;
+import com.flipkart.krystal.krystex.kryon.KryonExecutionConfig;
+import com.flipkart.krystal.vajram.Vajram;
+import com.flipkart.krystal.vajram.VajramID;
+import com.flipkart.krystal.vajram.VajramRequest;
+import com.flipkart.krystal.vajram.batching.InputBatcherImpl;
+import com.flipkart.krystal.vajram.samples.calculator.Formula;
+import com.flipkart.krystal.vajram.samples.calculator.FormulaRequest;
+import com.flipkart.krystal.vajram.samples.calculator.adder.Adder;
+import com.flipkart.krystal.vajram.samples.calculator.adder.ChainAdder;
+import com.flipkart.krystal.vajram.samples.calculator.adder.ChainAdderRequest;
+import com.flipkart.krystal.vajram.samples.calculator.adder.SplitAdder;
+import com.flipkart.krystal.vajram.samples.calculator.adder.SplitAdderRequest;
+import com.flipkart.krystal.vajramexecutor.krystex.InputBatcherConfig;
+import com.flipkart.krystal.vajramexecutor.krystex.KrystexVajramExecutor;
+import com.flipkart.krystal.vajramexecutor.krystex.VajramKryonGraph;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Executes the calculator sample vajrams end-to-end through {@link KrystexVajramExecutor}, with
+ * and without input batching of the {@link Adder} vajram and the request level cache.
+ */
+@State(Scope.Benchmark)
+public class CalculatorBenchmark {
+
+  public enum CalculatorVajram {
+    FORMULA(Formula.class),
+    CHAIN_ADDER(ChainAdder.class),
+    SPLIT_ADDER(SplitAdder.class);
+
+    private final Class<? extends Vajram<?>> vajramClass;
+
+    CalculatorVajram(Class<? extends Vajram<?>> vajramClass) {
+      this.vajramClass = vajramClass;
+    }
+
+    private VajramID vajramId() {
+      return vajramID(getVajramIdString(vajramClass));
+    }
+
+    private VajramRequest<?> request(int i) {
+      return switch (this) {
+        case FORMULA -> FormulaRequest.builder().a(100 + i).p(20 + i).q(5 + i).build();
+        case CHAIN_ADDER -> ChainAdderRequest.builder().numbers(numbers(i)).build();
+        case SPLIT_ADDER -> SplitAdderRequest.builder().numbers(numbers(i)).build();
+      };
+    }
+
+    /**
+     * The adder vajrams are recursive. Like in their tests, the dependant chains deeper than the
+     * recursion needed for {@link #numbers(int) ten numbers} are disabled so that the kryon graph
+     * is finite.
+     */
+    private ImmutableSet<DependantChain> disabledDependantChains(VajramKryonGraph graph) {
+      String vajramId = getVajramIdString(vajramClass);
+      return switch (this) {
+        case FORMULA -> ImmutableSet.of();
+        case CHAIN_ADDER -> ImmutableSet.of(chain(graph, vajramId, 9, depth -> "chainSum"));
+        case SPLIT_ADDER -> {
+          ImmutableSet.Builder<DependantChain> chains = ImmutableSet.builder();
+          for (int bits = 0; bits < 1 << 5; bits++) {
+            int splits = bits;
+            chains.add(
+                chain(
+                    graph,
+                    vajramId,
+                    5,
+                    depth -> ((splits >> depth) & 1) == 0 ? "splitSum1" : "splitSum2"));
+          }
+          yield chains.build();
+        }
+      };
+    }
+
+    private static DependantChain chain(
+        VajramKryonGraph graph, String vajramId, int length, IntFunction<String> depNameAt) {
+      String[] subsequentDepNames = new String[length - 1];
+      for (int depth = 1; depth < length; depth++) {
+        subsequentDepNames[depth - 1] = depNameAt.apply(depth);
+      }
+      return graph.computeDependantChain(vajramId, depNameAt.apply(0), subsequentDepNames);
+    }
+
+    private static List<Integer> numbers(int i) {
+      List<Integer> numbers = new ArrayList<>();
+      for (int n = 1; n <= 10; n++) {
+        numbers.add(n + i * 10);
+      }
+      return numbers;
+    }
+  }
+
+  @Param({"FORMULA", "CHAIN_ADDER", "SPLIT_ADDER"})
+  public CalculatorVajram vajram;
+
+  @Param({"false", "true"})
+  public boolean inputBatching;
+
+  @Param({"false", "true"})
+  public boolean requestLevelCache;
+
+  /** The number of vajram executions submitted to each executor before it is closed. */
+  @Param({"1", "10"})
+  public int executionsPerExecutor;
+
+  private VajramKryonGraph graph;
+  private VajramID vajramId;
+  private ImmutableSet<DependantChain> disabledDependantChains;
+
+  @Setup
+  public void setUp() {
+    graph =
+        VajramKryonGraph.builder()
+            .loadFromPackage(Formula.class.getPackageName())
+            .maxParallelismPerCore(1)
+            .build();
+    vajramId = vajram.vajramId();
+    disabledDependantChains = vajram.disabledDependantChains(graph);
+    if (inputBatching) {
+      graph.registerInputBatchers(
+          vajramID(getVajramIdString(Adder.class)),
+          InputBatcherConfig.simple(() -> new InputBatcherImpl<>(100)));
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    graph.close();
+  }
+
+  @Benchmark
+  public void execute(Blackhole blackhole) throws Exception {
+    List<CompletableFuture<Object>> results = new ArrayList<>(executionsPerExecutor);
+    try (KrystexVajramExecutor executor =
+        graph.createExecutor(VajramBenchmarks.executorConfig(requestLevelCache).build())) {
+      for (int i = 0; i < executionsPerExecutor; i++) {
+        results.add(
+            executor.executeWithFacets(
+                vajramId,
+                vajram.request(i).toFacetValues(),
+                KryonExecutionConfig.builder()
+                    .executionId("r" + i)
+                    .disabledDependantChains(disabledDependantChains)
+                    .build()));
+      }
+    }
+    for (CompletableFuture<Object> result : results) {
+      blackhole.consume(result.get(10, SECONDS));
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package com.flipkart.krystal.benchmarks.vajram;
+
+import static com.flipkart.krystal.vajram.VajramID.vajramID;
+import static com.flipkart.krystal.vajram.Vajrams.getVajramIdString;
+import static com.google.inject.Guice.createInjector;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import com.flipkart.krystal.krystex.kryon.KryonExecutionConfig;
+import com.flipkart.krystal.vajram.VajramID;
+import com.flipkart.krystal.vajram.batching.InputBatcherImpl;
+import com.flipkart.krystal.vajram.guice.VajramGuiceInjector;
+import com.flipkart.krystal.vajram.samples.greeting.AnalyticsEventSink;
+import com.flipkart.krystal.vajram.samples.greeting.Greeting;
+import com.flipkart.krystal.vajram.samples.greeting.GreetingRequest;
+import com.flipkart.krystal.vajram.samples.greeting.UserService;
+import com.flipkart.krystal.vajramexecutor.krystex.InputBatcherConfig;
+import com.flipkart.krystal.vajramexecutor.krystex.KrystexVajramExecutor;
+import com.flipkart.krystal.vajramexecutor.krystex.VajramKryonGraph;
+import com.google.inject.AbstractModule;
+import com.google.inject.Injector;
+import com.google.inject.Provides;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import java.lang.System.Logger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Executes the {@link Greeting} vajram (which has injected facets and an IO dependency) end-to-end
+ * through {@link KrystexVajramExecutor}, with and without input batching of {@link UserService}
+ * and the request level cache.
+ */
+@State(Scope.Benchmark)
+public class GreetingBenchmark {
+
+  private static final VajramID GREETING = vajramID(getVajramIdString(Greeting.class));
+
+  @Param({"false", "true"})
+  public boolean inputBatching;
+
+  @Param({"false", "true"})
+  public boolean requestLevelCache;
+
+  /** The number of vajram executions submitted to each executor before it is closed. */
+  @Param({"1", "10"})
+  public int executionsPerExecutor;
+
+  private VajramKryonGraph graph;
+  private Injector injector;
+
+  @Setup
+  public void setUp() {
+    injector = createInjector(new GuiceModule());
+    graph =
+        VajramKryonGraph.builder()
+            .loadFromPackage(Greeting.class.getPackageName())
+            .maxParallelismPerCore(1)
+            .build();
+    if (inputBatching) {
+      graph.registerInputBatchers(
+          vajramID(getVajramIdString(UserService.class)),
+          InputBatcherConfig.simple(() -> new InputBatcherImpl<>(100)));
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    graph.close();
+  }
+
+  @Benchmark
+  public void execute(Blackhole blackhole) throws Exception {
+    List<CompletableFuture<String>> results = new ArrayList<>(executionsPerExecutor);
+    try (KrystexVajramExecutor executor =
+        graph.createExecutor(
+            VajramBenchmarks.executorConfig(requestLevelCache)
+                .inputInjectionProvider(new VajramGuiceInjector(graph, injector))
+                .build())) {
+      for (int i = 0; i < executionsPerExecutor; i++) {
+        results.add(
+            executor.execute(
+                GREETING,
+                GreetingRequest.builder().userId("user_" + i).build(),
+                KryonExecutionConfig.builder().executionId("r" + i).build()));
+      }
+    }
+    for (CompletableFuture<String> result : results) {
+      blackhole.consume(result.get(10, SECONDS));
+    }
+  }
+
+  private static class GuiceModule extends AbstractModule {
+
+    @Provides
+    @Singleton
+    @Named("analytics_sink")
+    public AnalyticsEventSink provideAnalyticsEventSink() {
+      return new AnalyticsEventSink();
+    }
+
+    /** A logger which discards everything so that logging does not dominate the measurements. */
+    @Provides
+    @Singleton
+    public Logger providesLogger() {
+      return new Logger() {
+        @Override
+        public String getName() {
+          return "greetingBenchmarkLogger";
+        }
+
+        @Override
+        public boolean isLoggable(Level level) {
+          return false;
+        }
+
+        @Override
+        public void log(Level level, ResourceBundle bundle, String msg, Throwable thrown) {}
+
+        @Override
+        public void log(Level level, ResourceBundle bundle, String format, Object... params) {}
+      };
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package com.flipkart.krystal.benchmarks.vajram;
+
+import com.flipkart.krystal.krystex.caching.RequestLevelCache;
+import com.flipkart.krystal.krystex.kryon.KryonExecutorConfig;
+import com.flipkart.krystal.krystex.kryon.KryonExecutorConfig.KryonExecutorConfigBuilder;
+import com.flipkart.krystal.krystex.kryondecoration.KryonDecoratorConfig;
+import com.flipkart.krystal.vajramexecutor.krystex.KrystexVajramExecutorConfig;
+import com.flipkart.krystal.vajramexecutor.krystex.KrystexVajramExecutorConfig.KrystexVajramExecutorConfigBuilder;
+
+/** Utilities shared by the vajram benchmarks. */
+final class VajramBenchmarks {
+
+  /**
+   * Returns an executor config builder which optionally decorates all kryons with a new {@link
+   * RequestLevelCache}.
+   */
+  static KrystexVajramExecutorConfigBuilder executorConfig(boolean requestLevelCache) {
+    KryonExecutorConfigBuilder kryonExecutorConfig = KryonExecutorConfig.builder();
+    if (requestLevelCache) {
+      RequestLevelCache cache = new RequestLevelCache();
+      kryonExecutorConfig.requestScopedKryonDecoratorConfig(
+          RequestLevelCache.DECORATOR_TYPE,
+          new KryonDecoratorConfig(
+              RequestLevelCache.DECORATOR_TYPE,
+              executionContext -> true,
+              executionContext -> RequestLevelCache.DECORATOR_TYPE,
+              decoratorContext -> cache));
+    }
+    return KrystexVajramExecutorConfig.builder()
+        .requestId("benchmark")
+        .kryonExecutorConfigBuilder(kryonExecutorConfig);
+  }
+
+  private VajramBenchmarks() {}
+}
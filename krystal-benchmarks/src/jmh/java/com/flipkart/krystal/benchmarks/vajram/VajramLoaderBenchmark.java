@@ -0,0 +1,56 @@
+package com.flipkart.krystal.benchmarks.vajram;
+
+import static java.lang.reflect.Modifier.isFinal;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import com.flipkart.krystal.vajram.Vajram;
+import com.flipkart.krystal.vajram.VajramLoader;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.reflections.Reflections;
+
+/**
+ * Measures the startup cost of loading the sample vajrams: once from the vajram index generated by
+ * the vajram codegen, and once by scanning the classpath the way {@link VajramLoader} used to
+ * before the index existed. Each fork measures a single cold load in a fresh JVM, since that is
+ * what an application pays at startup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(MILLISECONDS)
+@Fork(10)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class VajramLoaderBenchmark {
+
+  private static final String SAMPLES_PACKAGE = "com.flipkart.krystal.vajram.samples";
+
+  @Benchmark
+  public List<? extends Vajram> loadFromIndex() {
+    return VajramLoader.loadVajramsFromIndex(SAMPLES_PACKAGE);
+  }
+
+  @Benchmark
+  public List<? extends Vajram> scanClasspath() {
+    return new Reflections(SAMPLES_PACKAGE)
+        .getSubTypesOf(Vajram.class).stream()
+            .filter(aClass -> isFinal(aClass.getModifiers()))
+            .map(
+                aClass -> {
+                  try {
+                    return aClass.getConstructor().newInstance();
+                  } catch (Throwable e) {
+                    throw new RuntimeException(e);
+                  }
+                })
+            .toList();
+  }
+}
@@ -4,6 +4,7 @@ import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
+import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
@@ -12,42 +13,38 @@ import org.checkerframework.checker.nullness.qual.Nullable;
  * also allows reactive frameworks to gracefully handle scenarios where a computation led to an
  * error because of which some value could not be computed.
  *
- * <p>Example states:
+ * <p>Possible states:
  *
  * <ul>
- *   <li>{@link #value()} is empty and {@link #error()} is empty - represents a null value.
- *   <li>{@link #value()} is empty and {@link #error()} is not empty - value could not be computed
- *       because of the given error.
- *   <li>{@link #value()} is not empty and {@link #error()} is empty - successfully computed the
- *       given value
- *   <li>{@link #value()} is not empty and {@link #error()} is not empty - this scenario is
- *       impossible.
+ *   <li>{@link Nil} - represents a null value. {@link #value()} and {@link #error()} are empty.
+ *   <li>{@link Failure} - value could not be computed because of the given error. {@link #value()}
+ *       is empty and {@link #error()} is not empty.
+ *   <li>{@link Success} - successfully computed the given value. {@link #value()} is not empty and
+ *       {@link #error()} is empty.
  * </ul>
+ *
+ * <p>Values and errors are stored directly, so creating an errable allocates at most one object
+ * ({@link Nil} is a singleton). {@link #value()} and {@link #error()} are retained for
+ * compatibility and wrap the contents in an {@link Optional} on every call. Performance sensitive
+ * code should prefer {@link #valueOrNull()} and {@link #errorOrNull()} which do not allocate.
  */
-public record Errable<T>(Optional<T> value, Optional<Throwable> error) implements FacetValue<T> {
-
-  private static final Errable<?> EMPTY = new Errable<>(Optional.empty(), Optional.empty());
-
-  public Errable {
-    if ((value.isPresent() && error.isPresent())) {
-      throw new IllegalArgumentException("Both of 'value' and 'error' cannot be present together");
-    }
-  }
+public sealed interface Errable<T> extends FacetValue<T>
+    permits Errable.Success, Errable.Failure, Errable.Nil {
 
-  public static <T> Errable<T> empty() {
+  static <T> Errable<T> empty() {
     //noinspection unchecked
-    return (Errable<T>) EMPTY;
+    return (Errable<T>) Nil.NIL;
   }
 
-  public static <T> Errable<T> withValue(@Nullable T t) {
+  static <T> Errable<T> withValue(@Nullable T t) {
     return errableFrom(t, null);
   }
 
-  public static <T> Errable<T> withError(Throwable t) {
-    return errableFrom(null, t);
+  static <T> Errable<T> withError(Throwable t) {
+    return new Failure<>(t);
   }
 
-  public static <T> Errable<T> errableFrom(Callable<@Nullable T> valueProvider) {
+  static <T> Errable<T> errableFrom(Callable<@Nullable T> valueProvider) {
     try {
       return withValue(valueProvider.call());
     } catch (Throwable e) {
@@ -55,16 +52,43 @@ public record Errable<T>(Optional<T> value, Optional<Throwable> error) implement
     }
   }
 
-  public static <S, T> Function<S, Errable<T>> computeErrableFrom(
+  static <S, T> Function<S, Errable<T>> computeErrableFrom(
       Function<S, @Nullable T> valueComputer) {
     return s -> errableFrom(() -> valueComputer.apply(s));
   }
 
-  public static <T> Errable<T> errableFrom(@Nullable Object value, @Nullable Throwable error) {
-    //noinspection unchecked,rawtypes
-    return new Errable<T>(
-        (value instanceof Optional o) ? o : (Optional<T>) Optional.ofNullable(value),
-        Optional.ofNullable(error));
+  static <T> Errable<T> errableFrom(@Nullable Object value, @Nullable Throwable error) {
+    if (value instanceof Optional<?> o) {
+      value = o.orElse(null);
+    }
+    if (error != null) {
+      if (value != null) {
+        throw new IllegalArgumentException(
+            "Both of 'value' and 'error' cannot be present together");
+      }
+      return new Failure<>(error);
+    } else if (value != null) {
+      //noinspection unchecked
+      return new Success<>((@NonNull T) value);
+    } else {
+      return empty();
+    }
+  }
+
+  /** The value if this is a {@link Success}, else null. Does not allocate. */
+  @Nullable T valueOrNull();
+
+  /** The error if this is a {@link Failure}, else null. Does not allocate. */
+  @Nullable Throwable errorOrNull();
+
+  /** The value if this is a {@link Success}. Prefer {@link #valueOrNull()} on hot paths. */
+  default Optional<T> value() {
+    return Optional.ofNullable(valueOrNull());
+  }
+
+  /** The error if this is a {@link Failure}. Prefer {@link #errorOrNull()} on hot paths. */
+  default Optional<Throwable> error() {
+    return Optional.ofNullable(errorOrNull());
   }
 
   /**
@@ -72,32 +96,83 @@ public record Errable<T>(Optional<T> value, Optional<Throwable> error) implement
    *     {@link #error()} if it is present, or completed normally with contents of {@link #value()}
    *     (or null if it is empty)
    */
-  public CompletableFuture<@Nullable T> toFuture() {
-    if (error().isPresent()) {
-      return CompletableFuture.failedFuture(error().get());
+  default CompletableFuture<@Nullable T> toFuture() {
+    Throwable error = errorOrNull();
+    if (error != null) {
+      return CompletableFuture.failedFuture(error);
     } else {
-      return CompletableFuture.completedFuture(value().orElse(null));
+      return CompletableFuture.completedFuture(valueOrNull());
     }
   }
 
-  public Optional<T> getValueOrThrow() {
-    Optional<Throwable> error = error();
-    if (error.isPresent()) {
-      if (error.get() instanceof RuntimeException e) {
+  default Optional<T> getValueOrThrow() {
+    Throwable error = errorOrNull();
+    if (error != null) {
+      if (error instanceof RuntimeException e) {
         throw e;
       } else {
-        throw new RuntimeException(error.get());
+        throw new RuntimeException(error);
       }
     }
     return value();
   }
 
-  @Override
-  public String toString() {
-    if (error.isPresent()) {
-      return error.toString();
-    } else {
-      return String.valueOf(value().orElse(null));
+  /** A successfully computed non-null value. */
+  record Success<T>(@NonNull T result) implements Errable<T> {
+
+    @Override
+    public T valueOrNull() {
+      return result;
+    }
+
+    @Override
+    public @Nullable Throwable errorOrNull() {
+      return null;
+    }
+
+    @Override
+    public String toString() {
+      return String.valueOf(result);
+    }
+  }
+
+  /** A value which could not be computed because of the given error. */
+  record Failure<T>(Throwable throwable) implements Errable<T> {
+
+    @Override
+    public @Nullable T valueOrNull() {
+      return null;
+    }
+
+    @Override
+    public Throwable errorOrNull() {
+      return throwable;
+    }
+
+    @Override
+    public String toString() {
+      return throwable.toString();
+    }
+  }
+
+  /** A null value with no error. */
+  record Nil<T>() implements Errable<T> {
+
+    private static final Nil<?> NIL = new Nil<>();
+
+    @Override
+    public @Nullable T valueOrNull() {
+      return null;
+    }
+
+    @Override
+    public @Nullable Throwable errorOrNull() {
+      return null;
+    }
+
+    @Override
+    public String toString() {
+      return "null";
     }
   }
 }
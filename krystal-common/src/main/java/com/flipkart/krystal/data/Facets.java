@@ -1,26 +1,68 @@
 package com.flipkart.krystal.data;
 
 import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
-import lombok.EqualsAndHashCode;
-import lombok.EqualsAndHashCode.CacheStrategy;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.checker.nullness.qual.PolyNull;
 
-@EqualsAndHashCode(callSuper = false, cacheStrategy = CacheStrategy.LAZY)
-public final class Facets {
+/**
+ * The facet values of a kryon execution.
+ *
+ * <p>Facets are either backed by a map, or - when created via {@link #builder(FacetsSchema)} - by a
+ * flat array indexed by the slots of a {@link FacetsSchema}. The latter avoids hashing and map
+ * allocation on the hot path. Both representations are interchangeable: {@link #values()} returns a
+ * map view in both cases, and {@link #equals(Object)} behaves as if the facets were always backed
+ * by a map.
+ *
+ * <p>Code which knows the schema of the facets upfront (like the code generated for vajrams) can
+ * read facet values by slot (for example, via {@link #getInputValue(FacetsSchema, int)}). Slots are
+ * read directly from the backing array when the facets were built with the same schema, and are
+ * resolved by name otherwise.
+ *
+ * <p>A 64-bit {@link #fingerprint()} of the facet values is computed lazily, the first time it (or
+ * {@link #hashCode()}) is needed, and cached. It is the same for both representations. Facets which
+ * are never used as keys never pay for hashing their values.
+ *
+ * <p>Array-backed facets can be subclassed by generated code which exposes the facet values as
+ * typed fields (see {@link FacetsFactory}). Subclasses only add accessors: equality, hashing and
+ * the map view are always those of the underlying facet values.
+ */
+public class Facets {
 
-  private final ImmutableMap<String, FacetValue<Object>> values;
+  private static final Facets EMPTY = new Facets(ImmutableMap.of());
+
+  private final @Nullable FacetsSchema schema;
+  private final @Nullable FacetValue<Object> @Nullable [] slotValues;
+  private @MonotonicNonNull ImmutableMap<String, FacetValue<Object>> values;
+
+  /** Valid only if {@link #fingerprintComputed} is true. */
+  private long fingerprint;
+
+  // Written after fingerprint, so that a thread which sees this as true also sees the fingerprint
+  private volatile boolean fingerprintComputed;
 
   public Facets(Map<String, FacetValue<Object>> values) {
+    this.schema = null;
+    this.slotValues = null;
     this.values = ImmutableMap.copyOf(values);
   }
 
-  private static final Facets EMPTY = new Facets(ImmutableMap.of());
+  protected Facets(FacetsSchema schema, @Nullable FacetValue<Object>[] slotValues) {
+    this.schema = schema;
+    this.slotValues = slotValues;
+  }
 
   public <T> Errable<T> getInputValue(String inputName) {
-    FacetValue<?> facetValue = values.getOrDefault(inputName, Errable.empty());
+    FacetValue<?> facetValue = get(inputName);
+    if (facetValue == null) {
+      return Errable.empty();
+    }
     if (facetValue instanceof Errable<?> voe) {
       //noinspection unchecked
       return (Errable<T>) voe;
@@ -44,7 +86,10 @@ public final class Facets {
   }
 
   public <T> Results<T> getDepValue(String inputName) {
-    FacetValue<?> facetValue = values.getOrDefault(inputName, Results.empty());
+    FacetValue<?> facetValue = get(inputName);
+    if (facetValue == null) {
+      return Results.empty();
+    }
     if (facetValue instanceof Results<?> voe) {
       //noinspection unchecked
       return (Results<T>) voe;
@@ -52,6 +97,121 @@ public final class Facets {
     throw new IllegalArgumentException("%s is not of type Results".formatted(inputName));
   }
 
+  /**
+   * Slot-indexed variant of {@link #getInputValue(String)}. If these facets are backed by the given
+   * schema, the value is read directly from the backing array, else it is looked up by name.
+   */
+  public <T> Errable<T> getInputValue(FacetsSchema schema, int slot) {
+    FacetValue<?> facetValue = get(schema, slot);
+    if (facetValue == null) {
+      return Errable.empty();
+    }
+    if (facetValue instanceof Errable<?> voe) {
+      //noinspection unchecked
+      return (Errable<T>) voe;
+    }
+    throw new IllegalArgumentException(
+        "%s is not of type Errable".formatted(schema.facetNameAt(slot)));
+  }
+
+  public <T> Optional<T> getInputValueOpt(FacetsSchema schema, int slot) {
+    return this.<T>getInputValue(schema, slot).value();
+  }
+
+  public <T> @NonNull T getInputValueOrThrow(FacetsSchema schema, int slot) {
+    Errable<@NonNull T> errable = this.getInputValue(schema, slot);
+    T value = errable.valueOrNull();
+    if (value == null) {
+      // Throws the error, if any
+      errable.getValueOrThrow();
+      throw new IllegalStateException(
+          "Could not find input value %s".formatted(schema.facetNameAt(slot)));
+    }
+    return value;
+  }
+
+  public <T> @PolyNull T getInputValueOrDefault(
+      FacetsSchema schema, int slot, @PolyNull T defaultValue) {
+    T value = this.<T>getInputValue(schema, slot).valueOrNull();
+    return value != null ? value : defaultValue;
+  }
+
+  /** Slot-indexed variant of {@link #getDepValue(String)}. */
+  public <T> Results<T> getDepValue(FacetsSchema schema, int slot) {
+    FacetValue<?> facetValue = get(schema, slot);
+    if (facetValue == null) {
+      return Results.empty();
+    }
+    if (facetValue instanceof Results<?> voe) {
+      //noinspection unchecked
+      return (Results<T>) voe;
+    }
+    throw new IllegalArgumentException(
+        "%s is not of type Results".formatted(schema.facetNameAt(slot)));
+  }
+
+  /**
+   * The value of a dependency which is not a fanout - i.e. the value of its only result - or null
+   * if the dependency has no value.
+   */
+  protected final <T> @Nullable T getSingleDepValueOrNull(FacetsSchema schema, int slot) {
+    Results<T> results = getDepValue(schema, slot);
+    return results.size() == 0 ? null : results.outcomeAt(0).valueOrNull();
+  }
+
+  /**
+   * The exception to be thrown when a mandatory facet has no value: the error because of which the
+   * facet could not be computed, if any.
+   */
+  protected final RuntimeException missingMandatoryFacet(FacetsSchema schema, int slot) {
+    @Nullable FacetValue<Object> facetValue = get(schema, slot);
+    @Nullable Throwable error = null;
+    if (facetValue instanceof Errable<Object> errable) {
+      error = errable.errorOrNull();
+    } else if (facetValue instanceof Results<Object> results && results.size() > 0) {
+      error = results.outcomeAt(0).errorOrNull();
+    }
+    if (error instanceof RuntimeException e) {
+      return e;
+    } else if (error != null) {
+      return new RuntimeException(error);
+    }
+    return new IllegalStateException(
+        "The mandatory facet %s has no value".formatted(schema.facetNameAt(slot)));
+  }
+
+  /**
+   * Creates facets of the given schema via the given factory, with those values of these facets
+   * which are part of the schema. Used to convert facets which were not built by the factory (for
+   * example, facets created by an output logic decorator) to the type created by the factory.
+   */
+  public final <F extends Facets> F toSchema(FacetsSchema schema, FacetsFactory<F> factory) {
+    //noinspection unchecked
+    @Nullable FacetValue<Object>[] slotValues = new FacetValue[schema.size()];
+    for (int slot = 0; slot < slotValues.length; slot++) {
+      slotValues[slot] = get(schema, slot);
+    }
+    return factory.create(schema, slotValues);
+  }
+
+  private @Nullable FacetValue<Object> get(FacetsSchema schema, int slot) {
+    @Nullable FacetValue<Object>[] slotValues = this.slotValues;
+    if (schema == this.schema && slotValues != null) {
+      return slotValues[slot];
+    }
+    return get(schema.facetNameAt(slot));
+  }
+
+  private @Nullable FacetValue<Object> get(String facetName) {
+    FacetsSchema schema = this.schema;
+    @Nullable FacetValue<Object>[] slotValues = this.slotValues;
+    if (schema != null && slotValues != null) {
+      int slot = schema.slotOf(facetName);
+      return slot < 0 ? null : slotValues[slot];
+    }
+    return values().get(facetName);
+  }
+
   public static Facets union(
       Map<String, ? extends FacetValue<Object>> inputs1,
       Map<String, ? extends FacetValue<Object>> inputs2) {
@@ -68,12 +228,162 @@ public final class Facets {
     return EMPTY;
   }
 
-  public ImmutableMap<String, FacetValue<Object>> values() {
+  public static Builder builder(FacetsSchema schema) {
+    return new Builder(schema, FacetsFactory.DEFAULT);
+  }
+
+  /**
+   * Returns a builder which creates the facets via the given factory - unless facets which are not
+   * part of the schema are set, in which case the map-backed representation is built.
+   */
+  public static Builder builder(FacetsSchema schema, FacetsFactory<?> factory) {
+    return new Builder(schema, factory);
+  }
+
+  /** A map view of these facets. For array-backed facets, this is created lazily and cached. */
+  public final ImmutableMap<String, FacetValue<Object>> values() {
+    ImmutableMap<String, FacetValue<Object>> values = this.values;
+    if (values == null) {
+      FacetsSchema schema = this.schema;
+      @Nullable FacetValue<Object>[] slotValues = this.slotValues;
+      if (schema == null || slotValues == null) {
+        throw new AssertionError("Facets must be either map-backed or array-backed");
+      }
+      ImmutableMap.Builder<String, FacetValue<Object>> builder =
+          ImmutableMap.builderWithExpectedSize(slotValues.length);
+      for (int slot = 0; slot < slotValues.length; slot++) {
+        FacetValue<Object> value = slotValues[slot];
+        if (value != null) {
+          builder.put(schema.facetNameAt(slot), value);
+        }
+      }
+      values = builder.build();
+      this.values = values;
+    }
     return values;
   }
 
   @Override
-  public String toString() {
+  public final boolean equals(@Nullable Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof Facets other)) {
+      return false;
+    }
+    if (fingerprintComputed && other.fingerprintComputed && fingerprint != other.fingerprint) {
+      // Cheap rejection - but fingerprints are never computed just for an equality check
+      return false;
+    }
+    if (schema != null && schema == other.schema) {
+      return Arrays.equals(slotValues, other.slotValues);
+    }
+    return values().equals(other.values());
+  }
+
+  @Override
+  public final int hashCode() {
+    return Long.hashCode(fingerprint());
+  }
+
+  /**
+   * A 64-bit hash of these facets which is independent of the order and representation of the
+   * facets. Equal facets always have equal fingerprints, so this can be used as a compact key for
+   * caches and deduplication within this process - along with a full equality check where
+   * collisions matter.
+   *
+   * <p>This is an in-process hash, not a stable id: values which are not strings, numbers, enums or
+   * facet containers are hashed using their {@link Object#hashCode()}, which may differ between JVM
+   * runs (for identity hash codes) and which goes stale if the value is mutated after the
+   * fingerprint is computed. The fingerprint is computed on first use and cached.
+   */
+  public final long fingerprint() {
+    if (fingerprintComputed) {
+      return fingerprint;
+    }
+    long fingerprint = 0;
+    FacetsSchema schema = this.schema;
+    @Nullable FacetValue<Object>[] slotValues = this.slotValues;
+    if (schema != null && slotValues != null) {
+      for (int slot = 0; slot < slotValues.length; slot++) {
+        FacetValue<Object> value = slotValues[slot];
+        if (value != null) {
+          fingerprint += Fingerprints.ofFacet(schema.facetNameFingerprintAt(slot), value);
+        }
+      }
+    } else {
+      for (Entry<String, FacetValue<Object>> entry : values().entrySet()) {
+        fingerprint += Fingerprints.ofFacet(Fingerprints.of(entry.getKey()), entry.getValue());
+      }
+    }
+    // Racing threads compute the same value, so it is fine if they overwrite each other
+    this.fingerprint = fingerprint;
+    this.fingerprintComputed = true;
+    return fingerprint;
+  }
+
+  @Override
+  public final String toString() {
     return values().toString();
   }
+
+  /**
+   * Builds array-backed {@link Facets}. Facets which are not part of the schema are supported, but
+   * fall back to the map-backed representation.
+   */
+  public static final class Builder {
+
+    private final FacetsSchema schema;
+    private final FacetsFactory<?> factory;
+    private final @Nullable FacetValue<Object>[] slotValues;
+    private @Nullable Map<String, FacetValue<Object>> unknownFacets;
+
+    private Builder(FacetsSchema schema, FacetsFactory<?> factory) {
+      this.schema = schema;
+      this.factory = factory;
+      //noinspection unchecked
+      this.slotValues = new FacetValue[schema.size()];
+    }
+
+    public Builder set(int slot, FacetValue<Object> value) {
+      slotValues[slot] = value;
+      return this;
+    }
+
+    public Builder set(String facetName, FacetValue<Object> value) {
+      int slot = schema.slotOf(facetName);
+      if (slot >= 0) {
+        slotValues[slot] = value;
+      } else {
+        Map<String, FacetValue<Object>> unknownFacets = this.unknownFacets;
+        if (unknownFacets == null) {
+          unknownFacets = new LinkedHashMap<>();
+          this.unknownFacets = unknownFacets;
+        }
+        unknownFacets.put(facetName, value);
+      }
+      return this;
+    }
+
+    public Builder setAll(Map<String, ? extends FacetValue<Object>> values) {
+      values.forEach(this::set);
+      return this;
+    }
+
+    public Facets build() {
+      Map<String, FacetValue<Object>> unknownFacets = this.unknownFacets;
+      if (unknownFacets == null) {
+        return factory.create(schema, slotValues.clone());
+      }
+      Map<String, FacetValue<Object>> allFacets = new LinkedHashMap<>();
+      for (int slot = 0; slot < slotValues.length; slot++) {
+        FacetValue<Object> value = slotValues[slot];
+        if (value != null) {
+          allFacets.put(schema.facetNameAt(slot), value);
+        }
+      }
+      allFacets.putAll(unknownFacets);
+      return new Facets(allFacets);
+    }
+  }
 }
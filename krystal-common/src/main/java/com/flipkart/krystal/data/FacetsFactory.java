@@ -0,0 +1,24 @@
+package com.flipkart.krystal.data;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Creates array-backed {@link Facets} from the facet values of a {@link FacetsSchema}. Allows code
+ * which knows the facets of a kryon upfront (like the code generated for vajrams) to have the kryon
+ * build a typed subclass of {@link Facets} instead of the generic one.
+ *
+ * @param <F> The type of facets created by this factory
+ */
+@FunctionalInterface
+public interface FacetsFactory<F extends Facets> {
+
+  /** Creates the generic array-backed {@link Facets}. */
+  FacetsFactory<Facets> DEFAULT = Facets::new;
+
+  /**
+   * @param schema the schema of the facet values
+   * @param slotValues the facet values indexed by their slot in the schema. The array is owned by
+   *     the created facets and must not be modified afterwards.
+   */
+  F create(FacetsSchema schema, @Nullable FacetValue<Object>[] slotValues);
+}
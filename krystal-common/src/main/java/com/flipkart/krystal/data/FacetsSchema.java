@@ -0,0 +1,70 @@
+package com.flipkart.krystal.data;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns a dense int slot to each facet of a kryon. A schema is computed once per kryon and is
+ * shared by all the {@link Facets} objects created for that kryon so that facet values can be
+ * stored in a flat array instead of a map.
+ */
+public final class FacetsSchema {
+
+  private static final Map<ImmutableList<String>, FacetsSchema> INTERNED =
+      new ConcurrentHashMap<>();
+
+  private final ImmutableList<String> facetNames;
+  private final ImmutableMap<String, Integer> slotsByName;
+  private final long[] facetNameFingerprints;
+
+  private FacetsSchema(ImmutableList<String> facetNames) {
+    this.facetNames = facetNames;
+    ImmutableMap.Builder<String, Integer> slotsByName =
+        ImmutableMap.builderWithExpectedSize(facetNames.size());
+    this.facetNameFingerprints = new long[facetNames.size()];
+    for (int slot = 0; slot < facetNames.size(); slot++) {
+      slotsByName.put(facetNames.get(slot), slot);
+      facetNameFingerprints[slot] = Fingerprints.of(facetNames.get(slot));
+    }
+    this.slotsByName = slotsByName.build();
+  }
+
+  /**
+   * Returns the schema of the given facet names. Schemas are interned, so all the callers which
+   * compute the schema of the same facet names in the same order share a single instance - which
+   * allows facets built by a kryon to be read by slot in code generated for the same facets.
+   */
+  public static FacetsSchema of(Collection<String> facetNames) {
+    return INTERNED.computeIfAbsent(ImmutableList.copyOf(facetNames), FacetsSchema::new);
+  }
+
+  /** Returns the slot of the given facet, or -1 if the facet is not part of this schema. */
+  public int slotOf(String facetName) {
+    Integer slot = slotsByName.get(facetName);
+    return slot != null ? slot : -1;
+  }
+
+  public String facetNameAt(int slot) {
+    return facetNames.get(slot);
+  }
+
+  long facetNameFingerprintAt(int slot) {
+    return facetNameFingerprints[slot];
+  }
+
+  public int size() {
+    return facetNames.size();
+  }
+
+  public ImmutableList<String> facetNames() {
+    return facetNames;
+  }
+
+  @Override
+  public String toString() {
+    return "FacetsSchema" + facetNames;
+  }
+}
@@ -0,0 +1,73 @@
+package com.flipkart.krystal.data;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Computes 64-bit fingerprints of facet values. Fingerprints are consistent with {@code equals}
+ * (equal objects have equal fingerprints), and are stable across JVM runs for strings, numbers,
+ * booleans, enums and the facet containers ({@link Facets}, {@link Errable}, {@link Results})
+ * composed of them. Other objects fall back to their {@link Object#hashCode()}, so their
+ * fingerprints are only as stable as their hash codes - identity hash codes differ between JVM
+ * runs. Fingerprints are therefore hashes for use within a process, not persistent ids.
+ *
+ * <p>The functions in this class are pure and thread safe.
+ */
+public final class Fingerprints {
+
+  private static final long NULL_FINGERPRINT = 0x9e3779b97f4a7c15L;
+  private static final long ERROR_SEED = 0xc2b2ae3d27d4eb4fL;
+
+  /** Returns the 64-bit fingerprint of the given value. */
+  public static long of(@Nullable Object value) {
+    if (value == null) {
+      return NULL_FINGERPRINT;
+    } else if (value instanceof Facets facets) {
+      return facets.fingerprint();
+    } else if (value instanceof Errable<?> errable) {
+      Throwable error = errable.errorOrNull();
+      return error != null ? mix(ERROR_SEED ^ of(error)) : of(errable.valueOrNull());
+    } else if (value instanceof Results<?> results) {
+      long fingerprint = 0;
+      for (int i = 0; i < results.size(); i++) {
+        fingerprint += mix(results.requestAt(i).fingerprint() * 31 + of(results.outcomeAt(i)));
+      }
+      return mix(fingerprint);
+    } else if (value instanceof CharSequence string) {
+      return of(string);
+    } else if (value instanceof Long || value instanceof Integer) {
+      return mix(((Number) value).longValue());
+    } else if (value instanceof Double d) {
+      return mix(Double.doubleToLongBits(d));
+    } else if (value instanceof Enum<?> e) {
+      return mix(of(e.getDeclaringClass().getName()) * 31 + of(e.name()));
+    }
+    return mix(value.hashCode());
+  }
+
+  /** Returns the 64-bit fingerprint of the contents of the given string (FNV-1a, then mixed). */
+  public static long of(CharSequence string) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < string.length(); i++) {
+      hash ^= string.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    return mix(hash);
+  }
+
+  /** The fingerprint of a single facet. The fingerprint of facets is the sum of these. */
+  static long ofFacet(long facetNameFingerprint, FacetValue<?> value) {
+    return mix(facetNameFingerprint * 31 + of(value));
+  }
+
+  /** The finalizer of MurmurHash3 - spreads every input bit over all the output bits. */
+  private static long mix(long hash) {
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+
+  private Fingerprints() {}
+}
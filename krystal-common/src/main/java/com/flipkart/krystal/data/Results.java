@@ -1,13 +1,137 @@
 package com.flipkart.krystal.data;
 
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+
 import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
-public record Results<T>(ImmutableMap<Facets, Errable<T>> values) implements FacetValue<T> {
+/**
+ * The outcomes of the executions of a dependency, keyed by the facets each execution was requested
+ * with.
+ *
+ * <p>The facets and outcomes are stored in parallel arrays, in insertion order. Multiple results
+ * can share the same arrays, each viewing its own slice (see {@link #ofSlice}) - this way the
+ * results of a fanout over N items, for all the requests of a batch, need just one pair of arrays.
+ * Code which only iterates over the outcomes (like resolvers and output logics) can use {@link
+ * #size()}, {@link #requestAt(int)}, {@link #outcomeAt(int)} and {@link #forEach(BiConsumer)}
+ * without ever hashing the facets. The map view returned by {@link #values()} is created lazily
+ * and cached.
+ */
+public final class Results<T> implements FacetValue<T> {
 
   private static final Results<?> EMPTY = new Results<>(ImmutableMap.of());
 
+  private final Facets[] requests;
+  private final Errable<T>[] outcomes;
+  private final int from;
+  private final int to;
+  private @MonotonicNonNull ImmutableMap<Facets, Errable<T>> values;
+
+  public Results(ImmutableMap<Facets, Errable<T>> values) {
+    this.requests = new Facets[values.size()];
+    //noinspection unchecked
+    this.outcomes = new Errable[values.size()];
+    int i = 0;
+    for (var entry : values.entrySet()) {
+      requests[i] = entry.getKey();
+      outcomes[i] = entry.getValue();
+      i++;
+    }
+    this.from = 0;
+    this.to = values.size();
+    this.values = values;
+  }
+
+  private Results(Facets[] requests, Errable<T>[] outcomes, int from, int to) {
+    this.requests = requests;
+    this.outcomes = outcomes;
+    this.from = from;
+    this.to = to;
+  }
+
+  /**
+   * Returns the results at indices [from, to) of the given parallel arrays. The arrays are not
+   * copied, so they must not be modified after this call. The facets in the slice must be
+   * distinct.
+   */
+  public static <T> Results<T> ofSlice(
+      Facets[] requests, Errable<T>[] outcomes, int from, int to) {
+    if (requests.length != outcomes.length) {
+      throw new IllegalArgumentException("requests and outcomes must be of the same length");
+    }
+    checkPositionIndexes(from, to, requests.length);
+    return new Results<>(requests, outcomes, from, to);
+  }
+
   public static <T> Results<T> empty() {
     //noinspection unchecked
     return (Results<T>) EMPTY;
   }
+
+  /** The number of dependency executions in these results. */
+  public int size() {
+    return to - from;
+  }
+
+  /** The facets with which the index-th dependency execution was requested. */
+  public Facets requestAt(int index) {
+    return requests[from + Objects.checkIndex(index, size())];
+  }
+
+  /** The outcome of the index-th dependency execution. */
+  public Errable<T> outcomeAt(int index) {
+    return outcomes[from + Objects.checkIndex(index, size())];
+  }
+
+  /** The outcomes of all the dependency executions, in insertion order. */
+  public List<Errable<T>> outcomes() {
+    return Collections.unmodifiableList(Arrays.asList(outcomes).subList(from, to));
+  }
+
+  /** Calls the given action for each dependency execution, in insertion order. */
+  public void forEach(BiConsumer<? super Facets, ? super Errable<T>> action) {
+    for (int i = from; i < to; i++) {
+      action.accept(requests[i], outcomes[i]);
+    }
+  }
+
+  /** A map view of these results. This is created lazily and cached. */
+  public ImmutableMap<Facets, Errable<T>> values() {
+    ImmutableMap<Facets, Errable<T>> values = this.values;
+    if (values == null) {
+      ImmutableMap.Builder<Facets, Errable<T>> builder =
+          ImmutableMap.builderWithExpectedSize(size());
+      forEach(builder::put);
+      values = builder.buildKeepingLast();
+      this.values = values;
+    }
+    return values;
+  }
+
+  @Override
+  public boolean equals(@Nullable Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof Results<?> other)) {
+      return false;
+    }
+    return values().equals(other.values());
+  }
+
+  @Override
+  public int hashCode() {
+    return values().hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return "Results[values=" + values() + ']';
+  }
 }
@@ -0,0 +1,118 @@
+package com.flipkart.krystal.executors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An {@link java.util.concurrent.ExecutorService} which runs the submitted tasks one at a time, in
+ * submission order, on a (potentially multi-threaded) backing executor. Consecutive tasks might
+ * run on different threads of the backing executor, but never concurrently, and each task
+ * happens-before the next one.
+ *
+ * <p>This is useful for giving each non-thread-safe consumer (like a KryonExecutor) its own
+ * "logical thread" without dedicating a platform thread to it. Shutting down this executor does
+ * not shut down the backing executor.
+ */
+public final class SerialExecutorService extends AbstractExecutorService {
+
+  private final Executor backingExecutor;
+  private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean drainScheduled = new AtomicBoolean();
+  private final CountDownLatch terminated = new CountDownLatch(1);
+  private volatile boolean shutdown;
+
+  public SerialExecutorService(Executor backingExecutor) {
+    this.backingExecutor = backingExecutor;
+  }
+
+  @Override
+  public void execute(Runnable task) {
+    if (shutdown) {
+      throw new RejectedExecutionException("SerialExecutorService has been shutdown");
+    }
+    tasks.add(task);
+    try {
+      scheduleDrainIfIdle();
+    } catch (RuntimeException e) {
+      // The task must not run later if the caller has been told that it was rejected
+      tasks.remove(task);
+      throw e;
+    }
+  }
+
+  private void scheduleDrainIfIdle() {
+    if (drainScheduled.compareAndSet(false, true)) {
+      try {
+        backingExecutor.execute(this::drain);
+      } catch (Throwable e) {
+        drainScheduled.set(false);
+        throw e;
+      }
+    }
+  }
+
+  private void drain() {
+    try {
+      Runnable task;
+      while ((task = tasks.poll()) != null) {
+        task.run();
+      }
+    } finally {
+      drainScheduled.set(false);
+      // A task might have been added after the last poll but before the flag was released.
+      if (!tasks.isEmpty()) {
+        scheduleDrainIfIdle();
+      } else {
+        terminateIfNeeded();
+      }
+    }
+  }
+
+  private void terminateIfNeeded() {
+    if (shutdown && tasks.isEmpty() && !drainScheduled.get()) {
+      terminated.countDown();
+    }
+  }
+
+  @Override
+  public void shutdown() {
+    this.shutdown = true;
+    terminateIfNeeded();
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    this.shutdown = true;
+    List<Runnable> pending = new ArrayList<>();
+    @Nullable Runnable task;
+    while ((task = tasks.poll()) != null) {
+      pending.add(task);
+    }
+    terminateIfNeeded();
+    return pending;
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return shutdown;
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return terminated.getCount() == 0;
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return terminated.await(timeout, unit);
+  }
+}
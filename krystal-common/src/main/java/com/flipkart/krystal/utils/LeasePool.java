@@ -0,0 +1,30 @@
+package com.flipkart.krystal.utils;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * A source of objects which are leased out to callers. How objects are shared between leases (if at
+ * all) is up to the implementation - see {@link MultiLeasePool}.
+ */
+public interface LeasePool<T extends @NonNull Object> extends AutoCloseable {
+
+  Lease<T> lease() throws LeaseUnavailableException;
+
+  @Override
+  void close();
+
+  /** Access to a leased object till the lease is closed. */
+  interface Lease<T extends @NonNull Object> extends AutoCloseable {
+
+    /**
+     * Returns the leased object.
+     *
+     * @throws IllegalStateException if the lease has already been closed
+     */
+    T get();
+
+    /** Releases the leased object. Closing an already closed lease is a no-op. */
+    @Override
+    void close();
+  }
+}
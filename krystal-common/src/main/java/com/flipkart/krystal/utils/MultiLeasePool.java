@@ -9,7 +9,7 @@ import java.util.function.Supplier;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-public class MultiLeasePool<T extends @NonNull Object> implements AutoCloseable {
+public class MultiLeasePool<T extends @NonNull Object> implements LeasePool<T> {
 
   private final Supplier<@NonNull T> creator;
   private final MultiLeasePolicy leasePolicy;
@@ -29,6 +29,7 @@ public class MultiLeasePool<T extends @NonNull Object> implements AutoCloseable
     this.destroyer = destroyer;
   }
 
+  @Override
   public final Lease<T> lease() throws LeaseUnavailableException {
     synchronized (this) {
       if (closed) {
@@ -166,7 +167,7 @@ public class MultiLeasePool<T extends @NonNull Object> implements AutoCloseable
     }
   }
 
-  public static final class Lease<T extends @NonNull Object> implements AutoCloseable {
+  public static final class Lease<T extends @NonNull Object> implements LeasePool.Lease<T> {
 
     private @Nullable PooledObject<T> pooledObject;
     private final Consumer<PooledObject<T>> giveback;
@@ -176,6 +177,7 @@ public class MultiLeasePool<T extends @NonNull Object> implements AutoCloseable
       this.giveback = giveback;
     }
 
+    @Override
     public T get() {
       if (pooledObject == null) {
         throw new IllegalStateException("Lease already released");
@@ -0,0 +1,116 @@
+package com.flipkart.krystal.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.flipkart.krystal.data.Errable.Failure;
+import com.flipkart.krystal.data.Errable.Nil;
+import com.flipkart.krystal.data.Errable.Success;
+import java.io.IOException;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+class ErrableTest {
+
+  @Test
+  void withValue_nonNullValue_success() {
+    Errable<String> errable = Errable.withValue("value");
+
+    assertThat(errable).isInstanceOf(Success.class);
+    assertThat(errable.valueOrNull()).isEqualTo("value");
+    assertThat(errable.errorOrNull()).isNull();
+    assertThat(errable.value()).isEqualTo(Optional.of("value"));
+    assertThat(errable.error()).isEqualTo(Optional.empty());
+    assertThat(errable.toString()).isEqualTo("value");
+  }
+
+  @Test
+  void withValue_null_nilSingleton() {
+    Errable<String> errable = Errable.withValue(null);
+
+    assertThat(errable).isInstanceOf(Nil.class);
+    assertThat(errable).isSameAs(Errable.empty());
+    assertThat(errable.valueOrNull()).isNull();
+    assertThat(errable.errorOrNull()).isNull();
+    assertThat(errable.toString()).isEqualTo("null");
+  }
+
+  @Test
+  void withError_failure() {
+    IOException error = new IOException("failed");
+    Errable<String> errable = Errable.withError(error);
+
+    assertThat(errable).isInstanceOf(Failure.class);
+    assertThat(errable.valueOrNull()).isNull();
+    assertThat(errable.errorOrNull()).isSameAs(error);
+    assertThat(errable.value()).isEqualTo(Optional.empty());
+    assertThat(errable.error()).isEqualTo(Optional.of(error));
+  }
+
+  @Test
+  void toString_failure_printsError() {
+    Errable<String> errable = Errable.withError(new IOException("failed"));
+
+    assertThat(errable.toString()).isEqualTo("java.io.IOException: failed");
+  }
+
+  @Test
+  void errableFrom_optionalValue_unwrapped() {
+    assertThat(Errable.errableFrom(Optional.of("value"), null))
+        .isEqualTo(Errable.withValue("value"));
+    assertThat(Errable.errableFrom(Optional.empty(), null)).isSameAs(Errable.empty());
+  }
+
+  @Test
+  void errableFrom_valueAndError_throwsException() {
+    assertThatThrownBy(() -> Errable.errableFrom("value", new IOException()))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void errableFrom_throwingCallable_failure() {
+    IllegalStateException error = new IllegalStateException();
+
+    Errable<String> errable =
+        Errable.errableFrom(
+            () -> {
+              throw error;
+            });
+
+    assertThat(errable.errorOrNull()).isSameAs(error);
+  }
+
+  @Test
+  void getValueOrThrow_checkedError_wrappedInRuntimeException() {
+    IOException error = new IOException("failed");
+
+    assertThatThrownBy(() -> Errable.withError(error).getValueOrThrow())
+        .isInstanceOf(RuntimeException.class)
+        .hasCauseInstanceOf(IOException.class);
+  }
+
+  @Test
+  void getValueOrThrow_runtimeError_rethrown() {
+    IllegalStateException error = new IllegalStateException("failed");
+
+    assertThatThrownBy(() -> Errable.withError(error).getValueOrThrow()).isSameAs(error);
+  }
+
+  @Test
+  void toFuture_failure_completedExceptionally() {
+    assertThat(Errable.withError(new IOException()).toFuture()).isCompletedExceptionally();
+    assertThat(Errable.withValue("value").toFuture()).isCompletedWithValue("value");
+    assertThat(Errable.empty().toFuture()).isCompletedWithValue(null);
+  }
+
+  @Test
+  void equals_sameContents_equal() {
+    IOException error = new IOException();
+
+    assertThat(Errable.withValue("value")).isEqualTo(Errable.withValue("value"));
+    assertThat(Errable.withValue("value").hashCode())
+        .isEqualTo(Errable.withValue("value").hashCode());
+    assertThat(Errable.<String>withError(error)).isEqualTo(Errable.withError(error));
+    assertThat(Errable.withValue("value")).isNotEqualTo(Errable.withValue("other"));
+  }
+}
@@ -0,0 +1,35 @@
+package com.flipkart.krystal.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class FacetsSchemaTest {
+
+  @Test
+  void of_sameFacetNamesInSameOrder_sameInstance() {
+    FacetsSchema schema = FacetsSchema.of(List.of("schemaTest_a", "schemaTest_b"));
+
+    assertThat(FacetsSchema.of(List.of("schemaTest_a", "schemaTest_b"))).isSameAs(schema);
+    assertThat(FacetsSchema.of(List.of("schemaTest_b", "schemaTest_a"))).isNotSameAs(schema);
+  }
+
+  @Test
+  void slotOf_facetsInDeclarationOrder() {
+    FacetsSchema schema = FacetsSchema.of(List.of("a", "b", "c"));
+
+    assertThat(schema.size()).isEqualTo(3);
+    assertThat(schema.slotOf("a")).isEqualTo(0);
+    assertThat(schema.slotOf("c")).isEqualTo(2);
+    assertThat(schema.facetNameAt(1)).isEqualTo("b");
+    assertThat(schema.facetNames()).containsExactly("a", "b", "c");
+  }
+
+  @Test
+  void slotOf_unknownFacet_minusOne() {
+    FacetsSchema schema = FacetsSchema.of(List.of("a"));
+
+    assertThat(schema.slotOf("unknown")).isEqualTo(-1);
+  }
+}
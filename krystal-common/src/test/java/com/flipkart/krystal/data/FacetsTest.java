@@ -0,0 +1,188 @@
+package com.flipkart.krystal.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.List;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.Test;
+
+class FacetsTest {
+
+  @Test
+  void fingerprint_notComputedUntilNeeded_computedOnceAndCached() {
+    HashCounter value = new HashCounter();
+    Facets facets = new Facets(ImmutableMap.of("input", Errable.withValue(value)));
+    Facets arrayBacked =
+        Facets.builder(FacetsSchema.of(List.of("input"))).set(0, Errable.withValue(value)).build();
+    assertThat(value.hashCodeCalls).isZero();
+
+    long fingerprint = facets.fingerprint();
+    assertThat(facets.fingerprint()).isEqualTo(fingerprint);
+    assertThat(facets.hashCode()).isEqualTo(Long.hashCode(fingerprint));
+    assertThat(value.hashCodeCalls).isEqualTo(1);
+
+    assertThat(arrayBacked.fingerprint()).isEqualTo(fingerprint);
+  }
+
+  @Test
+  void equals_doesNotComputeFingerprints() {
+    HashCounter value = new HashCounter();
+    Facets facets = new Facets(ImmutableMap.of("input", Errable.withValue(value)));
+    Facets other = new Facets(ImmutableMap.of("input", Errable.withValue(value)));
+
+    assertThat(facets).isEqualTo(other);
+    assertThat(value.hashCodeCalls).isZero();
+  }
+
+  @Test
+  void build_allFacetsInSchema_equalToMapBackedFacets() {
+    FacetsSchema schema = FacetsSchema.of(List.of("a", "b", "c"));
+    Facets arrayBacked =
+        Facets.builder(schema)
+            .set(0, Errable.withValue(1))
+            .set("b", Errable.withValue("two"))
+            .build();
+    Facets mapBacked =
+        new Facets(ImmutableMap.of("b", Errable.withValue("two"), "a", Errable.withValue(1)));
+
+    assertThat(arrayBacked).isEqualTo(mapBacked);
+    assertThat(mapBacked).isEqualTo(arrayBacked);
+    assertThat(arrayBacked.hashCode()).isEqualTo(mapBacked.hashCode());
+    assertThat(arrayBacked.fingerprint()).isEqualTo(mapBacked.fingerprint());
+    // Unset slots are not part of the map view
+    assertThat(arrayBacked.values())
+        .isEqualTo(ImmutableMap.of("a", Errable.withValue(1), "b", Errable.withValue("two")));
+  }
+
+  @Test
+  void build_facetNotInSchema_fallsBackToMapBackedFacets() {
+    FacetsSchema schema = FacetsSchema.of(List.of("a"));
+
+    Facets facets =
+        Facets.builder(schema)
+            .set("a", Errable.withValue(1))
+            .set("unknown", Errable.withValue(2))
+            .build();
+
+    assertThat(facets.getInputValue("unknown")).isEqualTo(Errable.withValue(2));
+    assertThat(facets.getInputValue(schema, 0)).isEqualTo(Errable.withValue(1));
+    assertThat(facets)
+        .isEqualTo(
+            new Facets(
+                ImmutableMap.of("a", Errable.withValue(1), "unknown", Errable.withValue(2))));
+  }
+
+  @Test
+  void build_builderReused_builtFacetsNotModified() {
+    Facets.Builder builder = Facets.builder(FacetsSchema.of(List.of("a")));
+    Facets facets = builder.set(0, Errable.withValue(1)).build();
+
+    builder.set(0, Errable.withValue(2));
+
+    assertThat(facets.getInputValue("a")).isEqualTo(Errable.withValue(1));
+  }
+
+  @Test
+  void getInputValue_slotOfOtherSchema_lookedUpByName() {
+    FacetsSchema schema = FacetsSchema.of(List.of("a", "b"));
+    FacetsSchema otherSchema = FacetsSchema.of(List.of("b", "a"));
+    Facets arrayBacked = Facets.builder(schema).set("b", Errable.withValue(2)).build();
+    Facets mapBacked = new Facets(ImmutableMap.of("b", Errable.withValue(2)));
+
+    assertThat(arrayBacked.getInputValue(otherSchema, 0)).isEqualTo(Errable.withValue(2));
+    assertThat(mapBacked.getInputValue(otherSchema, 0)).isEqualTo(Errable.withValue(2));
+    assertThat(arrayBacked.getInputValue(otherSchema, 1)).isSameAs(Errable.empty());
+  }
+
+  @Test
+  void getInputValueOrThrow_missingFacet_throwsException() {
+    FacetsSchema schema = FacetsSchema.of(List.of("a"));
+    Facets facets = Facets.builder(schema).build();
+
+    assertThatThrownBy(() -> facets.getInputValueOrThrow(schema, 0))
+        .isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> facets.getInputValueOrThrow("a"))
+        .isInstanceOf(IllegalStateException.class);
+    assertThat(facets.getInputValueOrDefault(schema, 0, "default")).isEqualTo("default");
+  }
+
+  @Test
+  void getDepValue_facetIsNotResults_throwsException() {
+    FacetsSchema schema = FacetsSchema.of(List.of("a"));
+    Facets facets = Facets.builder(schema).set(0, Errable.withValue(1)).build();
+
+    assertThatThrownBy(() -> facets.getDepValue(schema, 0))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThat(Facets.empty().getDepValue("a")).isSameAs(Results.empty());
+  }
+
+  @Test
+  void build_withFactory_createsFacetsOfFactory() {
+    FacetsSchema schema = FacetsSchema.of(List.of("a", "b"));
+
+    Facets facets =
+        Facets.builder(schema, TypedFacets::new)
+            .set("a", Errable.withValue(1))
+            .set("b", Errable.withError(new IllegalArgumentException("b failed")))
+            .build();
+
+    assertThat(facets).isInstanceOf(TypedFacets.class);
+    TypedFacets typedFacets = (TypedFacets) facets;
+    assertThat(typedFacets.a).isEqualTo(1);
+    assertThatThrownBy(typedFacets::b)
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("b failed");
+    // Typed facets are equal to the generic facets of the same values
+    Facets genericFacets = facets.toSchema(schema, FacetsFactory.DEFAULT);
+    assertThat(genericFacets).isNotInstanceOf(TypedFacets.class).isEqualTo(facets);
+    assertThat(genericFacets.hashCode()).isEqualTo(facets.hashCode());
+  }
+
+  @Test
+  void toSchema_mapBackedFacets_facetsOfSchemaCopied() {
+    FacetsSchema schema = FacetsSchema.of(List.of("a", "b"));
+    Facets facets =
+        new Facets(ImmutableMap.of("a", Errable.withValue(1), "unknown", Errable.withValue(2)));
+
+    TypedFacets typedFacets = facets.toSchema(schema, TypedFacets::new);
+
+    assertThat(typedFacets.a).isEqualTo(1);
+    assertThat(typedFacets.values()).isEqualTo(ImmutableMap.of("a", Errable.withValue(1)));
+    assertThatThrownBy(typedFacets::b)
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("The mandatory facet b has no value");
+  }
+
+  /** Similar to the facets classes generated for vajrams. */
+  private static final class TypedFacets extends Facets {
+    private static final FacetsSchema SCHEMA = FacetsSchema.of(List.of("a", "b"));
+
+    private final @Nullable Integer a;
+    private final @Nullable String b;
+
+    private TypedFacets(FacetsSchema schema, @Nullable FacetValue<Object>[] slotValues) {
+      super(schema, slotValues);
+      this.a = this.<Integer>getInputValue(SCHEMA, 0).valueOrNull();
+      this.b = this.<String>getInputValue(SCHEMA, 1).valueOrNull();
+    }
+
+    private String b() {
+      if (b == null) {
+        throw missingMandatoryFacet(SCHEMA, 1);
+      }
+      return b;
+    }
+  }
+
+  private static final class HashCounter {
+    private int hashCodeCalls;
+
+    @Override
+    public int hashCode() {
+      hashCodeCalls++;
+      return 42;
+    }
+  }
+}
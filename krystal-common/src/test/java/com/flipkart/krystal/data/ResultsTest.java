@@ -0,0 +1,90 @@
+package com.flipkart.krystal.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ResultsTest {
+
+  private Facets[] requests;
+  private Errable<String>[] outcomes;
+
+  @BeforeEach
+  void setUp() {
+    requests = new Facets[4];
+    //noinspection unchecked
+    outcomes = new Errable[4];
+    for (int i = 0; i < 4; i++) {
+      requests[i] = new Facets(ImmutableMap.of("input", Errable.withValue(i)));
+      outcomes[i] = Errable.withValue("outcome_" + i);
+    }
+  }
+
+  @Test
+  void ofSlice_viewsOnlyTheSlice() {
+    Results<String> results = Results.ofSlice(requests, outcomes, 1, 3);
+
+    assertThat(results.size()).isEqualTo(2);
+    assertThat(results.requestAt(0)).isSameAs(requests[1]);
+    assertThat(results.outcomeAt(1)).isSameAs(outcomes[2]);
+    assertThat(results.outcomes()).containsExactly(outcomes[1], outcomes[2]);
+    List<Facets> visited = new ArrayList<>();
+    results.forEach((request, outcome) -> visited.add(request));
+    assertThat(visited).containsExactly(requests[1], requests[2]);
+  }
+
+  @Test
+  void outcomeAt_indexOutsideSlice_throwsException() {
+    Results<String> results = Results.ofSlice(requests, outcomes, 1, 3);
+
+    assertThatThrownBy(() -> results.outcomeAt(2)).isInstanceOf(IndexOutOfBoundsException.class);
+    assertThatThrownBy(() -> results.requestAt(-1))
+        .isInstanceOf(IndexOutOfBoundsException.class);
+  }
+
+  @Test
+  void ofSlice_invalidArguments_throwsException() {
+    //noinspection unchecked
+    Errable<String>[] shortOutcomes = new Errable[3];
+
+    assertThatThrownBy(() -> Results.ofSlice(requests, shortOutcomes, 0, 3))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> Results.ofSlice(requests, outcomes, 3, 5))
+        .isInstanceOf(IndexOutOfBoundsException.class);
+  }
+
+  @Test
+  void values_computedLazilyAndCached() {
+    Results<String> results = Results.ofSlice(requests, outcomes, 0, 2);
+
+    ImmutableMap<Facets, Errable<String>> values = results.values();
+
+    assertThat(values)
+        .isEqualTo(ImmutableMap.of(requests[0], outcomes[0], requests[1], outcomes[1]));
+    assertThat(results.values()).isSameAs(values);
+  }
+
+  @Test
+  void equals_sliceAndMapWithSameContents_equal() {
+    Results<String> slice = Results.ofSlice(requests, outcomes, 2, 4);
+    Results<String> fromMap =
+        new Results<>(ImmutableMap.of(requests[2], outcomes[2], requests[3], outcomes[3]));
+
+    assertThat(slice).isEqualTo(fromMap);
+    assertThat(fromMap).isEqualTo(slice);
+    assertThat(slice.hashCode()).isEqualTo(fromMap.hashCode());
+    assertThat(slice).isNotEqualTo(Results.ofSlice(requests, outcomes, 1, 3));
+  }
+
+  @Test
+  void empty_noResults() {
+    assertThat(Results.empty().size()).isEqualTo(0);
+    assertThat(Results.empty().values()).isEmpty();
+    assertThat(Results.ofSlice(requests, outcomes, 2, 2)).isEqualTo(Results.empty());
+  }
+}
@@ -0,0 +1,141 @@
+package com.flipkart.krystal.executors;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SerialExecutorServiceTest {
+
+  private ExecutorService backingExecutor;
+
+  @BeforeEach
+  void setUp() {
+    backingExecutor = Executors.newFixedThreadPool(4);
+  }
+
+  @AfterEach
+  void tearDown() {
+    backingExecutor.shutdownNow();
+  }
+
+  @Test
+  void execute_multiThreadedBackingExecutor_runsTasksInOrderOneAtATime() throws Exception {
+    SerialExecutorService serialExecutor = new SerialExecutorService(backingExecutor);
+    List<Integer> executionOrder = new ArrayList<>();
+    AtomicInteger running = new AtomicInteger();
+    AtomicBoolean overlapped = new AtomicBoolean();
+    int taskCount = 10_000;
+    for (int i = 0; i < taskCount; i++) {
+      int taskId = i;
+      serialExecutor.execute(
+          () -> {
+            if (running.incrementAndGet() > 1) {
+              overlapped.set(true);
+            }
+            // Not thread safe - relies on each task happening-before the next one
+            executionOrder.add(taskId);
+            running.decrementAndGet();
+          });
+    }
+    serialExecutor.shutdown();
+
+    assertThat(serialExecutor.awaitTermination(5, SECONDS)).isTrue();
+    assertThat(overlapped.get()).isFalse();
+    assertThat(executionOrder).hasSize(taskCount);
+    for (int i = 0; i < taskCount; i++) {
+      assertThat(executionOrder.get(i)).isEqualTo(i);
+    }
+  }
+
+  @Test
+  void shutdown_pendingTasks_runBeforeTermination() throws Exception {
+    SerialExecutorService serialExecutor = new SerialExecutorService(backingExecutor);
+    CountDownLatch firstTaskBlocker = new CountDownLatch(1);
+    AtomicBoolean secondTaskRan = new AtomicBoolean();
+    serialExecutor.execute(
+        () -> {
+          try {
+            firstTaskBlocker.await();
+          } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+        });
+    serialExecutor.execute(() -> secondTaskRan.set(true));
+
+    serialExecutor.shutdown();
+    assertThat(serialExecutor.isShutdown()).isTrue();
+    assertThat(serialExecutor.isTerminated()).isFalse();
+
+    firstTaskBlocker.countDown();
+    assertThat(serialExecutor.awaitTermination(5, SECONDS)).isTrue();
+    assertThat(secondTaskRan.get()).isTrue();
+  }
+
+  @Test
+  void shutdown_idleExecutor_terminatesImmediately() {
+    SerialExecutorService serialExecutor = new SerialExecutorService(backingExecutor);
+
+    serialExecutor.shutdown();
+
+    assertThat(serialExecutor.isTerminated()).isTrue();
+  }
+
+  @Test
+  void execute_afterShutdown_isRejected() {
+    SerialExecutorService serialExecutor = new SerialExecutorService(backingExecutor);
+    serialExecutor.shutdown();
+
+    assertThatThrownBy(() -> serialExecutor.execute(() -> {}))
+        .isInstanceOf(RejectedExecutionException.class);
+  }
+
+  @Test
+  void shutdownNow_queuedTasks_areReturnedWithoutRunning() throws Exception {
+    SerialExecutorService serialExecutor = new SerialExecutorService(backingExecutor);
+    CountDownLatch firstTaskStarted = new CountDownLatch(1);
+    CountDownLatch firstTaskBlocker = new CountDownLatch(1);
+    AtomicBoolean queuedTaskRan = new AtomicBoolean();
+    serialExecutor.execute(
+        () -> {
+          firstTaskStarted.countDown();
+          try {
+            firstTaskBlocker.await();
+          } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+        });
+    Runnable queuedTask = () -> queuedTaskRan.set(true);
+    serialExecutor.execute(queuedTask);
+    assertThat(firstTaskStarted.await(5, SECONDS)).isTrue();
+
+    List<Runnable> pending = serialExecutor.shutdownNow();
+    firstTaskBlocker.countDown();
+
+    assertThat(pending).containsExactly(queuedTask);
+    assertThat(serialExecutor.awaitTermination(5, SECONDS)).isTrue();
+    assertThat(queuedTaskRan.get()).isFalse();
+  }
+
+  @Test
+  void execute_backingExecutorRejects_rethrowsAndDiscardsTask() {
+    ExecutorService rejectingExecutor = Executors.newSingleThreadExecutor();
+    rejectingExecutor.shutdown();
+    SerialExecutorService serialExecutor = new SerialExecutorService(rejectingExecutor);
+
+    assertThatThrownBy(() -> serialExecutor.execute(() -> {}))
+        .isInstanceOf(RejectedExecutionException.class);
+    assertThat(serialExecutor.shutdownNow()).isEmpty();
+  }
+}
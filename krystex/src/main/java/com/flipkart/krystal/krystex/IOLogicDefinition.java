@@ -1,6 +1,7 @@
 package com.flipkart.krystal.krystex;
 
 import com.flipkart.krystal.config.Tag;
+import com.flipkart.krystal.data.FacetsFactory;
 import com.flipkart.krystal.krystex.kryon.KryonLogicId;
 import com.google.common.collect.ImmutableMap;
 import java.util.Set;
@@ -12,6 +13,15 @@ public final class IOLogicDefinition<T> extends OutputLogicDefinition<T> {
       Set<String> inputs,
       OutputLogic<T> outputLogic,
       ImmutableMap<Object, Tag> logicTags) {
-    super(kryonLogicId, inputs, logicTags, outputLogic);
+    this(kryonLogicId, inputs, outputLogic, logicTags, FacetsFactory.DEFAULT);
+  }
+
+  public IOLogicDefinition(
+      KryonLogicId kryonLogicId,
+      Set<String> inputs,
+      OutputLogic<T> outputLogic,
+      ImmutableMap<Object, Tag> logicTags,
+      FacetsFactory<?> facetsFactory) {
+    super(kryonLogicId, inputs, logicTags, outputLogic, facetsFactory);
   }
 }
@@ -2,6 +2,7 @@ package com.flipkart.krystal.krystex;
 
 import com.flipkart.krystal.config.Tag;
 import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.data.FacetsFactory;
 import com.flipkart.krystal.krystex.kryon.DependantChain;
 import com.flipkart.krystal.krystex.kryon.KryonDefinition;
 import com.flipkart.krystal.krystex.kryon.KryonLogicId;
@@ -19,6 +20,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -27,12 +30,24 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 public abstract sealed class OutputLogicDefinition<T> extends LogicDefinition<OutputLogic<T>>
     permits IOLogicDefinition, ComputeLogicDefinition {
 
+  private final FacetsFactory<?> facetsFactory;
+
   protected OutputLogicDefinition(
       KryonLogicId kryonLogicId,
       Set<String> inputs,
       ImmutableMap<Object, Tag> logicTags,
-      OutputLogic<T> outputLogic) {
+      OutputLogic<T> outputLogic,
+      FacetsFactory<?> facetsFactory) {
     super(kryonLogicId, inputs, logicTags, outputLogic);
+    this.facetsFactory = facetsFactory;
+  }
+
+  /**
+   * Creates the facets with which kryons execute this logic. Decorators may still pass facets which
+   * were created differently, so the logic must accept any {@link Facets}.
+   */
+  public FacetsFactory<?> facetsFactory() {
+    return facetsFactory;
   }
 
   public final ImmutableMap<Facets, CompletableFuture<@Nullable T>> execute(
@@ -51,18 +66,54 @@ public abstract sealed class OutputLogicDefinition<T> extends LogicDefinition<Ou
   private final Map<String, Map<String, OutputLogicDecorator>> sessionScopedDecorators =
       new LinkedHashMap<>();
 
+  /**
+   * Session scoped decorators applicable to each dependant chain, along with the {@link
+   * #decoratorConfigsVersion} they were computed at. Entries of older versions are recomputed, so
+   * an entry computed concurrently with the registration of a config is never served afterwards.
+   */
+  private final Map<DependantChain, VersionedDecorators> sessionScopedDecoratorsByDependantChain =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Incremented every time a decorator config is registered with this logic. Allows callers to
+   * cache decorators computed from the configs and discard them only when the configs change.
+   */
+  private final AtomicInteger decoratorConfigsVersion = new AtomicInteger();
+
+  public int getDecoratorConfigsVersion() {
+    return decoratorConfigsVersion.get();
+  }
+
   public ImmutableMap<String, OutputLogicDecorator> getSessionScopedLogicDecorators(
       KryonDefinition kryonDefinition, DependantChain dependants) {
+    if (sessionScopedLogicDecoratorConfigs.isEmpty()) {
+      return ImmutableMap.of();
+    }
+    int configsVersion = decoratorConfigsVersion.get();
+    return sessionScopedDecoratorsByDependantChain
+        .compute(
+            dependants,
+            (_d, cached) ->
+                cached != null && cached.configsVersion() >= configsVersion
+                    ? cached
+                    : new VersionedDecorators(
+                        configsVersion,
+                        computeSessionScopedLogicDecorators(kryonDefinition, dependants)))
+        .decorators();
+  }
+
+  private ImmutableMap<String, OutputLogicDecorator> computeSessionScopedLogicDecorators(
+      KryonDefinition kryonDefinition, DependantChain dependants) {
     Map<String, OutputLogicDecorator> decorators = new LinkedHashMap<>();
+    LogicExecutionContext logicExecutionContext =
+        new LogicExecutionContext(
+            kryonDefinition.kryonId(),
+            logicTags(),
+            dependants,
+            kryonDefinition.kryonDefinitionRegistry());
     sessionScopedLogicDecoratorConfigs.forEach(
         (s, decoratorConfig) -> {
           try {
-            LogicExecutionContext logicExecutionContext =
-                new LogicExecutionContext(
-                    kryonDefinition.kryonId(),
-                    logicTags(),
-                    dependants,
-                    kryonDefinition.kryonDefinitionRegistry());
             String instanceId = decoratorConfig.instanceIdGenerator().apply(logicExecutionContext);
 
             if (decoratorConfig.shouldDecorate().test(logicExecutionContext)) {
@@ -99,6 +150,7 @@ public abstract sealed class OutputLogicDefinition<T> extends LogicDefinition<Ou
             .putAll(requestScopedLogicDecoratorConfigs)
             .putAll(getDecoratorConfigMap(decoratorConfigs))
             .build();
+    decoratorConfigsVersion.incrementAndGet();
   }
 
   private Map<String, List<OutputLogicDecoratorConfig>> getDecoratorConfigMap(
@@ -115,5 +167,13 @@ public abstract sealed class OutputLogicDefinition<T> extends LogicDefinition<Ou
 
   public void registerSessionScopedLogicDecorator(OutputLogicDecoratorConfig decoratorConfig) {
     sessionScopedLogicDecoratorConfigs.put(decoratorConfig.decoratorType(), decoratorConfig);
+    // Bumped before clearing so that decorators cached by kryons are discarded as soon as possible.
+    // Entries computed concurrently with the old configs are outdated by the version check even if
+    // they are added after the clear.
+    decoratorConfigsVersion.incrementAndGet();
+    sessionScopedDecoratorsByDependantChain.clear();
   }
+
+  private record VersionedDecorators(
+      int configsVersion, ImmutableMap<String, OutputLogicDecorator> decorators) {}
 }
@@ -0,0 +1,93 @@
+package com.flipkart.krystal.krystex;
+
+import com.flipkart.krystal.executors.SerialExecutorService;
+import com.flipkart.krystal.utils.LeasePool;
+import com.flipkart.krystal.utils.MultiLeasePool;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A pool which hands out a separate {@link SerialExecutorService} to every lease. All the serial
+ * executors share one elastic carrier executor, so there is no fixed budget of platform threads and
+ * leases are never unavailable.
+ *
+ * <p>When running on a JVM which supports virtual threads, the carrier executor creates one virtual
+ * thread per task. Otherwise, it falls back to a cached pool of daemon platform threads.
+ *
+ * <p>A serial executor owns no threads, so creating one is cheap. Hence, unlike {@link
+ * MultiLeasePool}, this pool does not keep track of the objects it has leased out: every lease gets
+ * a new serial executor, and released serial executors are left to the garbage collector once their
+ * pending tasks (if any) complete.
+ */
+@Slf4j
+public final class VirtualThreadExecutorPool implements LeasePool<ExecutorService> {
+
+  private final ExecutorService carrierExecutor;
+  private volatile boolean closed;
+
+  public VirtualThreadExecutorPool() {
+    this.carrierExecutor = newCarrierExecutor();
+  }
+
+  @Override
+  public Lease<ExecutorService> lease() {
+    if (closed) {
+      throw new IllegalStateException("VirtualThreadExecutorPool already closed");
+    }
+    return new SerialExecutorLease(new SerialExecutorService(carrierExecutor));
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    carrierExecutor.shutdown();
+  }
+
+  private static ExecutorService newCarrierExecutor() {
+    try {
+      //noinspection JavaReflectionMemberAccess: Available from JDK 21 onwards
+      return (ExecutorService)
+          Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException e) {
+      log.info(
+          "Virtual threads are not supported in this JVM. Falling back to a cached thread pool");
+      return new ThreadPoolExecutor(
+          0,
+          Integer.MAX_VALUE,
+          60,
+          TimeUnit.SECONDS,
+          new SynchronousQueue<>(),
+          new ThreadFactoryBuilder().setNameFormat("Krystal-Carrier-%s").setDaemon(true).build());
+    }
+  }
+
+  private static final class SerialExecutorLease implements Lease<ExecutorService> {
+
+    private @Nullable ExecutorService serialExecutor;
+
+    private SerialExecutorLease(ExecutorService serialExecutor) {
+      this.serialExecutor = serialExecutor;
+    }
+
+    @Override
+    public ExecutorService get() {
+      ExecutorService serialExecutor = this.serialExecutor;
+      if (serialExecutor == null) {
+        throw new IllegalStateException("Lease already released");
+      }
+      return serialExecutor;
+    }
+
+    @Override
+    public void close() {
+      // Tasks enqueued after the lease is released still run serially, so nothing is shut down
+      this.serialExecutor = null;
+    }
+  }
+}
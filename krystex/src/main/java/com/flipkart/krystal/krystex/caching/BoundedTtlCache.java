@@ -0,0 +1,321 @@
+package com.flipkart.krystal.krystex.caching;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A thread safe cache bounded by the total weight of its entries, where every entry expires after
+ * its own time-to-live.
+ *
+ * <p>Eviction follows the W-TinyLFU scheme: new entries are added to a small LRU "window". Entries
+ * evicted from the window are admitted into the LRU "main" region only if they have been accessed
+ * more frequently in the recent past (as estimated by a {@link FrequencySketch}) than the entries
+ * they would displace. This prevents one-off lookups from flushing out frequently accessed entries.
+ *
+ * <p>For concurrency, keys are partitioned into independent stripes by hash, each guarded by its
+ * own lock and bounded by an equal share of the max weight.
+ */
+final class BoundedTtlCache<K, V> {
+
+  private static final int WINDOW_PERCENT = 1;
+
+  private final List<Stripe> stripes;
+  private final int stripeMask;
+  private final LongSupplier nanoTicker;
+
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+  private final LongAdder evictionCount = new LongAdder();
+  private final LongAdder expirationCount = new LongAdder();
+  private final LongAdder rejectionCount = new LongAdder();
+
+  /** Creates a cache of entries which weigh 1 each. */
+  BoundedTtlCache(long maxEntries, int concurrencyLevel, LongSupplier nanoTicker) {
+    this(maxEntries, maxEntries, concurrencyLevel, nanoTicker);
+  }
+
+  /**
+   * @param maxWeight the maximum total weight of the entries
+   * @param expectedEntries the expected number of entries when the cache is full. This sizes the
+   *     frequency sketch of the admission policy, and must not be derived from {@code maxWeight}
+   *     when entries are weighed in, for example, bytes.
+   * @param concurrencyLevel the expected number of threads concurrently accessing the cache
+   * @param nanoTicker the source of time used to expire entries
+   */
+  BoundedTtlCache(
+      long maxWeight, long expectedEntries, int concurrencyLevel, LongSupplier nanoTicker) {
+    if (maxWeight <= 0) {
+      throw new IllegalArgumentException("maxWeight must be positive. Found " + maxWeight);
+    }
+    int stripeCount = 1;
+    while (stripeCount < concurrencyLevel && stripeCount * 2L <= maxWeight) {
+      stripeCount <<= 1;
+    }
+    List<Stripe> stripes = new ArrayList<>(stripeCount);
+    for (int i = 0; i < stripeCount; i++) {
+      stripes.add(new Stripe(maxWeight / stripeCount, expectedEntries / stripeCount));
+    }
+    this.stripes = stripes;
+    this.stripeMask = stripeCount - 1;
+    this.nanoTicker = nanoTicker;
+  }
+
+  @Nullable V get(K key) {
+    int hash = spread(key.hashCode());
+    Stripe stripe = stripes.get(hash & stripeMask);
+    stripe.lock.lock();
+    try {
+      stripe.sketch.increment(hash);
+      Node<V> node = stripe.nodes.get(key);
+      if (node == null) {
+        missCount.increment();
+        return null;
+      }
+      if (node.isExpired(nanoTicker.getAsLong())) {
+        stripe.remove(key, node);
+        expirationCount.increment();
+        missCount.increment();
+        return null;
+      }
+      // Record the access in the LRU order of the node's region
+      (node.inWindow ? stripe.window : stripe.main).get(key);
+      hitCount.increment();
+      return node.value;
+    } finally {
+      stripe.lock.unlock();
+    }
+  }
+
+  void put(K key, V value, long weight, long ttlNanos) {
+    int hash = spread(key.hashCode());
+    Stripe stripe = stripes.get(hash & stripeMask);
+    stripe.lock.lock();
+    try {
+      stripe.sketch.increment(hash);
+      Node<V> existing = stripe.nodes.get(key);
+      if (existing != null) {
+        stripe.remove(key, existing);
+      }
+      if (weight > stripe.maxWindowWeight + stripe.maxMainWeight) {
+        rejectionCount.increment();
+        return;
+      }
+      Node<V> node = new Node<>(value, weight, nanoTicker.getAsLong() + ttlNanos, true);
+      stripe.window.put(key, node);
+      stripe.nodes.put(key, node);
+      stripe.windowWeight += weight;
+      stripe.evictFromWindow();
+    } finally {
+      stripe.lock.unlock();
+    }
+  }
+
+  /** Removes the entry of the key if it is currently mapped to the given value. */
+  void remove(K key, V value) {
+    Stripe stripe = stripes.get(spread(key.hashCode()) & stripeMask);
+    stripe.lock.lock();
+    try {
+      Node<V> node = stripe.nodes.get(key);
+      if (node != null && node.value == value) {
+        stripe.remove(key, node);
+      }
+    } finally {
+      stripe.lock.unlock();
+    }
+  }
+
+  /**
+   * Updates the weight of the entry of the key if it is currently mapped to the given value, and
+   * evicts entries if needed. This allows weighing values which are computed after insertion.
+   */
+  void setWeight(K key, V value, long weight) {
+    Stripe stripe = stripes.get(spread(key.hashCode()) & stripeMask);
+    stripe.lock.lock();
+    try {
+      Node<V> node = stripe.nodes.get(key);
+      if (node == null || node.value != value) {
+        return;
+      }
+      if (weight > stripe.maxWindowWeight + stripe.maxMainWeight) {
+        stripe.remove(key, node);
+        rejectionCount.increment();
+        return;
+      }
+      long delta = weight - node.weight;
+      node.weight = weight;
+      if (node.inWindow) {
+        stripe.windowWeight += delta;
+        stripe.evictFromWindow();
+      } else {
+        stripe.mainWeight += delta;
+        stripe.evictMainOverflow();
+      }
+    } finally {
+      stripe.lock.unlock();
+    }
+  }
+
+  long weightedSize() {
+    long weightedSize = 0;
+    for (Stripe stripe : stripes) {
+      stripe.lock.lock();
+      try {
+        weightedSize += stripe.windowWeight + stripe.mainWeight;
+      } finally {
+        stripe.lock.unlock();
+      }
+    }
+    return weightedSize;
+  }
+
+  long hitCount() {
+    return hitCount.sum();
+  }
+
+  long missCount() {
+    return missCount.sum();
+  }
+
+  long evictionCount() {
+    return evictionCount.sum();
+  }
+
+  long expirationCount() {
+    return expirationCount.sum();
+  }
+
+  /** The number of entries which were not cached because they were heavier than a whole stripe. */
+  long rejectionCount() {
+    return rejectionCount.sum();
+  }
+
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+
+  private final class Stripe {
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** Access ordered - the first entry is the least recently used one. */
+    private final LinkedHashMap<K, Node<V>> window = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LinkedHashMap<K, Node<V>> main = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** All the nodes of this stripe - for lookups which must not affect the access order. */
+    private final Map<K, Node<V>> nodes = new HashMap<>();
+
+    private final FrequencySketch sketch;
+    private final long maxWindowWeight;
+    private final long maxMainWeight;
+    private long windowWeight;
+    private long mainWeight;
+
+    private Stripe(long maxWeight, long expectedEntries) {
+      long maxStripeWeight = Math.max(1, maxWeight);
+      this.maxWindowWeight = Math.max(1, maxStripeWeight * WINDOW_PERCENT / 100);
+      this.maxMainWeight = Math.max(1, maxStripeWeight - maxWindowWeight);
+      this.sketch = new FrequencySketch(expectedEntries);
+    }
+
+    private void remove(K key, Node<V> node) {
+      nodes.remove(key, node);
+      if (node.inWindow) {
+        if (window.remove(key, node)) {
+          windowWeight -= node.weight;
+        }
+      } else if (main.remove(key, node)) {
+        mainWeight -= node.weight;
+      }
+    }
+
+    private void evictFromWindow() {
+      while (windowWeight > maxWindowWeight && !window.isEmpty()) {
+        Iterator<Entry<K, Node<V>>> iterator = window.entrySet().iterator();
+        Entry<K, Node<V>> candidate = iterator.next();
+        iterator.remove();
+        windowWeight -= candidate.getValue().weight;
+        if (!admitToMain(candidate.getKey(), candidate.getValue())) {
+          nodes.remove(candidate.getKey(), candidate.getValue());
+        }
+      }
+    }
+
+    /** Returns false if the candidate was not admitted and has been evicted. */
+    private boolean admitToMain(K key, Node<V> candidate) {
+      long now = nanoTicker.getAsLong();
+      if (candidate.isExpired(now)) {
+        expirationCount.increment();
+        return false;
+      }
+      // Nothing is evicted from main till the candidate has won against all its victims
+      int candidateFrequency = sketch.frequency(spread(key.hashCode()));
+      List<Entry<K, Node<V>>> victims = new ArrayList<>();
+      long freedWeight = 0;
+      Iterator<Entry<K, Node<V>>> iterator = main.entrySet().iterator();
+      while (mainWeight - freedWeight + candidate.weight > maxMainWeight && iterator.hasNext()) {
+        Entry<K, Node<V>> victim = iterator.next();
+        if (!victim.getValue().isExpired(now)
+            && candidateFrequency <= sketch.frequency(spread(victim.getKey().hashCode()))) {
+          // The candidate is accessed less frequently than an entry it would displace.
+          evictionCount.increment();
+          return false;
+        }
+        victims.add(victim);
+        freedWeight += victim.getValue().weight;
+      }
+      for (Entry<K, Node<V>> victim : victims) {
+        if (victim.getValue().isExpired(now)) {
+          expirationCount.increment();
+        } else {
+          evictionCount.increment();
+        }
+        main.remove(victim.getKey(), victim.getValue());
+        nodes.remove(victim.getKey(), victim.getValue());
+        mainWeight -= victim.getValue().weight;
+      }
+      candidate.inWindow = false;
+      main.put(key, candidate);
+      mainWeight += candidate.weight;
+      return true;
+    }
+
+    private void evictMainOverflow() {
+      Iterator<Entry<K, Node<V>>> victims = main.entrySet().iterator();
+      while (mainWeight > maxMainWeight && victims.hasNext()) {
+        Entry<K, Node<V>> victim = victims.next();
+        victims.remove();
+        nodes.remove(victim.getKey(), victim.getValue());
+        mainWeight -= victim.getValue().weight;
+        evictionCount.increment();
+      }
+    }
+  }
+
+  private static final class Node<V> {
+    private final V value;
+    private final long expiresAtNanos;
+    private long weight;
+    private boolean inWindow;
+
+    private Node(V value, long weight, long expiresAtNanos, boolean inWindow) {
+      this.value = value;
+      this.weight = weight;
+      this.expiresAtNanos = expiresAtNanos;
+      this.inWindow = inWindow;
+    }
+
+    private boolean isExpired(long nowNanos) {
+      return nowNanos - expiresAtNanos >= 0;
+    }
+  }
+}
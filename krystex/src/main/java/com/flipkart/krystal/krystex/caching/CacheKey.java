@@ -3,4 +3,8 @@ package com.flipkart.krystal.krystex.caching;
 import com.flipkart.krystal.data.Facets;
 import com.flipkart.krystal.krystex.kryon.KryonId;
 
+/**
+ * The key of kryon results in caches and in-flight registries. Hashing and (unequal) comparisons
+ * are cheap since they rely on the cached {@link Facets#fingerprint()}.
+ */
 record CacheKey(KryonId kryonId, Facets facets) {}
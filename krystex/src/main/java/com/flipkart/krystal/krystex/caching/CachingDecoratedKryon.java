@@ -0,0 +1,169 @@
+package com.flipkart.krystal.krystex.caching;
+
+import static com.flipkart.krystal.utils.Futures.linkFutures;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.util.concurrent.CompletableFuture.allOf;
+
+import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.except.StackTracelessException;
+import com.flipkart.krystal.krystex.commands.Flush;
+import com.flipkart.krystal.krystex.commands.ForwardBatch;
+import com.flipkart.krystal.krystex.commands.ForwardGranule;
+import com.flipkart.krystal.krystex.commands.KryonCommand;
+import com.flipkart.krystal.krystex.kryon.BatchResponse;
+import com.flipkart.krystal.krystex.kryon.Kryon;
+import com.flipkart.krystal.krystex.kryon.KryonDefinition;
+import com.flipkart.krystal.krystex.kryon.KryonResponse;
+import com.flipkart.krystal.krystex.request.RequestId;
+import com.google.common.collect.ImmutableMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A kryon which serves the requests of a {@link ForwardBatch} from a {@link ResultCache} where
+ * possible, forwards only the cache misses to the decorated kryon, and stores the results of the
+ * cache misses in the cache.
+ */
+@Slf4j
+final class CachingDecoratedKryon implements Kryon<KryonCommand, KryonResponse> {
+
+  private static final Errable<Object> UNKNOWN_ERROR =
+      Errable.withError(new StackTracelessException("Unknown error in request cache"));
+
+  private final Kryon<KryonCommand, KryonResponse> kryon;
+  private final ResultCache cache;
+  private final String decoratorName;
+
+  CachingDecoratedKryon(
+      Kryon<KryonCommand, KryonResponse> kryon, ResultCache cache, String decoratorName) {
+    this.kryon = kryon;
+    this.cache = cache;
+    this.decoratorName = decoratorName;
+  }
+
+  @Override
+  public void executeCommand(Flush flushCommand) {
+    kryon.executeCommand(flushCommand);
+  }
+
+  @Override
+  public KryonDefinition getKryonDefinition() {
+    return kryon.getKryonDefinition();
+  }
+
+  @Override
+  public CompletableFuture<KryonResponse> executeCommand(KryonCommand kryonCommand) {
+    if (kryonCommand instanceof ForwardBatch forwardBatch) {
+      return readFromCache(kryon, forwardBatch);
+    } else if (kryonCommand instanceof ForwardGranule) {
+      var e =
+          new UnsupportedOperationException(
+              "%s does not support KryonExecStrategy GRANULAR. Please use BATCH instead"
+                  .formatted(decoratorName));
+      log.error("", e);
+      throw e;
+    }
+    return kryon.executeCommand(kryonCommand);
+  }
+
+  private CompletableFuture<KryonResponse> readFromCache(
+      Kryon<KryonCommand, KryonResponse> kryon, ForwardBatch forwardBatch) {
+    ImmutableMap<RequestId, Facets> executableRequests = forwardBatch.executableRequests();
+    Map<RequestId, Facets> cacheMisses = new LinkedHashMap<>();
+    Map<RequestId, CompletableFuture<@Nullable Object>> cacheHits = new LinkedHashMap<>();
+    executableRequests.forEach(
+        (requestId, facets) -> {
+          var cachedFuture =
+              cache.get(new CacheKey(kryon.getKryonDefinition().kryonId(), facets));
+          if (cachedFuture == null) {
+            cacheMisses.put(requestId, facets);
+          } else {
+            cacheHits.put(requestId, cachedFuture);
+          }
+        });
+    Map<RequestId, CompletableFuture<@Nullable Object>> newCacheEntries = new LinkedHashMap<>();
+    Map<RequestId, String> skippedRequests = new LinkedHashMap<>(forwardBatch.skippedRequests());
+    cacheHits.forEach(
+        (requestId, _f) -> skippedRequests.put(requestId, "Skipping due to cache hit!"));
+    CompletableFuture<KryonResponse> cacheMissesResponse =
+        kryon.executeCommand(
+            new ForwardBatch(
+                forwardBatch.kryonId(),
+                forwardBatch.inputNames(),
+                ImmutableMap.copyOf(cacheMisses),
+                forwardBatch.dependantChain(),
+                ImmutableMap.copyOf(skippedRequests)));
+    cacheMisses.forEach(
+        (requestId, facets) -> newCacheEntries.put(requestId, new CompletableFuture<>()));
+    newCacheEntries.forEach(
+        (requestId, cacheInsert) -> {
+          Facets facets = cacheMisses.get(requestId);
+          if (facets != null) {
+            cache.put(new CacheKey(kryon.getKryonDefinition().kryonId(), facets), cacheInsert);
+          } else {
+            var e =
+                new AssertionError(
+                    "This should not happen since requestId will definitely be there in the cacheMisses map");
+            log.error("", e);
+            throw e;
+          }
+        });
+
+    cacheMissesResponse.whenComplete(
+        (kryonResponse, throwable) -> {
+          if (kryonResponse instanceof BatchResponse batchResponse) {
+            ImmutableMap<RequestId, Errable<Object>> responses = batchResponse.responses();
+            responses.forEach(
+                (requestId, response) -> {
+                  CompletableFuture<@Nullable Object> future = response.toFuture();
+                  CompletableFuture<@Nullable Object> destinationFuture =
+                      newCacheEntries.computeIfAbsent(
+                          requestId, _r -> new CompletableFuture<@Nullable Object>());
+                  linkFutures(future, destinationFuture);
+                });
+          } else if (throwable != null) {
+            cacheMisses.forEach(
+                (requestId, response) -> {
+                  newCacheEntries
+                      .computeIfAbsent(requestId, _r -> new CompletableFuture<@Nullable Object>())
+                      .completeExceptionally(throwable);
+                });
+          } else {
+            RuntimeException e =
+                new RuntimeException("Exepecting BatchResponse. Found " + kryonResponse);
+            log.error("", e);
+            throw e;
+          }
+        });
+    CompletableFuture<KryonResponse> finalResponse = new CompletableFuture<>();
+    var allFutures =
+        Stream.concat(cacheHits.entrySet().stream(), newCacheEntries.entrySet().stream())
+            .toList();
+    var array = new CompletableFuture[allFutures.size()];
+    for (int i = 0; i < allFutures.size(); i++) {
+      array[i] = allFutures.get(i).getValue();
+    }
+    allOf(array)
+        .whenComplete(
+            (unused, throwable) -> {
+              finalResponse.complete(
+                  new BatchResponse(
+                      allFutures.stream()
+                          .collect(
+                              toImmutableMap(
+                                  Entry::getKey,
+                                  entry ->
+                                      entry
+                                          .getValue()
+                                          .handle(Errable::errableFrom)
+                                          .getNow(UNKNOWN_ERROR)))));
+            });
+    return finalResponse;
+  }
+}
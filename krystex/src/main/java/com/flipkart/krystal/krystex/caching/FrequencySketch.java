@@ -0,0 +1,66 @@
+package com.flipkart.krystal.krystex.caching;
+
+/**
+ * A count-min sketch estimating how often keys have been accessed recently - the "TinyLFU" part of
+ * the admission policy of {@link BoundedTtlCache}. Counters saturate at {@value #MAX_COUNT}, and
+ * all counters are halved once the number of increments reaches the sample size, so that the
+ * estimates reflect recent history rather than all time.
+ *
+ * <p>This class is not thread safe.
+ */
+final class FrequencySketch {
+
+  private static final int DEPTH = 4;
+  private static final int MAX_COUNT = 15;
+  private static final int MAX_WIDTH = 1 << 20;
+  private static final long[] SEEDS = {
+    0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+  };
+
+  private final int[] table;
+  private final int mask;
+  private final int sampleSize;
+  private int additions;
+
+  FrequencySketch(long expectedEntries) {
+    int width = Integer.highestOneBit((int) Math.min(MAX_WIDTH, Math.max(16, expectedEntries)));
+    this.table = new int[width * DEPTH];
+    this.mask = width - 1;
+    this.sampleSize = 10 * width;
+  }
+
+  void increment(int hash) {
+    boolean added = false;
+    for (int i = 0; i < DEPTH; i++) {
+      int index = indexOf(hash, i);
+      if (table[index] < MAX_COUNT) {
+        table[index]++;
+        added = true;
+      }
+    }
+    if (added && ++additions >= sampleSize) {
+      reset();
+    }
+  }
+
+  int frequency(int hash) {
+    int frequency = MAX_COUNT;
+    for (int i = 0; i < DEPTH; i++) {
+      frequency = Math.min(frequency, table[indexOf(hash, i)]);
+    }
+    return frequency;
+  }
+
+  private void reset() {
+    for (int i = 0; i < table.length; i++) {
+      table[i] >>>= 1;
+    }
+    additions >>>= 1;
+  }
+
+  private int indexOf(int hash, int row) {
+    long h = (hash + SEEDS[row]) * SEEDS[row];
+    h += h >>> 32;
+    return row * (mask + 1) + ((int) h & mask);
+  }
+}
@@ -0,0 +1,12 @@
+package com.flipkart.krystal.krystex.caching;
+
+import java.util.concurrent.CompletableFuture;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/** The storage used by {@link CachingDecoratedKryon} to look up and store kryon results. */
+interface ResultCache {
+
+  @Nullable CompletableFuture<@Nullable Object> get(CacheKey cacheKey);
+
+  void put(CacheKey cacheKey, CompletableFuture<@Nullable Object> result);
+}
@@ -0,0 +1,142 @@
+package com.flipkart.krystal.krystex.caching;
+
+import com.flipkart.krystal.krystex.commands.KryonCommand;
+import com.flipkart.krystal.krystex.kryon.Kryon;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.krystex.kryon.KryonResponse;
+import com.flipkart.krystal.krystex.kryondecoration.KryonDecorationInput;
+import com.flipkart.krystal.krystex.kryondecoration.KryonDecorator;
+import com.flipkart.krystal.krystex.kryondecoration.KryonDecoratorConfig;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A cache of kryon results which outlives a single request. Unlike {@link RequestLevelCache}, a
+ * single instance of this class is meant to be shared by all the executors of a session, so that a
+ * result computed in one request can be served to subsequent requests till it expires.
+ *
+ * <p>Only the kryons registered via {@link #cacheKryon(KryonId, Duration)} are cached, each with
+ * its own time-to-live. The cache is bounded by the total weight of its entries (as computed by the
+ * weigher once a result is available), and uses a frequency based admission policy so that rarely
+ * requested results do not evict frequently requested ones. Failed results are never cached.
+ *
+ * <p>Since cached results are shared across executors, a cached future may be completed by a thread
+ * of another executor. So only kryons whose dependants receive responses via the command queue (IO
+ * kryons) should be cached.
+ *
+ * <p>This class is thread safe.
+ */
+public final class SessionLevelCache implements KryonDecorator {
+
+  public static final String DECORATOR_TYPE = SessionLevelCache.class.getName();
+
+  private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+  private final BoundedTtlCache<CacheKey, CompletableFuture<@Nullable Object>> cache;
+  private final ToLongFunction<@Nullable Object> weigher;
+  private final Map<KryonId, Long> ttlNanosByKryonId = new ConcurrentHashMap<>();
+
+  private final ResultCache resultCache =
+      new ResultCache() {
+        @Override
+        public @Nullable CompletableFuture<@Nullable Object> get(CacheKey cacheKey) {
+          return cache.get(cacheKey);
+        }
+
+        @Override
+        public void put(CacheKey cacheKey, CompletableFuture<@Nullable Object> result) {
+          Long ttlNanos = ttlNanosByKryonId.get(cacheKey.kryonId());
+          if (ttlNanos == null) {
+            return;
+          }
+          // The weight of the result is not known till it is computed
+          cache.put(cacheKey, result, 1, ttlNanos);
+          result.whenComplete(
+              (value, throwable) -> {
+                if (throwable != null) {
+                  cache.remove(cacheKey, result);
+                } else {
+                  cache.setWeight(cacheKey, result, weigher.applyAsLong(value));
+                }
+              });
+        }
+      };
+
+  /** Creates a cache which can hold up to {@code maxEntries} results. */
+  public SessionLevelCache(long maxEntries) {
+    this(maxEntries, maxEntries, value -> 1, DEFAULT_CONCURRENCY_LEVEL, System::nanoTime);
+  }
+
+  /**
+   * @param maxWeight the maximum total weight of the cached results
+   * @param expectedEntries the expected number of cached results when the cache is full. The memory
+   *     used to track access frequencies is proportional to this.
+   * @param weigher computes the weight of a successfully computed result
+   * @param concurrencyLevel the expected number of threads concurrently accessing the cache
+   * @param nanoTicker the source of time used to expire entries
+   */
+  public SessionLevelCache(
+      long maxWeight,
+      long expectedEntries,
+      ToLongFunction<@Nullable Object> weigher,
+      int concurrencyLevel,
+      LongSupplier nanoTicker) {
+    this.cache = new BoundedTtlCache<>(maxWeight, expectedEntries, concurrencyLevel, nanoTicker);
+    this.weigher = weigher;
+  }
+
+  /** Enables caching of the results of the given kryon for the given duration. */
+  public void cacheKryon(KryonId kryonId, Duration ttl) {
+    if (ttl.isNegative() || ttl.isZero()) {
+      throw new IllegalArgumentException("ttl must be positive. Found " + ttl);
+    }
+    ttlNanosByKryonId.put(kryonId, ttl.toNanos());
+  }
+
+  /**
+   * Returns the config with which this cache can be registered as a request scoped kryon decorator
+   * in every executor of the session. Every executor uses this same instance.
+   */
+  public KryonDecoratorConfig decoratorConfig() {
+    return new KryonDecoratorConfig(
+        DECORATOR_TYPE,
+        executionContext -> ttlNanosByKryonId.containsKey(executionContext.kryonId()),
+        executionContext -> DECORATOR_TYPE,
+        decoratorContext -> this);
+  }
+
+  @Override
+  public Kryon<KryonCommand, KryonResponse> decorateKryon(KryonDecorationInput decorationInput) {
+    Kryon<KryonCommand, KryonResponse> kryon = decorationInput.kryon();
+    if (!ttlNanosByKryonId.containsKey(kryon.getKryonDefinition().kryonId())) {
+      return kryon;
+    }
+    return new CachingDecoratedKryon(kryon, resultCache, SessionLevelCache.class.getSimpleName());
+  }
+
+  public CacheStats stats() {
+    return new CacheStats(
+        cache.hitCount(),
+        cache.missCount(),
+        cache.evictionCount(),
+        cache.expirationCount(),
+        cache.rejectionCount(),
+        cache.weightedSize());
+  }
+
+  /**
+   * @param rejectionCount the number of results which were not cached because they were too heavy
+   */
+  public record CacheStats(
+      long hitCount,
+      long missCount,
+      long evictionCount,
+      long expirationCount,
+      long rejectionCount,
+      long weightedSize) {}
+}
@@ -0,0 +1,174 @@
+package com.flipkart.krystal.krystex.caching;
+
+import static com.flipkart.krystal.utils.Futures.linkFutures;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.util.concurrent.CompletableFuture.allOf;
+
+import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.except.StackTracelessException;
+import com.flipkart.krystal.krystex.commands.Flush;
+import com.flipkart.krystal.krystex.commands.ForwardBatch;
+import com.flipkart.krystal.krystex.commands.ForwardGranule;
+import com.flipkart.krystal.krystex.commands.KryonCommand;
+import com.flipkart.krystal.krystex.kryon.BatchResponse;
+import com.flipkart.krystal.krystex.kryon.Kryon;
+import com.flipkart.krystal.krystex.kryon.KryonDefinition;
+import com.flipkart.krystal.krystex.kryon.KryonExecutor;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.krystex.kryon.KryonResponse;
+import com.flipkart.krystal.krystex.request.RequestId;
+import com.google.common.collect.ImmutableMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A kryon which forwards only those requests of a {@link ForwardBatch} to the decorated kryon which
+ * are not already in flight (in any executor), and attaches the remaining requests to the in-flight
+ * executions.
+ */
+@Slf4j
+final class SingleFlightDecoratedKryon implements Kryon<KryonCommand, KryonResponse> {
+
+  private static final Errable<Object> UNKNOWN_ERROR =
+      Errable.withError(new StackTracelessException("Unknown error in single flight decorator"));
+
+  private final Kryon<KryonCommand, KryonResponse> kryon;
+  private final KryonExecutor kryonExecutor;
+  private final Map<CacheKey, CompletableFuture<@Nullable Object>> inFlight;
+  private final LongAdder deduplicatedCount;
+
+  SingleFlightDecoratedKryon(
+      Kryon<KryonCommand, KryonResponse> kryon,
+      KryonExecutor kryonExecutor,
+      Map<CacheKey, CompletableFuture<@Nullable Object>> inFlight,
+      LongAdder deduplicatedCount) {
+    this.kryon = kryon;
+    this.kryonExecutor = kryonExecutor;
+    this.inFlight = inFlight;
+    this.deduplicatedCount = deduplicatedCount;
+  }
+
+  @Override
+  public void executeCommand(Flush flushCommand) {
+    kryon.executeCommand(flushCommand);
+  }
+
+  @Override
+  public KryonDefinition getKryonDefinition() {
+    return kryon.getKryonDefinition();
+  }
+
+  @Override
+  public CompletableFuture<KryonResponse> executeCommand(KryonCommand kryonCommand) {
+    if (kryonCommand instanceof ForwardBatch forwardBatch) {
+      return executeOrAttach(forwardBatch);
+    } else if (kryonCommand instanceof ForwardGranule) {
+      var e =
+          new UnsupportedOperationException(
+              "%s does not support KryonExecStrategy GRANULAR. Please use BATCH instead"
+                  .formatted(SingleFlightDecorator.class.getSimpleName()));
+      log.error("", e);
+      throw e;
+    }
+    return kryon.executeCommand(kryonCommand);
+  }
+
+  private CompletableFuture<KryonResponse> executeOrAttach(ForwardBatch forwardBatch) {
+    KryonId kryonId = kryon.getKryonDefinition().kryonId();
+    Map<RequestId, Facets> executions = new LinkedHashMap<>();
+    Map<RequestId, CompletableFuture<@Nullable Object>> executionFutures = new LinkedHashMap<>();
+    Map<RequestId, CompletableFuture<@Nullable Object>> attachedFutures = new LinkedHashMap<>();
+    forwardBatch
+        .executableRequests()
+        .forEach(
+            (requestId, facets) -> {
+              CacheKey key = new CacheKey(kryonId, facets);
+              CompletableFuture<@Nullable Object> future = new CompletableFuture<>();
+              CompletableFuture<@Nullable Object> inFlightFuture =
+                  inFlight.putIfAbsent(key, future);
+              if (inFlightFuture == null) {
+                executions.put(requestId, facets);
+                executionFutures.put(requestId, future);
+                future.whenComplete((_r, _t) -> inFlight.remove(key, future));
+              } else {
+                attachedFutures.put(requestId, inFlightFuture);
+                deduplicatedCount.increment();
+              }
+            });
+    Map<RequestId, String> skippedRequests = new LinkedHashMap<>(forwardBatch.skippedRequests());
+    attachedFutures.forEach(
+        (requestId, _f) ->
+            skippedRequests.put(requestId, "Skipping since an identical call is in flight"));
+    CompletableFuture<KryonResponse> kryonResponseFuture;
+    try {
+      kryonResponseFuture =
+          kryon.executeCommand(
+              new ForwardBatch(
+                  forwardBatch.kryonId(),
+                  forwardBatch.inputNames(),
+                  ImmutableMap.copyOf(executions),
+                  forwardBatch.dependantChain(),
+                  ImmutableMap.copyOf(skippedRequests)));
+    } catch (Throwable e) {
+      // Otherwise the futures would stay in flight forever, and identical executions in other
+      // requests would attach to them and never complete
+      executionFutures.values().forEach(f -> f.completeExceptionally(e));
+      throw e;
+    }
+    kryonResponseFuture.whenComplete(
+        (kryonResponse, throwable) -> {
+          if (kryonResponse instanceof BatchResponse batchResponse) {
+            executionFutures.forEach(
+                (requestId, future) -> {
+                  Errable<Object> response = batchResponse.responses().get(requestId);
+                  if (response == null) {
+                    future.complete(null);
+                  } else {
+                    linkFutures(response.toFuture(), future);
+                  }
+                });
+          } else {
+            Throwable error =
+                throwable != null
+                    ? throwable
+                    : new RuntimeException("Exepecting BatchResponse. Found " + kryonResponse);
+            executionFutures.values().forEach(f -> f.completeExceptionally(error));
+          }
+        });
+
+    Map<RequestId, CompletableFuture<@Nullable Object>> allFutures = new LinkedHashMap<>();
+    allFutures.putAll(executionFutures);
+    allFutures.putAll(attachedFutures);
+    CompletableFuture<KryonResponse> finalResponse = new CompletableFuture<>();
+    allOf(allFutures.values().toArray(CompletableFuture[]::new))
+        .whenComplete(
+            (unused, throwable) -> {
+              Runnable respond =
+                  () ->
+                      finalResponse.complete(
+                          new BatchResponse(
+                              allFutures.entrySet().stream()
+                                  .collect(
+                                      toImmutableMap(
+                                          Entry::getKey,
+                                          entry ->
+                                              entry
+                                                  .getValue()
+                                                  .handle(Errable::errableFrom)
+                                                  .getNow(UNKNOWN_ERROR)))));
+              if (attachedFutures.isEmpty()) {
+                respond.run();
+              } else {
+                // Attached futures may have been completed by the thread of another executor
+                kryonExecutor.executeInCommandQueue(respond);
+              }
+            });
+    return finalResponse;
+  }
+}
@@ -0,0 +1,77 @@
+package com.flipkart.krystal.krystex.caching;
+
+import com.flipkart.krystal.krystex.commands.KryonCommand;
+import com.flipkart.krystal.krystex.kryon.Kryon;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.krystex.kryon.KryonResponse;
+import com.flipkart.krystal.krystex.kryondecoration.KryonDecorationInput;
+import com.flipkart.krystal.krystex.kryondecoration.KryonDecorator;
+import com.flipkart.krystal.krystex.kryondecoration.KryonDecoratorConfig;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Deduplicates concurrent executions of a kryon with identical facets across all the executors
+ * which share an instance of this decorator. While an execution is in flight, executions with the
+ * same facets in other requests attach to its result instead of executing the kryon again. Once the
+ * execution completes, it is forgotten - use a result cache (like {@link SessionLevelCache}) in
+ * addition to this decorator to reuse completed results.
+ *
+ * <p>When used along with a result cache, the cache should process commands before this decorator
+ * (as configured in the {@link
+ * com.flipkart.krystal.krystex.logicdecoration.LogicDecorationOrdering}), so that concurrent cache
+ * misses collapse to a single execution.
+ *
+ * <p>Attached executions receive their results in the command queue of their own executor. This
+ * class is thread safe.
+ */
+public final class SingleFlightDecorator implements KryonDecorator {
+
+  public static final String DECORATOR_TYPE = SingleFlightDecorator.class.getName();
+
+  private final Map<CacheKey, CompletableFuture<@Nullable Object>> inFlight =
+      new ConcurrentHashMap<>();
+  private final Set<KryonId> deduplicatedKryons = ConcurrentHashMap.newKeySet();
+  private final LongAdder deduplicatedCount = new LongAdder();
+
+  /** Enables deduplication of in-flight executions of the given kryon. */
+  public void deduplicateKryon(KryonId kryonId) {
+    deduplicatedKryons.add(kryonId);
+  }
+
+  /**
+   * Returns the config with which this decorator can be registered as a request scoped kryon
+   * decorator in every executor of the session. Every executor uses this same instance.
+   */
+  public KryonDecoratorConfig decoratorConfig() {
+    return new KryonDecoratorConfig(
+        DECORATOR_TYPE,
+        executionContext -> deduplicatedKryons.contains(executionContext.kryonId()),
+        executionContext -> DECORATOR_TYPE,
+        decoratorContext -> this);
+  }
+
+  @Override
+  public Kryon<KryonCommand, KryonResponse> decorateKryon(KryonDecorationInput decorationInput) {
+    Kryon<KryonCommand, KryonResponse> kryon = decorationInput.kryon();
+    if (!deduplicatedKryons.contains(kryon.getKryonDefinition().kryonId())) {
+      return kryon;
+    }
+    return new SingleFlightDecoratedKryon(
+        kryon, decorationInput.kryonExecutor(), inFlight, deduplicatedCount);
+  }
+
+  /** The number of executions which are currently in flight. */
+  public int inFlightCount() {
+    return inFlight.size();
+  }
+
+  /** The number of executions which attached to an in-flight execution instead of executing. */
+  public long deduplicatedCount() {
+    return deduplicatedCount.sum();
+  }
+}
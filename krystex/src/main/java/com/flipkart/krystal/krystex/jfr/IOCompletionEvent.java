@@ -0,0 +1,41 @@
+package com.flipkart.krystal.krystex.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Emitted when all the futures returned by the IO output logic of a kryon for a batch complete. The
+ * event starts when the output logic is invoked.
+ */
+@Name(IOCompletionEvent.NAME)
+@Label("IO Completion")
+@Category({"Krystal", "Kryon"})
+@Description("Completion of the futures returned by an IO output logic")
+@StackTrace(false)
+public final class IOCompletionEvent extends KrystalEvent {
+
+  public static final String NAME = "krystal.IOCompletion";
+
+  @Label("Batch Size")
+  public int batchSize;
+
+  @Label("Failed")
+  @Description("Whether any of the futures failed")
+  public boolean failed;
+
+  /**
+   * Returns true if this event is enabled in a running recording. Since this event outlives the
+   * call which begins it, it is not eliminated by the JIT - so it must be created only if enabled.
+   */
+  public static boolean enabled() {
+    return EventTypeHolder.EVENT_TYPE.isEnabled();
+  }
+
+  private static final class EventTypeHolder {
+    private static final EventType EVENT_TYPE = EventType.getEventType(IOCompletionEvent.class);
+  }
+}
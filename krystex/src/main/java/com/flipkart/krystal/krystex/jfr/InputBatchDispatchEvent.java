@@ -0,0 +1,44 @@
+package com.flipkart.krystal.krystex.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Emitted by input batching decorators for every batch they dispatch to the output logic. The
+ * event starts when the batch is dispatched and ends when all the results of the batch are
+ * available.
+ */
+@Name(InputBatchDispatchEvent.NAME)
+@Label("Input Batch Dispatch")
+@Category({"Krystal", "Batching"})
+@Description("Dispatch of a batch by an input batching decorator")
+@StackTrace(false)
+public final class InputBatchDispatchEvent extends KrystalEvent {
+
+  public static final String NAME = "krystal.InputBatchDispatch";
+
+  @Label("Decorator Instance Id")
+  public String decoratorId;
+
+  @Label("Batch Size")
+  public int batchSize;
+
+  @Label("Queue Wait")
+  @Description("The time the batch waited for an in-flight slot due to max_in_flight_batches")
+  @Timespan
+  public long queueWait;
+
+  /** Returns true if a running recording has enabled this event. */
+  public static boolean enabled() {
+    return EventTypeHolder.EVENT_TYPE.isEnabled();
+  }
+
+  private static final class EventTypeHolder {
+    private static final EventType EVENT_TYPE = EventType.getEventType(InputBatchDispatchEvent.class);
+  }
+}
@@ -0,0 +1,35 @@
+package com.flipkart.krystal.krystex.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Emitted for every command executed by a kryon executor. The duration of the event is the time
+ * for which the command occupied the thread of the executor, which includes the commands executed
+ * synchronously by the kryon in its dependencies.
+ */
+@Name(KryonCommandEvent.NAME)
+@Label("Kryon Command")
+@Category({"Krystal", "Kryon"})
+@Description("Execution of a command by a kryon")
+@StackTrace(false)
+public final class KryonCommandEvent extends KrystalEvent {
+
+  public static final String NAME = "krystal.KryonCommand";
+
+  @Label("Command")
+  public String command;
+
+  @Label("Batch Size")
+  @Description("The number of requests in the command")
+  public int batchSize;
+
+  @Label("Queue Wait")
+  @Description("The time the command waited in the command queue of the executor")
+  @Timespan
+  public long queueWait;
+}
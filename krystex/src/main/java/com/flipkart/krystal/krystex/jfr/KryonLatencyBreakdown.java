@@ -0,0 +1,39 @@
+package com.flipkart.krystal.krystex.jfr;
+
+import java.time.Duration;
+
+/**
+ * The latencies of a kryon (for vajrams, the kryon id is the vajram id) aggregated over all the
+ * krystal events in a flight recording. See {@link KrystalJfrAnalyzer}.
+ *
+ * @param kryonId The id of the kryon
+ * @param commandCount The number of commands executed by the kryon
+ * @param commandTime The total time for which the commands of the kryon occupied executor threads,
+ *     including the time of commands executed synchronously in its dependencies
+ * @param queueWait The total time the commands of the kryon waited in command queues
+ * @param outputLogicCount The number of times the output logic of the kryon was invoked
+ * @param outputLogicTime The total time spent synchronously in the output logic
+ * @param requestCount The total number of requests passed to the output logic across all batches
+ * @param ioCompletionTime The total time from invoking the IO output logic till its results were
+ *     available
+ * @param batchDispatchCount The number of batches dispatched by input batching decorators
+ * @param batchDispatchTime The total time from dispatching batches till their results were
+ *     available
+ */
+public record KryonLatencyBreakdown(
+    String kryonId,
+    long commandCount,
+    Duration commandTime,
+    Duration queueWait,
+    long outputLogicCount,
+    Duration outputLogicTime,
+    long requestCount,
+    Duration ioCompletionTime,
+    long batchDispatchCount,
+    Duration batchDispatchTime) {
+
+  /** The mean number of requests per invocation of the output logic. */
+  public double meanBatchSize() {
+    return outputLogicCount == 0 ? 0 : (double) requestCount / outputLogicCount;
+  }
+}
@@ -0,0 +1,22 @@
+package com.flipkart.krystal.krystex.jfr;
+
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * Base class of the JDK Flight Recorder events emitted by krystal. The events are recorded only
+ * while a flight recording is running (they are enabled by default in any recording, and can be
+ * disabled via its settings). Otherwise they cost next to nothing: event objects never escape, so
+ * the JIT eliminates their allocation, and callers populate the fields only if {@link
+ * #shouldCommit()} returns true. Events which do escape - into the callbacks of futures, for
+ * example - are created only if their static {@code enabled()} method returns true.
+ */
+public abstract sealed class KrystalEvent extends Event
+    permits KryonCommandEvent, OutputLogicEvent, IOCompletionEvent, InputBatchDispatchEvent {
+
+  @Label("Kryon Id")
+  public String kryonId;
+
+  @Label("Dependant Chain")
+  public String dependantChain;
+}
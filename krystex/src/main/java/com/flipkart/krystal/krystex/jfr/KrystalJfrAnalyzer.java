@@ -0,0 +1,143 @@
+package com.flipkart.krystal.krystex.jfr;
+
+import static java.util.Comparator.comparing;
+
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Turns a JDK Flight Recorder recording containing {@link KrystalEvent krystal events} into
+ * per-kryon latency breakdowns.
+ *
+ * <p>Usage: {@code java -cp <classpath> com.flipkart.krystal.krystex.jfr.KrystalJfrAnalyzer
+ * recording.jfr}
+ */
+public final class KrystalJfrAnalyzer {
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 1) {
+      System.err.println("Usage: KrystalJfrAnalyzer <recording.jfr>");
+      System.exit(1);
+    }
+    print(analyze(Path.of(args[0])), System.out);
+  }
+
+  /** Returns the latency breakdowns of all the kryons in the given recording, keyed by kryon id. */
+  public static ImmutableMap<String, KryonLatencyBreakdown> analyze(Path recording)
+      throws IOException {
+    Map<String, Accumulator> accumulators = new LinkedHashMap<>();
+    try (RecordingFile recordingFile = new RecordingFile(recording)) {
+      while (recordingFile.hasMoreEvents()) {
+        RecordedEvent event = recordingFile.readEvent();
+        String eventName = event.getEventType().getName();
+        if (!eventName.startsWith("krystal.")) {
+          continue;
+        }
+        String kryonId = event.getString("kryonId");
+        if (kryonId == null) {
+          continue;
+        }
+        Accumulator accumulator = accumulators.computeIfAbsent(kryonId, Accumulator::new);
+        switch (eventName) {
+          case KryonCommandEvent.NAME -> {
+            accumulator.commandCount++;
+            accumulator.commandTime = accumulator.commandTime.plus(event.getDuration());
+            accumulator.queueWait = accumulator.queueWait.plus(event.getDuration("queueWait"));
+          }
+          case OutputLogicEvent.NAME -> {
+            accumulator.outputLogicCount++;
+            accumulator.outputLogicTime = accumulator.outputLogicTime.plus(event.getDuration());
+            accumulator.requestCount += event.getInt("batchSize");
+          }
+          case IOCompletionEvent.NAME ->
+              accumulator.ioCompletionTime = accumulator.ioCompletionTime.plus(event.getDuration());
+          case InputBatchDispatchEvent.NAME -> {
+            accumulator.batchDispatchCount++;
+            accumulator.batchDispatchTime =
+                accumulator.batchDispatchTime.plus(event.getDuration());
+          }
+          default -> {}
+        }
+      }
+    }
+    ImmutableMap.Builder<String, KryonLatencyBreakdown> breakdowns =
+        ImmutableMap.builderWithExpectedSize(accumulators.size());
+    accumulators.forEach((kryonId, accumulator) -> breakdowns.put(kryonId, accumulator.build()));
+    return breakdowns.build();
+  }
+
+  /** Prints the given breakdowns as a table, in decreasing order of command time. */
+  public static void print(Map<String, KryonLatencyBreakdown> breakdowns, PrintStream out) {
+    String format = "%-40s %9s %12s %12s %9s %12s %10s %12s %12s%n";
+    out.printf(
+        format,
+        "Kryon",
+        "Commands",
+        "Cmd ms",
+        "Q-wait ms",
+        "Logic",
+        "Logic ms",
+        "Batch size",
+        "IO ms",
+        "Dispatch ms");
+    breakdowns.values().stream()
+        .sorted(comparing(KryonLatencyBreakdown::commandTime).reversed())
+        .forEach(
+            b ->
+                out.printf(
+                    format,
+                    b.kryonId(),
+                    b.commandCount(),
+                    millis(b.commandTime()),
+                    millis(b.queueWait()),
+                    b.outputLogicCount(),
+                    millis(b.outputLogicTime()),
+                    "%.1f".formatted(b.meanBatchSize()),
+                    millis(b.ioCompletionTime()),
+                    millis(b.batchDispatchTime())));
+  }
+
+  private static String millis(Duration duration) {
+    return "%.3f".formatted(duration.toNanos() / 1e6);
+  }
+
+  private static final class Accumulator {
+    private final String kryonId;
+    private long commandCount;
+    private Duration commandTime = Duration.ZERO;
+    private Duration queueWait = Duration.ZERO;
+    private long outputLogicCount;
+    private Duration outputLogicTime = Duration.ZERO;
+    private long requestCount;
+    private Duration ioCompletionTime = Duration.ZERO;
+    private long batchDispatchCount;
+    private Duration batchDispatchTime = Duration.ZERO;
+
+    private Accumulator(String kryonId) {
+      this.kryonId = kryonId;
+    }
+
+    private KryonLatencyBreakdown build() {
+      return new KryonLatencyBreakdown(
+          kryonId,
+          commandCount,
+          commandTime,
+          queueWait,
+          outputLogicCount,
+          outputLogicTime,
+          requestCount,
+          ioCompletionTime,
+          batchDispatchCount,
+          batchDispatchTime);
+    }
+  }
+
+  private KrystalJfrAnalyzer() {}
+}
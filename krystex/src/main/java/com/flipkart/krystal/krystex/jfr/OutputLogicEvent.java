@@ -0,0 +1,25 @@
+package com.flipkart.krystal.krystex.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Emitted when a batch kryon invokes its (decorated) output logic. The duration of the event is the
+ * synchronous part of the invocation. For IO logics, the time till the results are available is
+ * captured by {@link IOCompletionEvent}.
+ */
+@Name(OutputLogicEvent.NAME)
+@Label("Output Logic")
+@Category({"Krystal", "Kryon"})
+@Description("Invocation of the output logic of a kryon")
+@StackTrace(false)
+public final class OutputLogicEvent extends KrystalEvent {
+
+  public static final String NAME = "krystal.OutputLogic";
+
+  @Label("Batch Size")
+  public int batchSize;
+}
@@ -7,6 +7,7 @@ import com.flipkart.krystal.krystex.logicdecoration.LogicExecutionContext;
 import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecorator;
 import com.flipkart.krystal.krystex.request.RequestIdGenerator;
 import com.google.common.collect.ImmutableMap;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.NavigableSet;
@@ -28,6 +29,15 @@ abstract sealed class AbstractKryon<C extends KryonCommand, R extends KryonRespo
 
   protected final RequestIdGenerator requestIdGenerator;
 
+  /**
+   * Sorted output logic decorators per dependant chain. Discarded when the decorator configs of the
+   * output logic change.
+   */
+  private final Map<DependantChain, NavigableSet<OutputLogicDecorator>> sortedDecorators =
+      new LinkedHashMap<>();
+
+  private int sortedDecoratorsConfigVersion;
+
   AbstractKryon(
       KryonDefinition definition,
       KryonExecutor kryonExecutor,
@@ -44,6 +54,17 @@ abstract sealed class AbstractKryon<C extends KryonCommand, R extends KryonRespo
   }
 
   protected NavigableSet<OutputLogicDecorator> getSortedDecorators(DependantChain dependantChain) {
+    int decoratorConfigsVersion =
+        kryonDefinition.getOutputLogicDefinition().getDecoratorConfigsVersion();
+    if (decoratorConfigsVersion != sortedDecoratorsConfigVersion) {
+      sortedDecorators.clear();
+      sortedDecoratorsConfigVersion = decoratorConfigsVersion;
+    }
+    return sortedDecorators.computeIfAbsent(dependantChain, this::computeSortedDecorators);
+  }
+
+  private NavigableSet<OutputLogicDecorator> computeSortedDecorators(
+      DependantChain dependantChain) {
     OutputLogicDefinition<Object> outputLogicDefinition =
         kryonDefinition.getOutputLogicDefinition();
     Map<String, OutputLogicDecorator> decorators =
@@ -65,7 +86,7 @@ abstract sealed class AbstractKryon<C extends KryonCommand, R extends KryonRespo
                 // Reverse the ordering so that the ones with the highest index are applied first.
                 .reversed());
     sortedDecorators.addAll(decorators.values());
-    return sortedDecorators;
+    return Collections.unmodifiableNavigableSet(sortedDecorators);
   }
 
   @Override
@@ -0,0 +1,28 @@
+package com.flipkart.krystal.krystex.kryon;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.time.Duration;
+import lombok.Builder;
+
+/**
+ * Configures when an {@link AutoFlushingKryonExecutor} flushes the executions it has accumulated.
+ *
+ * @param lingerTime the maximum time an execution waits for other executions to join its batch.
+ * @param maxPendingExecutions the batch is flushed immediately once this many executions are
+ *     pending, even if the linger time has not elapsed.
+ */
+public record AutoFlushConfig(Duration lingerTime, int maxPendingExecutions) {
+
+  @Builder
+  public AutoFlushConfig {
+    if (lingerTime == null) {
+      lingerTime = Duration.ofMillis(2);
+    }
+    if (maxPendingExecutions == 0) {
+      maxPendingExecutions = 256;
+    }
+    checkArgument(!lingerTime.isNegative(), "lingerTime cannot be negative");
+    checkArgument(maxPendingExecutions > 0, "maxPendingExecutions must be positive");
+  }
+}
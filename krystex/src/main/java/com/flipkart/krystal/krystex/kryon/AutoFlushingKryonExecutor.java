@@ -0,0 +1,180 @@
+package com.flipkart.krystal.krystex.kryon;
+
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.KrystalExecutor;
+import com.flipkart.krystal.krystex.metrics.AggregatedKryonMetrics;
+import com.flipkart.krystal.utils.LeasePool;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A long-lived {@link KrystalExecutor} which can be shared by many concurrent callers (for example,
+ * all the http requests served by a server).
+ *
+ * <p>Executions are accumulated in a "window" - a regular {@link KryonExecutor} - which is flushed
+ * once {@link AutoFlushConfig#lingerTime()} has passed since the first execution in the window, or
+ * once {@link AutoFlushConfig#maxPendingExecutions()} executions are pending, whichever comes
+ * first. Since all executions of a window are flushed together, request scoped decorators (like
+ * input batchers) can batch calls across independent callers. A flushed window is dropped once all
+ * its executions complete, so that no per-request state outlives the request.
+ *
+ * <p>Each window is a new {@link KryonExecutor} rather than one executor which is flushed
+ * repeatedly: batch kryons hold the state of a batch per dependant chain, and the batches of
+ * consecutive windows overlap in time. All the windows share the command queue pool and record into
+ * the same {@link AggregatedKryonMetrics}, so opening a window mostly costs the creation of its
+ * kryons.
+ */
+public final class AutoFlushingKryonExecutor implements KrystalExecutor {
+
+  private static final ScheduledExecutorService FLUSH_TIMER =
+      newSingleThreadScheduledExecutor(
+          new ThreadFactoryBuilder().setNameFormat("Krystal-AutoFlush").setDaemon(true).build());
+
+  private final KryonDefinitionRegistry kryonDefinitionRegistry;
+  private final LeasePool<@NonNull ? extends ExecutorService> commandQueuePool;
+  private final KryonExecutorConfig executorConfig;
+  private final String instanceId;
+  private final AutoFlushConfig autoFlushConfig;
+  private final AggregatedKryonMetrics metrics;
+
+  /** Windows which have been flushed, but some of whose executions are not yet complete. */
+  private final Set<Window> flushedWindows = new LinkedHashSet<>();
+
+  private @Nullable Window currentWindow;
+  private long windowCount;
+  private boolean closed;
+
+  public AutoFlushingKryonExecutor(
+      KryonDefinitionRegistry kryonDefinitionRegistry,
+      LeasePool<@NonNull ? extends ExecutorService> commandQueuePool,
+      KryonExecutorConfig executorConfig,
+      String instanceId,
+      AutoFlushConfig autoFlushConfig) {
+    this.kryonDefinitionRegistry = kryonDefinitionRegistry;
+    this.commandQueuePool = commandQueuePool;
+    // Without this, every window would allocate its own latency histograms
+    this.metrics = executorConfig.metrics().orElseGet(AggregatedKryonMetrics::new);
+    this.executorConfig = executorConfig.toBuilder().metrics(Optional.of(metrics)).build();
+    this.instanceId = instanceId;
+    this.autoFlushConfig = autoFlushConfig;
+  }
+
+  @Override
+  public <T> CompletableFuture<@Nullable T> executeKryon(
+      KryonId kryonId, Facets facets, KryonExecutionConfig executionConfig) {
+    Window window;
+    CompletableFuture<@Nullable T> future;
+    synchronized (this) {
+      if (closed) {
+        throw new RejectedExecutionException("AutoFlushingKryonExecutor is already closed");
+      }
+      window = currentWindow;
+      if (window == null) {
+        window = openWindow();
+      }
+      // Submitting while holding the lock guarantees that the window is not flushed in between.
+      future = window.kryonExecutor.executeKryon(kryonId, facets, executionConfig);
+      window.submittedExecutions++;
+      if (window.submittedExecutions >= autoFlushConfig.maxPendingExecutions()) {
+        flush(window);
+      }
+    }
+    Window finalWindow = window;
+    future.whenComplete((_r, _t) -> onExecutionComplete(finalWindow));
+    return future;
+  }
+
+  /** The metrics recorded by all the windows of this executor. */
+  public AggregatedKryonMetrics getMetrics() {
+    return metrics;
+  }
+
+  private Window openWindow() {
+    Window window =
+        new Window(
+            windowCount,
+            new KryonExecutor(
+                kryonDefinitionRegistry,
+                commandQueuePool,
+                executorConfig,
+                "%s:%s".formatted(instanceId, windowCount)));
+    windowCount++;
+    currentWindow = window;
+    FLUSH_TIMER.schedule(
+        () -> flushIfCurrent(window), autoFlushConfig.lingerTime().toNanos(), TimeUnit.NANOSECONDS);
+    return window;
+  }
+
+  private synchronized void flushIfCurrent(Window window) {
+    if (window == currentWindow) {
+      flush(window);
+    }
+  }
+
+  /** Must be called while holding the lock on this object. */
+  private void flush(Window window) {
+    currentWindow = null;
+    flushedWindows.add(window);
+    window.kryonExecutor.close();
+    removeIfComplete(window);
+  }
+
+  private synchronized void onExecutionComplete(Window window) {
+    window.completedExecutions++;
+    removeIfComplete(window);
+  }
+
+  private void removeIfComplete(Window window) {
+    if (window.completedExecutions == window.submittedExecutions) {
+      flushedWindows.remove(window);
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    Window window = currentWindow;
+    if (window != null) {
+      flush(window);
+    }
+  }
+
+  @Override
+  public synchronized void shutdownNow() {
+    close();
+    for (Window window : flushedWindows) {
+      window.kryonExecutor.shutdownNow();
+    }
+  }
+
+  private static final class Window {
+    private final long id;
+    private final KryonExecutor kryonExecutor;
+    private int submittedExecutions;
+    private int completedExecutions;
+
+    private Window(long id, KryonExecutor kryonExecutor) {
+      this.id = id;
+      this.kryonExecutor = kryonExecutor;
+    }
+
+    @Override
+    public String toString() {
+      return "Window-" + id;
+    }
+  }
+}
@@ -12,13 +12,13 @@ import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static java.util.concurrent.CompletableFuture.allOf;
 import static java.util.concurrent.CompletableFuture.failedFuture;
 import static java.util.concurrent.TimeUnit.SECONDS;
-import static java.util.stream.Collectors.toMap;
 import static java.util.stream.Collectors.toSet;
 
 import com.flipkart.krystal.data.Errable;
 import com.flipkart.krystal.data.FacetValue;
 import com.flipkart.krystal.data.Facets;
 import com.flipkart.krystal.data.Results;
+import com.flipkart.krystal.krystex.IOLogicDefinition;
 import com.flipkart.krystal.krystex.LogicDefinition;
 import com.flipkart.krystal.krystex.OutputLogic;
 import com.flipkart.krystal.krystex.OutputLogicDefinition;
@@ -26,6 +26,8 @@ import com.flipkart.krystal.krystex.commands.BatchCommand;
 import com.flipkart.krystal.krystex.commands.CallbackBatch;
 import com.flipkart.krystal.krystex.commands.Flush;
 import com.flipkart.krystal.krystex.commands.ForwardBatch;
+import com.flipkart.krystal.krystex.jfr.IOCompletionEvent;
+import com.flipkart.krystal.krystex.jfr.OutputLogicEvent;
 import com.flipkart.krystal.krystex.logicdecoration.FlushCommand;
 import com.flipkart.krystal.krystex.logicdecoration.LogicDecorationOrdering;
 import com.flipkart.krystal.krystex.logicdecoration.LogicExecutionContext;
@@ -43,6 +45,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import com.google.common.collect.Sets.SetView;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -55,7 +58,6 @@ import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
-import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -101,13 +103,14 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
     flushedDependantChain.add(flushCommand.dependantChain());
     flushAllDependenciesIfNeeded(flushCommand.dependantChain());
     flushDecoratorsIfNeeded(flushCommand.dependantChain());
+    evictIfComplete(flushCommand.dependantChain());
   }
 
   @Override
   public CompletableFuture<BatchResponse> executeCommand(BatchCommand kryonCommand) {
     DependantChain dependantChain = kryonCommand.dependantChain();
     final CompletableFuture<BatchResponse> resultForDepChain =
-        resultsByDepChain.computeIfAbsent(dependantChain, r -> new CompletableFuture<>());
+        resultsByDepChain.computeIfAbsent(dependantChain, this::newResultFuture);
     try {
       if (kryonCommand instanceof ForwardBatch forwardBatch) {
         if (log.isDebugEnabled()) {
@@ -150,43 +153,54 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
     } catch (Throwable e) {
       resultForDepChain.completeExceptionally(e);
     }
+    evictIfComplete(dependantChain);
     return resultForDepChain;
   }
 
+  private CompletableFuture<BatchResponse> newResultFuture(DependantChain dependantChain) {
+    CompletableFuture<BatchResponse> resultForDepChain = new CompletableFuture<>();
+    kryonExecutor.getKryonMetrics().stateTracked();
+    resultForDepChain.whenComplete(
+        (_r, _t) -> kryonExecutor.executeInCommandQueue(() -> evictIfComplete(dependantChain)));
+    return resultForDepChain;
+  }
+
+  /**
+   * Drops all the state held for the given dependant chain once it is not needed anymore - i.e.
+   * once the result for the dependant chain is complete, the dependant chain has been flushed, and
+   * the responses of all the dependencies which were triggered have been received. After this, a
+   * new batch can be executed for the same dependant chain.
+   */
+  private void evictIfComplete(DependantChain dependantChain) {
+    CompletableFuture<BatchResponse> resultForDepChain = resultsByDepChain.get(dependantChain);
+    if (resultForDepChain == null
+        || !resultForDepChain.isDone()
+        || !flushedDependantChain.contains(dependantChain)
+        || !dependencyValuesCollector
+            .getOrDefault(dependantChain, Map.of())
+            .keySet()
+            .containsAll(executedDependencies.getOrDefault(dependantChain, Set.of()))) {
+      return;
+    }
+    availableInputsByDepChain.remove(dependantChain);
+    inputsValueCollector.remove(dependantChain);
+    dependencyValuesCollector.remove(dependantChain);
+    resultsByDepChain.remove(dependantChain);
+    executedDependencies.remove(dependantChain);
+    requestsByDependantChain.remove(dependantChain);
+    flushedDependantChain.remove(dependantChain);
+    outputLogicExecuted.remove(dependantChain);
+    kryonExecutor.getKryonMetrics().stateReleased();
+  }
+
   private Map<String, Set<ResolverDefinition>> getTriggerableDependencies(
       DependantChain dependantChain, Set<String> newInputNames) {
     Set<String> availableInputs = availableInputsByDepChain.getOrDefault(dependantChain, Set.of());
     Set<String> executedDeps = executedDependencies.getOrDefault(dependantChain, Set.of());
 
-    return Stream.concat(
-            Stream.concat(
-                    Stream.of(Optional.<String>empty()), newInputNames.stream().map(Optional::of))
-                .map(
-                    key ->
-                        kryonDefinition
-                            .resolverDefinitionsByInput()
-                            .getOrDefault(key, ImmutableSet.of()))
-                .flatMap(Collection::stream)
-                .map(ResolverDefinition::dependencyName),
-            kryonDefinition.dependenciesWithNoResolvers().stream())
-        .distinct()
-        .filter(depName -> !executedDeps.contains(depName))
-        .filter(
-            depName ->
-                kryonDefinition
-                    .resolverDefinitionsByDependencies()
-                    .getOrDefault(depName, ImmutableSet.of())
-                    .stream()
-                    .map(ResolverDefinition::boundFrom)
-                    .flatMap(Collection::stream)
-                    .allMatch(availableInputs::contains))
-        .collect(
-            toMap(
-                identity(),
-                depName ->
-                    kryonDefinition
-                        .resolverDefinitionsByDependencies()
-                        .getOrDefault(depName, ImmutableSet.of())));
+    return kryonDefinition
+        .dependencyTriggers()
+        .getTriggerableDependencies(newInputNames, availableInputs, executedDeps);
   }
 
   private void triggerDependencies(
@@ -298,9 +312,20 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
           """
               .formatted(depName, kryonId));
     }
-    Map<RequestId, Facets> inputsByDepReq = new LinkedHashMap<>();
-    Map<RequestId, String> skipReasonsByReq = new LinkedHashMap<>();
-    Map<RequestId, Set<RequestId>> depReqsByIncomingReq = new LinkedHashMap<>();
+    int incomingReqCount = 0;
+    for (Set<RequestId> incomingReqIds : resolverCommandsByReq.keySet()) {
+      incomingReqCount += incomingReqIds.size();
+    }
+    // The dependency requests, and the facets they are triggered with, are stored in parallel lists
+    // in the order they are created. The dependency requests of the i-th incoming request (in
+    // iteration order of resolverCommandsByReq) are at indices [depReqStarts[i], depReqEnds[i]).
+    List<RequestId> depReqIds = new ArrayList<>();
+    List<Facets> depReqFacets = new ArrayList<>();
+    int[] depReqStarts = new int[incomingReqCount];
+    int[] depReqEnds = new int[incomingReqCount];
+    ImmutableMap.Builder<RequestId, Facets> inputsByDepReq = ImmutableMap.builder();
+    ImmutableMap.Builder<RequestId, String> skipReasonsByReq = ImmutableMap.builder();
+    int incomingReqIndex = 0;
     for (var entry : resolverCommandsByReq.entrySet()) {
       Set<RequestId> incomingReqIds = entry.getKey();
       ResolverCommand resolverCommand = entry.getValue();
@@ -308,15 +333,19 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
         RequestId depReqId =
             requestIdGenerator.newSubRequest(
                 incomingReqIds.iterator().next(), () -> "%s[skip]".formatted(depName));
-        incomingReqIds.forEach(
-            incomingReqId ->
-                depReqsByIncomingReq
-                    .computeIfAbsent(incomingReqId, _k -> new LinkedHashSet<>())
-                    .add(depReqId));
+        int depReqIndex = depReqIds.size();
+        depReqIds.add(depReqId);
+        depReqFacets.add(Facets.empty());
+        for (int i = 0; i < incomingReqIds.size(); i++) {
+          depReqStarts[incomingReqIndex] = depReqIndex;
+          depReqEnds[incomingReqIndex] = depReqIndex + 1;
+          incomingReqIndex++;
+        }
         skipReasonsByReq.put(depReqId, skipDependency.reason());
       } else {
         int count = 0;
         for (RequestId incomingReqId : incomingReqIds) {
+          depReqStarts[incomingReqIndex] = depReqIds.size();
           if (resolverCommand.getInputs().isEmpty()) {
             RequestId depReqId =
                 requestIdGenerator.newSubRequest(
@@ -329,18 +358,20 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
               RequestId depReqId =
                   requestIdGenerator.newSubRequest(
                       incomingReqId, () -> "%s[%s]".formatted(depName, currentCount));
-              depReqsByIncomingReq
-                  .computeIfAbsent(incomingReqId, _k -> new LinkedHashSet<>())
-                  .add(depReqId);
+              depReqIds.add(depReqId);
+              depReqFacets.add(facets);
               inputsByDepReq.put(depReqId, facets);
             }
           }
+          depReqEnds[incomingReqIndex] = depReqIds.size();
+          incomingReqIndex++;
         }
       }
     }
     executedDependencies.computeIfAbsent(dependantChain, _k -> new LinkedHashSet<>()).add(depName);
+    ImmutableMap<RequestId, String> skipReasons = skipReasonsByReq.build();
     if (log.isDebugEnabled()) {
-      skipReasonsByReq.forEach(
+      skipReasons.forEach(
           (execId, reason) -> {
             log.debug(
                 "Exec Ids: {}. Dependency {} of {} will be skipped due to reason {}",
@@ -358,39 +389,41 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
                     .map(ResolverDefinition::resolvedInputNames)
                     .flatMap(Collection::stream)
                     .collect(toImmutableSet()),
-                ImmutableMap.copyOf(inputsByDepReq),
+                inputsByDepReq.build(),
                 dependantChain.extend(kryonId, depName),
-                ImmutableMap.copyOf(skipReasonsByReq)));
+                skipReasons));
 
+    int finalIncomingReqCount = incomingReqCount;
     depResponse.whenComplete(
         (batchResponse, throwable) -> {
-          Set<RequestId> requestIds =
-              resolverCommandsByReq.keySet().stream().flatMap(Collection::stream).collect(toSet());
-          ImmutableMap<RequestId, Results<Object>> results =
-              requestIds.stream()
-                  .collect(
-                      toImmutableMap(
-                          identity(),
-                          requestId -> {
-                            if (throwable != null) {
-                              return new Results<>(
-                                  ImmutableMap.of(Facets.empty(), withError(throwable)));
-                            } else {
-                              Set<RequestId> depReqIds =
-                                  depReqsByIncomingReq.getOrDefault(requestId, Set.of());
-                              return new Results<>(
-                                  depReqIds.stream()
-                                      .collect(
-                                          toImmutableMap(
-                                              depReqId ->
-                                                  inputsByDepReq.getOrDefault(
-                                                      depReqId, Facets.empty()),
-                                              depReqId ->
-                                                  batchResponse
-                                                      .responses()
-                                                      .getOrDefault(depReqId, empty()))));
-                            }
-                          }));
+          ImmutableMap.Builder<RequestId, Results<Object>> resultsBuilder =
+              ImmutableMap.builderWithExpectedSize(finalIncomingReqCount);
+          Facets[] depReqFacetsArray = depReqFacets.toArray(Facets[]::new);
+          //noinspection unchecked
+          Errable<Object>[] depOutcomes = new Errable[depReqIds.size()];
+          if (throwable == null) {
+            for (int i = 0; i < depOutcomes.length; i++) {
+              depOutcomes[i] = batchResponse.responses().getOrDefault(depReqIds.get(i), empty());
+            }
+          }
+          int index = 0;
+          for (Set<RequestId> incomingReqIds : resolverCommandsByReq.keySet()) {
+            for (RequestId incomingReqId : incomingReqIds) {
+              if (throwable != null) {
+                resultsBuilder.put(
+                    incomingReqId,
+                    new Results<>(ImmutableMap.of(Facets.empty(), withError(throwable))));
+              } else {
+                // All the results share these arrays, each viewing its own slice
+                resultsBuilder.put(
+                    incomingReqId,
+                    Results.ofSlice(
+                        depReqFacetsArray, depOutcomes, depReqStarts[index], depReqEnds[index]));
+              }
+              index++;
+            }
+          }
+          ImmutableMap<RequestId, Results<Object>> results = resultsBuilder.build();
 
           enqueueOrExecuteCommand(
               () -> new CallbackBatch(kryonId, depName, results, dependantChain),
@@ -421,6 +454,12 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
 
   private Optional<CompletableFuture<BatchResponse>> executeOutputLogicIfPossible(
       DependantChain dependantChain) {
+    if (outputLogicExecuted.getOrDefault(dependantChain, false)) {
+      // The response of a compute dependency can be delivered synchronously while this kryon is
+      // still executing the command which triggered the dependency. In that case the output logic
+      // has already been executed (and its result linked) by the nested command.
+      return Optional.empty();
+    }
     ForwardBatch forwardCommand = getForwardCommand(dependantChain);
     // If all the inputs and dependency values needed by the output logic are available, then
     // prepare to run outputLogic
@@ -450,23 +489,52 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
       outputLogicInputs.put(requestId, getFacetsForOutputLogic(dependantChain, requestId));
     }
     CompletableFuture<BatchResponse> resultForBatch = new CompletableFuture<>();
+    OutputLogicEvent outputLogicEvent = new OutputLogicEvent();
+    IOCompletionEvent ioCompletionEvent =
+        outputLogicDefinition instanceof IOLogicDefinition<?> && IOCompletionEvent.enabled()
+            ? new IOCompletionEvent()
+            : null;
+    outputLogicEvent.begin();
+    if (ioCompletionEvent != null) {
+      ioCompletionEvent.begin();
+    }
     Map<RequestId, CompletableFuture<Errable<Object>>> results =
         executeDecoratedOutputLogic(outputLogicDefinition, outputLogicInputs, dependantChain);
+    outputLogicEvent.end();
+    if (outputLogicEvent.shouldCommit()) {
+      outputLogicEvent.kryonId = kryonId.value();
+      outputLogicEvent.dependantChain = dependantChain.toString();
+      outputLogicEvent.batchSize = outputLogicInputs.size();
+      outputLogicEvent.commit();
+    }
 
-    allOf(results.values().toArray(CompletableFuture[]::new))
-        .whenComplete(
-            (unused, throwable) -> {
-              resultForBatch.complete(
-                  new BatchResponse(
-                      outputLogicInputs.keySet().stream()
-                          .collect(
-                              toImmutableMap(
-                                  identity(),
-                                  requestId ->
-                                      results
-                                          .getOrDefault(requestId, new CompletableFuture<>())
-                                          .getNow(empty())))));
-            });
+    CompletableFuture<Void> allResults = allOf(results.values().toArray(CompletableFuture[]::new));
+    if (ioCompletionEvent != null) {
+      allResults.whenComplete(
+          (unused, throwable) -> {
+            ioCompletionEvent.end();
+            if (ioCompletionEvent.shouldCommit()) {
+              ioCompletionEvent.kryonId = kryonId.value();
+              ioCompletionEvent.dependantChain = dependantChain.toString();
+              ioCompletionEvent.batchSize = outputLogicInputs.size();
+              ioCompletionEvent.failed = throwable != null;
+              ioCompletionEvent.commit();
+            }
+          });
+    }
+    allResults.whenComplete(
+        (unused, throwable) -> {
+          resultForBatch.complete(
+              new BatchResponse(
+                  outputLogicInputs.keySet().stream()
+                      .collect(
+                          toImmutableMap(
+                              identity(),
+                              requestId ->
+                                  results
+                                      .getOrDefault(requestId, new CompletableFuture<>())
+                                      .getNow(empty())))));
+        });
     outputLogicExecuted.put(dependantChain, true);
     flushDecoratorsIfNeeded(dependantChain);
     return resultForBatch;
@@ -550,21 +618,21 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
             .orElse(Facets.empty());
     Map<String, CallbackBatch> depValues =
         dependencyValuesCollector.getOrDefault(dependantChain, Map.of());
-    Map<String, FacetValue<Object>> inputValues = new LinkedHashMap<>();
+    Facets.Builder inputValues = Facets.builder(kryonDefinition.facetsSchema());
     for (String boundFromInput : boundFrom) {
       FacetValue<Object> voe = resolvableInputs.values().get(boundFromInput);
       if (voe == null) {
         CallbackBatch callbackBatch = depValues.get(boundFromInput);
         if (callbackBatch != null) {
-          inputValues.put(
+          inputValues.set(
               boundFromInput,
               callbackBatch.resultsByRequest().getOrDefault(requestId, Results.empty()));
         }
       } else {
-        inputValues.put(boundFromInput, voe);
+        inputValues.set(boundFromInput, voe);
       }
     }
-    return new Facets(inputValues);
+    return inputValues.build();
   }
 
   private OutputLogicFacets getFacetsForOutputLogic(
@@ -573,18 +641,20 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
     if (forwardBatch == null) {
       throw new AssertionError("Could not find forwardBatch. This is a bug.");
     }
-    ImmutableMap<String, Results<Object>> depValues =
-        dependencyValuesCollector
-            .getOrDefault(dependantChain, ImmutableMap.of())
-            .entrySet()
-            .stream()
-            .collect(
-                toImmutableMap(
-                    Entry::getKey,
-                    e -> e.getValue().resultsByRequest().getOrDefault(requestId, Results.empty())));
+    Facets.Builder allFacets =
+        Facets.builder(
+            kryonDefinition.facetsSchema(),
+            kryonDefinition.getOutputLogicDefinition().facetsFactory());
+    dependencyValuesCollector
+        .getOrDefault(dependantChain, ImmutableMap.of())
+        .forEach(
+            (depName, callbackBatch) ->
+                allFacets.set(
+                    depName,
+                    callbackBatch.resultsByRequest().getOrDefault(requestId, Results.empty())));
     Facets inputValues = forwardBatch.executableRequests().getOrDefault(requestId, Facets.empty());
-    Facets allFacets = Facets.union(depValues, inputValues.values());
-    return new OutputLogicFacets(inputValues, allFacets);
+    allFacets.setAll(inputValues.values());
+    return new OutputLogicFacets(inputValues, allFacets.build());
   }
 
   private void collectInputValues(ForwardBatch forwardBatch) {
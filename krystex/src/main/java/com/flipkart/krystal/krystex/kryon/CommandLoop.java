@@ -0,0 +1,133 @@
+package com.flipkart.krystal.krystex.kryon;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A single-consumer command loop which runs the commands submitted to it one at a time, in
+ * submission order, on a backing executor.
+ *
+ * <p>Producers (any thread) append commands to a lock-free multi-producer/single-consumer queue.
+ * The first producer which finds the loop idle schedules a drain task on the backing executor. The
+ * drain task runs up to {@link #DRAIN_BATCH_SIZE} commands and then either goes idle or
+ * re-schedules itself, so that other loops sharing the same backing thread are not starved. At most
+ * one drain task is active at any time, which gives {@link KryonExecutor} the same single-threaded
+ * guarantee it gets from a single-threaded executor service, without allocating a task wrapper per
+ * command or contending on the backing executor's submission queue for every command.
+ */
+@Slf4j
+final class CommandLoop implements Executor {
+
+  static final int DRAIN_BATCH_SIZE = 1024;
+
+  private final Executor backingExecutor;
+  private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+  /** Producers swap themselves in here. */
+  private final AtomicReference<Node> tail;
+
+  /** Only accessed by the (single) draining thread. */
+  private Node head;
+
+  CommandLoop(Executor backingExecutor) {
+    this.backingExecutor = backingExecutor;
+    Node stub = new Node(null);
+    this.head = stub;
+    this.tail = new AtomicReference<>(stub);
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    Node node = new Node(command);
+    Node previous = tail.getAndSet(node);
+    previous.setNext(node);
+    scheduleDrainIfIdle();
+  }
+
+  private void scheduleDrainIfIdle() {
+    if (drainScheduled.compareAndSet(false, true)) {
+      try {
+        backingExecutor.execute(this::drain);
+      } catch (Throwable e) {
+        drainScheduled.set(false);
+        throw e;
+      }
+    }
+  }
+
+  private void drain() {
+    try {
+      for (int i = 0; i < DRAIN_BATCH_SIZE; i++) {
+        Runnable command = poll();
+        if (command == null) {
+          break;
+        }
+        try {
+          command.run();
+        } catch (Throwable e) {
+          log.error("Command loop encountered an uncaught exception", e);
+        }
+      }
+    } finally {
+      drainScheduled.set(false);
+      // A producer might have enqueued a command after we last polled but before we released the
+      // flag - in which case it would have seen the loop as busy and not scheduled a drain.
+      if (hasPendingCommands()) {
+        scheduleDrainIfIdle();
+      }
+    }
+  }
+
+  private @Nullable Runnable poll() {
+    Node next = head.getNext();
+    if (next == null) {
+      return null;
+    }
+    Runnable command = next.command;
+    next.command = null;
+    head = next;
+    return command;
+  }
+
+  /**
+   * Returns true if any command has been enqueued but not yet run. This includes commands whose
+   * producer has swapped the tail but not yet linked the node.
+   */
+  private boolean hasPendingCommands() {
+    return tail.get() != head;
+  }
+
+  private static final class Node {
+    private static final VarHandle NEXT;
+
+    static {
+      try {
+        NEXT = MethodHandles.lookup().findVarHandle(Node.class, "next", Node.class);
+      } catch (ReflectiveOperationException e) {
+        throw new ExceptionInInitializerError(e);
+      }
+    }
+
+    private @Nullable Runnable command;
+
+    @SuppressWarnings("unused") // Accessed via VarHandle
+    private volatile @Nullable Node next;
+
+    private Node(@Nullable Runnable command) {
+      this.command = command;
+    }
+
+    private @Nullable Node getNext() {
+      return (Node) NEXT.getAcquire(this);
+    }
+
+    private void setNext(Node next) {
+      NEXT.setRelease(this, next);
+    }
+  }
+}
@@ -0,0 +1,159 @@
+package com.flipkart.krystal.krystex.kryon;
+
+import com.flipkart.krystal.data.FacetsSchema;
+import com.flipkart.krystal.krystex.resolution.ResolverDefinition;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Precomputed bitmask tables which answer "when these facets are available, which dependencies
+ * become triggerable" for a kryon, without walking the resolver definitions on every command.
+ *
+ * <p>Facets are identified by their slot in the kryon's {@link FacetsSchema} and dependencies by
+ * their index in {@link KryonDefinition#dependencyKryons()}. Kryons with more than 64 facets or
+ * dependencies fall back to computing the same result by walking the resolver definitions.
+ */
+final class DependencyTriggers {
+
+  private static final int MAX_BITS = Long.SIZE;
+
+  private final FacetsSchema facetsSchema;
+  private final ImmutableList<String> dependencyNames;
+  private final ImmutableMap<String, ImmutableSet<ResolverDefinition>>
+      resolverDefinitionsByDependencies;
+  private final ImmutableMap<Optional<String>, ImmutableSet<ResolverDefinition>>
+      resolverDefinitionsByInput;
+  private final ImmutableSet<String> dependenciesWithNoResolvers;
+  private final boolean useBitmasks;
+
+  /** facet slot -> dependencies which have a resolver bound from that facet */
+  private final long[] candidateDepsByFacet;
+
+  /** Dependencies which have unbound resolvers or no resolvers at all */
+  private final long alwaysCandidateDeps;
+
+  /** dependency index -> facets needed by all the resolvers of that dependency */
+  private final long[] requiredFacetsByDep;
+
+  DependencyTriggers(
+      FacetsSchema facetsSchema,
+      ImmutableList<String> dependencyNames,
+      ImmutableMap<Optional<String>, ImmutableSet<ResolverDefinition>> resolverDefinitionsByInput,
+      ImmutableMap<String, ImmutableSet<ResolverDefinition>> resolverDefinitionsByDependencies,
+      ImmutableSet<String> dependenciesWithNoResolvers) {
+    this.facetsSchema = facetsSchema;
+    this.dependencyNames = dependencyNames;
+    this.resolverDefinitionsByInput = resolverDefinitionsByInput;
+    this.resolverDefinitionsByDependencies = resolverDefinitionsByDependencies;
+    this.dependenciesWithNoResolvers = dependenciesWithNoResolvers;
+    this.useBitmasks = facetsSchema.size() <= MAX_BITS && dependencyNames.size() <= MAX_BITS;
+    this.candidateDepsByFacet = new long[useBitmasks ? facetsSchema.size() : 0];
+    this.requiredFacetsByDep = new long[useBitmasks ? dependencyNames.size() : 0];
+    long alwaysCandidateDeps = 0;
+    if (useBitmasks) {
+      for (int depIndex = 0; depIndex < dependencyNames.size(); depIndex++) {
+        String depName = dependencyNames.get(depIndex);
+        ImmutableSet<ResolverDefinition> resolvers =
+            resolverDefinitionsByDependencies.getOrDefault(depName, ImmutableSet.of());
+        if (dependenciesWithNoResolvers.contains(depName)) {
+          alwaysCandidateDeps |= 1L << depIndex;
+        }
+        for (ResolverDefinition resolver : resolvers) {
+          if (resolver.boundFrom().isEmpty()) {
+            alwaysCandidateDeps |= 1L << depIndex;
+          }
+          for (String boundFrom : resolver.boundFrom()) {
+            int slot = facetsSchema.slotOf(boundFrom);
+            if (slot < 0) {
+              throw new IllegalArgumentException(
+                  "Resolver %s of dependency %s is bound from unknown facet %s"
+                      .formatted(resolver.resolverKryonLogicId(), depName, boundFrom));
+            }
+            candidateDepsByFacet[slot] |= 1L << depIndex;
+            requiredFacetsByDep[depIndex] |= 1L << slot;
+          }
+        }
+      }
+    }
+    this.alwaysCandidateDeps = alwaysCandidateDeps;
+  }
+
+  /**
+   * Returns the dependencies (mapped to their resolvers) which can be triggered now that {@code
+   * newFacetNames} have become available - i.e. dependencies which have a resolver bound from one of
+   * the new facets (or no bound resolvers at all), which have not been executed yet, and all of
+   * whose resolvers' facets are available.
+   */
+  Map<String, Set<ResolverDefinition>> getTriggerableDependencies(
+      Set<String> newFacetNames, Set<String> availableFacets, Set<String> executedDeps) {
+    if (!useBitmasks) {
+      return getTriggerableDependenciesByWalking(newFacetNames, availableFacets, executedDeps);
+    }
+    long candidates = alwaysCandidateDeps;
+    for (String newFacetName : newFacetNames) {
+      int slot = facetsSchema.slotOf(newFacetName);
+      if (slot >= 0) {
+        candidates |= candidateDepsByFacet[slot];
+      }
+    }
+    long available = toFacetsMask(availableFacets);
+    Map<String, Set<ResolverDefinition>> triggerable = new LinkedHashMap<>();
+    while (candidates != 0) {
+      int depIndex = Long.numberOfTrailingZeros(candidates);
+      candidates &= candidates - 1;
+      String depName = dependencyNames.get(depIndex);
+      if ((requiredFacetsByDep[depIndex] & ~available) == 0 && !executedDeps.contains(depName)) {
+        triggerable.put(
+            depName, resolverDefinitionsByDependencies.getOrDefault(depName, ImmutableSet.of()));
+      }
+    }
+    return triggerable;
+  }
+
+  private long toFacetsMask(Set<String> facetNames) {
+    long mask = 0;
+    for (String facetName : facetNames) {
+      int slot = facetsSchema.slotOf(facetName);
+      if (slot >= 0) {
+        mask |= 1L << slot;
+      }
+    }
+    return mask;
+  }
+
+  private Map<String, Set<ResolverDefinition>> getTriggerableDependenciesByWalking(
+      Set<String> newFacetNames, Set<String> availableFacets, Set<String> executedDeps) {
+    Set<String> candidates = new LinkedHashSet<>();
+    resolverDefinitionsByInput
+        .getOrDefault(Optional.<String>empty(), ImmutableSet.of())
+        .forEach(resolver -> candidates.add(resolver.dependencyName()));
+    for (String newFacetName : newFacetNames) {
+      resolverDefinitionsByInput
+          .getOrDefault(Optional.of(newFacetName), ImmutableSet.of())
+          .forEach(resolver -> candidates.add(resolver.dependencyName()));
+    }
+    candidates.addAll(dependenciesWithNoResolvers);
+    Map<String, Set<ResolverDefinition>> triggerable = new LinkedHashMap<>();
+    for (String depName : candidates) {
+      if (executedDeps.contains(depName)) {
+        continue;
+      }
+      ImmutableSet<ResolverDefinition> resolvers =
+          resolverDefinitionsByDependencies.getOrDefault(depName, ImmutableSet.of());
+      if (resolvers.stream()
+          .map(ResolverDefinition::boundFrom)
+          .flatMap(Collection::stream)
+          .allMatch(availableFacets::contains)) {
+        triggerable.put(depName, resolvers);
+      }
+    }
+    return triggerable;
+  }
+}
@@ -84,6 +84,9 @@ final class GranularKryon extends AbstractKryon<GranularCommand, GranuleResponse
       new LinkedHashMap<>();
   private final Map<RequestId, DependantChain> dependantChainByRequest = new LinkedHashMap<>();
 
+  /** The number of dependency callbacks which have been scheduled but not yet received. */
+  private final Map<RequestId, Integer> pendingDependencyCallbacks = new LinkedHashMap<>();
+
   GranularKryon(
       KryonDefinition kryonDefinition,
       KryonExecutor kryonExecutor,
@@ -104,20 +107,27 @@ final class GranularKryon extends AbstractKryon<GranularCommand, GranuleResponse
 
   @Override
   public void executeCommand(Flush flushCommand) {
-    flushedDependantChain.add(flushCommand.dependantChain());
-    flushAllDependenciesIfNeeded(flushCommand.dependantChain());
-    flushDecoratorsIfNeeded(flushCommand.dependantChain());
+    DependantChain dependantChain = flushCommand.dependantChain();
+    flushedDependantChain.add(dependantChain);
+    flushAllDependenciesIfNeeded(dependantChain);
+    flushDecoratorsIfNeeded(dependantChain);
+    ImmutableList.copyOf(requestsByDependantChain.getOrDefault(dependantChain, Set.of()))
+        .forEach(this::evictIfComplete);
   }
 
   @Override
   public CompletableFuture<GranuleResponse> executeCommand(GranularCommand kryonCommand) {
     RequestId requestId = kryonCommand.requestId();
     final CompletableFuture<GranuleResponse> resultForRequest =
-        resultsByRequest.computeIfAbsent(requestId, r -> new CompletableFuture<>());
+        resultsByRequest.computeIfAbsent(requestId, this::newResultFuture);
+    if (kryonCommand instanceof CallbackGranule) {
+      pendingDependencyCallbacks.computeIfPresent(requestId, (_r, count) -> count - 1);
+    }
     if (resultForRequest.isDone()) {
       // This is possible if this kryon was already skipped, for example.
       // If the result for this requestId is already available, just return and avoid unnecessary
       // computation.
+      evictIfComplete(requestId);
       return resultForRequest;
     }
     try {
@@ -144,9 +154,64 @@ final class GranularKryon extends AbstractKryon<GranularCommand, GranuleResponse
     } catch (Throwable e) {
       resultForRequest.completeExceptionally(e);
     }
+    evictIfComplete(requestId);
+    return resultForRequest;
+  }
+
+  private CompletableFuture<GranuleResponse> newResultFuture(RequestId requestId) {
+    CompletableFuture<GranuleResponse> resultForRequest = new CompletableFuture<>();
+    kryonExecutor.getKryonMetrics().stateTracked();
+    resultForRequest.whenComplete(
+        (_r, _t) -> kryonExecutor.executeInCommandQueue(() -> evictIfComplete(requestId)));
     return resultForRequest;
   }
 
+  private void dependencyCallbackScheduled(RequestId requestId) {
+    pendingDependencyCallbacks.merge(requestId, 1, Integer::sum);
+  }
+
+  /**
+   * Drops all the state held for the given request once it is not needed anymore - i.e. once the
+   * result of the request is complete, the request's dependant chain has been flushed, and the
+   * responses of all the dependencies which were triggered for the request have been received.
+   */
+  private void evictIfComplete(RequestId requestId) {
+    CompletableFuture<GranuleResponse> resultForRequest = resultsByRequest.get(requestId);
+    DependantChain dependantChain = dependantChainByRequest.get(requestId);
+    if (resultForRequest == null
+        || !resultForRequest.isDone()
+        || dependantChain == null
+        || !flushedDependantChain.contains(dependantChain)
+        || pendingDependencyCallbacks.getOrDefault(requestId, 0) > 0) {
+      return;
+    }
+    Map<String, FacetValue<Object>> inputs = inputsValueCollector.remove(requestId);
+    if (inputs != null) {
+      Facets providedFacets = new Facets(inputs);
+      CompletableFuture<@Nullable Object> cachedResult = resultsCache.get(providedFacets);
+      if (cachedResult != null && cachedResult.isDone()) {
+        resultsCache.remove(providedFacets);
+      }
+    }
+    dependencyExecutions.remove(requestId);
+    dependencyValuesCollector.remove(requestId);
+    resultsByRequest.remove(requestId);
+    outputLogicExecuted.remove(requestId);
+    skipLogicRequested.remove(requestId);
+    resolverResults.remove(requestId);
+    dependantChainByRequest.remove(requestId);
+    pendingDependencyCallbacks.remove(requestId);
+    Set<RequestId> requestsForDependantChain = requestsByDependantChain.get(dependantChain);
+    if (requestsForDependantChain != null) {
+      requestsForDependantChain.remove(requestId);
+      if (requestsForDependantChain.isEmpty()) {
+        requestsByDependantChain.remove(dependantChain);
+        flushedDependantChain.remove(dependantChain);
+      }
+    }
+    kryonExecutor.getKryonMetrics().stateReleased();
+  }
+
   private void executeOutputLogicIfPossible(
       RequestId requestId, CompletableFuture<GranuleResponse> resultForRequest) {
     // If all the inputs and dependency values needed by the output logic are available, then
@@ -463,6 +528,7 @@ final class GranularKryon extends AbstractKryon<GranularCommand, GranuleResponse
             .resolverDefinitionsByDependencies()
             .getOrDefault(dependencyName, ImmutableSet.of());
     if (resolverDefinitionsForDependency.equals(dependencyKryonExecutions.executedResolvers())) {
+      dependencyCallbackScheduled(requestId);
       allOf(
               dependencyKryonExecutions
                   .individualCallResponses()
@@ -551,20 +617,20 @@ final class GranularKryon extends AbstractKryon<GranularCommand, GranuleResponse
   private Facets getInputsFor(RequestId requestId, Set<String> boundFrom) {
     Map<String, FacetValue<Object>> allInputs =
         inputsValueCollector.computeIfAbsent(requestId, r -> new LinkedHashMap<>());
-    Map<String, FacetValue<Object>> inputValues = new LinkedHashMap<>();
+    Facets.Builder inputValues = Facets.builder(kryonDefinition.facetsSchema());
     for (String boundFromInput : boundFrom) {
       FacetValue<Object> voe = allInputs.get(boundFromInput);
       if (voe == null) {
-        inputValues.put(
+        inputValues.set(
             boundFromInput,
             dependencyValuesCollector
                 .computeIfAbsent(requestId, k -> new LinkedHashMap<>())
                 .getOrDefault(boundFromInput, Results.empty()));
       } else {
-        inputValues.put(boundFromInput, voe);
+        inputValues.set(boundFromInput, voe);
       }
     }
-    return new Facets(inputValues);
+    return inputValues.build();
   }
 
   private void executeDependenciesWhenNoResolvers(RequestId requestId) {
@@ -577,6 +643,7 @@ final class GranularKryon extends AbstractKryon<GranularCommand, GranuleResponse
                   .containsKey(depName)) {
                 RequestId dependencyRequestId =
                     requestIdGenerator.newSubRequest(requestId, () -> "%s".formatted(depName));
+                dependencyCallbackScheduled(requestId);
                 CompletableFuture<GranuleResponse> kryonResponse =
                     kryonExecutor.executeCommand(
                         new ForwardGranule(
@@ -662,9 +729,13 @@ final class GranularKryon extends AbstractKryon<GranularCommand, GranuleResponse
   private OutputLogicFacets getInputsForOutputLogic(RequestId requestId) {
     Facets inputValues =
         new Facets(inputsValueCollector.getOrDefault(requestId, ImmutableMap.of()));
-    Map<String, Results<Object>> dependencyValues =
-        dependencyValuesCollector.getOrDefault(requestId, ImmutableMap.of());
-    Facets allFacets = Facets.union(dependencyValues, inputValues.values());
+    Facets allFacets =
+        Facets.builder(
+                kryonDefinition.facetsSchema(),
+                kryonDefinition.getOutputLogicDefinition().facetsFactory())
+            .setAll(dependencyValuesCollector.getOrDefault(requestId, ImmutableMap.of()))
+            .setAll(inputValues.values())
+            .build();
     return new OutputLogicFacets(inputValues, allFacets);
   }
 
@@ -6,6 +6,7 @@ import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static java.util.stream.Collectors.groupingBy;
 
+import com.flipkart.krystal.data.FacetsSchema;
 import com.flipkart.krystal.krystex.OutputLogicDefinition;
 import com.flipkart.krystal.krystex.resolution.ResolverDefinition;
 import com.google.common.collect.ImmutableList;
@@ -76,6 +77,16 @@ public record KryonDefinition(
     return view.facetNames();
   }
 
+  /** Slots of all the facets of this kryon. Shared by all the array-backed facets of this kryon. */
+  public FacetsSchema facetsSchema() {
+    return view.facetsSchema();
+  }
+
+  /** Precomputed tables used to find the dependencies which can be triggered. */
+  DependencyTriggers dependencyTriggers() {
+    return view.dependencyTriggers();
+  }
+
   /**
    * Useful data views over {@link KryonDefinition}'s data
    *
@@ -85,13 +96,16 @@ public record KryonDefinition(
    * @param resolverDefinitionsByDependencies Maps each dependency with a set of resolverDefinitions
    *     which resolve inputs of that dependency
    * @param dependenciesWithNoResolvers Set of dependency names which have no resolvers.
+   * @param dependencyTriggers Bitmask tables derived from the above views.
    */
   private record KryonDefinitionView(
       ImmutableMap<FacetType, ImmutableSet<String>> facetsByType,
       ImmutableSet<String> facetNames,
+      FacetsSchema facetsSchema,
       ImmutableMap<Optional<String>, ImmutableSet<ResolverDefinition>> resolverDefinitionsByInput,
       ImmutableMap<String, ImmutableSet<ResolverDefinition>> resolverDefinitionsByDependencies,
-      ImmutableSet<String> dependenciesWithNoResolvers) {
+      ImmutableSet<String> dependenciesWithNoResolvers,
+      DependencyTriggers dependencyTriggers) {
     private static KryonDefinitionView createView(
         Set<String> inputs,
         ImmutableList<ResolverDefinition> resolverDefinitions,
@@ -109,13 +123,25 @@ public record KryonDefinition(
                           .getOrDefault(depName, ImmutableSet.of())
                           .isEmpty())
               .collect(toImmutableSet());
+      ImmutableSet<String> facetNames =
+          ImmutableSet.<String>builder().addAll(inputs).addAll(dependencyKryons.keySet()).build();
+      FacetsSchema facetsSchema = FacetsSchema.of(facetNames);
+      ImmutableMap<Optional<String>, ImmutableSet<ResolverDefinition>> resolverDefinitionsByInput =
+          createResolverDefinitionsByInputs(resolverDefinitions);
       return new KryonDefinitionView(
           ImmutableMap.of(
               INPUT, ImmutableSet.copyOf(inputs), DEPENDENCY, dependencyKryons.keySet()),
-          ImmutableSet.<String>builder().addAll(inputs).addAll(dependencyKryons.keySet()).build(),
-          createResolverDefinitionsByInputs(resolverDefinitions),
+          facetNames,
+          facetsSchema,
+          resolverDefinitionsByInput,
           resolverDefinitionsByDependencies,
-          dependenciesWithNoResolvers);
+          dependenciesWithNoResolvers,
+          new DependencyTriggers(
+              facetsSchema,
+              dependencyKryons.keySet().asList(),
+              resolverDefinitionsByInput,
+              resolverDefinitionsByDependencies,
+              dependenciesWithNoResolvers));
     }
 
     private static ImmutableMap<Optional<String>, ImmutableSet<ResolverDefinition>>
@@ -4,10 +4,12 @@ import com.flipkart.krystal.krystex.LogicDefinitionRegistry;
 import com.flipkart.krystal.krystex.resolution.ResolverDefinition;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 public final class KryonDefinitionRegistry {
@@ -15,6 +17,8 @@ public final class KryonDefinitionRegistry {
   private final LogicDefinitionRegistry logicDefinitionRegistry;
   private final Map<KryonId, KryonDefinition> kryonDefinitions = new LinkedHashMap<>();
   private final DependantChainStart dependantChainStart = new DependantChainStart();
+  private final Map<KryonId, Map<Set<DependantChain>, KryonExecutionPlan>> executionPlans =
+      new ConcurrentHashMap<>();
 
   public KryonDefinitionRegistry(LogicDefinitionRegistry logicDefinitionRegistry) {
     this.logicDefinitionRegistry = logicDefinitionRegistry;
@@ -66,9 +70,34 @@ public final class KryonDefinitionRegistry {
             Optional.ofNullable(mulitResolverId),
             this);
     kryonDefinitions.put(kryonDefinition.kryonId(), kryonDefinition);
+    // Plans can only be compiled when all the kryons reachable from the root are defined. So a
+    // definition can change the graph of an already compiled plan only if it replaces one of the
+    // kryons in that plan.
+    executionPlans
+        .values()
+        .forEach(
+            plans ->
+                plans.values().removeIf(plan -> plan.containsKryon(kryonDefinition.kryonId())));
     return kryonDefinition;
   }
 
+  /**
+   * Returns the execution plan of the given root kryon with the given dependant chains disabled.
+   * Plans are compiled once per set of disabled dependant chains and cached till the definition of
+   * one of the kryons in the plan is replaced.
+   */
+  public KryonExecutionPlan getExecutionPlan(
+      KryonId rootKryonId, Set<DependantChain> disabledDependantChains) {
+    Map<Set<DependantChain>, KryonExecutionPlan> plans =
+        executionPlans.computeIfAbsent(rootKryonId, _k -> new ConcurrentHashMap<>());
+    KryonExecutionPlan plan = plans.get(disabledDependantChains);
+    if (plan == null) {
+      plan = KryonExecutionPlan.compile(rootKryonId, disabledDependantChains, this);
+      plans.put(ImmutableSet.copyOf(disabledDependantChains), plan);
+    }
+    return plan;
+  }
+
   public DependantChain getDependantChainsStart() {
     return dependantChainStart;
   }
@@ -0,0 +1,125 @@
+package com.flipkart.krystal.krystex.kryon;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The kryon graph reachable from a root kryon, flattened once into arrays so that executions of
+ * the root kryon do not need to walk kryon definitions and extend dependant chains every time.
+ *
+ * <p>Nodes are stored in depth-first pre-order. Node 0 is the root kryon. The node index serves as
+ * a dense int id of the (kryon, dependant chain) pair within this plan, and {@link
+ * #subtreeEnd(int)} allows skipping the whole sub-graph of a node.
+ *
+ * <p>A plan is compiled for a given set of disabled dependant chains, and does not contain the
+ * nodes of the disabled chains or their sub-graphs. Recursive kryon graphs are finite only because
+ * of the disabled chains, so they cannot be flattened independent of them.
+ */
+public final class KryonExecutionPlan {
+
+  private final KryonId rootKryonId;
+  private final ImmutableList<KryonId> kryonIds;
+  private final ImmutableSet<KryonId> distinctKryonIds;
+  private final ImmutableList<DependantChain> dependantChains;
+  private final int[] subtreeEnds;
+
+  private KryonExecutionPlan(
+      KryonId rootKryonId,
+      ImmutableList<KryonId> kryonIds,
+      ImmutableList<DependantChain> dependantChains,
+      int[] subtreeEnds) {
+    this.rootKryonId = rootKryonId;
+    this.kryonIds = kryonIds;
+    this.distinctKryonIds = ImmutableSet.copyOf(kryonIds);
+    this.dependantChains = dependantChains;
+    this.subtreeEnds = subtreeEnds;
+  }
+
+  static KryonExecutionPlan compile(
+      KryonId rootKryonId,
+      Set<DependantChain> disabledDependantChains,
+      KryonDefinitionRegistry registry) {
+    List<KryonId> kryonIds = new ArrayList<>();
+    List<DependantChain> dependantChains = new ArrayList<>();
+    List<Integer> subtreeEnds = new ArrayList<>();
+    addNode(
+        rootKryonId,
+        registry.getDependantChainsStart(),
+        disabledDependantChains,
+        registry,
+        kryonIds,
+        dependantChains,
+        subtreeEnds);
+    int[] subtreeEndsArray = new int[subtreeEnds.size()];
+    for (int i = 0; i < subtreeEndsArray.length; i++) {
+      subtreeEndsArray[i] = subtreeEnds.get(i);
+    }
+    return new KryonExecutionPlan(
+        rootKryonId,
+        ImmutableList.copyOf(kryonIds),
+        ImmutableList.copyOf(dependantChains),
+        subtreeEndsArray);
+  }
+
+  private static void addNode(
+      KryonId kryonId,
+      DependantChain dependantChain,
+      Set<DependantChain> disabledDependantChains,
+      KryonDefinitionRegistry registry,
+      List<KryonId> kryonIds,
+      List<DependantChain> dependantChains,
+      List<Integer> subtreeEnds) {
+    // If a dependantChain is disabled, that kryon and its dependency kryons are not executed
+    if (disabledDependantChains.contains(dependantChain)) {
+      return;
+    }
+    int node = kryonIds.size();
+    kryonIds.add(kryonId);
+    dependantChains.add(dependantChain);
+    subtreeEnds.add(-1);
+    registry
+        .get(kryonId)
+        .dependencyKryons()
+        .forEach(
+            (dependencyName, depKryonId) ->
+                addNode(
+                    depKryonId,
+                    dependantChain.extend(kryonId, dependencyName),
+                    disabledDependantChains,
+                    registry,
+                    kryonIds,
+                    dependantChains,
+                    subtreeEnds));
+    subtreeEnds.set(node, kryonIds.size());
+  }
+
+  public KryonId rootKryonId() {
+    return rootKryonId;
+  }
+
+  /** The number of (kryon, dependant chain) nodes in this plan. */
+  public int size() {
+    return kryonIds.size();
+  }
+
+  public KryonId kryonIdAt(int node) {
+    return kryonIds.get(node);
+  }
+
+  public DependantChain dependantChainAt(int node) {
+    return dependantChains.get(node);
+  }
+
+  /** Whether the given kryon is reachable from the root kryon (or is the root kryon itself). */
+  public boolean containsKryon(KryonId kryonId) {
+    return distinctKryonIds.contains(kryonId);
+  }
+
+  /** The index of the first node which is not part of the sub-graph rooted at {@code node}. */
+  public int subtreeEnd(int node) {
+    return subtreeEnds[node];
+  }
+}
@@ -18,10 +18,13 @@ import com.flipkart.krystal.data.Errable;
 import com.flipkart.krystal.data.Facets;
 import com.flipkart.krystal.krystex.KrystalExecutor;
 import com.flipkart.krystal.krystex.OutputLogicDefinition;
+import com.flipkart.krystal.krystex.commands.BatchCommand;
 import com.flipkart.krystal.krystex.commands.Flush;
 import com.flipkart.krystal.krystex.commands.ForwardBatch;
 import com.flipkart.krystal.krystex.commands.ForwardGranule;
+import com.flipkart.krystal.krystex.commands.GranularCommand;
 import com.flipkart.krystal.krystex.commands.KryonCommand;
+import com.flipkart.krystal.krystex.jfr.KryonCommandEvent;
 import com.flipkart.krystal.krystex.kryondecoration.KryonDecorationInput;
 import com.flipkart.krystal.krystex.kryondecoration.KryonDecorator;
 import com.flipkart.krystal.krystex.kryondecoration.KryonDecoratorConfig;
@@ -32,13 +35,14 @@ import com.flipkart.krystal.krystex.logicdecoration.LogicExecutionContext;
 import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecorator;
 import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecoratorConfig;
 import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecoratorConfig.LogicDecoratorContext;
-import com.flipkart.krystal.krystex.request.IntReqGenerator;
+import com.flipkart.krystal.krystex.metrics.AggregatedKryonMetrics;
+import com.flipkart.krystal.krystex.request.LongReqGenerator;
 import com.flipkart.krystal.krystex.request.RequestId;
 import com.flipkart.krystal.krystex.request.RequestIdGenerator;
 import com.flipkart.krystal.krystex.request.StringReqGenerator;
+import com.flipkart.krystal.utils.LeasePool;
+import com.flipkart.krystal.utils.LeasePool.Lease;
 import com.flipkart.krystal.utils.LeaseUnavailableException;
-import com.flipkart.krystal.utils.MultiLeasePool;
-import com.flipkart.krystal.utils.MultiLeasePool.Lease;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import java.util.ArrayList;
@@ -74,9 +78,20 @@ public final class KryonExecutor implements KrystalExecutor {
     BREADTH,
   }
 
+  public enum CommandQueueType {
+    /** Every command is submitted as a separate task to the leased executor service. */
+    EXECUTOR_SERVICE,
+    /**
+     * Commands are enqueued into a lock-free queue owned by this executor and are drained in
+     * batches on the leased executor service. See {@link CommandLoop}.
+     */
+    COMMAND_LOOP,
+  }
+
   private final KryonDefinitionRegistry kryonDefinitionRegistry;
   private final KryonExecutorConfig executorConfig;
   private final ExecutorService commandQueue;
+  private final @Nullable CommandLoop commandLoop;
   private final Optional<Lease<? extends ExecutorService>> commandQueueLease;
   private final String instanceId;
 
@@ -105,20 +120,56 @@ public final class KryonExecutor implements KrystalExecutor {
               KryonDecorator>>
       requestScopedKryonDecorators = new LinkedHashMap<>();
 
+  /**
+   * Kryons wrapped in their request scoped kryon decorators. Decorator configs of an executor never
+   * change, so the decorated kryon of a (kryon, dependant chain) pair is computed only once.
+   */
+  private final Map<KryonId, Map<DependantChain, Kryon<KryonCommand, KryonResponse>>>
+      decoratedKryons = new LinkedHashMap<>();
+
+  /**
+   * Request scoped output logic decorators which have been handed out to each kryon. These need to
+   * be informed whenever a new dependant chain of the kryon becomes active.
+   */
+  private final Map<KryonId, Set<OutputLogicDecorator>> outputLogicDecoratorsPerKryon =
+      new LinkedHashMap<>();
+
   private final KryonRegistry<?> kryonRegistry = new KryonRegistry<>();
   private final KryonExecutorMetrics kryonMetrics;
   private final Map<RequestId, KryonExecution> allExecutions = new LinkedHashMap<>();
   private final Set<RequestId> unFlushedExecutions = new LinkedHashSet<>();
   private final Map<KryonId, Set<DependantChain>> dependantChainsPerKryon = new LinkedHashMap<>();
+
+  /** Root kryons whose whole execution plan has been created without any disabled chains. */
+  private final Set<KryonId> rootsWithAllKryonsCreated = new LinkedHashSet<>();
+
   private final RequestIdGenerator preferredReqGenerator;
   private final Set<DependantChain> depChainsDisabledInAllExecutions = new LinkedHashSet<>();
 
+  /**
+   * The time for which the command currently being run from the command queue waited in the queue.
+   * This is accessed only in the command queue thread.
+   */
+  private long currentCommandQueueWaitNanos;
+
   private volatile boolean closed;
   private boolean shutdownRequested;
 
+  /**
+   * Whether all the executions of this closed executor have completed. This is accessed only in the
+   * command queue thread.
+   */
+  private boolean allExecutionsCompleted;
+
+  /**
+   * Completed once this executor is closed and the state of all its executions has been evicted,
+   * just before the command queue lease is released.
+   */
+  private final CompletableFuture<@Nullable Void> terminationFuture = new CompletableFuture<>();
+
   public KryonExecutor(
       KryonDefinitionRegistry kryonDefinitionRegistry,
-      MultiLeasePool<@NonNull ? extends ExecutorService> commandQueuePool,
+      LeasePool<@NonNull ? extends ExecutorService> commandQueuePool,
       KryonExecutorConfig executorConfig,
       String instanceId) {
     this.kryonDefinitionRegistry = kryonDefinitionRegistry;
@@ -136,12 +187,17 @@ public final class KryonExecutor implements KrystalExecutor {
       this.commandQueue = commandQueueLease.get();
       this.commandQueueLease = Optional.of(commandQueueLease);
     }
+    this.commandLoop =
+        CommandQueueType.COMMAND_LOOP.equals(executorConfig.commandQueueType())
+            ? new CommandLoop(commandQueue)
+            : null;
     this.instanceId = instanceId;
     this.requestScopedLogicDecoratorConfigs =
         ImmutableMap.copyOf(executorConfig.requestScopedLogicDecoratorConfigs());
-    this.kryonMetrics = new KryonExecutorMetrics();
+    this.kryonMetrics =
+        new KryonExecutorMetrics(executorConfig.metrics().orElse(AggregatedKryonMetrics.noOp()));
     this.preferredReqGenerator =
-        executorConfig.debug() ? new StringReqGenerator() : new IntReqGenerator();
+        executorConfig.debug() ? new StringReqGenerator() : new LongReqGenerator();
   }
 
   private ImmutableMap<String, OutputLogicDecorator> getRequestScopedDecorators(
@@ -175,12 +231,14 @@ public final class KryonExecutor implements KrystalExecutor {
                                       .factory()
                                       .apply(
                                           new LogicDecoratorContext(
-                                              instanceId, logicExecutionContext)));
-                  outputLogicDecorator.executeCommand(
-                      new InitiateActiveDepChains(
-                          kryonId,
-                          ImmutableSet.copyOf(
-                              dependantChainsPerKryon.getOrDefault(kryonId, ImmutableSet.of()))));
+                                              instanceId,
+                                              logicExecutionContext,
+                                              this::executeInCommandQueue)));
+                  if (outputLogicDecoratorsPerKryon
+                      .computeIfAbsent(kryonId, _k -> new LinkedHashSet<>())
+                      .add(outputLogicDecorator)) {
+                    initiateActiveDepChains(kryonId, outputLogicDecorator);
+                  }
                   decorators.put(decoratorType, outputLogicDecorator);
                   break;
                 }
@@ -189,6 +247,13 @@ public final class KryonExecutor implements KrystalExecutor {
     return ImmutableMap.copyOf(decorators);
   }
 
+  private void initiateActiveDepChains(KryonId kryonId, OutputLogicDecorator decorator) {
+    decorator.executeCommand(
+        new InitiateActiveDepChains(
+            kryonId,
+            ImmutableSet.copyOf(dependantChainsPerKryon.getOrDefault(kryonId, ImmutableSet.of()))));
+  }
+
   @Override
   public <T> CompletableFuture<@Nullable T> executeKryon(
       KryonId kryonId, Facets facets, KryonExecutionConfig executionConfig) {
@@ -200,17 +265,20 @@ public final class KryonExecutor implements KrystalExecutor {
 
     String executionId = executionConfig.executionId();
     checkArgument(executionId != null, "executionConfig.executionId can not be null");
-    RequestId requestId =
-        preferredReqGenerator.newRequest("%s:%s".formatted(instanceId, executionId));
 
+    long submittedNanos = System.nanoTime();
     //noinspection RedundantCast: This is to avoid nullChecker failing compilation.
     return enqueueCommand(
             // Perform all datastructure manipulations in the command queue to avoid multi-thread
             // access
             (Supplier<CompletableFuture<@Nullable T>>)
                 (() -> {
-                  createDependencyKryons(
-                      kryonId, kryonDefinitionRegistry.getDependantChainsStart(), executionConfig);
+                  // Request ids are generated in the command queue since the generators are not
+                  // thread safe
+                  RequestId requestId =
+                      preferredReqGenerator.newRequest(
+                          () -> "%s:%s".formatted(instanceId, executionId));
+                  createDependencyKryons(kryonId, executionConfig);
                   CompletableFuture<@Nullable Object> future = new CompletableFuture<>();
                   if (allExecutions.containsKey(requestId)) {
                     future.completeExceptionally(
@@ -222,6 +290,12 @@ public final class KryonExecutor implements KrystalExecutor {
                         requestId,
                         new KryonExecution(kryonId, requestId, facets, executionConfig, future));
                     unFlushedExecutions.add(requestId);
+                    kryonMetrics.executionStarted();
+                    future.whenComplete(
+                        (_r, _t) -> {
+                          kryonMetrics.executionCompleted(System.nanoTime() - submittedNanos);
+                          executeInCommandQueue(() -> evictExecution(requestId));
+                        });
                   }
                   //noinspection unchecked
                   return (CompletableFuture<@Nullable T>) future;
@@ -229,21 +303,37 @@ public final class KryonExecutor implements KrystalExecutor {
         .thenCompose(identity());
   }
 
-  private void createDependencyKryons(
-      KryonId kryonId, DependantChain dependantChain, KryonExecutionConfig executionConfig) {
-    KryonDefinition kryonDefinition = kryonDefinitionRegistry.get(kryonId);
-    // If a dependantChain is disabled, don't create that kryon and its dependency kryons
-    if (!union(executorConfig.disabledDependantChains(), executionConfig.disabledDependantChains())
-        .contains(dependantChain)) {
-      createKryonIfAbsent(kryonId, kryonDefinition);
-      ImmutableMap<String, KryonId> dependencyKryons = kryonDefinition.dependencyKryons();
-      dependencyKryons.forEach(
-          (dependencyName, depKryonId) ->
-              createDependencyKryons(
-                  depKryonId, dependantChain.extend(kryonId, dependencyName), executionConfig));
-      dependantChainsPerKryon
-          .computeIfAbsent(kryonId, _n -> new LinkedHashSet<>())
-          .add(dependantChain);
+  private void createDependencyKryons(KryonId kryonId, KryonExecutionConfig executionConfig) {
+    Set<DependantChain> disabledDependantChains =
+        union(executorConfig.disabledDependantChains(), executionConfig.disabledDependantChains());
+    boolean noneDisabled = disabledDependantChains.isEmpty();
+    if (noneDisabled && rootsWithAllKryonsCreated.contains(kryonId)) {
+      return;
+    }
+    // The plan doesn't contain disabled dependantChains and their dependency kryons
+    KryonExecutionPlan plan =
+        kryonDefinitionRegistry.getExecutionPlan(kryonId, disabledDependantChains);
+    Set<KryonId> kryonsWithNewChains = new LinkedHashSet<>();
+    for (int node = 0; node < plan.size(); node++) {
+      DependantChain dependantChain = plan.dependantChainAt(node);
+      KryonId nodeKryonId = plan.kryonIdAt(node);
+      createKryonIfAbsent(nodeKryonId, kryonDefinitionRegistry.get(nodeKryonId));
+      if (dependantChainsPerKryon
+          .computeIfAbsent(nodeKryonId, _n -> new LinkedHashSet<>())
+          .add(dependantChain)) {
+        kryonsWithNewChains.add(nodeKryonId);
+      }
+    }
+    // Output logic decorators are cached by the kryons, so decorators which are already in use
+    // need to be told explicitly about newly active dependant chains
+    for (KryonId kryonWithNewChains : kryonsWithNewChains) {
+      for (OutputLogicDecorator decorator :
+          outputLogicDecoratorsPerKryon.getOrDefault(kryonWithNewChains, Set.of())) {
+        initiateActiveDepChains(kryonWithNewChains, decorator);
+      }
+    }
+    if (noneDisabled) {
+      rootsWithAllKryonsCreated.add(kryonId);
     }
   }
 
@@ -319,32 +409,84 @@ public final class KryonExecutor implements KrystalExecutor {
     } catch (Throwable e) {
       return failedFuture(e);
     }
-    KryonId kryonId = kryonCommand.kryonId();
     //noinspection unchecked
-    Kryon<KryonCommand, R> kryon = (Kryon<KryonCommand, R>) kryonRegistry.get(kryonId);
-    for (KryonDecorator kryonDecorator : getSortedKryonDecorators(kryonId, kryonCommand)) {
-      //noinspection unchecked
-      kryon =
-          (Kryon<KryonCommand, R>)
-              kryonDecorator.decorateKryon(
-                  new KryonDecorationInput((Kryon<KryonCommand, KryonResponse>) kryon, this));
+    Kryon<KryonCommand, R> kryon =
+        (Kryon<KryonCommand, R>)
+            getDecoratedKryon(kryonCommand.kryonId(), kryonCommand.dependantChain());
+    // Only the first command executed by a queued command has waited in the queue
+    long queueWaitNanos = currentCommandQueueWaitNanos;
+    this.currentCommandQueueWaitNanos = 0;
+    KryonCommandEvent event = new KryonCommandEvent();
+    event.begin();
+    // This includes the time taken by any commands which the kryon executes synchronously in its
+    // dependencies
+    long startNanos = System.nanoTime();
+    try {
+      if (kryonCommand instanceof Flush flush) {
+        kryon.executeCommand(flush);
+        //noinspection unchecked
+        return completedFuture((R) FlushResponse.getInstance());
+      } else {
+        return kryon.executeCommand(kryonCommand);
+      }
+    } finally {
+      kryonMetrics.commandExecuted(kryonCommand.kryonId(), System.nanoTime() - startNanos);
+      event.end();
+      if (event.shouldCommit()) {
+        event.kryonId = kryonCommand.kryonId().value();
+        event.dependantChain = kryonCommand.dependantChain().toString();
+        event.command = kryonCommand.getClass().getSimpleName();
+        event.batchSize = batchSize(kryonCommand);
+        event.queueWait = queueWaitNanos;
+        event.commit();
+      }
     }
-    if (kryonCommand instanceof Flush flush) {
-      kryon.executeCommand(flush);
-      //noinspection unchecked
-      return completedFuture((R) FlushResponse.getInstance());
+  }
+
+  private static int batchSize(KryonCommand kryonCommand) {
+    if (kryonCommand instanceof BatchCommand batchCommand) {
+      return batchCommand.requestIds().size();
+    } else if (kryonCommand instanceof GranularCommand) {
+      return 1;
     } else {
-      return kryon.executeCommand(kryonCommand);
+      return 0;
     }
   }
 
+  private Kryon<KryonCommand, KryonResponse> getDecoratedKryon(
+      KryonId kryonId, DependantChain dependantChain) {
+    //noinspection unchecked
+    Kryon<KryonCommand, KryonResponse> kryon =
+        (Kryon<KryonCommand, KryonResponse>) kryonRegistry.get(kryonId);
+    if (executorConfig.requestScopedKryonDecoratorConfigs().isEmpty()) {
+      return kryon;
+    }
+    return decoratedKryons
+        .computeIfAbsent(kryonId, _k -> new LinkedHashMap<>())
+        .computeIfAbsent(dependantChain, _d -> decorateKryon(kryonId, kryon, dependantChain));
+  }
+
+  private Kryon<KryonCommand, KryonResponse> decorateKryon(
+      KryonId kryonId, Kryon<KryonCommand, KryonResponse> kryon, DependantChain dependantChain) {
+    Kryon<KryonCommand, KryonResponse> decoratedKryon = kryon;
+    for (KryonDecorator kryonDecorator : getSortedKryonDecorators(kryonId, dependantChain)) {
+      decoratedKryon = kryonDecorator.decorateKryon(new KryonDecorationInput(decoratedKryon, this));
+    }
+    return decoratedKryon;
+  }
+
   private TreeSet<KryonDecorator> getSortedKryonDecorators(
-      KryonId kryonId, KryonCommand kryonCommand) {
+      KryonId kryonId, DependantChain dependantChain) {
     Map<String, KryonDecoratorConfig> configs = executorConfig.requestScopedKryonDecoratorConfigs();
-    KryonExecutionContext executionContext =
-        new KryonExecutionContext(kryonId, kryonCommand.dependantChain());
+    KryonExecutionContext executionContext = new KryonExecutionContext(kryonId, dependantChain);
+    // Decorators missing in the ordering are tie-broken by type so that they are not deduplicated
     TreeSet<KryonDecorator> sortedDecorators =
-        new TreeSet<>(executorConfig.logicDecorationOrdering().encounterOrder().reversed());
+        new TreeSet<>(
+            executorConfig
+                .logicDecorationOrdering()
+                .<KryonDecorator>encounterOrder()
+                .reversed()
+                .thenComparing(KryonDecorator::decoratorType));
     for (Entry<String, KryonDecoratorConfig> configsByType : configs.entrySet()) {
       String decoratorType = configsByType.getKey();
       KryonDecoratorConfig decoratorConfig = configsByType.getValue();
@@ -378,6 +520,16 @@ public final class KryonExecutor implements KrystalExecutor {
   private void flush() {
     enqueueRunnable(
         () -> {
+          if (!unFlushedExecutions.isEmpty()) {
+            long flushNanos = System.nanoTime();
+            allOf(
+                    unFlushedExecutions.stream()
+                        .map(this::getKryonExecution)
+                        .map(getFuture())
+                        .toArray(CompletableFuture[]::new))
+                .whenComplete(
+                    (_r, _t) -> kryonMetrics.flushCompleted(System.nanoTime() - flushNanos));
+          }
           computeDisabledDependantChains();
           if (isGranular()) {
             unFlushedExecutions.forEach(
@@ -403,6 +555,28 @@ public final class KryonExecutor implements KrystalExecutor {
         });
   }
 
+  private void evictExecution(RequestId requestId) {
+    if (allExecutions.remove(requestId) != null) {
+      unFlushedExecutions.remove(requestId);
+      kryonMetrics.executionEvicted();
+    }
+    terminateIfEvicted();
+  }
+
+  /**
+   * Releases the command queue lease once all executions have completed and have been evicted.
+   * Evictions are enqueued by the completion callbacks of the executions, which can run after the
+   * callback which observes that all executions have completed - so whichever of these runs last in
+   * the command queue releases the lease. Releasing it any earlier would let the command queue be
+   * leased to another executor while evictions of this one are still pending.
+   */
+  private void terminateIfEvicted() {
+    if (allExecutionsCompleted && allExecutions.isEmpty() && !terminationFuture.isDone()) {
+      terminationFuture.complete(null);
+      commandQueueLease.ifPresent(Lease::close);
+    }
+  }
+
   private void computeDisabledDependantChains() {
     depChainsDisabledInAllExecutions.clear();
     List<ImmutableSet<DependantChain>> disabledDependantChainsPerExecution =
@@ -523,10 +697,22 @@ public final class KryonExecutor implements KrystalExecutor {
                           decorator.getValue().onComplete();
                         }
                       }
-                      commandQueueLease.ifPresent(Lease::close);
+                      executeInCommandQueue(
+                          () -> {
+                            allExecutionsCompleted = true;
+                            terminateIfEvicted();
+                          });
                     }));
   }
 
+  /**
+   * Returns a future which is completed once this executor has been closed, all its executions have
+   * completed, and their state has been evicted.
+   */
+  public CompletableFuture<@Nullable Void> terminationFuture() {
+    return terminationFuture;
+  }
+
   @Override
   public void shutdownNow() {
     _close0();
@@ -541,6 +727,20 @@ public final class KryonExecutor implements KrystalExecutor {
     return KryonExecution::future;
   }
 
+  /**
+   * Runs the given task in the command queue of this executor. This is used by kryons to evict
+   * state, and by kryon decorators to deliver responses, when a future completes in a thread other
+   * than the main thread of this executor. Tasks which are rejected by the command queue (for
+   * example because it has been shutdown) are dropped.
+   */
+  public void executeInCommandQueue(Runnable task) {
+    try {
+      enqueueRunnable(task);
+    } catch (RejectedExecutionException e) {
+      log.debug("Could not enqueue task in command queue of KryonExecutor {}", instanceId, e);
+    }
+  }
+
   private void enqueueRunnable(Runnable command) {
     enqueueCommand(
         () -> {
@@ -550,12 +750,33 @@ public final class KryonExecutor implements KrystalExecutor {
   }
 
   private <T> CompletableFuture<T> enqueueCommand(Supplier<T> command) {
-    return supplyAsync(
-        () -> {
-          kryonMetrics.commandQueued();
-          return command.get();
-        },
-        commandQueue);
+    CommandLoop commandLoop = this.commandLoop;
+    if (commandLoop != null) {
+      CompletableFuture<T> future = new CompletableFuture<>();
+      long enqueuedNanos = System.nanoTime();
+      commandLoop.execute(
+          () -> {
+            try {
+              future.complete(runQueuedCommand(command, enqueuedNanos));
+            } catch (Throwable e) {
+              future.completeExceptionally(e);
+            }
+          });
+      return future;
+    }
+    long enqueuedNanos = System.nanoTime();
+    return supplyAsync(() -> runQueuedCommand(command, enqueuedNanos), commandQueue);
+  }
+
+  private <T> T runQueuedCommand(Supplier<T> command, long enqueuedNanos) {
+    long queueWaitNanos = System.nanoTime() - enqueuedNanos;
+    kryonMetrics.commandQueued(queueWaitNanos);
+    this.currentCommandQueueWaitNanos = queueWaitNanos;
+    try {
+      return command.get();
+    } finally {
+      this.currentCommandQueueWaitNanos = 0;
+    }
   }
 
   private record KryonExecution(
@@ -1,13 +1,16 @@
 package com.flipkart.krystal.krystex.kryon;
 
+import static com.flipkart.krystal.krystex.kryon.KryonExecutor.CommandQueueType.EXECUTOR_SERVICE;
 import static com.flipkart.krystal.krystex.kryon.KryonExecutor.GraphTraversalStrategy.DEPTH;
 import static com.flipkart.krystal.krystex.kryon.KryonExecutor.KryonExecStrategy.BATCH;
 
+import com.flipkart.krystal.krystex.kryon.KryonExecutor.CommandQueueType;
 import com.flipkart.krystal.krystex.kryon.KryonExecutor.GraphTraversalStrategy;
 import com.flipkart.krystal.krystex.kryon.KryonExecutor.KryonExecStrategy;
 import com.flipkart.krystal.krystex.kryondecoration.KryonDecoratorConfig;
 import com.flipkart.krystal.krystex.logicdecoration.LogicDecorationOrdering;
 import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecoratorConfig;
+import com.flipkart.krystal.krystex.metrics.AggregatedKryonMetrics;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import java.util.List;
@@ -25,6 +28,8 @@ public record KryonExecutorConfig(
     GraphTraversalStrategy graphTraversalStrategy,
     @Singular Map<String, KryonDecoratorConfig> requestScopedKryonDecoratorConfigs,
     Optional<ExecutorService> customExecutorService,
+    CommandQueueType commandQueueType,
+    Optional<AggregatedKryonMetrics> metrics,
     boolean debug) {
 
   @Builder(toBuilder = true)
@@ -41,6 +46,12 @@ public record KryonExecutorConfig(
     if (customExecutorService == null) {
       customExecutorService = Optional.empty();
     }
+    if (metrics == null) {
+      metrics = Optional.empty();
+    }
+    if (commandQueueType == null) {
+      commandQueueType = EXECUTOR_SERVICE;
+    }
     if (disabledDependantChains == null) {
       disabledDependantChains = ImmutableSet.of();
     }
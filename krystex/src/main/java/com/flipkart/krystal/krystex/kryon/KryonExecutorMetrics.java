@@ -1,17 +1,102 @@
 package com.flipkart.krystal.krystex.kryon;
 
-import lombok.Getter;
+import com.flipkart.krystal.krystex.metrics.AggregatedKryonMetrics;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
-@Getter
+/**
+ * Metrics of a single {@link KryonExecutor}. Everything recorded here is also recorded into the
+ * {@link AggregatedKryonMetrics} of the executor (see {@link KryonExecutorConfig#metrics()}), which
+ * may be shared with other executors. Executors without configured metrics record into {@link
+ * AggregatedKryonMetrics#noOp()}.
+ *
+ * <p>Commands are recorded from the command queue thread of the executor, but request completions
+ * are recorded from whichever thread completes the request, so all the counters are thread safe.
+ */
 public final class KryonExecutorMetrics {
-  private int commandQueuedCount;
-  private int commandQueueBypassedCount;
+
+  private final AggregatedKryonMetrics aggregatedMetrics;
+
+  private final LongAdder commandQueuedCount = new LongAdder();
+  private final LongAdder commandQueueBypassedCount = new LongAdder();
+  private final AtomicInteger trackedStateCount = new AtomicInteger();
+  private final AtomicInteger peakTrackedStateCount = new AtomicInteger();
+
+  KryonExecutorMetrics(AggregatedKryonMetrics aggregatedMetrics) {
+    this.aggregatedMetrics = aggregatedMetrics;
+  }
+
+  public int getCommandQueuedCount() {
+    return commandQueuedCount.intValue();
+  }
+
+  public int getCommandQueueBypassedCount() {
+    return commandQueueBypassedCount.intValue();
+  }
+
+  /**
+   * The number of executions, dependant chains (in batch kryons) and requests (in granular kryons)
+   * whose state is currently held by the executor.
+   *
+   * <p>This is a count of state entries, not a measure of heap: it does not account for the size of
+   * the facets and results held by each entry. The size of an entry is bounded by the facets of its
+   * kryon though, so for a given workload the heap retained by the executor is proportional to this
+   * count. This is what the requirement that retained heap stays flat under sustained load on a
+   * long-lived executor is verified against: this count must stay flat, and drop back to zero once
+   * all the executions have completed.
+   */
+  public int getTrackedStateCount() {
+    return trackedStateCount.get();
+  }
+
+  /** The highest value {@link #getTrackedStateCount()} has reached. */
+  public int getPeakTrackedStateCount() {
+    return peakTrackedStateCount.get();
+  }
+
+  /** The metrics into which this executor records along with any other executors sharing them. */
+  public AggregatedKryonMetrics getAggregatedMetrics() {
+    return aggregatedMetrics;
+  }
 
   void commandQueueBypassed() {
-    this.commandQueueBypassedCount++;
+    commandQueueBypassedCount.increment();
+    aggregatedMetrics.commandQueueBypassed();
+  }
+
+  void commandQueued(long queueWaitNanos) {
+    commandQueuedCount.increment();
+    aggregatedMetrics.commandQueued(queueWaitNanos);
+  }
+
+  void commandExecuted(KryonId kryonId, long executionNanos) {
+    aggregatedMetrics.commandExecuted(kryonId, executionNanos);
+  }
+
+  void executionStarted() {
+    stateTracked();
+    aggregatedMetrics.executionStarted();
+  }
+
+  void executionCompleted(long latencyNanos) {
+    aggregatedMetrics.executionCompleted(latencyNanos);
+  }
+
+  void executionEvicted() {
+    stateReleased();
+    aggregatedMetrics.executionEvicted();
+  }
+
+  void flushCompleted(long flushToCompletionNanos) {
+    aggregatedMetrics.flushCompleted(flushToCompletionNanos);
+  }
+
+  void stateTracked() {
+    int tracked = trackedStateCount.incrementAndGet();
+    peakTrackedStateCount.accumulateAndGet(tracked, Math::max);
   }
 
-  void commandQueued() {
-    this.commandQueuedCount++;
+  void stateReleased() {
+    trackedStateCount.decrementAndGet();
   }
 }
@@ -4,6 +4,17 @@ import com.flipkart.krystal.krystex.kryon.DependantChain;
 import com.flipkart.krystal.krystex.kryon.KryonId;
 import com.google.common.collect.ImmutableSet;
 
+/**
+ * Tells a request scoped output logic decorator which dependant chains of a kryon are active in the
+ * executor.
+ *
+ * <p>The executor sends this when the decorator is first handed to the kryon, and again whenever a
+ * new dependant chain of the kryon is created - not before every execution of the logic. So
+ * decorators must retain the latest set of active dependant chains till the next such command.
+ *
+ * @param dependantsChains all the active dependant chains of the kryon, including the ones which
+ *     were sent previously.
+ */
 public record InitiateActiveDepChains(
     KryonId kryonId, ImmutableSet<DependantChain> dependantsChains)
     implements LogicDecoratorCommand {}
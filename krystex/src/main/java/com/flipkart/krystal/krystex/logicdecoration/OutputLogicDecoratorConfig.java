@@ -1,6 +1,7 @@
 package com.flipkart.krystal.krystex.logicdecoration;
 
 import com.flipkart.krystal.config.ConfigProvider;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -21,6 +22,21 @@ public record OutputLogicDecoratorConfig(
     Predicate<LogicExecutionContext> shouldDecorate,
     Function<LogicExecutionContext, String> instanceIdGenerator,
     Function<LogicDecoratorContext, OutputLogicDecorator> factory) {
+
+  /**
+   * @param instanceId The instance id of the decorator being created
+   * @param logicExecutionContext The context of the logic which is being decorated
+   * @param commandQueue Runs tasks on the command queue of the {@link
+   *     com.flipkart.krystal.krystex.kryon.KryonExecutor} in whose scope a request scoped decorator
+   *     is created. Decorators must use this to get back onto the executor thread from callbacks
+   *     which complete on other threads. Session scoped decorators are shared across executors, so
+   *     for them this runs tasks on the calling thread.
+   */
   public record LogicDecoratorContext(
-      String instanceId, LogicExecutionContext logicExecutionContext) {}
+      String instanceId, LogicExecutionContext logicExecutionContext, Executor commandQueue) {
+
+    public LogicDecoratorContext(String instanceId, LogicExecutionContext logicExecutionContext) {
+      this(instanceId, logicExecutionContext, Runnable::run);
+    }
+  }
 }
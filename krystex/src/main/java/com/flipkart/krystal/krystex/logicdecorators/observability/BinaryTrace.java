@@ -0,0 +1,230 @@
+package com.flipkart.krystal.krystex.logicdecorators.observability;
+
+import static com.flipkart.krystal.krystex.logicdecorators.observability.BinaryTraceFormat.CHAIN;
+import static com.flipkart.krystal.krystex.logicdecorators.observability.BinaryTraceFormat.FLAG_FAILED;
+import static com.flipkart.krystal.krystex.logicdecorators.observability.BinaryTraceFormat.FLAG_FINGERPRINTS;
+import static com.flipkart.krystal.krystex.logicdecorators.observability.BinaryTraceFormat.LOGIC_END;
+import static com.flipkart.krystal.krystex.logicdecorators.observability.BinaryTraceFormat.LOGIC_START;
+import static com.flipkart.krystal.krystex.logicdecorators.observability.BinaryTraceFormat.MAGIC;
+import static com.flipkart.krystal.krystex.logicdecorators.observability.BinaryTraceFormat.ROOT_CHAIN_ID;
+import static com.flipkart.krystal.krystex.logicdecorators.observability.BinaryTraceFormat.STRING;
+import static com.flipkart.krystal.krystex.logicdecorators.observability.BinaryTraceFormat.VERSION;
+import static com.flipkart.krystal.krystex.logicdecorators.observability.BinaryTraceFormat.readByte;
+import static com.flipkart.krystal.krystex.logicdecorators.observability.BinaryTraceFormat.readFixed64;
+import static com.flipkart.krystal.krystex.logicdecorators.observability.BinaryTraceFormat.readVarint;
+import static com.flipkart.krystal.krystex.logicdecorators.observability.BinaryTraceFormat.readVarintInt;
+import static com.flipkart.krystal.krystex.logicdecorators.observability.BinaryTraceFormat.unZigZag;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Comparator.comparingLong;
+
+import com.google.common.collect.ImmutableList;
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A binary trace written by {@link BinaryTraceWriter}, decoded into memory for offline analysis.
+ *
+ * <p>A trace which was truncated (for example because the process died before the writer was
+ * closed) is read up to the last complete record. Executions whose end was not recorded have an
+ * {@link TracedExecution#endMicros() endMicros} of -1.
+ *
+ * @param startTime The wall clock time at which the trace was started
+ * @param executions The output logic executions in the order in which they started
+ */
+public record BinaryTrace(Instant startTime, ImmutableList<TracedExecution> executions) {
+
+  /**
+   * A dependant chain, as recorded in the trace.
+   *
+   * @param parent The chain of the dependant kryon. Null for the root chain
+   * @param kryonId The id of the dependant kryon. Empty for the root chain
+   * @param dependencyName The name of the dependency of the dependant kryon. Empty for the root
+   *     chain
+   */
+  public record TracedChain(
+      int id, @Nullable TracedChain parent, String kryonId, String dependencyName) {
+
+    static final TracedChain ROOT = new TracedChain(ROOT_CHAIN_ID, null, "", "");
+
+    public boolean isRoot() {
+      return parent == null;
+    }
+
+    /** The same representation as {@link com.flipkart.krystal.krystex.kryon.DependantChain}s. */
+    @Override
+    public String toString() {
+      return parent == null ? "[Start]" : "%s:%s[%s]".formatted(parent, kryonId, dependencyName);
+    }
+  }
+
+  /**
+   * An execution of an output logic.
+   *
+   * @param id The id of the execution, unique within the trace
+   * @param chain The dependant chain of the execution
+   * @param startMicros The start time, in microseconds since the start of the trace
+   * @param endMicros The end time, in microseconds since the start of the trace, or -1 if the end
+   *     was not recorded
+   * @param requestCount The number of requests in the execution (the batch size)
+   * @param failed Whether any of the requests failed
+   * @param inputFingerprints The fingerprints of the facets of each request, if recorded. Must not
+   *     be modified.
+   * @param resultFingerprints The fingerprints of the result of each request, if recorded. Must not
+   *     be modified.
+   */
+  public record TracedExecution(
+      long id,
+      String kryonId,
+      TracedChain chain,
+      long startMicros,
+      long endMicros,
+      int requestCount,
+      boolean failed,
+      long @Nullable [] inputFingerprints,
+      long @Nullable [] resultFingerprints) {
+
+    public boolean ended() {
+      return endMicros >= 0;
+    }
+
+    /** The duration of the execution, or 0 if its end was not recorded. */
+    public long durationMicros() {
+      return ended() ? endMicros - startMicros : 0;
+    }
+
+    private TracedExecution withEnd(
+        long endMicros, boolean failed, long @Nullable [] resultFingerprints) {
+      return new TracedExecution(
+          id,
+          kryonId,
+          chain,
+          startMicros,
+          endMicros,
+          requestCount,
+          failed,
+          inputFingerprints,
+          resultFingerprints);
+    }
+  }
+
+  public static BinaryTrace read(Path file) throws IOException {
+    try (InputStream in = Files.newInputStream(file)) {
+      return read(in);
+    }
+  }
+
+  public static BinaryTrace read(InputStream in) throws IOException {
+    in = new BufferedInputStream(in);
+    for (byte b : MAGIC) {
+      if (readByte(in) != b) {
+        throw new IOException("Not a binary trace");
+      }
+    }
+    int version = readByte(in);
+    if (version != VERSION) {
+      throw new IOException("Unsupported binary trace version: " + version);
+    }
+    Instant startTime = Instant.ofEpochMilli(readVarint(in));
+
+    Map<Integer, String> strings = new HashMap<>();
+    Map<Integer, TracedChain> chains = new HashMap<>();
+    chains.put(ROOT_CHAIN_ID, TracedChain.ROOT);
+    Map<Long, TracedExecution> executions = new LinkedHashMap<>();
+    long timeMicros = 0;
+    while (true) {
+      int tag = in.read();
+      if (tag < 0) {
+        break;
+      }
+      try {
+        switch (tag) {
+          case STRING -> {
+            int id = readVarintInt(in);
+            byte[] bytes = new byte[readVarintInt(in)];
+            if (in.readNBytes(bytes, 0, bytes.length) != bytes.length) {
+              throw new EOFException();
+            }
+            strings.put(id, new String(bytes, UTF_8));
+          }
+          case CHAIN -> {
+            int id = readVarintInt(in);
+            TracedChain parent = lookup(chains, readVarintInt(in), "chain");
+            String kryonId = lookup(strings, readVarintInt(in), "string");
+            String dependencyName = lookup(strings, readVarintInt(in), "string");
+            chains.put(id, new TracedChain(id, parent, kryonId, dependencyName));
+          }
+          case LOGIC_START -> {
+            long id = readVarint(in);
+            String kryonId = lookup(strings, readVarintInt(in), "string");
+            TracedChain chain = lookup(chains, readVarintInt(in), "chain");
+            timeMicros += unZigZag(readVarint(in));
+            long flags = readVarint(in);
+            int requestCount = readVarintInt(in);
+            long[] inputFingerprints =
+                (flags & FLAG_FINGERPRINTS) != 0 ? readFingerprints(in, requestCount) : null;
+            executions.put(
+                id,
+                new TracedExecution(
+                    id,
+                    kryonId,
+                    chain,
+                    timeMicros,
+                    -1,
+                    requestCount,
+                    false,
+                    inputFingerprints,
+                    null));
+          }
+          case LOGIC_END -> {
+            long id = readVarint(in);
+            timeMicros += unZigZag(readVarint(in));
+            long flags = readVarint(in);
+            long[] resultFingerprints =
+                (flags & FLAG_FINGERPRINTS) != 0 ? readFingerprints(in, readVarintInt(in)) : null;
+            TracedExecution execution = executions.get(id);
+            if (execution != null) {
+              executions.put(
+                  id,
+                  execution.withEnd(timeMicros, (flags & FLAG_FAILED) != 0, resultFingerprints));
+            }
+          }
+          default -> throw new IOException("Unknown record tag %s in binary trace".formatted(tag));
+        }
+      } catch (EOFException e) {
+        // The trace was truncated - ignore the incomplete record
+        break;
+      }
+    }
+    // Records are not written in the order of their timestamps
+    List<TracedExecution> byStartTime = new ArrayList<>(executions.values());
+    byStartTime.sort(comparingLong(TracedExecution::startMicros));
+    return new BinaryTrace(startTime, ImmutableList.copyOf(byStartTime));
+  }
+
+  private static long[] readFingerprints(InputStream in, int count) throws IOException {
+    long[] fingerprints = new long[count];
+    for (int i = 0; i < count; i++) {
+      fingerprints[i] = readFixed64(in);
+    }
+    return fingerprints;
+  }
+
+  private static <T> T lookup(Map<Integer, T> dictionary, int id, String kind) throws IOException {
+    T value = dictionary.get(id);
+    if (value == null) {
+      throw new IOException("Undefined %s id %s in binary trace".formatted(kind, id));
+    }
+    return value;
+  }
+}
@@ -0,0 +1,310 @@
+package com.flipkart.krystal.krystex.logicdecorators.observability;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.flipkart.krystal.krystex.logicdecorators.observability.BinaryTrace.TracedChain;
+import com.flipkart.krystal.krystex.logicdecorators.observability.BinaryTrace.TracedExecution;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Converts {@link BinaryTrace binary traces}, offline, into
+ *
+ * <ul>
+ *   <li>{@code html}: the execution graph view rendered by {@link MainLogicExecReporter}
+ *   <li>{@code chrome}: Chrome trace-event JSON, which can be opened in {@code chrome://tracing} or
+ *       Perfetto
+ *   <li>{@code collapsed}: collapsed stacks (one {@code frame;frame;frame value} line per stack)
+ *       which can be rendered by flame graph tools. Frames are kryon ids along the dependant chain
+ *       and values are output logic durations in microseconds.
+ * </ul>
+ *
+ * <p>Usage: {@code java -cp <classpath>
+ * com.flipkart.krystal.krystex.logicdecorators.observability.BinaryTraceConverter <html | chrome |
+ * collapsed> <trace file> [output file]}
+ */
+public final class BinaryTraceConverter {
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2 || args.length > 3) {
+      System.err.println(
+          "Usage: BinaryTraceConverter <html | chrome | collapsed> <trace file> [output file]");
+      System.exit(1);
+    }
+    String format = args[0];
+    Path traceFile = Path.of(args[1]);
+    String extension =
+        switch (format) {
+          case "html" -> ".html";
+          case "chrome" -> ".json";
+          case "collapsed" -> ".collapsed";
+          default -> throw new IllegalArgumentException("Unknown output format: " + format);
+        };
+    Path output =
+        args.length == 3
+            ? Path.of(args[2])
+            : traceFile.resolveSibling(traceFile.getFileName() + extension);
+    BinaryTrace trace = BinaryTrace.read(traceFile);
+    try (Writer writer = Files.newBufferedWriter(output, UTF_8)) {
+      switch (format) {
+        case "html" -> writeHtml(trace, writer);
+        case "chrome" -> writeChromeTrace(trace, writer);
+        default -> writeCollapsedStacks(trace, writer);
+      }
+    }
+    System.out.println(output);
+  }
+
+  /**
+   * Writes the trace as the HTML graph view of {@link DefaultKryonExecutionReport}s.
+   *
+   * <p>Since the trace does not contain inputs and results, each request is identified by the id of
+   * its execution and the fingerprint of its facets (if recorded), and each result by its
+   * fingerprint (if recorded) or the status of the execution. A dependency execution is attached to
+   * the first execution of its dependant kryon (in the same dependant chain) which started after it
+   * ended.
+   */
+  public static void writeHtml(BinaryTrace trace, Writer out) throws IOException {
+    ObjectMapper objectMapper = ExecutionReportWriter.newObjectMapper();
+    ObjectNode report = objectMapper.createObjectNode();
+    report.put("startTime", trace.startTime().toString());
+    ObjectNode execInfos = report.putObject("mainLogicExecInfos");
+    ObjectNode dataMap = report.putObject("dataMap");
+
+    Map<TracedExecution, List<TracedExecution>> dependencies = linkDependencies(trace);
+    List<TracedExecution> executions = new ArrayList<>(trace.executions());
+    // The graph view is rooted at the first execution which is not a dependency of another
+    executions.sort((a, b) -> Boolean.compare(!a.chain().isRoot(), !b.chain().isRoot()));
+    for (TracedExecution execution : executions) {
+      ObjectNode info = objectMapper.createObjectNode();
+      info.put("kryonId", execution.kryonId());
+      info.put("dependantChain", execution.chain().toString());
+      ArrayNode inputsList = info.putArray("inputsList");
+      for (int i = 0; i < execution.requestCount(); i++) {
+        ObjectNode inputs = inputsList.addObject();
+        String requestId = requestId(execution, i);
+        inputs.put("request", requestId);
+        dataMap.put(requestId, requestId);
+        long[] inputFingerprints = execution.inputFingerprints();
+        if (inputFingerprints != null) {
+          inputs.put("inputs", fingerprintId(inputFingerprints[i], dataMap));
+        }
+      }
+      List<TracedExecution> deps = dependencies.getOrDefault(execution, List.of());
+      if (!deps.isEmpty()) {
+        ObjectNode dependencyResults = info.putArray("dependencyResults").addObject();
+        for (TracedExecution dep : deps) {
+          ObjectNode depResults =
+              dependencyResults.putObject(
+                  "%s#%s".formatted(dep.chain().dependencyName(), dep.id()));
+          depResults.put(requestsString(dep), resultId(dep, 0, dataMap));
+        }
+      }
+      if (execution.requestCount() == 1) {
+        info.put("result", resultId(execution, 0, dataMap));
+      } else {
+        ObjectNode result = info.putObject("result");
+        for (int i = 0; i < execution.requestCount(); i++) {
+          result.put(requestId(execution, i), resultId(execution, i, dataMap));
+        }
+      }
+      info.put("startTimeMs", execution.startMicros() / 1000);
+      info.put("endTimeMs", execution.ended() ? execution.endMicros() / 1000 : -1);
+      execInfos.set("%s([%s])".formatted(execution.kryonId(), requestsString(execution)), info);
+    }
+    out.write(GenerateHtml.generateHtml(objectMapper.writeValueAsString(report)));
+  }
+
+  /**
+   * Writes the trace as Chrome trace-event JSON. Each output logic execution is a complete ("X")
+   * event. Executions which overlap in time are laid out on different threads so that they do not
+   * hide each other.
+   */
+  public static void writeChromeTrace(BinaryTrace trace, Writer out) throws IOException {
+    List<Long> laneEndMicros = new ArrayList<>();
+    try (JsonGenerator json =
+        new ObjectMapper()
+            .getFactory()
+            .createGenerator(out)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+      json.writeStartObject();
+      json.writeStringField("displayTimeUnit", "ms");
+      json.writeObjectFieldStart("otherData");
+      json.writeStringField("startTime", trace.startTime().toString());
+      json.writeEndObject();
+      json.writeArrayFieldStart("traceEvents");
+      for (TracedExecution execution : trace.executions()) {
+        long endMicros = execution.ended() ? execution.endMicros() : execution.startMicros();
+        int lane = 0;
+        while (lane < laneEndMicros.size() && laneEndMicros.get(lane) > execution.startMicros()) {
+          lane++;
+        }
+        if (lane == laneEndMicros.size()) {
+          laneEndMicros.add(endMicros);
+        } else {
+          laneEndMicros.set(lane, endMicros);
+        }
+        json.writeStartObject();
+        json.writeStringField("name", execution.kryonId());
+        json.writeStringField("cat", "kryon");
+        json.writeStringField("ph", "X");
+        json.writeNumberField("ts", execution.startMicros());
+        json.writeNumberField("dur", execution.durationMicros());
+        json.writeNumberField("pid", 1);
+        json.writeNumberField("tid", lane + 1);
+        json.writeObjectFieldStart("args");
+        json.writeStringField("dependantChain", execution.chain().toString());
+        json.writeNumberField("batchSize", execution.requestCount());
+        json.writeBooleanField("failed", execution.failed());
+        json.writeBooleanField("ended", execution.ended());
+        json.writeEndObject();
+        json.writeEndObject();
+      }
+      json.writeEndArray();
+      json.writeEndObject();
+    }
+  }
+
+  /**
+   * Writes the trace as collapsed stacks. The stack of an execution is the path of kryon ids from
+   * the root of its dependant chain to its own kryon, and its value is the total duration (in
+   * microseconds) of the executions with that stack. Since a flame graph adds up the values of a
+   * frame's descendants into the frame, the width of a frame is the time spent in the output
+   * logics of the kryon and all its dependencies.
+   */
+  public static void writeCollapsedStacks(BinaryTrace trace, Writer out) throws IOException {
+    Map<TracedChain, String> chainStacks = new HashMap<>();
+    Map<String, Long> stackMicros = new LinkedHashMap<>();
+    for (TracedExecution execution : trace.executions()) {
+      if (!execution.ended()) {
+        continue;
+      }
+      String chainStack = chainStack(execution.chain(), chainStacks);
+      String stack =
+          chainStack.isEmpty()
+              ? frame(execution.kryonId())
+              : chainStack + ';' + frame(execution.kryonId());
+      stackMicros.merge(stack, execution.durationMicros(), Long::sum);
+    }
+    for (Entry<String, Long> entry : stackMicros.entrySet()) {
+      out.write(entry.getKey());
+      out.write(' ');
+      out.write(String.valueOf(entry.getValue()));
+      out.write('\n');
+    }
+  }
+
+  /**
+   * Maps each execution to the executions of its dependencies. A dependency execution is attached
+   * to the first execution of the dependant kryon in the dependant chain which started after the
+   * dependency ended, since output logics are executed only after their dependencies complete.
+   */
+  private static Map<TracedExecution, List<TracedExecution>> linkDependencies(BinaryTrace trace) {
+    Map<TracedChain, Map<String, List<TracedExecution>>> executionsByChain = new HashMap<>();
+    for (TracedExecution execution : trace.executions()) {
+      executionsByChain
+          .computeIfAbsent(execution.chain(), c -> new HashMap<>())
+          .computeIfAbsent(execution.kryonId(), k -> new ArrayList<>())
+          .add(execution);
+    }
+    Map<TracedExecution, List<TracedExecution>> dependencies = new HashMap<>();
+    for (TracedExecution execution : trace.executions()) {
+      TracedChain chain = execution.chain();
+      TracedChain dependantChain = chain.parent();
+      if (dependantChain == null) {
+        continue;
+      }
+      List<TracedExecution> dependants =
+          executionsByChain
+              .getOrDefault(dependantChain, Map.of())
+              .getOrDefault(chain.kryonId(), List.of());
+      @Nullable TracedExecution dependant = null;
+      for (TracedExecution candidate : dependants) {
+        dependant = candidate;
+        if (execution.ended() && candidate.startMicros() >= execution.endMicros()) {
+          break;
+        }
+      }
+      if (dependant != null) {
+        dependencies.computeIfAbsent(dependant, d -> new ArrayList<>()).add(execution);
+      }
+    }
+    return dependencies;
+  }
+
+  private static String chainStack(TracedChain chain, Map<TracedChain, String> chainStacks) {
+    String stack = chainStacks.get(chain);
+    if (stack != null) {
+      return stack;
+    }
+    Deque<String> frames = new ArrayDeque<>();
+    TracedChain current = chain;
+    TracedChain parent;
+    while ((parent = current.parent()) != null) {
+      frames.addFirst(frame(current.kryonId()));
+      current = parent;
+    }
+    stack = String.join(";", frames);
+    chainStacks.put(chain, stack);
+    return stack;
+  }
+
+  /** Collapsed stack frames are separated by ';' and the value by ' ', so neither can be used. */
+  private static String frame(String kryonId) {
+    return kryonId.replace(';', '_').replace(' ', '_');
+  }
+
+  private static String requestId(TracedExecution execution, int index) {
+    return "%s.%s".formatted(execution.id(), index);
+  }
+
+  /** The representation of the requests of an execution used by the HTML view to link nodes. */
+  private static String requestsString(TracedExecution execution) {
+    StringBuilder requests = new StringBuilder();
+    long[] inputFingerprints = execution.inputFingerprints();
+    for (int i = 0; i < execution.requestCount(); i++) {
+      if (i > 0) {
+        requests.append(", ");
+      }
+      requests.append("{request=").append(requestId(execution, i));
+      if (inputFingerprints != null) {
+        requests.append(", inputs=").append(Long.toHexString(inputFingerprints[i]));
+      }
+      requests.append('}');
+    }
+    return requests.toString();
+  }
+
+  private static String resultId(TracedExecution execution, int index, ObjectNode dataMap) {
+    long[] resultFingerprints = execution.resultFingerprints();
+    if (resultFingerprints != null && index < resultFingerprints.length) {
+      return fingerprintId(resultFingerprints[index], dataMap);
+    }
+    String status = !execution.ended() ? "pending" : execution.failed() ? "failed" : "succeeded";
+    dataMap.put(status, status);
+    return status;
+  }
+
+  private static String fingerprintId(long fingerprint, ObjectNode dataMap) {
+    String id = Long.toHexString(fingerprint);
+    dataMap.put(id, "fingerprint " + id);
+    return id;
+  }
+
+  private BinaryTraceConverter() {}
+}
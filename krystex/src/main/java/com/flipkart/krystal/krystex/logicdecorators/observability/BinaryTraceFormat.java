@@ -0,0 +1,110 @@
+package com.flipkart.krystal.krystex.logicdecorators.observability;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * The layout of the binary execution traces written by {@link BinaryTraceWriter} and read by
+ * {@link BinaryTrace}.
+ *
+ * <p>A trace is a header followed by a stream of records. All integers are unsigned LEB128 varints
+ * unless stated otherwise, so that the small ids and time deltas which make up most of a trace take
+ * a byte or two each.
+ *
+ * <pre>
+ * header:      'K' 'T' 'R' 'C', version (1 byte), trace start (epoch millis)
+ * STRING:      tag, string id, byte length, UTF-8 bytes
+ * CHAIN:       tag, chain id, parent chain id, kryon string id, dependency name string id
+ * LOGIC_START: tag, execution id, kryon string id, chain id, time delta (micros, zigzag), flags,
+ *              request count, [request count x input fingerprint (8 bytes, big endian)]
+ * LOGIC_END:   tag, execution id, time delta (micros, zigzag), flags,
+ *              [request count, request count x result fingerprint (8 bytes, big endian)]
+ * </pre>
+ *
+ * <p>Strings (kryon ids and dependency names) and dependant chains are dictionary encoded: each is
+ * defined by a STRING or CHAIN record the first time it is used, and referred to by its id
+ * afterwards. Chain id 0 is the {@link com.flipkart.krystal.krystex.kryon.DependantChainStart} and
+ * is never defined explicitly. The time delta of a record is the number of microseconds elapsed
+ * since the previous timed record (or the trace start). Records are written in batches, so the
+ * delta can be negative, and it is zigzag encoded so that small deltas of either sign stay small.
+ */
+final class BinaryTraceFormat {
+
+  static final byte[] MAGIC = {'K', 'T', 'R', 'C'};
+  static final int VERSION = 2;
+
+  static final int STRING = 1;
+  static final int CHAIN = 2;
+  static final int LOGIC_START = 3;
+  static final int LOGIC_END = 4;
+
+  static final int ROOT_CHAIN_ID = 0;
+
+  /** Set if the record carries one fingerprint per request. */
+  static final int FLAG_FINGERPRINTS = 1;
+
+  /** Set (in LOGIC_END records) if at least one of the requests failed. */
+  static final int FLAG_FAILED = 1 << 1;
+
+  static void writeVarint(OutputStream out, long value) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      out.write((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.write((int) value);
+  }
+
+  static long zigZag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  static long unZigZag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  static void writeFixed64(OutputStream out, long value) throws IOException {
+    for (int shift = 56; shift >= 0; shift -= 8) {
+      out.write((int) (value >>> shift));
+    }
+  }
+
+  static long readVarint(InputStream in) throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      int b = readByte(in);
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed varint in binary trace");
+  }
+
+  static int readVarintInt(InputStream in) throws IOException {
+    long value = readVarint(in);
+    if (value > Integer.MAX_VALUE) {
+      throw new IOException("Value %s is too large in binary trace".formatted(value));
+    }
+    return (int) value;
+  }
+
+  static long readFixed64(InputStream in) throws IOException {
+    long value = 0;
+    for (int i = 0; i < 8; i++) {
+      value = (value << 8) | readByte(in);
+    }
+    return value;
+  }
+
+  static int readByte(InputStream in) throws IOException {
+    int b = in.read();
+    if (b < 0) {
+      throw new EOFException("Unexpected end of binary trace");
+    }
+    return b;
+  }
+
+  private BinaryTraceFormat() {}
+}
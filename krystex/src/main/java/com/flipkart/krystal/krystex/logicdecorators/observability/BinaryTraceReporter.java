@@ -0,0 +1,109 @@
+package com.flipkart.krystal.krystex.logicdecorators.observability;
+
+import static java.util.concurrent.CompletableFuture.allOf;
+
+import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.OutputLogic;
+import com.flipkart.krystal.krystex.OutputLogicDefinition;
+import com.flipkart.krystal.krystex.kryon.DependantChain;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecorator;
+import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecoratorConfig;
+import com.flipkart.krystal.krystex.logicdecorators.observability.BinaryTraceWriter.TraceBuffer;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Records the executions of output logics into a {@link BinaryTraceWriter}. This is a lightweight
+ * alternative to {@link MainLogicExecReporter} meant for capturing traces under real load.
+ *
+ * <p>The dependant chain of an execution is known only in the request scope, so this decorator
+ * must be registered as a request scoped decorator using {@link #decoratorConfig}. Each instance
+ * records into its own {@link TraceBuffer}, which is handed over to the writer when the executor
+ * completes.
+ */
+public final class BinaryTraceReporter implements OutputLogicDecorator {
+
+  public static final String DECORATOR_TYPE = BinaryTraceReporter.class.getName();
+
+  private final TraceBuffer buffer;
+  private final DependantChain dependants;
+
+  public BinaryTraceReporter(BinaryTraceWriter writer, DependantChain dependants) {
+    this.buffer = writer.newBuffer();
+    this.dependants = dependants;
+  }
+
+  /**
+   * A request scoped decorator config which records all the output logic executions into the given
+   * writer. One decorator instance is created per kryon and dependant chain.
+   */
+  public static OutputLogicDecoratorConfig decoratorConfig(BinaryTraceWriter writer) {
+    return new OutputLogicDecoratorConfig(
+        DECORATOR_TYPE,
+        logicExecutionContext -> true,
+        logicExecutionContext ->
+            "%s:%s"
+                .formatted(
+                    logicExecutionContext.kryonId().value(), logicExecutionContext.dependants()),
+        decoratorContext ->
+            new BinaryTraceReporter(
+                writer, decoratorContext.logicExecutionContext().dependants()));
+  }
+
+  @Override
+  public OutputLogic<Object> decorateLogic(
+      OutputLogic<Object> logicToDecorate, OutputLogicDefinition<Object> originalLogicDefinition) {
+    KryonId kryonId = originalLogicDefinition.kryonLogicId().kryonId();
+    return requests -> {
+      long executionId = buffer.logicStarted(kryonId, dependants, requests);
+      ImmutableMap<Facets, CompletableFuture<@Nullable Object>> results;
+      try {
+        results = logicToDecorate.execute(requests);
+      } catch (Throwable e) {
+        buffer.logicEnded(executionId, failures(requests.size(), e));
+        throw e;
+      }
+      allOf(results.values().toArray(CompletableFuture[]::new))
+          .whenComplete((_r, _t) -> buffer.logicEnded(executionId, outcomes(requests, results)));
+      return results;
+    };
+  }
+
+  @Override
+  public String getId() {
+    return DECORATOR_TYPE;
+  }
+
+  @Override
+  public void onComplete() {
+    buffer.handOver();
+  }
+
+  private static List<Errable<Object>> outcomes(
+      ImmutableList<Facets> requests,
+      ImmutableMap<Facets, CompletableFuture<@Nullable Object>> results) {
+    List<Errable<Object>> outcomes = new ArrayList<>(requests.size());
+    for (Facets request : requests) {
+      CompletableFuture<@Nullable Object> result = results.get(request);
+      outcomes.add(
+          result == null
+              ? Errable.empty()
+              : result.<Errable<Object>>handle(Errable::errableFrom).getNow(Errable.empty()));
+    }
+    return outcomes;
+  }
+
+  private static List<Errable<Object>> failures(int count, Throwable error) {
+    List<Errable<Object>> outcomes = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      outcomes.add(Errable.withError(error));
+    }
+    return outcomes;
+  }
+}
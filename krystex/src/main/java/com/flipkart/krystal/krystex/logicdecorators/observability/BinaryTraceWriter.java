@@ -0,0 +1,413 @@
+package com.flipkart.krystal.krystex.logicdecorators.observability;
+
+import static com.flipkart.krystal.krystex.logicdecorators.observability.BinaryTraceFormat.CHAIN;
+import static com.flipkart.krystal.krystex.logicdecorators.observability.BinaryTraceFormat.FLAG_FAILED;
+import static com.flipkart.krystal.krystex.logicdecorators.observability.BinaryTraceFormat.FLAG_FINGERPRINTS;
+import static com.flipkart.krystal.krystex.logicdecorators.observability.BinaryTraceFormat.LOGIC_END;
+import static com.flipkart.krystal.krystex.logicdecorators.observability.BinaryTraceFormat.LOGIC_START;
+import static com.flipkart.krystal.krystex.logicdecorators.observability.BinaryTraceFormat.MAGIC;
+import static com.flipkart.krystal.krystex.logicdecorators.observability.BinaryTraceFormat.ROOT_CHAIN_ID;
+import static com.flipkart.krystal.krystex.logicdecorators.observability.BinaryTraceFormat.STRING;
+import static com.flipkart.krystal.krystex.logicdecorators.observability.BinaryTraceFormat.VERSION;
+import static com.flipkart.krystal.krystex.logicdecorators.observability.BinaryTraceFormat.writeFixed64;
+import static com.flipkart.krystal.krystex.logicdecorators.observability.BinaryTraceFormat.writeVarint;
+import static com.flipkart.krystal.krystex.logicdecorators.observability.BinaryTraceFormat.zigZag;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.data.Fingerprints;
+import com.flipkart.krystal.krystex.kryon.DefaultDependantChain;
+import com.flipkart.krystal.krystex.kryon.DependantChain;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Writes a compact binary trace of output logic executions (see {@link BinaryTraceFormat}) to a
+ * stream.
+ *
+ * <p>Executions are recorded into {@link TraceBuffer}s - one per decorator instance, and so per
+ * executor - which are handed over to a single background thread that encodes and writes them.
+ * Recording an execution only appends to an in-memory buffer, so executors never wait for disk IO
+ * or for each other. Like {@link ExecutionReportWriter}, the footprint is bounded: at most {@code
+ * maxPendingBuffers} buffers wait to be written, and further buffers are dropped and counted.
+ *
+ * <p>Unlike {@link DefaultKryonExecutionReport}, nothing is retained per execution once it is
+ * written, so the heap footprint of the writer is bounded by the number of distinct kryon ids,
+ * dependency names and dependant chains. Inputs and results are not written at all unless {@code
+ * fingerprints} is enabled, in which case a 64-bit {@link Fingerprints fingerprint} is written per
+ * request in their place.
+ *
+ * <p>This class is thread safe, so a single writer can be shared by executors. If writing to the
+ * stream fails, the error is logged and the rest of the trace is discarded so that execution is
+ * never affected.
+ *
+ * <p>Traces can be converted offline using {@link BinaryTraceConverter}.
+ */
+@Slf4j
+public final class BinaryTraceWriter implements AutoCloseable {
+
+  private static final int DEFAULT_MAX_PENDING_BUFFERS = 1024;
+
+  /** A buffer is handed over once it holds these many records, even if it is not complete. */
+  static final int MAX_BUFFERED_RECORDS = 256;
+
+  private final boolean fingerprints;
+  private final long startNanoTime;
+  private final AtomicLong lastExecutionId = new AtomicLong();
+  private final LongAdder droppedRecordCount = new LongAdder();
+  private final ExecutorService writerThread;
+
+  // Accessed only by the writer thread
+  private final OutputStream out;
+  private final Map<String, Integer> stringIds = new HashMap<>();
+  private final Map<DependantChain, Integer> chainIds = new HashMap<>();
+  private long lastTimeMicros;
+  private boolean failed;
+
+  /**
+   * @param out The stream to which the trace is written. It is buffered by this writer.
+   * @param fingerprints Whether a fingerprint of the inputs and of the result of each request is
+   *     written
+   */
+  public BinaryTraceWriter(OutputStream out, boolean fingerprints) throws IOException {
+    this(out, fingerprints, DEFAULT_MAX_PENDING_BUFFERS);
+  }
+
+  /**
+   * @param out The stream to which the trace is written. It is buffered by this writer.
+   * @param fingerprints Whether a fingerprint of the inputs and of the result of each request is
+   *     written
+   * @param maxPendingBuffers The maximum number of buffers which can wait to be written
+   */
+  public BinaryTraceWriter(OutputStream out, boolean fingerprints, int maxPendingBuffers)
+      throws IOException {
+    if (maxPendingBuffers <= 0) {
+      throw new IllegalArgumentException("maxPendingBuffers must be positive");
+    }
+    this.out = new BufferedOutputStream(out);
+    this.fingerprints = fingerprints;
+    this.startNanoTime = System.nanoTime();
+    this.out.write(MAGIC);
+    this.out.write(VERSION);
+    writeVarint(this.out, System.currentTimeMillis());
+    this.writerThread =
+        new ThreadPoolExecutor(
+            1,
+            1,
+            0,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(maxPendingBuffers),
+            runnable -> {
+              Thread thread = new Thread(runnable, "krystal-binary-trace-writer");
+              thread.setDaemon(true);
+              return thread;
+            },
+            (runnable, executor) -> {
+              if (runnable instanceof BufferWrite bufferWrite) {
+                droppedRecordCount.add(bufferWrite.records.size());
+              }
+            });
+  }
+
+  /** Creates (or truncates) the given file and writes a trace into it. */
+  public static BinaryTraceWriter toFile(Path file, boolean fingerprints) throws IOException {
+    Path parent = file.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    return new BinaryTraceWriter(Files.newOutputStream(file), fingerprints);
+  }
+
+  /** Returns a new buffer into which executions can be recorded. */
+  public TraceBuffer newBuffer() {
+    return new TraceBuffer();
+  }
+
+  /**
+   * The number of records which were dropped because too many buffers were pending, or because
+   * they were handed over after this writer was closed.
+   */
+  public long droppedRecordCount() {
+    return droppedRecordCount.sum();
+  }
+
+  /** Flushes the records handed over so far to the underlying stream, asynchronously. */
+  public void flush() {
+    writerThread.execute(
+        () -> {
+          if (failed) {
+            return;
+          }
+          try {
+            out.flush();
+          } catch (IOException e) {
+            fail(e);
+          }
+        });
+  }
+
+  /** Writes all the buffers handed over so far, and closes the stream. */
+  @Override
+  public void close() throws IOException {
+    writerThread.shutdown();
+    try {
+      if (!writerThread.awaitTermination(1, TimeUnit.MINUTES)) {
+        log.warn("Timed out waiting for pending binary trace records to be written");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    // The writer thread has stopped (or is stuck), so the stream can be closed from here
+    failed = true;
+    out.close();
+  }
+
+  private void handOver(List<TraceRecord> records) {
+    writerThread.execute(new BufferWrite(records));
+  }
+
+  private void write(List<TraceRecord> records) {
+    if (failed) {
+      return;
+    }
+    try {
+      for (TraceRecord record : records) {
+        if (record instanceof LogicStart logicStart) {
+          write(logicStart);
+        } else if (record instanceof LogicEnd logicEnd) {
+          write(logicEnd);
+        }
+      }
+    } catch (IOException e) {
+      fail(e);
+    }
+  }
+
+  private void write(LogicStart logicStart) throws IOException {
+    int kryonStringId = stringId(logicStart.kryonId().value());
+    int chainId = chainId(logicStart.dependants());
+    long[] inputFingerprints = logicStart.inputFingerprints();
+    out.write(LOGIC_START);
+    writeVarint(out, logicStart.executionId());
+    writeVarint(out, kryonStringId);
+    writeVarint(out, chainId);
+    writeVarint(out, timeDelta(logicStart.nanoTime()));
+    writeVarint(out, inputFingerprints != null ? FLAG_FINGERPRINTS : 0);
+    writeVarint(out, logicStart.requestCount());
+    if (inputFingerprints != null) {
+      for (long fingerprint : inputFingerprints) {
+        writeFixed64(out, fingerprint);
+      }
+    }
+  }
+
+  private void write(LogicEnd logicEnd) throws IOException {
+    long[] resultFingerprints = logicEnd.resultFingerprints();
+    out.write(LOGIC_END);
+    writeVarint(out, logicEnd.executionId());
+    writeVarint(out, timeDelta(logicEnd.nanoTime()));
+    writeVarint(
+        out,
+        (resultFingerprints != null ? FLAG_FINGERPRINTS : 0)
+            | (logicEnd.failed() ? FLAG_FAILED : 0));
+    if (resultFingerprints != null) {
+      writeVarint(out, resultFingerprints.length);
+      for (long fingerprint : resultFingerprints) {
+        writeFixed64(out, fingerprint);
+      }
+    }
+  }
+
+  /**
+   * Buffers are handed over in the order in which they fill up or complete, so records are not
+   * written in the order of their timestamps. Hence the time delta is signed.
+   */
+  private long timeDelta(long nanoTime) {
+    long timeMicros = Math.max(0, nanoTime - startNanoTime) / 1000;
+    long delta = timeMicros - lastTimeMicros;
+    lastTimeMicros = timeMicros;
+    return zigZag(delta);
+  }
+
+  private int stringId(String string) throws IOException {
+    Integer id = stringIds.get(string);
+    if (id == null) {
+      id = stringIds.size() + 1;
+      byte[] bytes = string.getBytes(UTF_8);
+      out.write(STRING);
+      writeVarint(out, id);
+      writeVarint(out, bytes.length);
+      out.write(bytes);
+      stringIds.put(string, id);
+    }
+    return id;
+  }
+
+  private int chainId(DependantChain chain) throws IOException {
+    if (!(chain instanceof DefaultDependantChain defaultChain)) {
+      return ROOT_CHAIN_ID;
+    }
+    Integer id = chainIds.get(chain);
+    if (id == null) {
+      int parentId = chainId(defaultChain.dependantChain());
+      int kryonStringId = stringId(defaultChain.kryonId().value());
+      int dependencyStringId = stringId(defaultChain.dependencyName());
+      id = chainIds.size() + 1;
+      out.write(CHAIN);
+      writeVarint(out, id);
+      writeVarint(out, parentId);
+      writeVarint(out, kryonStringId);
+      writeVarint(out, dependencyStringId);
+      chainIds.put(chain, id);
+    }
+    return id;
+  }
+
+  private void fail(IOException e) {
+    failed = true;
+    log.error("Could not write binary trace. Discarding the rest of the trace", e);
+  }
+
+  /**
+   * Records executions in memory till they are handed over to the writer thread - either when
+   * {@link #handOver()} is called, or when the buffer fills up. Records made after {@link
+   * #handOver()} (for example, the end of an execution which completes later) are handed over
+   * immediately.
+   *
+   * <p>The methods of this class are thread safe, since executions can end in threads other than
+   * the one which started them. They are not expected to be contended.
+   */
+  public final class TraceBuffer {
+
+    private List<TraceRecord> records = new ArrayList<>();
+    private boolean handedOver;
+
+    private TraceBuffer() {}
+
+    /**
+     * Records the start of an execution of the output logic of the given kryon.
+     *
+     * @return The id of the execution, to be passed to {@link #logicEnded}
+     */
+    public long logicStarted(KryonId kryonId, DependantChain dependants, List<Facets> requests) {
+      long executionId = lastExecutionId.incrementAndGet();
+      long[] inputFingerprints = null;
+      if (fingerprints) {
+        inputFingerprints = new long[requests.size()];
+        for (int i = 0; i < inputFingerprints.length; i++) {
+          inputFingerprints[i] = requests.get(i).fingerprint();
+        }
+      }
+      record(
+          new LogicStart(
+              executionId,
+              kryonId,
+              dependants,
+              System.nanoTime(),
+              requests.size(),
+              inputFingerprints));
+      return executionId;
+    }
+
+    /**
+     * Records the end of an execution started with {@link #logicStarted}.
+     *
+     * @param outcomes The outcomes of the requests, in the order in which they were passed to
+     *     {@link #logicStarted}
+     */
+    public void logicEnded(long executionId, List<Errable<Object>> outcomes) {
+      long nanoTime = System.nanoTime();
+      boolean anyFailed = false;
+      for (Errable<Object> outcome : outcomes) {
+        if (outcome.errorOrNull() != null) {
+          anyFailed = true;
+          break;
+        }
+      }
+      long[] resultFingerprints = null;
+      if (fingerprints) {
+        resultFingerprints = new long[outcomes.size()];
+        for (int i = 0; i < resultFingerprints.length; i++) {
+          resultFingerprints[i] = Fingerprints.of(outcomes.get(i));
+        }
+      }
+      record(new LogicEnd(executionId, nanoTime, anyFailed, resultFingerprints));
+    }
+
+    /** Hands the records made so far over to the writer thread. */
+    public void handOver() {
+      List<TraceRecord> toWrite;
+      synchronized (this) {
+        handedOver = true;
+        toWrite = takeRecords();
+      }
+      if (!toWrite.isEmpty()) {
+        BinaryTraceWriter.this.handOver(toWrite);
+      }
+    }
+
+    private void record(TraceRecord record) {
+      List<TraceRecord> toWrite;
+      synchronized (this) {
+        records.add(record);
+        if (!handedOver && records.size() < MAX_BUFFERED_RECORDS) {
+          return;
+        }
+        toWrite = takeRecords();
+      }
+      BinaryTraceWriter.this.handOver(toWrite);
+    }
+
+    private List<TraceRecord> takeRecords() {
+      List<TraceRecord> taken = records;
+      records = new ArrayList<>();
+      return taken;
+    }
+  }
+
+  private sealed interface TraceRecord permits LogicStart, LogicEnd {}
+
+  private record LogicStart(
+      long executionId,
+      KryonId kryonId,
+      DependantChain dependants,
+      long nanoTime,
+      int requestCount,
+      long @Nullable [] inputFingerprints)
+      implements TraceRecord {}
+
+  private record LogicEnd(
+      long executionId, long nanoTime, boolean failed, long @Nullable [] resultFingerprints)
+      implements TraceRecord {}
+
+  private final class BufferWrite implements Runnable {
+
+    private final List<TraceRecord> records;
+
+    private BufferWrite(List<TraceRecord> records) {
+      this.records = records;
+    }
+
+    @Override
+    public void run() {
+      write(records);
+    }
+  }
+}
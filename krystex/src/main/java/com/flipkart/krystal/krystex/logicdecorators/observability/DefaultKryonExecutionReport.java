@@ -6,19 +6,16 @@ import static com.google.common.collect.ImmutableList.toImmutableList;
 import com.flipkart.krystal.data.Errable;
 import com.flipkart.krystal.data.FacetValue;
 import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.data.Fingerprints;
 import com.flipkart.krystal.data.Results;
 import com.flipkart.krystal.krystex.kryon.KryonId;
 import com.flipkart.krystal.krystex.kryon.KryonLogicId;
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
-import java.util.Base64;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -35,16 +32,13 @@ public final class DefaultKryonExecutionReport implements KryonExecutionReport {
   @Getter private final Instant startTime;
   private final boolean verbose;
   private final Clock clock;
-  private static final String SHA_256 = "SHA-256";
-  @Nullable private static MessageDigest digest = null;
-
-  static {
-    try {
-      digest = MessageDigest.getInstance(SHA_256);
-    } catch (NoSuchAlgorithmException e) {
-      log.error("Error could not hash inputs because of exception ", e);
-    }
-  }
+  private final int maxLogicExecutions;
+
+  /** The number of logic executions which were not recorded because the report was full. */
+  @Getter private int droppedLogicExecutionCount;
+
+  private boolean errored;
+  private long elapsedMs;
 
   @Getter
   private final Map<KryonExecution, LogicExecInfo> mainLogicExecInfos = new LinkedHashMap<>();
@@ -56,9 +50,19 @@ public final class DefaultKryonExecutionReport implements KryonExecutionReport {
   }
 
   public DefaultKryonExecutionReport(Clock clock, boolean verbose) {
+    this(clock, verbose, Integer.MAX_VALUE);
+  }
+
+  /**
+   * @param maxLogicExecutions The maximum number of logic executions recorded in this report. This
+   *     bounds the memory held by the report. Further executions are only counted (see {@link
+   *     #getDroppedLogicExecutionCount()}).
+   */
+  public DefaultKryonExecutionReport(Clock clock, boolean verbose, int maxLogicExecutions) {
     this.clock = clock;
     this.startTime = clock.instant();
     this.verbose = verbose;
+    this.maxLogicExecutions = maxLogicExecutions;
   }
 
   @Override
@@ -71,6 +75,10 @@ public final class DefaultKryonExecutionReport implements KryonExecutionReport {
       log.error("Cannot start the same kryon execution multiple times: {}", kryonExecution);
       return;
     }
+    if (mainLogicExecInfos.size() >= maxLogicExecutions) {
+      droppedLogicExecutionCount++;
+      return;
+    }
     mainLogicExecInfos.put(
         kryonExecution,
         new LogicExecInfo(
@@ -80,6 +88,13 @@ public final class DefaultKryonExecutionReport implements KryonExecutionReport {
   @Override
   public void reportMainLogicEnd(
       KryonId kryonId, KryonLogicId kryonLogicId, Results<Object> result) {
+    for (int i = 0; i < result.size(); i++) {
+      if (result.outcomeAt(i).errorOrNull() != null) {
+        errored = true;
+        break;
+      }
+    }
+    elapsedMs = Math.max(elapsedMs, startTime.until(clock.instant(), ChronoUnit.MILLIS));
     KryonExecution kryonExecution =
         new KryonExecution(
             kryonId,
@@ -88,6 +103,10 @@ public final class DefaultKryonExecutionReport implements KryonExecutionReport {
                 .collect(toImmutableList()));
     LogicExecInfo logicExecInfo = mainLogicExecInfos.get(kryonExecution);
     if (logicExecInfo == null) {
+      if (droppedLogicExecutionCount > 0) {
+        // The start of this execution was probably dropped because the report was full
+        return;
+      }
       log.error(
           "'reportMainLogicEnd' called without calling 'reportMainLogicStart' first for: {}",
           kryonExecution);
@@ -101,6 +120,16 @@ public final class DefaultKryonExecutionReport implements KryonExecutionReport {
     logicExecInfo.setResult(convertResult(result));
   }
 
+  @Override
+  public boolean errored() {
+    return errored;
+  }
+
+  @Override
+  public long elapsedMs() {
+    return elapsedMs;
+  }
+
   private record KryonExecution(
       KryonId kryonId, ImmutableList<ImmutableMap<String, String>> inputs) {
     @Override
@@ -138,18 +167,32 @@ public final class DefaultKryonExecutionReport implements KryonExecutionReport {
   }
 
   private String convertErrable(Errable<Object> voe) {
-    String sha256;
-    if (voe.error().isPresent()) {
-      Throwable throwable = voe.error().get();
-      String stackTraceAsString = getStackTraceAsString(throwable);
-      sha256 = verbose ? hashValues(stackTraceAsString) : hashValues(throwable.toString());
-      dataMap.put(sha256, verbose ? stackTraceAsString : throwable.toString());
+    String valueId;
+    Throwable throwable = voe.errorOrNull();
+    if (throwable != null) {
+      valueId = putInDataMap(verbose ? getStackTraceAsString(throwable) : throwable.toString());
     } else {
-      Object value = voe.value().orElse("null");
-      sha256 = hashValues(value);
-      dataMap.put(sha256, value);
+      Object value = voe.valueOrNull();
+      valueId = putInDataMap(value != null ? value : "null");
+    }
+    return valueId;
+  }
+
+  /**
+   * Stores the value in the {@link #getDataMap() data map} and returns its id. Equal values get the
+   * same id. Unequal values whose fingerprints collide get distinct ids.
+   */
+  private String putInDataMap(Object value) {
+    String fingerprintId = hashValues(value);
+    String valueId = fingerprintId;
+    Object existing;
+    for (int i = 1; (existing = dataMap.putIfAbsent(valueId, value)) != null; i++) {
+      if (existing.equals(value)) {
+        break;
+      }
+      valueId = fingerprintId + "_" + i;
     }
-    return sha256;
+    return valueId;
   }
 
   private Map<ImmutableMap<String, String>, String> convertResult(Results<Object> results) {
@@ -159,17 +202,13 @@ public final class DefaultKryonExecutionReport implements KryonExecutionReport {
                 e -> extractAndConvertInputs(e.getKey()), e -> convertErrable(e.getValue())));
   }
 
+  /**
+   * Returns the hex {@link Fingerprints fingerprint} of the string form of the input, so that the
+   * ids in reports are stable across JVM runs even for values which do not have a stable hash code.
+   * Unequal inputs can have the same fingerprint, so this is not a unique id of the input.
+   */
   public static <T> String hashValues(T input) {
-    return hashString(input != null ? input.toString() : "");
-  }
-
-  private static String hashString(String appendedInput) {
-    String encodedString = "";
-    if (digest != null) {
-      byte[] encodedHash = digest.digest(appendedInput.getBytes(StandardCharsets.UTF_8));
-      encodedString = Base64.getEncoder().encodeToString(encodedHash);
-    }
-    return encodedString;
+    return Long.toHexString(Fingerprints.of(input != null ? input.toString() : ""));
   }
 
   @ToString
@@ -0,0 +1,56 @@
+package com.flipkart.krystal.krystex.logicdecorators.observability;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Renders the JSON execution reports written by {@link ExecutionReportWriter} as HTML, offline.
+ *
+ * <p>Usage: {@code java -cp <classpath>
+ * com.flipkart.krystal.krystex.logicdecorators.observability.ExecutionReportRenderer <report.json
+ * | report directory>...}
+ */
+public final class ExecutionReportRenderer {
+
+  public static void main(String[] args) throws IOException {
+    if (args.length == 0) {
+      System.err.println("Usage: ExecutionReportRenderer <report.json | report directory>...");
+      System.exit(1);
+    }
+    for (String arg : args) {
+      for (Path html : render(Path.of(arg))) {
+        System.out.println(html);
+      }
+    }
+  }
+
+  /**
+   * Renders the given report file, or all the report files in the given directory, into HTML files
+   * next to them. Returns the paths of the HTML files.
+   */
+  public static List<Path> render(Path path) throws IOException {
+    List<Path> reports =
+        Files.isDirectory(path) ? ExecutionReportWriter.listReportFiles(path) : List.of(path);
+    List<Path> htmlFiles = new ArrayList<>(reports.size());
+    for (Path report : reports) {
+      String fileName = report.getFileName().toString();
+      String htmlFileName =
+          (fileName.endsWith(ExecutionReportWriter.FILE_SUFFIX)
+                  ? fileName.substring(
+                      0, fileName.length() - ExecutionReportWriter.FILE_SUFFIX.length())
+                  : fileName)
+              + ".html";
+      Path html = report.resolveSibling(htmlFileName);
+      Files.writeString(html, GenerateHtml.generateHtml(Files.readString(report, UTF_8)), UTF_8);
+      htmlFiles.add(html);
+    }
+    return htmlFiles;
+  }
+
+  private ExecutionReportRenderer() {}
+}
@@ -0,0 +1,156 @@
+package com.flipkart.krystal.krystex.logicdecorators.observability;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes execution reports as JSON files into a directory, from a single background thread. The
+ * HTML for a report can be rendered offline from its file with {@link ExecutionReportRenderer}.
+ *
+ * <p>The footprint of the writer is bounded: at most {@code maxPendingReports} reports wait to be
+ * written (further reports are dropped and counted), and the directory is rotated so that it holds
+ * at most {@code maxFiles} reports (the oldest ones are deleted). Every report is written into a
+ * new file, even if many executors complete at the same instant.
+ *
+ * <p>This class is thread safe.
+ */
+@Slf4j
+public final class ExecutionReportWriter implements AutoCloseable {
+
+  static final String FILE_PREFIX = "krystal_exec_report_";
+  static final String FILE_SUFFIX = ".json";
+  private static final DateTimeFormatter TIMESTAMP_FORMAT =
+      DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss.SSS");
+
+  private final Path directory;
+  private final int maxFiles;
+  private final ObjectMapper objectMapper = newObjectMapper();
+  private final ExecutorService writerThread;
+  private final AtomicLong sequence = new AtomicLong();
+  private final LongAdder droppedReportCount = new LongAdder();
+
+  /** The files written in the directory, oldest first. Accessed only by the writer thread. */
+  private final Deque<Path> writtenFiles;
+
+  public ExecutionReportWriter(Path directory, int maxFiles, int maxPendingReports) {
+    if (maxFiles <= 0 || maxPendingReports <= 0) {
+      throw new IllegalArgumentException("maxFiles and maxPendingReports must be positive");
+    }
+    this.directory = directory;
+    this.maxFiles = maxFiles;
+    try {
+      Files.createDirectories(directory);
+      this.writtenFiles = new ArrayDeque<>(listReportFiles(directory));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not initialize report directory " + directory, e);
+    }
+    this.writerThread =
+        new ThreadPoolExecutor(
+            1,
+            1,
+            0,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(maxPendingReports),
+            runnable -> {
+              Thread thread = new Thread(runnable, "krystal-exec-report-writer");
+              thread.setDaemon(true);
+              return thread;
+            },
+            (runnable, executor) -> droppedReportCount.increment());
+  }
+
+  /**
+   * Enqueues the given report to be written. Returns immediately. The report must not be modified
+   * after this call.
+   */
+  public void write(KryonExecutionReport report) {
+    String fileName =
+        FILE_PREFIX
+            + LocalDateTime.now().format(TIMESTAMP_FORMAT)
+            + "_%06d".formatted(sequence.incrementAndGet() % 1_000_000)
+            + FILE_SUFFIX;
+    writerThread.execute(() -> writeNow(report, directory.resolve(fileName)));
+  }
+
+  /** The number of reports which were dropped because too many reports were pending. */
+  public long droppedReportCount() {
+    return droppedReportCount.sum();
+  }
+
+  /** Writes all the pending reports and stops the writer thread. */
+  @Override
+  public void close() {
+    writerThread.shutdown();
+    try {
+      if (!writerThread.awaitTermination(1, TimeUnit.MINUTES)) {
+        log.warn("Timed out waiting for pending execution reports to be written");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  static ObjectMapper newObjectMapper() {
+    return new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .registerModule(new Jdk8Module())
+        .setSerializationInclusion(NON_NULL)
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+        .disable(SerializationFeature.FAIL_ON_SELF_REFERENCES);
+  }
+
+  private void writeNow(KryonExecutionReport report, Path file) {
+    try (Writer writer = Files.newBufferedWriter(file, UTF_8)) {
+      objectMapper.writeValue(writer, report);
+    } catch (IOException e) {
+      log.error("Could not write execution report to {}", file, e);
+      return;
+    }
+    writtenFiles.addLast(file);
+    while (writtenFiles.size() > maxFiles) {
+      Path oldest = writtenFiles.removeFirst();
+      try {
+        Files.deleteIfExists(oldest);
+      } catch (IOException e) {
+        log.warn("Could not delete old execution report {}", oldest, e);
+      }
+    }
+  }
+
+  /** The report files in the given directory, oldest first. */
+  static List<Path> listReportFiles(Path directory) throws IOException {
+    List<Path> files = new ArrayList<>();
+    try (DirectoryStream<Path> stream =
+        Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+      stream.forEach(files::add);
+    }
+    // File names start with the timestamp, so they sort chronologically
+    files.sort(null);
+    return files;
+  }
+}
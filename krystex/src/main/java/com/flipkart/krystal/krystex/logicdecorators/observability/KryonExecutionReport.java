@@ -12,4 +12,10 @@ public sealed interface KryonExecutionReport permits DefaultKryonExecutionReport
       KryonId kryonId, KryonLogicId kryonLogicId, ImmutableList<Facets> inputs);
 
   void reportMainLogicEnd(KryonId kryonId, KryonLogicId kryonLogicId, Results<Object> results);
+
+  /** Whether any of the reported logic executions failed. */
+  boolean errored();
+
+  /** Milliseconds from the creation of this report till the end of the last logic execution. */
+  long elapsedMs();
 }
@@ -1,6 +1,5 @@
 package com.flipkart.krystal.krystex.logicdecorators.observability;
 
-import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
 import static com.flipkart.krystal.data.Errable.empty;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static java.io.File.separator;
@@ -8,9 +7,6 @@ import static java.util.concurrent.CompletableFuture.allOf;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.flipkart.krystal.data.Errable;
 import com.flipkart.krystal.data.Facets;
 import com.flipkart.krystal.data.Results;
@@ -30,32 +26,67 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Map.Entry;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.extern.slf4j.Slf4j;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+/**
+ * Records the executions of output logics in a {@link KryonExecutionReport} and writes the report
+ * when the executor completes.
+ *
+ * <p>By default, the report is rendered as HTML and written synchronously to a new file in {@code
+ * /tmp}. This is meant for local debugging. In production, use {@link
+ * #MainLogicExecReporter(KryonExecutionReport, ExecutionReportWriter, ReportSampling)}, which
+ * writes only sampled reports, asynchronously, into a bounded rotating directory.
+ *
+ * <p>Reports hold the inputs and results of every execution. To capture executions under real
+ * load, use {@link BinaryTraceReporter} instead.
+ */
 @Slf4j
 public class MainLogicExecReporter implements OutputLogicDecorator {
 
   private final KryonExecutionReport kryonExecutionReport;
-  private static final String DATE_TIME_PATTERN = "yyyy-MM-dd_HH:mm:ss";
+  private static final String DATE_TIME_PATTERN = "yyyy-MM-dd_HH:mm:ss.SSS";
   private static final String FILE_PATH = separator + "tmp" + separator + "krystal_exec_graph_";
+  private static final AtomicLong FILE_SEQUENCE = new AtomicLong();
   private final ObjectMapper objectMapper;
+  private final @Nullable ExecutionReportWriter reportWriter;
+  private final ReportSampling sampling;
+  private final boolean headSampled;
 
   public MainLogicExecReporter(KryonExecutionReport kryonExecutionReport) {
     this.kryonExecutionReport = kryonExecutionReport;
-    objectMapper =
-        new ObjectMapper()
-            .registerModule(new JavaTimeModule())
-            .registerModule(new Jdk8Module())
-            .setSerializationInclusion(NON_NULL)
-            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
-            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
-            .disable(SerializationFeature.FAIL_ON_SELF_REFERENCES);
+    this.objectMapper = ExecutionReportWriter.newObjectMapper();
+    this.reportWriter = null;
+    this.sampling = ReportSampling.all();
+    this.headSampled = true;
+  }
+
+  /**
+   * @param kryonExecutionReport The report into which executions are recorded. To bound its memory
+   *     footprint, use {@link
+   *     DefaultKryonExecutionReport#DefaultKryonExecutionReport(java.time.Clock, boolean, int)}
+   * @param reportWriter The writer to which the report is handed over on completion, if sampled
+   * @param sampling Decides whether the report is written
+   */
+  public MainLogicExecReporter(
+      KryonExecutionReport kryonExecutionReport,
+      ExecutionReportWriter reportWriter,
+      ReportSampling sampling) {
+    this.kryonExecutionReport = kryonExecutionReport;
+    this.objectMapper = ExecutionReportWriter.newObjectMapper();
+    this.reportWriter = reportWriter;
+    this.sampling = sampling;
+    this.headSampled = sampling.sampleHead();
   }
 
   @Override
   public OutputLogic<Object> decorateLogic(
       OutputLogic<Object> logicToDecorate, OutputLogicDefinition<Object> originalLogicDefinition) {
+    if (!headSampled && !sampling.isTailBased()) {
+      // The report will never be written, so there is no need to record anything
+      return logicToDecorate;
+    }
     return inputs -> {
       KryonId kryonId = originalLogicDefinition.kryonLogicId().kryonId();
       KryonLogicId kryonLogicId = originalLogicDefinition.kryonLogicId();
@@ -103,9 +134,19 @@ public class MainLogicExecReporter implements OutputLogicDecorator {
 
   @Override
   public void onComplete() {
+    ExecutionReportWriter reportWriter = this.reportWriter;
+    if (reportWriter != null) {
+      if (headSampled || sampling.sampleTail(kryonExecutionReport)) {
+        reportWriter.write(kryonExecutionReport);
+      }
+      return;
+    }
     String htmlString = generateGraph();
     DateTimeFormatter formatter = DateTimeFormatter.ofPattern(DATE_TIME_PATTERN);
-    String fileName = LocalDateTime.now().format(formatter) + ".html";
+    // The sequence number prevents executors completing at the same instant from overwriting
+    // each other's files
+    String fileName =
+        LocalDateTime.now().format(formatter) + "_" + FILE_SEQUENCE.incrementAndGet() + ".html";
     writeToFile(htmlString, FILE_PATH + fileName);
   }
 
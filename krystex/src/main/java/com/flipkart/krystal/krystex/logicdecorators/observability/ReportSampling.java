@@ -0,0 +1,59 @@
+package com.flipkart.krystal.krystex.logicdecorators.observability;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides which execution reports are written by a {@link MainLogicExecReporter}.
+ *
+ * <p>A report is written if it was sampled when its reporter was created (head-based sampling with
+ * probability {@link #sampleRate()}), or if, when the executor completes, it turns out to be slow
+ * or errored (tail-based sampling). If tail-based sampling is disabled, reporters which are not
+ * sampled don't record anything at all.
+ *
+ * @param sampleRate The fraction of reports which are written irrespective of their latency and
+ *     errors. Must be between 0 and 1.
+ * @param slowThreshold If present, reports whose executions took at least this long are written
+ * @param keepErrored Whether reports in which any logic execution failed are written
+ */
+public record ReportSampling(
+    double sampleRate, Optional<Duration> slowThreshold, boolean keepErrored) {
+
+  public ReportSampling {
+    if (sampleRate < 0 || sampleRate > 1) {
+      throw new IllegalArgumentException("sampleRate must be in [0, 1]. Found " + sampleRate);
+    }
+  }
+
+  /** Writes every report. */
+  public static ReportSampling all() {
+    return new ReportSampling(1, Optional.empty(), false);
+  }
+
+  /** Writes the given fraction of the reports, chosen at random. */
+  public static ReportSampling probabilistic(double sampleRate) {
+    return new ReportSampling(sampleRate, Optional.empty(), false);
+  }
+
+  /** Writes only the reports which took at least the given duration or had errors. */
+  public static ReportSampling slowOrErrored(Duration slowThreshold) {
+    return new ReportSampling(0, Optional.of(slowThreshold), true);
+  }
+
+  boolean isTailBased() {
+    return slowThreshold.isPresent() || keepErrored;
+  }
+
+  /** The head-based sampling decision for a new report. */
+  boolean sampleHead() {
+    return sampleRate >= 1
+        || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+  }
+
+  /** The tail-based sampling decision for a report which is complete. */
+  boolean sampleTail(KryonExecutionReport report) {
+    return (keepErrored && report.errored())
+        || slowThreshold.map(threshold -> report.elapsedMs() >= threshold.toMillis()).orElse(false);
+  }
+}
@@ -0,0 +1,133 @@
+package com.flipkart.krystal.krystex.metrics;
+
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics recorded by any number of kryon executors - typically all the executors created from a
+ * single graph. Every executor records into the same low-contention recorders (counters are {@link
+ * LongAdder}s and durations are {@link LatencyHistogram}s), so the metrics are aggregated across
+ * executors as they are recorded, and recording never blocks.
+ *
+ * <p>This class is thread safe.
+ */
+public final class AggregatedKryonMetrics {
+
+  private static final AggregatedKryonMetrics NO_OP = new AggregatedKryonMetrics(false);
+
+  private final boolean enabled;
+
+  private final LongAdder commandQueuedCount = new LongAdder();
+  private final LongAdder commandQueueBypassedCount = new LongAdder();
+  private final LongAdder pendingExecutionCount = new LongAdder();
+  private final LatencyHistogram commandQueueWait = new LatencyHistogram();
+  private final LatencyHistogram requestLatency = new LatencyHistogram();
+  private final LatencyHistogram flushToCompletion = new LatencyHistogram();
+  private final Map<KryonId, LatencyHistogram> commandExecutionTimes = new ConcurrentHashMap<>();
+
+  public AggregatedKryonMetrics() {
+    this(true);
+  }
+
+  private AggregatedKryonMetrics(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * Returns the shared metrics which record nothing. Executors which are not configured with
+   * metrics record into these, so that executors do not each allocate their own recorders.
+   */
+  public static AggregatedKryonMetrics noOp() {
+    return NO_OP;
+  }
+
+  /** Records that a command waited in the command queue of an executor for the given duration. */
+  public void commandQueued(long queueWaitNanos) {
+    if (!enabled) {
+      return;
+    }
+    commandQueuedCount.increment();
+    commandQueueWait.record(queueWaitNanos);
+  }
+
+  public void commandQueueBypassed() {
+    if (!enabled) {
+      return;
+    }
+    commandQueueBypassedCount.increment();
+  }
+
+  /**
+   * Records the time for which a command of the given kryon occupied the thread of an executor.
+   * This includes the time taken by the commands of other kryons which were executed synchronously
+   * while executing this command.
+   */
+  public void commandExecuted(KryonId kryonId, long executionNanos) {
+    if (!enabled) {
+      return;
+    }
+    LatencyHistogram histogram = commandExecutionTimes.get(kryonId);
+    if (histogram == null) {
+      histogram = commandExecutionTimes.computeIfAbsent(kryonId, _k -> new LatencyHistogram());
+    }
+    histogram.record(executionNanos);
+  }
+
+  public void executionStarted() {
+    if (!enabled) {
+      return;
+    }
+    pendingExecutionCount.increment();
+  }
+
+  /** Records the completion of an execution which was submitted to an executor. */
+  public void executionCompleted(long latencyNanos) {
+    if (!enabled) {
+      return;
+    }
+    requestLatency.record(latencyNanos);
+  }
+
+  public void executionEvicted() {
+    if (!enabled) {
+      return;
+    }
+    pendingExecutionCount.decrement();
+  }
+
+  /** Records the time from a flush of an executor to the completion of all the flushed requests. */
+  public void flushCompleted(long flushToCompletionNanos) {
+    if (!enabled) {
+      return;
+    }
+    flushToCompletion.record(flushToCompletionNanos);
+  }
+
+  /**
+   * Returns a point-in-time copy of these metrics. Metrics recorded concurrently may or may not be
+   * included.
+   */
+  public KryonMetricsSnapshot snapshot() {
+    ImmutableMap.Builder<String, LatencyHistogram.Snapshot> commandExecutionSnapshots =
+        ImmutableMap.builderWithExpectedSize(commandExecutionTimes.size());
+    commandExecutionTimes.forEach(
+        (kryonId, histogram) ->
+            commandExecutionSnapshots.put(kryonId.value(), histogram.snapshot()));
+    return new KryonMetricsSnapshot(
+        commandQueuedCount.sum(),
+        commandQueueBypassedCount.sum(),
+        pendingExecutionCount.sum(),
+        commandQueueWait.snapshot(),
+        requestLatency.snapshot(),
+        flushToCompletion.snapshot(),
+        commandExecutionSnapshots.buildKeepingLast());
+  }
+
+  /** Exports a {@link #snapshot()} of these metrics to the given exporter. */
+  public void exportTo(KryonMetricsExporter exporter) {
+    exporter.export(snapshot());
+  }
+}
@@ -0,0 +1,25 @@
+package com.flipkart.krystal.krystex.metrics;
+
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.ServiceLoader.Provider;
+
+/**
+ * Publishes kryon metrics to a metrics backend. Applications bridge their metrics stack to krystal
+ * by implementing this interface, and either passing the exporter to {@link
+ * AggregatedKryonMetrics#exportTo(KryonMetricsExporter)} periodically, or registering it as a
+ * {@link ServiceLoader service provider} so that it is returned by {@link #installed()}.
+ */
+public interface KryonMetricsExporter {
+
+  /**
+   * Publishes the given snapshot. Snapshots are cumulative since the creation of the metrics, so
+   * exporters which publish deltas need to subtract the previously exported snapshot.
+   */
+  void export(KryonMetricsSnapshot snapshot);
+
+  /** Returns the exporters registered as service providers of this interface. */
+  static List<KryonMetricsExporter> installed() {
+    return ServiceLoader.load(KryonMetricsExporter.class).stream().map(Provider::get).toList();
+  }
+}
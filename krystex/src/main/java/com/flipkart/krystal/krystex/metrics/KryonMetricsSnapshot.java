@@ -0,0 +1,28 @@
+package com.flipkart.krystal.krystex.metrics;
+
+import com.flipkart.krystal.krystex.metrics.LatencyHistogram.Snapshot;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * A point-in-time copy of {@link AggregatedKryonMetrics}.
+ *
+ * @param commandQueuedCount The number of commands which were executed via the command queues
+ * @param commandQueueBypassedCount The number of commands which were executed directly in the
+ *     thread of the executor, bypassing its command queue
+ * @param pendingExecutionCount The number of executions which have been submitted to executors and
+ *     whose state is still held by the executors
+ * @param commandQueueWait Time spent by commands waiting in the command queues
+ * @param requestLatency Time from the submission of an execution to its completion
+ * @param flushToCompletion Time from the flush of an executor to the completion of all the requests
+ *     it flushed
+ * @param commandExecutionTimesByKryon Time spent executing the commands of each kryon, keyed by
+ *     kryon id
+ */
+public record KryonMetricsSnapshot(
+    long commandQueuedCount,
+    long commandQueueBypassedCount,
+    long pendingExecutionCount,
+    Snapshot commandQueueWait,
+    Snapshot requestLatency,
+    Snapshot flushToCompletion,
+    ImmutableMap<String, Snapshot> commandExecutionTimesByKryon) {}
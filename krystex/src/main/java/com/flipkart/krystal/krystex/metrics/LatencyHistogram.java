@@ -0,0 +1,178 @@
+package com.flipkart.krystal.krystex.metrics;
+
+import static java.lang.Long.numberOfLeadingZeros;
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A thread safe, fixed size histogram of durations in nanoseconds.
+ *
+ * <p>Like HdrHistogram, buckets are log-linear: every power of two range of values is split into
+ * {@value #SUB_BUCKET_COUNT} equal sub buckets, so that the relative error of a recorded value is
+ * at most 1/{@value #SUB_BUCKET_COUNT}, irrespective of its magnitude. Values larger than {@value
+ * #MAX_EXPONENT} bits (about 36 minutes) are recorded in the last bucket.
+ *
+ * <p>Like {@link java.util.concurrent.atomic.LongAdder}, values are recorded into one of a few
+ * stripes picked by the recording thread, so that the threads of different executors sharing a
+ * histogram rarely write to the same cache lines. Stripes are allocated when a thread first records
+ * into them, and are merged by {@link #snapshot()}. Apart from that first allocation, recording a
+ * value is wait-free and does not allocate.
+ */
+public final class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int MAX_EXPONENT = 41;
+  static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+  private static final long MAX_VALUE = (1L << MAX_EXPONENT) - 1;
+
+  /** The smallest power of two which is at least the number of processors, capped at 64. */
+  static final int STRIPE_COUNT = stripeCount(Runtime.getRuntime().availableProcessors());
+
+  private final AtomicReferenceArray<@Nullable Stripe> stripes =
+      new AtomicReferenceArray<>(STRIPE_COUNT);
+
+  public void record(long nanos) {
+    long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+    // Identity hash codes of threads are randomly distributed
+    int index = System.identityHashCode(Thread.currentThread()) & (STRIPE_COUNT - 1);
+    Stripe stripe = stripes.get(index);
+    if (stripe == null) {
+      stripes.compareAndSet(index, null, new Stripe());
+      stripe = requireNonNull(stripes.get(index));
+    }
+    stripe.record(value);
+  }
+
+  /**
+   * Returns a point-in-time copy of this histogram. Values recorded concurrently may or may not be
+   * included.
+   */
+  public Snapshot snapshot() {
+    Snapshot snapshot = Snapshot.empty();
+    for (int i = 0; i < STRIPE_COUNT; i++) {
+      Stripe stripe = stripes.get(i);
+      if (stripe != null) {
+        snapshot = snapshot.merge(stripe.snapshot());
+      }
+    }
+    return snapshot;
+  }
+
+  static int stripeCount(int processors) {
+    return processors <= 1 ? 1 : Math.min(64, Integer.highestOneBit(processors - 1) << 1);
+  }
+
+  static int bucketIndex(long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+    int exponent = 63 - numberOfLeadingZeros(value);
+    int shift = exponent - SUB_BUCKET_BITS;
+    int subBucket = (int) (value >>> shift) & (SUB_BUCKET_COUNT - 1);
+    return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+  }
+
+  /** The largest value which is recorded in the bucket with the given index. */
+  static long bucketUpperBound(int index) {
+    if (index < SUB_BUCKET_COUNT) {
+      return index;
+    }
+    int shift = index / SUB_BUCKET_COUNT - 1;
+    int subBucket = index % SUB_BUCKET_COUNT;
+    return ((long) (SUB_BUCKET_COUNT + subBucket + 1) << shift) - 1;
+  }
+
+  private static final class Stripe {
+
+    private final AtomicLongArray bucketCounts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    private void record(long value) {
+      bucketCounts.incrementAndGet(bucketIndex(value));
+      count.incrementAndGet();
+      sum.addAndGet(value);
+      if (value > max.get()) {
+        max.accumulateAndGet(value, Math::max);
+      }
+    }
+
+    private Snapshot snapshot() {
+      long[] counts = new long[BUCKET_COUNT];
+      for (int i = 0; i < BUCKET_COUNT; i++) {
+        counts[i] = bucketCounts.get(i);
+      }
+      return new Snapshot(count.get(), sum.get(), max.get(), counts);
+    }
+  }
+
+  /**
+   * An immutable copy of a {@link LatencyHistogram}.
+   *
+   * @param count The number of recorded values
+   * @param sumNanos The sum of all the recorded values
+   * @param maxNanos The largest recorded value
+   * @param bucketCounts The number of values recorded in each bucket. Must not be modified.
+   */
+  public record Snapshot(long count, long sumNanos, long maxNanos, long[] bucketCounts) {
+
+    private static final Snapshot EMPTY = new Snapshot(0, 0, 0, new long[BUCKET_COUNT]);
+
+    public static Snapshot empty() {
+      return EMPTY;
+    }
+
+    public double meanNanos() {
+      return count == 0 ? 0 : (double) sumNanos / count;
+    }
+
+    /**
+     * Returns the value below which the given percentage of the recorded values fall - accurate to
+     * the precision of the buckets.
+     *
+     * @param percentile A value between 0 and 100
+     */
+    public long percentileNanos(double percentile) {
+      if (percentile < 0 || percentile > 100) {
+        throw new IllegalArgumentException("percentile must be in [0, 100]. Found " + percentile);
+      }
+      if (count == 0) {
+        return 0;
+      }
+      long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+      long seen = 0;
+      for (int i = 0; i < bucketCounts.length; i++) {
+        seen += bucketCounts[i];
+        if (seen >= rank) {
+          return Math.min(bucketUpperBound(i), maxNanos);
+        }
+      }
+      return maxNanos;
+    }
+
+    /** Returns a snapshot containing the values recorded in both this and the given snapshot. */
+    public Snapshot merge(Snapshot other) {
+      long[] counts = new long[BUCKET_COUNT];
+      for (int i = 0; i < BUCKET_COUNT; i++) {
+        counts[i] = bucketCounts[i] + other.bucketCounts[i];
+      }
+      return new Snapshot(
+          count + other.count,
+          sumNanos + other.sumNanos,
+          Math.max(maxNanos, other.maxNanos),
+          counts);
+    }
+
+    @Override
+    public String toString() {
+      return "Snapshot[count=%s, mean=%.0fns, p50=%sns, p99=%sns, max=%sns]"
+          .formatted(count, meanNanos(), percentileNanos(50), percentileNanos(99), maxNanos);
+    }
+  }
+}
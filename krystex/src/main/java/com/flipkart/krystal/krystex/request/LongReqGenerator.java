@@ -0,0 +1,24 @@
+package com.flipkart.krystal.krystex.request;
+
+import java.util.function.Supplier;
+
+/**
+ * Generates request ids backed by a primitive counter. This is the default generator used when
+ * not in debug mode, since it neither formats nor retains any strings.
+ *
+ * <p>This class is not thread safe. It is meant to be used from the command queue thread of a
+ * single kryon executor.
+ */
+public class LongReqGenerator implements RequestIdGenerator {
+  private long nextCounter = 0;
+
+  @Override
+  public RequestId newSubRequest(RequestId parent, Supplier<String> suffix) {
+    return new RequestId(nextCounter++);
+  }
+
+  @Override
+  public RequestId newRequest(Supplier<String> seed) {
+    return new RequestId(nextCounter++);
+  }
+}
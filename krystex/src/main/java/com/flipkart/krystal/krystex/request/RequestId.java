@@ -1,26 +1,28 @@
 package com.flipkart.krystal.krystex.request;
 
-import java.util.Objects;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-public record RequestId(Object id) {
+/**
+ * Identifies a request within a kryon executor.
+ *
+ * @param id A primitive id. Ids created by {@link LongReqGenerator} are distinguished solely by
+ *     this id.
+ * @param label A human readable id which describes the lineage of the request. Ids created by
+ *     {@link StringReqGenerator} are distinguished solely by this label, and their primitive id is
+ *     always 0.
+ */
+public record RequestId(long id, @Nullable String label) {
 
-  @Override
-  public String toString() {
-    return String.valueOf(id);
+  public RequestId(long id) {
+    this(id, null);
   }
 
-  @Override
-  public boolean equals(@Nullable Object o) {
-    if (this == o) return true;
-    if (!(o instanceof RequestId requestId)) {
-      return false;
-    }
-    return Objects.equals(id, requestId.id);
+  public RequestId(String label) {
+    this(0, label);
   }
 
   @Override
-  public int hashCode() {
-    return id.hashCode();
+  public String toString() {
+    return label != null ? label : String.valueOf(id);
   }
 }
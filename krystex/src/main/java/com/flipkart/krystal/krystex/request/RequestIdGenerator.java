@@ -5,5 +5,5 @@ import java.util.function.Supplier;
 public interface RequestIdGenerator {
   RequestId newSubRequest(RequestId parent, Supplier<String> suffix);
 
-  RequestId newRequest(Object seed);
+  RequestId newRequest(Supplier<String> seed);
 }
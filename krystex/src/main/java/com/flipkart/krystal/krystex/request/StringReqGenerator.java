@@ -2,15 +2,19 @@ package com.flipkart.krystal.krystex.request;
 
 import java.util.function.Supplier;
 
+/**
+ * Generates request ids whose labels describe the lineage of each request. Generating a sub request
+ * twice for the same parent and suffix returns equal request ids.
+ */
 public class StringReqGenerator implements RequestIdGenerator {
 
   @Override
   public RequestId newSubRequest(RequestId parent, Supplier<String> suffixSupplier) {
-    return new RequestId("%s:%s".formatted(parent.id(), suffixSupplier.get()));
+    return new RequestId("%s:%s".formatted(parent, suffixSupplier.get()));
   }
 
   @Override
-  public RequestId newRequest(Object seed) {
-    return new RequestId(seed);
+  public RequestId newRequest(Supplier<String> seed) {
+    return new RequestId(seed.get());
   }
 }
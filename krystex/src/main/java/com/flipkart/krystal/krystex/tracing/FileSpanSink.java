@@ -0,0 +1,56 @@
+package com.flipkart.krystal.krystex.tracing;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+
+/** Appends spans to a local file as JSON - one span per line. Meant for tests and local runs. */
+@Slf4j
+public final class FileSpanSink implements SpanSink {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final BufferedWriter writer;
+
+  public FileSpanSink(Path path) {
+    try {
+      Path parent = path.toAbsolutePath().getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+      this.writer = Files.newBufferedWriter(path, UTF_8, CREATE, APPEND);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not open span file " + path, e);
+    }
+  }
+
+  @Override
+  public void export(List<Span> spans) {
+    try {
+      for (Span span : spans) {
+        writer.write(objectMapper.writeValueAsString(span));
+        writer.newLine();
+      }
+      writer.flush();
+    } catch (IOException e) {
+      log.error("Could not write {} spans", spans.size(), e);
+    }
+  }
+
+  @Override
+  public void close() {
+    try {
+      writer.close();
+    } catch (IOException e) {
+      log.error("Could not close span file", e);
+    }
+  }
+}
@@ -0,0 +1,184 @@
+package com.flipkart.krystal.krystex.tracing;
+
+import com.flipkart.krystal.krystex.kryon.DependantChain;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.krystex.kryondecoration.KryonDecoratorConfig;
+import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecoratorConfig;
+import com.flipkart.krystal.krystex.tracing.Span.Kind;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Records spans of kryon executions and exports them through a {@link SpanSink}.
+ *
+ * <p>A tracer is meant to be shared by all the executors of a session. Every executor which
+ * registers {@link #kryonDecoratorConfig()} (and optionally {@link #logicDecoratorConfig()}) as
+ * request scoped decorators records one trace: a span per (kryon, dependant chain, batch), whose
+ * parent is the span of the dependant kryon as identified by the {@link
+ * com.flipkart.krystal.krystex.kryon.DependantChain}, and a span per invocation of an output logic,
+ * whose parent is the span of its kryon. Following the longest child spans from the root span gives
+ * the critical path of the request.
+ *
+ * <p>Completed spans are added to a lock-free ring buffer, which is drained by a background thread
+ * and exported in batches. If spans are recorded faster than they are exported, the excess spans
+ * are dropped (see {@link #droppedSpanCount()}) so that tracing never blocks execution.
+ */
+@Slf4j
+public final class KrystalTracer implements AutoCloseable {
+
+  public static final String KRYON_DECORATOR_TYPE = TracingKryonDecorator.class.getName();
+  public static final String LOGIC_DECORATOR_TYPE = TracingLogicDecorator.class.getName();
+
+  private static final int DEFAULT_CAPACITY = 1 << 16;
+  private static final int DEFAULT_MAX_EXPORT_BATCH_SIZE = 512;
+  private static final Duration DEFAULT_EXPORT_INTERVAL = Duration.ofSeconds(1);
+
+  private final SpanSink sink;
+  private final SpanRingBuffer buffer;
+  private final int maxExportBatchSize;
+  private final ScheduledExecutorService exportThread;
+  private final AtomicLong traceIds = new AtomicLong();
+  private final AtomicLong spanIds = new AtomicLong();
+
+  /** The span which is being executed in the current thread (if any). */
+  private final ThreadLocal<@Nullable SpanContext> currentSpan = new ThreadLocal<>();
+
+  private final long epochNanosAtOrigin = System.currentTimeMillis() * 1_000_000;
+  private final long nanoTimeAtOrigin = System.nanoTime();
+
+  public KrystalTracer(SpanSink sink) {
+    this(sink, DEFAULT_CAPACITY, DEFAULT_MAX_EXPORT_BATCH_SIZE, DEFAULT_EXPORT_INTERVAL);
+  }
+
+  /**
+   * @param sink The sink to which spans are exported
+   * @param capacity The maximum number of completed spans waiting to be exported
+   * @param maxExportBatchSize The maximum number of spans passed to the sink in one call
+   * @param exportInterval The interval at which spans are exported
+   */
+  public KrystalTracer(
+      SpanSink sink, int capacity, int maxExportBatchSize, Duration exportInterval) {
+    this.sink = sink;
+    this.buffer = new SpanRingBuffer(capacity);
+    this.maxExportBatchSize = maxExportBatchSize;
+    this.exportThread =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "krystal-span-exporter");
+              thread.setDaemon(true);
+              return thread;
+            });
+    long intervalNanos = exportInterval.toNanos();
+    exportThread.scheduleWithFixedDelay(
+        this::exportSafely, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /** The config with which executors can register a kryon decorator which records kryon spans. */
+  public KryonDecoratorConfig kryonDecoratorConfig() {
+    return new KryonDecoratorConfig(
+        KRYON_DECORATOR_TYPE,
+        executionContext -> true,
+        executionContext -> KRYON_DECORATOR_TYPE,
+        decoratorContext -> new TracingKryonDecorator(this, traceIds.incrementAndGet()));
+  }
+
+  /**
+   * The config with which executors can register an output logic decorator which records a span
+   * for every invocation of an output logic. The decorator records spans only if the kryon
+   * decorator is also registered.
+   */
+  public OutputLogicDecoratorConfig logicDecoratorConfig() {
+    return new OutputLogicDecoratorConfig(
+        LOGIC_DECORATOR_TYPE,
+        logicExecutionContext -> true,
+        logicExecutionContext -> LOGIC_DECORATOR_TYPE,
+        decoratorContext -> new TracingLogicDecorator(this));
+  }
+
+  /** The number of spans which were dropped because the ring buffer was full. */
+  public long droppedSpanCount() {
+    return buffer.droppedCount();
+  }
+
+  /** Exports all the spans recorded so far and waits for the export to complete. */
+  public void flush() {
+    if (exportThread.isShutdown()) {
+      return;
+    }
+    try {
+      exportThread.submit(this::exportSafely).get();
+    } catch (Exception e) {
+      log.error("Could not flush spans", e);
+    }
+  }
+
+  /** Exports all the recorded spans, stops the export thread and closes the sink. */
+  @Override
+  public void close() {
+    if (exportThread.isShutdown()) {
+      return;
+    }
+    flush();
+    exportThread.shutdown();
+    sink.close();
+  }
+
+  long newSpanId() {
+    return spanIds.incrementAndGet();
+  }
+
+  @Nullable SpanContext currentSpan() {
+    return currentSpan.get();
+  }
+
+  /** Sets the span being executed in the current thread and returns the previous one. */
+  @Nullable SpanContext setCurrentSpan(@Nullable SpanContext spanContext) {
+    SpanContext previous = currentSpan.get();
+    currentSpan.set(spanContext);
+    return previous;
+  }
+
+  void record(
+      SpanContext spanContext,
+      long parentSpanId,
+      Kind kind,
+      KryonId kryonId,
+      int batchSize,
+      long startNanoTime,
+      boolean failed) {
+    buffer.offer(
+        new Span(
+            spanContext.traceId(),
+            spanContext.spanId(),
+            parentSpanId,
+            kind,
+            kryonId.value(),
+            spanContext.dependantChain().toString(),
+            batchSize,
+            epochNanosAtOrigin + (startNanoTime - nanoTimeAtOrigin),
+            System.nanoTime() - startNanoTime,
+            failed));
+  }
+
+  private void exportSafely() {
+    List<Span> spans = new ArrayList<>(maxExportBatchSize);
+    while (buffer.drainTo(spans, maxExportBatchSize) > 0) {
+      try {
+        sink.export(spans);
+      } catch (Throwable e) {
+        log.error("Could not export {} spans", spans.size(), e);
+      }
+      spans.clear();
+    }
+  }
+
+  /** Identifies a span which is in progress. */
+  record SpanContext(long traceId, long spanId, DependantChain dependantChain) {}
+}
@@ -0,0 +1,36 @@
+package com.flipkart.krystal.krystex.tracing;
+
+/**
+ * A completed unit of work recorded by {@link KrystalTracer}.
+ *
+ * @param traceId The id of the trace (one per kryon executor) this span belongs to
+ * @param spanId The id of this span - unique across all traces of a tracer
+ * @param parentSpanId The id of the span of the dependant of this span's kryon, or 0 if this span
+ *     has no parent
+ * @param kind What this span measures
+ * @param kryonId The id of the kryon whose work this span measures
+ * @param dependantChain The dependant chain of the kryon
+ * @param batchSize The number of requests in the batch
+ * @param startEpochNanos The start of the span in nanoseconds since the epoch
+ * @param durationNanos The duration of the span
+ * @param failed Whether the work ended with an error
+ */
+public record Span(
+    long traceId,
+    long spanId,
+    long parentSpanId,
+    Kind kind,
+    String kryonId,
+    String dependantChain,
+    int batchSize,
+    long startEpochNanos,
+    long durationNanos,
+    boolean failed) {
+
+  public enum Kind {
+    /** A batch of requests to a kryon for a dependant chain, till the responses are available. */
+    KRYON,
+    /** An invocation of the output logic of a kryon, till the results of the logic are ready. */
+    OUTPUT_LOGIC
+  }
+}
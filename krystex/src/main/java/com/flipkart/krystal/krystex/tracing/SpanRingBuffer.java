@@ -0,0 +1,82 @@
+package com.flipkart.krystal.krystex.tracing;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A bounded, lock-free, multi-producer single-consumer queue of spans. Producers never block: when
+ * the buffer is full, the offered span is dropped and counted.
+ */
+final class SpanRingBuffer {
+
+  private final AtomicReferenceArray<@Nullable Span> slots;
+  private final int mask;
+
+  /** The sequence number of the next slot to be claimed by a producer. */
+  private final AtomicLong writeSequence = new AtomicLong();
+
+  /** The sequence number of the next slot to be drained. Written only by the consumer. */
+  private final AtomicLong readSequence = new AtomicLong();
+
+  private final LongAdder droppedCount = new LongAdder();
+
+  /**
+   * @param capacity The maximum number of spans held by the buffer. Rounded up to a power of two.
+   */
+  SpanRingBuffer(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive. Found " + capacity);
+    }
+    int size = Integer.highestOneBit(capacity);
+    if (size < capacity) {
+      size <<= 1;
+    }
+    this.slots = new AtomicReferenceArray<>(size);
+    this.mask = size - 1;
+  }
+
+  /** Adds the span to the buffer. Returns false if the buffer is full and the span was dropped. */
+  boolean offer(Span span) {
+    long sequence;
+    do {
+      sequence = writeSequence.get();
+      if (sequence - readSequence.get() > mask) {
+        droppedCount.increment();
+        return false;
+      }
+    } while (!writeSequence.compareAndSet(sequence, sequence + 1));
+    slots.set((int) sequence & mask, span);
+    return true;
+  }
+
+  /**
+   * Moves up to {@code maxSpans} spans from the buffer to the given list in the order in which
+   * their slots were claimed, and returns the number of moved spans. Must be called from only one
+   * thread at a time.
+   */
+  int drainTo(List<Span> spans, int maxSpans) {
+    long sequence = readSequence.get();
+    int drained = 0;
+    while (drained < maxSpans && sequence < writeSequence.get()) {
+      int index = (int) sequence & mask;
+      Span span = slots.get(index);
+      if (span == null) {
+        // The producer which claimed this slot has not yet published its span
+        break;
+      }
+      slots.set(index, null);
+      spans.add(span);
+      sequence++;
+      drained++;
+    }
+    readSequence.set(sequence);
+    return drained;
+  }
+
+  long droppedCount() {
+    return droppedCount.sum();
+  }
+}
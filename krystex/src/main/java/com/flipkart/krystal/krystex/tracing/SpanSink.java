@@ -0,0 +1,15 @@
+package com.flipkart.krystal.krystex.tracing;
+
+import java.util.List;
+
+/**
+ * The destination of the spans recorded by a {@link KrystalTracer}. Spans are exported in batches
+ * from a single background thread of the tracer, so implementations need not be thread safe.
+ */
+public interface SpanSink extends AutoCloseable {
+
+  void export(List<Span> spans);
+
+  @Override
+  default void close() {}
+}
@@ -0,0 +1,126 @@
+package com.flipkart.krystal.krystex.tracing;
+
+import com.flipkart.krystal.krystex.commands.BatchCommand;
+import com.flipkart.krystal.krystex.commands.Flush;
+import com.flipkart.krystal.krystex.commands.ForwardBatch;
+import com.flipkart.krystal.krystex.commands.ForwardGranule;
+import com.flipkart.krystal.krystex.commands.KryonCommand;
+import com.flipkart.krystal.krystex.kryon.DefaultDependantChain;
+import com.flipkart.krystal.krystex.kryon.DependantChain;
+import com.flipkart.krystal.krystex.kryon.Kryon;
+import com.flipkart.krystal.krystex.kryon.KryonDefinition;
+import com.flipkart.krystal.krystex.kryon.KryonResponse;
+import com.flipkart.krystal.krystex.tracing.KrystalTracer.SpanContext;
+import com.flipkart.krystal.krystex.tracing.Span.Kind;
+import com.flipkart.krystal.krystex.tracing.TracingKryonDecorator.SpanKey;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Opens a span when a batch (or granule) of requests is forwarded to the kryon for a dependant
+ * chain, and closes it when the response of the batch is complete. While the kryon executes any
+ * command of the dependant chain, the span is the current span of the thread, so that output logic
+ * spans can be attached to it.
+ */
+final class TracingDecoratedKryon implements Kryon<KryonCommand, KryonResponse> {
+
+  private final Kryon<KryonCommand, KryonResponse> kryon;
+  private final KrystalTracer tracer;
+  private final long traceId;
+  private final Map<SpanKey, SpanContext> openSpans;
+
+  TracingDecoratedKryon(
+      Kryon<KryonCommand, KryonResponse> kryon,
+      KrystalTracer tracer,
+      long traceId,
+      Map<SpanKey, SpanContext> openSpans) {
+    this.kryon = kryon;
+    this.tracer = tracer;
+    this.traceId = traceId;
+    this.openSpans = openSpans;
+  }
+
+  @Override
+  public void executeCommand(Flush flushCommand) {
+    SpanContext spanContext =
+        openSpans.get(new SpanKey(flushCommand.kryonId(), flushCommand.dependantChain()));
+    SpanContext previous = tracer.setCurrentSpan(spanContext);
+    try {
+      kryon.executeCommand(flushCommand);
+    } finally {
+      tracer.setCurrentSpan(previous);
+    }
+  }
+
+  @Override
+  public CompletableFuture<KryonResponse> executeCommand(KryonCommand kryonCommand) {
+    DependantChain dependantChain = kryonCommand.dependantChain();
+    SpanKey spanKey = new SpanKey(kryonCommand.kryonId(), dependantChain);
+    if (!(kryonCommand instanceof ForwardBatch) && !(kryonCommand instanceof ForwardGranule)) {
+      return executeInSpan(openSpans.get(spanKey), () -> kryon.executeCommand(kryonCommand));
+    }
+    SpanContext spanContext = new SpanContext(traceId, tracer.newSpanId(), dependantChain);
+    long parentSpanId = parentSpanId(dependantChain);
+    int batchSize =
+        kryonCommand instanceof BatchCommand batchCommand ? batchCommand.requestIds().size() : 1;
+    long startNanoTime = System.nanoTime();
+    openSpans.put(spanKey, spanContext);
+    CompletableFuture<KryonResponse> response;
+    try {
+      response = executeInSpan(spanContext, () -> kryon.executeCommand(kryonCommand));
+    } catch (Throwable e) {
+      openSpans.remove(spanKey, spanContext);
+      tracer.record(
+          spanContext,
+          parentSpanId,
+          Kind.KRYON,
+          kryonCommand.kryonId(),
+          batchSize,
+          startNanoTime,
+          true);
+      throw e;
+    }
+    response.whenComplete(
+        (_r, throwable) -> {
+          openSpans.remove(spanKey, spanContext);
+          tracer.record(
+              spanContext,
+              parentSpanId,
+              Kind.KRYON,
+              kryonCommand.kryonId(),
+              batchSize,
+              startNanoTime,
+              throwable != null);
+        });
+    return response;
+  }
+
+  @Override
+  public KryonDefinition getKryonDefinition() {
+    return kryon.getKryonDefinition();
+  }
+
+  /** The span of the dependant kryon which caused this kryon to be executed, 0 if none. */
+  private long parentSpanId(DependantChain dependantChain) {
+    if (dependantChain instanceof DefaultDependantChain defaultDependantChain) {
+      SpanContext parent =
+          openSpans.get(
+              new SpanKey(defaultDependantChain.kryonId(), defaultDependantChain.dependantChain()));
+      if (parent != null) {
+        return parent.spanId();
+      }
+    }
+    return 0;
+  }
+
+  private <T> T executeInSpan(@Nullable SpanContext spanContext, Supplier<T> execution) {
+    SpanContext previous = tracer.setCurrentSpan(spanContext);
+    try {
+      return execution.get();
+    } finally {
+      tracer.setCurrentSpan(previous);
+    }
+  }
+}
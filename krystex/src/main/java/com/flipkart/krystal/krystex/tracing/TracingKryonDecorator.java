@@ -0,0 +1,40 @@
+package com.flipkart.krystal.krystex.tracing;
+
+import com.flipkart.krystal.krystex.commands.KryonCommand;
+import com.flipkart.krystal.krystex.kryon.DependantChain;
+import com.flipkart.krystal.krystex.kryon.Kryon;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.krystex.kryon.KryonResponse;
+import com.flipkart.krystal.krystex.kryondecoration.KryonDecorationInput;
+import com.flipkart.krystal.krystex.kryondecoration.KryonDecorator;
+import com.flipkart.krystal.krystex.tracing.KrystalTracer.SpanContext;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decorates all the kryons of one executor to record their spans in one trace. The open spans of
+ * all the kryons are tracked together so that each kryon can find the span of its dependant.
+ */
+final class TracingKryonDecorator implements KryonDecorator {
+
+  private final KrystalTracer tracer;
+  private final long traceId;
+
+  /**
+   * The spans which are in progress, keyed by kryon and dependant chain. Spans are removed from the
+   * thread which completes them.
+   */
+  private final Map<SpanKey, SpanContext> openSpans = new ConcurrentHashMap<>();
+
+  TracingKryonDecorator(KrystalTracer tracer, long traceId) {
+    this.tracer = tracer;
+    this.traceId = traceId;
+  }
+
+  @Override
+  public Kryon<KryonCommand, KryonResponse> decorateKryon(KryonDecorationInput decorationInput) {
+    return new TracingDecoratedKryon(decorationInput.kryon(), tracer, traceId, openSpans);
+  }
+
+  record SpanKey(KryonId kryonId, DependantChain dependantChain) {}
+}
@@ -0,0 +1,74 @@
+package com.flipkart.krystal.krystex.tracing;
+
+import static java.util.concurrent.CompletableFuture.allOf;
+
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.OutputLogic;
+import com.flipkart.krystal.krystex.OutputLogicDefinition;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecorator;
+import com.flipkart.krystal.krystex.tracing.KrystalTracer.SpanContext;
+import com.flipkart.krystal.krystex.tracing.Span.Kind;
+import com.google.common.collect.ImmutableMap;
+import java.util.concurrent.CompletableFuture;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Records a span for every invocation of an output logic, as a child of the span of the kryon
+ * which invoked it. The span ends when all the results of the invocation are available, so for IO
+ * logics, the span measures the latency of the IO.
+ */
+final class TracingLogicDecorator implements OutputLogicDecorator {
+
+  private final KrystalTracer tracer;
+
+  TracingLogicDecorator(KrystalTracer tracer) {
+    this.tracer = tracer;
+  }
+
+  @Override
+  public OutputLogic<Object> decorateLogic(
+      OutputLogic<Object> logicToDecorate, OutputLogicDefinition<Object> originalLogicDefinition) {
+    KryonId kryonId = originalLogicDefinition.kryonLogicId().kryonId();
+    return facetsList -> {
+      SpanContext parent = tracer.currentSpan();
+      if (parent == null) {
+        return logicToDecorate.execute(facetsList);
+      }
+      SpanContext spanContext =
+          new SpanContext(parent.traceId(), tracer.newSpanId(), parent.dependantChain());
+      long startNanoTime = System.nanoTime();
+      ImmutableMap<Facets, CompletableFuture<@Nullable Object>> results;
+      try {
+        results = logicToDecorate.execute(facetsList);
+      } catch (Throwable e) {
+        tracer.record(
+            spanContext,
+            parent.spanId(),
+            Kind.OUTPUT_LOGIC,
+            kryonId,
+            facetsList.size(),
+            startNanoTime,
+            true);
+        throw e;
+      }
+      allOf(results.values().toArray(CompletableFuture[]::new))
+          .whenComplete(
+              (_r, throwable) ->
+                  tracer.record(
+                      spanContext,
+                      parent.spanId(),
+                      Kind.OUTPUT_LOGIC,
+                      kryonId,
+                      facetsList.size(),
+                      startNanoTime,
+                      throwable != null));
+      return results;
+    };
+  }
+
+  @Override
+  public String getId() {
+    return KrystalTracer.LOGIC_DECORATOR_TYPE;
+  }
+}
@@ -17,8 +17,14 @@ module flipkart.krystal.krystex {
       flipkart.krystal.vajramexecutor.krystex;
   exports com.flipkart.krystal.krystex.kryondecoration;
   exports com.flipkart.krystal.krystex.caching;
+  exports com.flipkart.krystal.krystex.metrics;
+  exports com.flipkart.krystal.krystex.jfr;
+  exports com.flipkart.krystal.krystex.tracing;
+
+  uses com.flipkart.krystal.krystex.metrics.KryonMetricsExporter;
 
   requires com.google.common;
+  requires jdk.jfr;
   requires org.checkerframework.checker.qual;
   requires static io.github.resilience4j.all;
   requires static io.github.resilience4j.bulkhead;
@@ -0,0 +1,112 @@
+package com.flipkart.krystal.krystex.caching;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BoundedTtlCacheTest {
+
+  private static final long TTL_NANOS = 1_000;
+
+  private AtomicLong ticker;
+
+  @BeforeEach
+  void setUp() {
+    ticker = new AtomicLong();
+  }
+
+  @Test
+  void get_afterTtl_returnsNullAndCountsExpiration() {
+    BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(100, 1, ticker::get);
+    cache.put("key", "value", 1, TTL_NANOS);
+
+    assertThat(cache.get("key")).isEqualTo("value");
+    ticker.addAndGet(TTL_NANOS);
+
+    assertThat(cache.get("key")).isNull();
+    assertThat(cache.hitCount()).isEqualTo(1);
+    assertThat(cache.missCount()).isEqualTo(1);
+    assertThat(cache.expirationCount()).isEqualTo(1);
+    assertThat(cache.weightedSize()).isZero();
+  }
+
+  @Test
+  void put_beyondMaxWeight_evictsEntries() {
+    BoundedTtlCache<Integer, Integer> cache = new BoundedTtlCache<>(10, 1, ticker::get);
+    for (int i = 0; i < 100; i++) {
+      cache.put(i, i, 1, TTL_NANOS);
+    }
+
+    assertThat(cache.weightedSize()).isLessThanOrEqualTo(10);
+    assertThat(cache.evictionCount()).isGreaterThanOrEqualTo(90);
+  }
+
+  @Test
+  void put_frequentlyAccessedEntries_surviveOneOffEntries() {
+    BoundedTtlCache<Integer, Integer> cache = new BoundedTtlCache<>(10, 1, ticker::get);
+    for (int i = 0; i < 5; i++) {
+      cache.put(i, i, 1, TTL_NANOS);
+    }
+    for (int access = 0; access < 5; access++) {
+      for (int i = 0; i < 5; i++) {
+        cache.get(i);
+      }
+    }
+    // A scan of one-off entries
+    for (int i = 100; i < 200; i++) {
+      cache.put(i, i, 1, TTL_NANOS);
+    }
+
+    for (int i = 0; i < 5; i++) {
+      assertThat(cache.get(i)).isEqualTo(i);
+    }
+  }
+
+  @Test
+  void put_candidateLosesToLaterVictim_noEntryOfMainEvicted() {
+    // Window weight 1, main weight 99
+    BoundedTtlCache<Integer, Integer> cache = new BoundedTtlCache<>(100, 1, ticker::get);
+    cache.put(0, 0, 1, TTL_NANOS);
+    cache.put(1, 1, 1, TTL_NANOS);
+    for (int access = 0; access < 5; access++) {
+      // Accessed while in the window, so that the order of main stays 0, 1, 2...
+      cache.get(1);
+    }
+    for (int i = 2; i < 100; i++) {
+      cache.put(i, i, 1, TTL_NANOS);
+    }
+    cache.get(1000);
+    cache.get(1000);
+
+    // Displacing 0 alone is not enough - 1000 also needs the space of the more frequent 1
+    cache.put(1000, 1000, 2, TTL_NANOS);
+
+    assertThat(cache.get(1000)).isNull();
+    assertThat(cache.get(0)).isEqualTo(0);
+    assertThat(cache.get(1)).isEqualTo(1);
+    assertThat(cache.weightedSize()).isEqualTo(99);
+  }
+
+  @Test
+  void put_heavierThanCache_isRejected() {
+    BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, 1, ticker::get);
+    cache.put("key", "value", 11, TTL_NANOS);
+
+    assertThat(cache.get("key")).isNull();
+    assertThat(cache.rejectionCount()).isEqualTo(1);
+  }
+
+  @Test
+  void setWeight_updatesWeightOnlyForCurrentValue() {
+    BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(100, 1, ticker::get);
+    cache.put("key", "value", 1, TTL_NANOS);
+
+    cache.setWeight("key", "otherValue", 50);
+    assertThat(cache.weightedSize()).isEqualTo(1);
+
+    cache.setWeight("key", "value", 5);
+    assertThat(cache.weightedSize()).isEqualTo(5);
+  }
+}
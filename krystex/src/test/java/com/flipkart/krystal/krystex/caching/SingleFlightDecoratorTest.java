@@ -0,0 +1,99 @@
+package com.flipkart.krystal.krystex.caching;
+
+import static java.util.Collections.emptySet;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.ForkJoinExecutorPool;
+import com.flipkart.krystal.krystex.LogicDefinitionRegistry;
+import com.flipkart.krystal.krystex.commands.Flush;
+import com.flipkart.krystal.krystex.commands.ForwardBatch;
+import com.flipkart.krystal.krystex.commands.KryonCommand;
+import com.flipkart.krystal.krystex.kryon.Kryon;
+import com.flipkart.krystal.krystex.kryon.KryonDefinition;
+import com.flipkart.krystal.krystex.kryon.KryonDefinitionRegistry;
+import com.flipkart.krystal.krystex.kryon.KryonExecutor;
+import com.flipkart.krystal.krystex.kryon.KryonExecutorConfig;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.krystex.kryon.KryonLogicId;
+import com.flipkart.krystal.krystex.kryon.KryonResponse;
+import com.flipkart.krystal.krystex.kryondecoration.KryonDecorationInput;
+import com.flipkart.krystal.krystex.request.RequestId;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightDecoratorTest {
+
+  private KryonDefinitionRegistry kryonDefinitionRegistry;
+  private KryonExecutor kryonExecutor;
+
+  @BeforeEach
+  void setUp() {
+    kryonDefinitionRegistry = new KryonDefinitionRegistry(new LogicDefinitionRegistry());
+    kryonExecutor =
+        new KryonExecutor(
+            kryonDefinitionRegistry,
+            new ForkJoinExecutorPool(1),
+            KryonExecutorConfig.builder().build(),
+            "req_1");
+  }
+
+  @AfterEach
+  void tearDown() {
+    kryonExecutor.close();
+  }
+
+  @Test
+  void executeCommand_decoratedKryonThrowsSynchronously_executionsRemovedFromInFlight() {
+    KryonDefinition kryonDefinition =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "kryon", emptySet(), new KryonLogicId(new KryonId("kryon"), "kryonLogic"));
+    AtomicInteger callCount = new AtomicInteger();
+    Kryon<KryonCommand, KryonResponse> throwingKryon =
+        new Kryon<>() {
+          @Override
+          public void executeCommand(Flush flushCommand) {}
+
+          @Override
+          public CompletableFuture<KryonResponse> executeCommand(KryonCommand kryonCommand) {
+            callCount.incrementAndGet();
+            throw new IllegalStateException("Synchronous failure");
+          }
+
+          @Override
+          public KryonDefinition getKryonDefinition() {
+            return kryonDefinition;
+          }
+        };
+    SingleFlightDecorator singleFlightDecorator = new SingleFlightDecorator();
+    singleFlightDecorator.deduplicateKryon(kryonDefinition.kryonId());
+    Kryon<KryonCommand, KryonResponse> decoratedKryon =
+        singleFlightDecorator.decorateKryon(new KryonDecorationInput(throwingKryon, kryonExecutor));
+
+    assertThatThrownBy(() -> decoratedKryon.executeCommand(forwardBatch(kryonDefinition, "req_1")))
+        .isInstanceOf(IllegalStateException.class);
+    assertThat(singleFlightDecorator.inFlightCount()).isZero();
+
+    // An identical execution executes the kryon again instead of attaching to the failed one
+    assertThatThrownBy(() -> decoratedKryon.executeCommand(forwardBatch(kryonDefinition, "req_2")))
+        .isInstanceOf(IllegalStateException.class);
+    assertThat(callCount).hasValue(2);
+    assertThat(singleFlightDecorator.deduplicatedCount()).isZero();
+    assertThat(singleFlightDecorator.inFlightCount()).isZero();
+  }
+
+  private ForwardBatch forwardBatch(KryonDefinition kryonDefinition, String requestId) {
+    return new ForwardBatch(
+        kryonDefinition.kryonId(),
+        ImmutableSet.of(),
+        ImmutableMap.of(new RequestId(requestId), Facets.empty()),
+        kryonDefinitionRegistry.getDependantChainsStart(),
+        ImmutableMap.of());
+  }
+}
@@ -0,0 +1,50 @@
+package com.flipkart.krystal.krystex.jfr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class KrystalJfrAnalyzerTest {
+
+  @TempDir Path tempDir;
+
+  @Test
+  void analyze_aggregatesEventsPerKryon() throws Exception {
+    Path recordingPath = tempDir.resolve("recording.jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(KryonCommandEvent.class);
+      recording.enable(OutputLogicEvent.class);
+      recording.start();
+      for (int i = 0; i < 3; i++) {
+        KryonCommandEvent commandEvent = new KryonCommandEvent();
+        commandEvent.begin();
+        commandEvent.end();
+        commandEvent.kryonId = "kryon";
+        commandEvent.command = "ForwardBatch";
+        commandEvent.batchSize = 2;
+        commandEvent.queueWait = Duration.ofMillis(1).toNanos();
+        commandEvent.commit();
+      }
+      OutputLogicEvent outputLogicEvent = new OutputLogicEvent();
+      outputLogicEvent.begin();
+      outputLogicEvent.end();
+      outputLogicEvent.kryonId = "kryon";
+      outputLogicEvent.batchSize = 4;
+      outputLogicEvent.commit();
+      recording.stop();
+      recording.dump(recordingPath);
+    }
+
+    KryonLatencyBreakdown breakdown = KrystalJfrAnalyzer.analyze(recordingPath).get("kryon");
+
+    assertThat(breakdown).isNotNull();
+    assertThat(breakdown.commandCount()).isEqualTo(3);
+    assertThat(breakdown.queueWait()).isEqualTo(Duration.ofMillis(3));
+    assertThat(breakdown.outputLogicCount()).isEqualTo(1);
+    assertThat(breakdown.meanBatchSize()).isEqualTo(4);
+  }
+}
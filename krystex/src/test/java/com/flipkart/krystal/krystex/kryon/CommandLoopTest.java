@@ -0,0 +1,98 @@
+package com.flipkart.krystal.krystex.kryon;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CommandLoopTest {
+
+  private ExecutorService backingExecutor;
+
+  @BeforeEach
+  void setUp() {
+    // Deliberately multi-threaded so that the test fails if the loop ever drains concurrently.
+    this.backingExecutor = Executors.newFixedThreadPool(4);
+  }
+
+  @AfterEach
+  void tearDown() {
+    backingExecutor.shutdownNow();
+  }
+
+  @Test
+  void execute_singleProducer_runsCommandsInSubmissionOrder() throws Exception {
+    CommandLoop commandLoop = new CommandLoop(backingExecutor);
+    int commandCount = CommandLoop.DRAIN_BATCH_SIZE * 3;
+    List<Integer> executed = new ArrayList<>();
+    CountDownLatch done = new CountDownLatch(1);
+    for (int i = 0; i < commandCount; i++) {
+      int index = i;
+      commandLoop.execute(
+          () -> {
+            executed.add(index);
+            if (index == commandCount - 1) {
+              done.countDown();
+            }
+          });
+    }
+    assertThat(done.await(5, SECONDS)).isTrue();
+    assertThat(executed).hasSize(commandCount).isSorted();
+  }
+
+  @Test
+  void execute_multipleProducers_neverRunsCommandsConcurrently() throws Exception {
+    CommandLoop commandLoop = new CommandLoop(backingExecutor);
+    int producerCount = 8;
+    int commandsPerProducer = 10_000;
+    AtomicInteger activeCommands = new AtomicInteger();
+    AtomicInteger maxActiveCommands = new AtomicInteger();
+    int[] counter = {0}; // Intentionally not thread-safe
+    CountDownLatch done = new CountDownLatch(producerCount * commandsPerProducer);
+    List<Thread> producers = new ArrayList<>();
+    for (int p = 0; p < producerCount; p++) {
+      Thread producer =
+          new Thread(
+              () -> {
+                for (int i = 0; i < commandsPerProducer; i++) {
+                  commandLoop.execute(
+                      () -> {
+                        maxActiveCommands.accumulateAndGet(
+                            activeCommands.incrementAndGet(), Math::max);
+                        counter[0]++;
+                        activeCommands.decrementAndGet();
+                        done.countDown();
+                      });
+                }
+              });
+      producers.add(producer);
+      producer.start();
+    }
+    for (Thread producer : producers) {
+      producer.join();
+    }
+    assertThat(done.await(10, SECONDS)).isTrue();
+    assertThat(maxActiveCommands.get()).isEqualTo(1);
+    assertThat(counter[0]).isEqualTo(producerCount * commandsPerProducer);
+  }
+
+  @Test
+  void execute_commandThrows_loopKeepsRunning() throws Exception {
+    CommandLoop commandLoop = new CommandLoop(backingExecutor);
+    CountDownLatch done = new CountDownLatch(1);
+    commandLoop.execute(
+        () -> {
+          throw new IllegalStateException("boom");
+        });
+    commandLoop.execute(done::countDown);
+    assertThat(done.await(5, SECONDS)).isTrue();
+  }
+}
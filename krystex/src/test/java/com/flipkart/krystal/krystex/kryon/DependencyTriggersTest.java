@@ -0,0 +1,119 @@
+package com.flipkart.krystal.krystex.kryon;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.krystex.LogicDefinitionRegistry;
+import com.flipkart.krystal.krystex.resolution.ResolverDefinition;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DependencyTriggersTest {
+
+  private static final KryonId DEP_KRYON = new KryonId("dep_kryon");
+
+  private KryonDefinitionRegistry kryonDefinitionRegistry;
+
+  @BeforeEach
+  void setUp() {
+    this.kryonDefinitionRegistry = new KryonDefinitionRegistry(new LogicDefinitionRegistry());
+  }
+
+  @Test
+  void getTriggerableDependencies_someBoundFacetsMissing_onlyFullyResolvableDependencies() {
+    DependencyTriggers triggers = newTriggers(Set.of("a", "b"));
+
+    Map<String, Set<ResolverDefinition>> triggerable =
+        triggers.getTriggerableDependencies(Set.of("a"), Set.of("a"), Set.of());
+
+    // fromAAndB still needs b. noResolvers and unbound have no facets to wait for.
+    assertThat(triggerable.keySet()).containsExactly("fromA", "unbound", "noResolvers");
+    assertThat(triggerable.get("fromA")).hasSize(1);
+    assertThat(triggerable.get("noResolvers")).isEmpty();
+  }
+
+  @Test
+  void getTriggerableDependencies_lastBoundFacetAvailable_dependencyTriggerable() {
+    DependencyTriggers triggers = newTriggers(Set.of("a", "b"));
+
+    Map<String, Set<ResolverDefinition>> triggerable =
+        triggers.getTriggerableDependencies(
+            Set.of("b"), Set.of("a", "b"), Set.of("fromA", "noResolvers", "unbound"));
+
+    assertThat(triggerable.keySet()).containsExactly("fromAAndB");
+    assertThat(triggerable.get("fromAAndB")).hasSize(2);
+  }
+
+  @Test
+  void getTriggerableDependencies_newFacetBindsNoResolver_boundDependenciesNotTriggered() {
+    DependencyTriggers triggers = newTriggers(Set.of("a", "b", "c"));
+
+    Map<String, Set<ResolverDefinition>> triggerable =
+        triggers.getTriggerableDependencies(Set.of("c"), Set.of("a", "b", "c"), Set.of());
+
+    // fromA and fromAAndB are triggered by the arrival of a or b, not c
+    assertThat(triggerable.keySet()).containsExactly("unbound", "noResolvers");
+  }
+
+  @Test
+  void getTriggerableDependencies_moreFacetsThanBitmaskWidth_sameResultAsBitmasks() {
+    Set<String> inputs = new LinkedHashSet<>(Set.of("a", "b"));
+    IntStream.range(0, Long.SIZE).forEach(i -> inputs.add("input_" + i));
+    DependencyTriggers wideTriggers = newTriggers(inputs);
+    DependencyTriggers narrowTriggers = newTriggers(Set.of("a", "b"));
+
+    for (Set<String> newFacets : Set.of(Set.of("a"), Set.of("b"), Set.of("a", "b"))) {
+      for (Set<String> executedDeps : Set.of(Set.<String>of(), Set.of("fromA", "unbound"))) {
+        assertThat(wideTriggers.getTriggerableDependencies(newFacets, newFacets, executedDeps))
+            .isEqualTo(
+                narrowTriggers.getTriggerableDependencies(newFacets, newFacets, executedDeps));
+      }
+    }
+  }
+
+  /**
+   * Creates a kryon with the given inputs and these dependencies:
+   *
+   * <ul>
+   *   <li>fromA: one resolver bound from a
+   *   <li>fromAAndB: one resolver bound from a and one bound from b
+   *   <li>unbound: one resolver bound from no facet
+   *   <li>noResolvers: no resolvers
+   * </ul>
+   */
+  private DependencyTriggers newTriggers(Set<String> inputs) {
+    KryonId kryonId = new KryonId("kryon");
+    return kryonDefinitionRegistry
+        .newKryonDefinition(
+            kryonId.value(),
+            inputs,
+            new KryonLogicId(kryonId, "output"),
+            ImmutableMap.of(
+                "fromA", DEP_KRYON,
+                "fromAAndB", DEP_KRYON,
+                "unbound", DEP_KRYON,
+                "noResolvers", DEP_KRYON),
+            ImmutableList.of(
+                resolver(kryonId, "fromA", "a"),
+                resolver(kryonId, "fromAAndB", "a"),
+                resolver(kryonId, "fromAAndB", "b"),
+                resolver(kryonId, "unbound")),
+            new KryonLogicId(kryonId, "multiResolver"))
+        .dependencyTriggers();
+  }
+
+  private static ResolverDefinition resolver(
+      KryonId kryonId, String dependencyName, String... boundFrom) {
+    return new ResolverDefinition(
+        new KryonLogicId(kryonId, dependencyName + "_resolver_" + String.join("_", boundFrom)),
+        ImmutableSet.copyOf(boundFrom),
+        dependencyName,
+        ImmutableSet.of("input"));
+  }
+}
@@ -0,0 +1,138 @@
+package com.flipkart.krystal.krystex.kryon;
+
+import static java.util.Collections.emptySet;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.krystex.LogicDefinitionRegistry;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class KryonExecutionPlanTest {
+
+  private KryonDefinitionRegistry kryonDefinitionRegistry;
+
+  @BeforeEach
+  void setUp() {
+    this.kryonDefinitionRegistry = new KryonDefinitionRegistry(new LogicDefinitionRegistry());
+  }
+
+  @Test
+  void compile_diamondGraph_nodesInDepthFirstPreOrderWithOneNodePerDependantChain() {
+    newKryon("leaf", ImmutableMap.of());
+    newKryon("left", ImmutableMap.of("leafDep", new KryonId("leaf")));
+    newKryon("right", ImmutableMap.of("leafDep", new KryonId("leaf")));
+    newKryon(
+        "root", ImmutableMap.of("leftDep", new KryonId("left"), "rightDep", new KryonId("right")));
+    DependantChain start = kryonDefinitionRegistry.getDependantChainsStart();
+    DependantChain leftChain = start.extend(new KryonId("root"), "leftDep");
+    DependantChain rightChain = start.extend(new KryonId("root"), "rightDep");
+
+    KryonExecutionPlan plan = kryonDefinitionRegistry.getExecutionPlan(new KryonId("root"), ImmutableSet.of());
+
+    assertThat(plan.rootKryonId()).isEqualTo(new KryonId("root"));
+    assertThat(kryonIds(plan)).containsExactly("root", "left", "leaf", "right", "leaf");
+    assertThat(dependantChains(plan))
+        .containsExactly(
+            start,
+            leftChain,
+            leftChain.extend(new KryonId("left"), "leafDep"),
+            rightChain,
+            rightChain.extend(new KryonId("right"), "leafDep"));
+    assertThat(subtreeEnds(plan)).containsExactly(5, 3, 3, 5, 5);
+  }
+
+  @Test
+  void compile_recursiveGraphWithDisabledChain_recursionStopsAtDisabledChain() {
+    newKryon("recursive", ImmutableMap.of("self", new KryonId("recursive")));
+    DependantChain start = kryonDefinitionRegistry.getDependantChainsStart();
+    DependantChain depth1 = start.extend(new KryonId("recursive"), "self");
+    DependantChain depth2 = depth1.extend(new KryonId("recursive"), "self");
+
+    KryonExecutionPlan plan =
+        kryonDefinitionRegistry.getExecutionPlan(new KryonId("recursive"), ImmutableSet.of(depth2));
+
+    assertThat(kryonIds(plan)).containsExactly("recursive", "recursive");
+    assertThat(dependantChains(plan)).containsExactly(start, depth1);
+    assertThat(subtreeEnds(plan)).containsExactly(2, 2);
+  }
+
+  @Test
+  void getExecutionPlan_differentDisabledChains_separatePlans() {
+    newKryon("leaf", ImmutableMap.of());
+    newKryon("root", ImmutableMap.of("dep", new KryonId("leaf")));
+    DependantChain depChain =
+        kryonDefinitionRegistry.getDependantChainsStart().extend(new KryonId("root"), "dep");
+
+    KryonExecutionPlan plan =
+        kryonDefinitionRegistry.getExecutionPlan(new KryonId("root"), ImmutableSet.of());
+    KryonExecutionPlan planWithDisabledDep =
+        kryonDefinitionRegistry.getExecutionPlan(new KryonId("root"), ImmutableSet.of(depChain));
+
+    assertThat(kryonIds(plan)).containsExactly("root", "leaf");
+    assertThat(kryonIds(planWithDisabledDep)).containsExactly("root");
+    assertThat(
+            kryonDefinitionRegistry.getExecutionPlan(new KryonId("root"), ImmutableSet.of(depChain)))
+        .isSameAs(planWithDisabledDep);
+  }
+
+  @Test
+  void getExecutionPlan_unrelatedKryonRegistered_cachedPlanReused() {
+    newKryon("leaf", ImmutableMap.of());
+    newKryon("root", ImmutableMap.of("dep", new KryonId("leaf")));
+    KryonExecutionPlan plan = kryonDefinitionRegistry.getExecutionPlan(new KryonId("root"), ImmutableSet.of());
+
+    newKryon("other", ImmutableMap.of("dep", new KryonId("leaf")));
+
+    assertThat(kryonDefinitionRegistry.getExecutionPlan(new KryonId("root"), ImmutableSet.of())).isSameAs(plan);
+  }
+
+  @Test
+  void getExecutionPlan_kryonOfPlanRedefined_planRecompiled() {
+    newKryon("leaf", ImmutableMap.of());
+    newKryon("newLeaf", ImmutableMap.of());
+    newKryon("mid", ImmutableMap.of("dep", new KryonId("leaf")));
+    newKryon("root", ImmutableMap.of("dep", new KryonId("mid")));
+    KryonExecutionPlan plan = kryonDefinitionRegistry.getExecutionPlan(new KryonId("root"), ImmutableSet.of());
+    KryonExecutionPlan leafPlan = kryonDefinitionRegistry.getExecutionPlan(new KryonId("leaf"), ImmutableSet.of());
+
+    newKryon("mid", ImmutableMap.of("dep", new KryonId("newLeaf")));
+
+    KryonExecutionPlan recompiled = kryonDefinitionRegistry.getExecutionPlan(new KryonId("root"), ImmutableSet.of());
+    assertThat(recompiled).isNotSameAs(plan);
+    assertThat(kryonIds(recompiled)).containsExactly("root", "mid", "newLeaf");
+    assertThat(kryonDefinitionRegistry.getExecutionPlan(new KryonId("leaf"), ImmutableSet.of())).isSameAs(leafPlan);
+  }
+
+  private void newKryon(String kryonId, ImmutableMap<String, KryonId> dependencyKryons) {
+    kryonDefinitionRegistry.newKryonDefinition(
+        kryonId, emptySet(), new KryonLogicId(new KryonId(kryonId), kryonId), dependencyKryons);
+  }
+
+  private static List<String> kryonIds(KryonExecutionPlan plan) {
+    List<String> kryonIds = new ArrayList<>();
+    for (int node = 0; node < plan.size(); node++) {
+      kryonIds.add(plan.kryonIdAt(node).value());
+    }
+    return kryonIds;
+  }
+
+  private static List<DependantChain> dependantChains(KryonExecutionPlan plan) {
+    List<DependantChain> dependantChains = new ArrayList<>();
+    for (int node = 0; node < plan.size(); node++) {
+      dependantChains.add(plan.dependantChainAt(node));
+    }
+    return dependantChains;
+  }
+
+  private static List<Integer> subtreeEnds(KryonExecutionPlan plan) {
+    List<Integer> subtreeEnds = new ArrayList<>();
+    for (int node = 0; node < plan.size(); node++) {
+      subtreeEnds.add(plan.subtreeEnd(node));
+    }
+    return subtreeEnds;
+  }
+}
@@ -22,12 +22,22 @@ import com.flipkart.krystal.krystex.ComputeLogicDefinition;
 import com.flipkart.krystal.krystex.ForkJoinExecutorPool;
 import com.flipkart.krystal.krystex.IOLogicDefinition;
 import com.flipkart.krystal.krystex.LogicDefinitionRegistry;
+import com.flipkart.krystal.krystex.OutputLogic;
 import com.flipkart.krystal.krystex.OutputLogicDefinition;
+import com.flipkart.krystal.krystex.caching.SessionLevelCache;
+import com.flipkart.krystal.krystex.caching.SingleFlightDecorator;
 import com.flipkart.krystal.krystex.kryon.KryonExecutor.GraphTraversalStrategy;
 import com.flipkart.krystal.krystex.kryon.KryonExecutor.KryonExecStrategy;
+import com.flipkart.krystal.krystex.logicdecoration.InitiateActiveDepChains;
+import com.flipkart.krystal.krystex.logicdecoration.LogicDecoratorCommand;
+import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecorator;
+import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecoratorConfig;
+import com.flipkart.krystal.krystex.metrics.KryonMetricsSnapshot;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
@@ -36,6 +46,8 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.AfterEach;
@@ -218,6 +230,79 @@ class KryonExecutorTest {
     assertEquals("dependency_value:computed_value", timedGet(future));
   }
 
+  @ParameterizedTest
+  @MethodSource("executorConfigsToTest")
+  void requestExecution_computeDependencyRespondsSynchronously_outputLogicExecutedOnce(
+      KryonExecStrategy kryonExecStrategy, GraphTraversalStrategy graphTraversalStrategy)
+      throws Exception {
+    this.kryonExecutor = getKryonExecutor(kryonExecStrategy, graphTraversalStrategy);
+    KryonDefinition n1 =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "n1",
+            emptySet(),
+            newComputeLogic("n1_logic", emptySet(), dependencyValues -> "dependency_value")
+                .kryonLogicId());
+    AtomicInteger n2ExecutionCount = new AtomicInteger();
+    KryonDefinition n2 =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "n2",
+            emptySet(),
+            newComputeLogic(
+                    "n2_logic",
+                    Set.of("dep"),
+                    dependencyValues -> "computed_value_" + n2ExecutionCount.incrementAndGet())
+                .kryonLogicId(),
+            ImmutableMap.of("dep", n1.kryonId()));
+
+    CompletableFuture<Object> future =
+        kryonExecutor.executeKryon(
+            n2.kryonId(), Facets.empty(), KryonExecutionConfig.builder().executionId("r1").build());
+    kryonExecutor.close();
+
+    assertEquals("computed_value_1", timedGet(future));
+    assertThat(n2ExecutionCount).hasValue(1);
+  }
+
+  @ParameterizedTest
+  @MethodSource("executorConfigsToTest")
+  void requestExecution_completed_stateIsEvicted(
+      KryonExecStrategy kryonExecStrategy, GraphTraversalStrategy graphTraversalStrategy)
+      throws Exception {
+    this.kryonExecutor = getKryonExecutor(kryonExecStrategy, graphTraversalStrategy);
+    KryonDefinition n1 =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "n1",
+            emptySet(),
+            newComputeLogic("n1_logic", emptySet(), dependencyValues -> "dependency_value")
+                .kryonLogicId());
+    KryonDefinition n2 =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "n2",
+            emptySet(),
+            newComputeLogic("n2_logic", Set.of("dep"), dependencyValues -> "computed_value")
+                .kryonLogicId(),
+            ImmutableMap.of("dep", n1.kryonId()));
+
+    List<CompletableFuture<Object>> futures = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      futures.add(
+          kryonExecutor.executeKryon(
+              n2.kryonId(),
+              Facets.empty(),
+              KryonExecutionConfig.builder().executionId("r" + i).build()));
+    }
+    kryonExecutor.close();
+    for (CompletableFuture<Object> future : futures) {
+      assertEquals("computed_value", timedGet(future));
+    }
+    // Eviction happens asynchronously in the command queue after the futures complete.
+    timedGet(kryonExecutor.terminationFuture());
+    KryonExecutorMetrics kryonMetrics = kryonExecutor.getKryonMetrics();
+    assertThat(kryonMetrics.getPeakTrackedStateCount()).isPositive();
+    assertThat(kryonMetrics.getTrackedStateCount()).isZero();
+    assertThat(kryonMetrics.getAggregatedMetrics().snapshot().pendingExecutionCount()).isZero();
+  }
+
   @ParameterizedTest
   @MethodSource("executorConfigsToTest")
   void requestExecution_multiLevelDependencies_success(
@@ -404,6 +489,253 @@ class KryonExecutorTest {
             "java.util.concurrent.RejectedExecutionException: Kryon Executor shutdown requested.");
   }
 
+  @ParameterizedTest
+  @MethodSource("executorConfigsToTest")
+  void autoFlushingExecutor_flushesOnMaxPendingAndLingerTime(
+      KryonExecStrategy kryonExecStrategy, GraphTraversalStrategy graphTraversalStrategy)
+      throws Exception {
+    KryonDefinition kryonDefinition =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "kryon",
+            emptySet(),
+            newComputeLogic("kryonLogic", emptySet(), dependencyValues -> "computed_value")
+                .kryonLogicId());
+    try (AutoFlushingKryonExecutor autoFlushingExecutor =
+        new AutoFlushingKryonExecutor(
+            kryonDefinitionRegistry,
+            new ForkJoinExecutorPool(1),
+            KryonExecutorConfig.builder()
+                .kryonExecStrategy(kryonExecStrategy)
+                .graphTraversalStrategy(graphTraversalStrategy)
+                .build(),
+            "test",
+            AutoFlushConfig.builder()
+                .lingerTime(Duration.ofMillis(10))
+                .maxPendingExecutions(2)
+                .build())) {
+      List<CompletableFuture<Object>> futures = new ArrayList<>();
+      for (int i = 0; i < 3; i++) {
+        futures.add(
+            autoFlushingExecutor.executeKryon(
+                kryonDefinition.kryonId(),
+                Facets.empty(),
+                KryonExecutionConfig.builder().executionId("req_" + i).build()));
+      }
+      // The first two requests are flushed because maxPendingExecutions is reached and the third
+      // one because the linger time elapses - none of them need the executor to be closed.
+      for (CompletableFuture<Object> future : futures) {
+        assertEquals("computed_value", timedGet(future));
+      }
+      // All the windows record into the same metrics
+      KryonMetricsSnapshot metrics = autoFlushingExecutor.getMetrics().snapshot();
+      assertThat(metrics.commandQueuedCount() + metrics.commandQueueBypassedCount())
+          .isGreaterThanOrEqualTo(3);
+    }
+  }
+
+  @ParameterizedTest
+  @MethodSource("executorConfigsToTest")
+  void requestScopedDecorator_manyExecutions_activeDepChainsSentOnceOnCreation(
+      KryonExecStrategy kryonExecStrategy, GraphTraversalStrategy graphTraversalStrategy)
+      throws Exception {
+    KryonDefinition leaf =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "leaf",
+            emptySet(),
+            newComputeLogic("leaf_logic", emptySet(), facets -> "leaf_value").kryonLogicId());
+    KryonDefinition root1 =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "root1",
+            emptySet(),
+            newComputeLogic("root1_logic", Set.of("dep"), facets -> "root1_value").kryonLogicId(),
+            ImmutableMap.of("dep", leaf.kryonId()));
+    KryonDefinition root2 =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "root2",
+            emptySet(),
+            newComputeLogic("root2_logic", Set.of("dep"), facets -> "root2_value").kryonLogicId(),
+            ImmutableMap.of("dep", leaf.kryonId()));
+    List<ImmutableSet<DependantChain>> receivedDepChains = new ArrayList<>();
+    OutputLogicDecorator decorator =
+        new OutputLogicDecorator() {
+          @Override
+          public OutputLogic<Object> decorateLogic(
+              OutputLogic<Object> logicToDecorate,
+              OutputLogicDefinition<Object> originalLogicDefinition) {
+            return logicToDecorate;
+          }
+
+          @Override
+          public void executeCommand(LogicDecoratorCommand logicDecoratorCommand) {
+            if (logicDecoratorCommand instanceof InitiateActiveDepChains initiateActiveDepChains) {
+              receivedDepChains.add(initiateActiveDepChains.dependantsChains());
+            }
+          }
+
+          @Override
+          public String getId() {
+            return "recorder";
+          }
+        };
+    this.kryonExecutor =
+        new KryonExecutor(
+            kryonDefinitionRegistry,
+            new ForkJoinExecutorPool(1),
+            KryonExecutorConfig.builder()
+                .kryonExecStrategy(kryonExecStrategy)
+                .graphTraversalStrategy(graphTraversalStrategy)
+                .requestScopedLogicDecoratorConfigs(
+                    ImmutableMap.of(
+                        "recorder",
+                        List.of(
+                            new OutputLogicDecoratorConfig(
+                                "recorder",
+                                context -> context.kryonId().equals(leaf.kryonId()),
+                                context -> "recorder",
+                                _c -> decorator))))
+                .build(),
+            "test");
+    DependantChain start = kryonDefinitionRegistry.getDependantChainsStart();
+
+    List<CompletableFuture<Object>> futures = new ArrayList<>();
+    for (String executionId : List.of("r1", "r2")) {
+      futures.add(
+          kryonExecutor.executeKryon(
+              root1.kryonId(),
+              Facets.empty(),
+              KryonExecutionConfig.builder().executionId(executionId).build()));
+    }
+    futures.add(
+        kryonExecutor.executeKryon(
+            root2.kryonId(),
+            Facets.empty(),
+            KryonExecutionConfig.builder().executionId("r3").build()));
+    kryonExecutor.close();
+    for (CompletableFuture<Object> future : futures) {
+      timedGet(future);
+    }
+
+    // Not once per execution of the logic - the leaf logic is executed for each dependant chain
+    assertThat(receivedDepChains)
+        .containsExactly(
+            ImmutableSet.of(
+                start.extend(root1.kryonId(), "dep"), start.extend(root2.kryonId(), "dep")));
+  }
+
+  @ParameterizedTest
+  @MethodSource("batchExecutorConfigsToTest")
+  void singleFlight_concurrentIdenticalExecutions_executeOnce(
+      KryonExecStrategy kryonExecStrategy, GraphTraversalStrategy graphTraversalStrategy)
+      throws Exception {
+    AtomicInteger callCount = new AtomicInteger();
+    CompletableFuture<String> ioResult = new CompletableFuture<>();
+    KryonDefinition kryonDefinition =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "kryon",
+            emptySet(),
+            newIoLogic(
+                    "kryonLogic",
+                    emptySet(),
+                    facets -> {
+                      callCount.incrementAndGet();
+                      return ioResult;
+                    })
+                .kryonLogicId());
+    SingleFlightDecorator singleFlightDecorator = new SingleFlightDecorator();
+    singleFlightDecorator.deduplicateKryon(kryonDefinition.kryonId());
+    KryonExecutorConfig executorConfig =
+        KryonExecutorConfig.builder()
+            .kryonExecStrategy(kryonExecStrategy)
+            .graphTraversalStrategy(graphTraversalStrategy)
+            .requestScopedKryonDecoratorConfig(
+                SingleFlightDecorator.DECORATOR_TYPE, singleFlightDecorator.decoratorConfig())
+            .build();
+    KryonExecutor executor1 =
+        new KryonExecutor(
+            kryonDefinitionRegistry, new ForkJoinExecutorPool(1), executorConfig, "req_1");
+    KryonExecutor executor2 =
+        new KryonExecutor(
+            kryonDefinitionRegistry, new ForkJoinExecutorPool(1), executorConfig, "req_2");
+    CompletableFuture<Object> future1 =
+        executor1.executeKryon(
+            kryonDefinition.kryonId(),
+            Facets.empty(),
+            KryonExecutionConfig.builder().executionId("exec_1").build());
+    CompletableFuture<Object> future2 =
+        executor2.executeKryon(
+            kryonDefinition.kryonId(),
+            Facets.empty(),
+            KryonExecutionConfig.builder().executionId("exec_1").build());
+    executor1.close();
+    executor2.close();
+    // Complete the IO call only after the second execution has attached to the first one
+    long deadline = System.nanoTime() + TIMEOUT.toNanos();
+    while (singleFlightDecorator.deduplicatedCount() == 0 && System.nanoTime() < deadline) {
+      Thread.sleep(1);
+    }
+    ioResult.complete("io_value");
+
+    assertEquals("io_value", timedGet(future1));
+    assertEquals("io_value", timedGet(future2));
+    assertThat(callCount).hasValue(1);
+    assertThat(singleFlightDecorator.inFlightCount()).isZero();
+  }
+
+  @ParameterizedTest
+  @MethodSource("batchExecutorConfigsToTest")
+  void sessionLevelCache_resultOfOneExecutor_servedToLaterExecutorsTillExpiry(
+      KryonExecStrategy kryonExecStrategy, GraphTraversalStrategy graphTraversalStrategy)
+      throws Exception {
+    AtomicInteger callCount = new AtomicInteger();
+    AtomicLong nanoTicker = new AtomicLong();
+    KryonDefinition kryonDefinition =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "kryon",
+            emptySet(),
+            newIoLogic(
+                    "kryonLogic",
+                    emptySet(),
+                    facets -> {
+                      callCount.incrementAndGet();
+                      // Completed by a thread which belongs to none of the executors
+                      return CompletableFuture.supplyAsync(() -> "io_value");
+                    })
+                .kryonLogicId());
+    SessionLevelCache sessionLevelCache =
+        new SessionLevelCache(100, 100, value -> 1, 4, nanoTicker::get);
+    Duration ttl = Duration.ofMinutes(1);
+    sessionLevelCache.cacheKryon(kryonDefinition.kryonId(), ttl);
+    KryonExecutorConfig executorConfig =
+        KryonExecutorConfig.builder()
+            .kryonExecStrategy(kryonExecStrategy)
+            .graphTraversalStrategy(graphTraversalStrategy)
+            .requestScopedKryonDecoratorConfig(
+                SessionLevelCache.DECORATOR_TYPE, sessionLevelCache.decoratorConfig())
+            .build();
+
+    assertEquals("io_value", timedGet(executeInNewExecutor(kryonDefinition, executorConfig)));
+    assertEquals("io_value", timedGet(executeInNewExecutor(kryonDefinition, executorConfig)));
+    assertThat(callCount).hasValue(1);
+    assertThat(sessionLevelCache.stats().hitCount()).isEqualTo(1);
+
+    nanoTicker.addAndGet(ttl.toNanos());
+    assertEquals("io_value", timedGet(executeInNewExecutor(kryonDefinition, executorConfig)));
+    assertThat(callCount).hasValue(2);
+    assertThat(sessionLevelCache.stats().expirationCount()).isEqualTo(1);
+  }
+
+  private CompletableFuture<Object> executeInNewExecutor(
+      KryonDefinition kryonDefinition, KryonExecutorConfig executorConfig) {
+    try (KryonExecutor executor =
+        new KryonExecutor(
+            kryonDefinitionRegistry, new ForkJoinExecutorPool(1), executorConfig, "test")) {
+      return executor.executeKryon(
+          kryonDefinition.kryonId(),
+          Facets.empty(),
+          KryonExecutionConfig.builder().executionId("exec").build());
+    }
+  }
+
   /* So that bad testcases do not hang indefinitely.*/
   private static <T> T timedGet(CompletableFuture<T> future)
       throws InterruptedException, ExecutionException, TimeoutException {
@@ -455,6 +787,10 @@ class KryonExecutorTest {
         "test");
   }
 
+  public static Stream<Arguments> batchExecutorConfigsToTest() {
+    return Stream.of(Arguments.of(BATCH, DEPTH), Arguments.of(BATCH, BREADTH));
+  }
+
   public static Stream<Arguments> executorConfigsToTest() {
     return Stream.of(
         Arguments.of(BATCH, DEPTH),
@@ -0,0 +1,153 @@
+package com.flipkart.krystal.krystex.logicdecorators.observability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.LogicDefinitionRegistry;
+import com.flipkart.krystal.krystex.kryon.DependantChain;
+import com.flipkart.krystal.krystex.kryon.KryonDefinitionRegistry;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.krystex.logicdecorators.observability.BinaryTrace.TracedExecution;
+import com.flipkart.krystal.krystex.logicdecorators.observability.BinaryTraceWriter.TraceBuffer;
+import com.google.common.collect.ImmutableMap;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Test;
+
+class BinaryTraceTest {
+
+  private static final KryonId ROOT = new KryonId("root");
+  private static final KryonId CHILD = new KryonId("child");
+
+  private final DependantChain start =
+      new KryonDefinitionRegistry(new LogicDefinitionRegistry()).getDependantChainsStart();
+
+  @Test
+  void read_writtenTrace_decodesExecutionsAndChains() throws Exception {
+    Facets facets = new Facets(ImmutableMap.of("input", Errable.withValue(1)));
+    byte[] trace = writeTrace(facets);
+
+    BinaryTrace binaryTrace = BinaryTrace.read(new ByteArrayInputStream(trace));
+
+    assertThat(binaryTrace.executions()).hasSize(3);
+    TracedExecution child = binaryTrace.executions().get(0);
+    assertThat(child.kryonId()).isEqualTo("child");
+    assertThat(child.chain().toString()).isEqualTo(start.extend(ROOT, "dep").toString());
+    assertThat(child.requestCount()).isEqualTo(2);
+    assertThat(child.failed()).isTrue();
+    assertThat(child.inputFingerprints()).containsExactly(facets.fingerprint(), 0L);
+    TracedExecution root = binaryTrace.executions().get(1);
+    assertThat(root.chain().isRoot()).isTrue();
+    assertThat(root.startMicros()).isGreaterThanOrEqualTo(child.endMicros());
+    assertThat(binaryTrace.executions().get(2).ended()).isFalse();
+
+    // A truncated trace is read up to the last complete record
+    byte[] truncated = Arrays.copyOf(trace, trace.length - 1);
+    assertThat(BinaryTrace.read(new ByteArrayInputStream(truncated)).executions()).hasSize(2);
+  }
+
+  @Test
+  void writeCollapsedStacks_nestsDependenciesUnderDependants() throws Exception {
+    BinaryTrace binaryTrace =
+        BinaryTrace.read(new ByteArrayInputStream(writeTrace(Facets.empty())));
+    StringWriter collapsed = new StringWriter();
+
+    BinaryTraceConverter.writeCollapsedStacks(binaryTrace, collapsed);
+
+    assertThat(collapsed.toString().lines().map(line -> line.substring(0, line.indexOf(' '))))
+        .containsExactly("root;child", "root");
+  }
+
+  @Test
+  void read_buffersHandedOverOutOfOrder_executionsInStartOrder() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (BinaryTraceWriter writer = new BinaryTraceWriter(out, false)) {
+      TraceBuffer first = writer.newBuffer();
+      TraceBuffer second = writer.newBuffer();
+      long firstExecution = first.logicStarted(ROOT, start, List.of(Facets.empty()));
+      awaitNextMilli();
+      long secondExecution = second.logicStarted(CHILD, start, List.of(Facets.empty()));
+      second.logicEnded(secondExecution, List.of(Errable.withValue("a")));
+      second.handOver();
+      first.handOver();
+      // Recorded after the hand over, so written right away
+      first.logicEnded(firstExecution, List.of(Errable.withValue("b")));
+    }
+
+    List<TracedExecution> executions =
+        BinaryTrace.read(new ByteArrayInputStream(out.toByteArray())).executions();
+
+    assertThat(executions).hasSize(2);
+    assertThat(executions.get(0).kryonId()).isEqualTo("root");
+    assertThat(executions.get(1).kryonId()).isEqualTo("child");
+    assertThat(executions.get(1).startMicros())
+        .isGreaterThanOrEqualTo(executions.get(0).startMicros() + 1000);
+    assertThat(executions.get(0).endMicros())
+        .isGreaterThanOrEqualTo(executions.get(1).endMicros());
+  }
+
+  @Test
+  void handOver_tooManyPendingBuffers_recordsDroppedAndCounted() throws Exception {
+    CountDownLatch writerThreadBlocked = new CountDownLatch(1);
+    CountDownLatch unblockWriterThread = new CountDownLatch(1);
+    ByteArrayOutputStream out =
+        new ByteArrayOutputStream() {
+          @Override
+          public void flush() throws IOException {
+            writerThreadBlocked.countDown();
+            try {
+              unblockWriterThread.await();
+            } catch (InterruptedException e) {
+              throw new IOException(e);
+            }
+          }
+        };
+    try (BinaryTraceWriter writer = new BinaryTraceWriter(out, false, 1)) {
+      writer.flush();
+      writerThreadBlocked.await();
+      TraceBuffer pending = writer.newBuffer();
+      pending.logicStarted(ROOT, start, List.of(Facets.empty()));
+      pending.handOver();
+      TraceBuffer dropped = writer.newBuffer();
+      dropped.logicStarted(CHILD, start, List.of(Facets.empty()));
+      dropped.logicStarted(CHILD, start, List.of(Facets.empty()));
+      dropped.handOver();
+
+      assertThat(writer.droppedRecordCount()).isEqualTo(2);
+      unblockWriterThread.countDown();
+    }
+
+    assertThat(BinaryTrace.read(new ByteArrayInputStream(out.toByteArray())).executions())
+        .hasSize(1);
+  }
+
+  private byte[] writeTrace(Facets facets) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    DependantChain childChain = start.extend(ROOT, "dep");
+    try (BinaryTraceWriter writer = new BinaryTraceWriter(out, true)) {
+      TraceBuffer buffer = writer.newBuffer();
+      long childExecution = buffer.logicStarted(CHILD, childChain, List.of(facets, Facets.empty()));
+      buffer.logicEnded(
+          childExecution,
+          List.of(Errable.withValue("a"), Errable.withError(new RuntimeException())));
+      long rootExecution = buffer.logicStarted(ROOT, start, List.of(facets));
+      buffer.logicEnded(rootExecution, List.of(Errable.withValue("b")));
+      buffer.logicStarted(CHILD, childChain, List.of(facets));
+      buffer.handOver();
+    }
+    return out.toByteArray();
+  }
+
+  private static void awaitNextMilli() {
+    long start = System.nanoTime();
+    while (System.nanoTime() - start < 1_000_000) {
+      Thread.onSpinWait();
+    }
+  }
+}
@@ -6,6 +6,7 @@ import static java.util.function.Function.identity;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.data.Fingerprints;
 import com.flipkart.krystal.data.Results;
 import com.flipkart.krystal.krystex.kryon.KryonId;
 import com.flipkart.krystal.krystex.kryon.KryonLogicId;
@@ -169,4 +170,65 @@ class DefaultKryonExecutionReportTest {
             facetsList.stream().collect(toImmutableMap(identity(), inputs -> withValue(result)))));
     assertThat(kryonExecutionReport.getMainLogicExecInfos().isEmpty()).isTrue();
   }
+
+  @Test
+  void reportMainLogicStart_unequalValuesWithSameFingerprint_storedUnderDistinctIds() {
+    KryonId kryonId = new KryonId("kryon_1");
+    KryonLogicId kryonLogicId = new KryonLogicId(kryonId, "kryon_1__logic_1");
+    ImmutableList<Facets> facetsList =
+        ImmutableList.of(
+            new Facets(ImmutableMap.of("i1", withValue(new Colliding("v1")))),
+            new Facets(ImmutableMap.of("i1", withValue(new Colliding("v2")))),
+            new Facets(ImmutableMap.of("i1", withValue(new Colliding("v1")))));
+
+    kryonExecutionReport.reportMainLogicStart(kryonId, kryonLogicId, facetsList);
+
+    LogicExecInfo logicExecInfo =
+        kryonExecutionReport.getMainLogicExecInfos().values().stream().findFirst().orElseThrow();
+    List<String> valueIds =
+        logicExecInfo.getInputsList().stream().map(inputs -> inputs.get("i1")).toList();
+    assertThat(valueIds.get(0)).isNotEqualTo(valueIds.get(1));
+    assertThat(valueIds.get(2)).isEqualTo(valueIds.get(0));
+    assertThat(kryonExecutionReport.getDataMap().get(valueIds.get(0)))
+        .isEqualTo(new Colliding("v1"));
+    assertThat(kryonExecutionReport.getDataMap().get(valueIds.get(1)))
+        .isEqualTo(new Colliding("v2"));
+  }
+
+  @Test
+  void reportMainLogicStart_valueWithIdentityHashCode_idDerivedFromStringForm() {
+    KryonId kryonId = new KryonId("kryon_1");
+    KryonLogicId kryonLogicId = new KryonLogicId(kryonId, "kryon_1__logic_1");
+    ImmutableList<Facets> facetsList =
+        ImmutableList.of(new Facets(ImmutableMap.of("i1", withValue(new IdentityHashed("v1")))));
+
+    kryonExecutionReport.reportMainLogicStart(kryonId, kryonLogicId, facetsList);
+
+    LogicExecInfo logicExecInfo =
+        kryonExecutionReport.getMainLogicExecInfos().values().stream().findFirst().orElseThrow();
+    // Identity hash codes differ between JVM runs, the string form does not
+    assertThat(logicExecInfo.getInputsList().get(0).get("i1"))
+        .isEqualTo(Long.toHexString(Fingerprints.of("IdentityHashed(v1)")));
+  }
+
+  /** Unequal values with the same string form, and hence the same fingerprint. */
+  private record Colliding(String value) {
+    @Override
+    public String toString() {
+      return "Colliding";
+    }
+  }
+
+  private static final class IdentityHashed {
+    private final String value;
+
+    private IdentityHashed(String value) {
+      this.value = value;
+    }
+
+    @Override
+    public String toString() {
+      return "IdentityHashed(%s)".formatted(value);
+    }
+  }
 }
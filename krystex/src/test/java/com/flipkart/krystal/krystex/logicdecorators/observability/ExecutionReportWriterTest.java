@@ -0,0 +1,82 @@
+package com.flipkart.krystal.krystex.logicdecorators.observability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.data.Results;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.krystex.kryon.KryonLogicId;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ExecutionReportWriterTest {
+
+  private static final KryonId KRYON_ID = new KryonId("kryon_1");
+  private static final KryonLogicId KRYON_LOGIC_ID = new KryonLogicId(KRYON_ID, "logic_1");
+
+  @TempDir Path reportDir;
+
+  @Test
+  void write_moreReportsThanMaxFiles_keepsLatestReports() throws Exception {
+    try (ExecutionReportWriter writer = new ExecutionReportWriter(reportDir, 2, 10)) {
+      for (int i = 0; i < 3; i++) {
+        writer.write(new DefaultKryonExecutionReport(new FakeClock(Instant.EPOCH)));
+      }
+    }
+
+    List<Path> reports = ExecutionReportWriter.listReportFiles(reportDir);
+    assertThat(reports).hasSize(2);
+    assertThat(reports.get(1).getFileName().toString()).endsWith("_000003.json");
+
+    List<Path> htmlFiles = ExecutionReportRenderer.render(reportDir);
+    assertThat(htmlFiles).hasSize(2).allMatch(Files::exists);
+  }
+
+  @Test
+  void sampleTail_slowOrErroredReports_areSampled() {
+    FakeClock clock = new FakeClock(Instant.EPOCH);
+    ReportSampling sampling = ReportSampling.slowOrErrored(Duration.ofMillis(50));
+    Facets facets = new Facets(ImmutableMap.of());
+
+    DefaultKryonExecutionReport fastReport = new DefaultKryonExecutionReport(clock);
+    fastReport.reportMainLogicStart(KRYON_ID, KRYON_LOGIC_ID, ImmutableList.of());
+    clock.setInstant(Instant.ofEpochMilli(10));
+    fastReport.reportMainLogicEnd(KRYON_ID, KRYON_LOGIC_ID, Results.empty());
+    assertThat(sampling.sampleTail(fastReport)).isFalse();
+
+    DefaultKryonExecutionReport erroredReport = new DefaultKryonExecutionReport(clock);
+    erroredReport.reportMainLogicStart(KRYON_ID, KRYON_LOGIC_ID, ImmutableList.of(facets));
+    erroredReport.reportMainLogicEnd(
+        KRYON_ID,
+        KRYON_LOGIC_ID,
+        new Results<>(ImmutableMap.of(facets, Errable.withError(new RuntimeException()))));
+    assertThat(sampling.sampleTail(erroredReport)).isTrue();
+
+    DefaultKryonExecutionReport slowReport = new DefaultKryonExecutionReport(clock);
+    slowReport.reportMainLogicStart(KRYON_ID, KRYON_LOGIC_ID, ImmutableList.of());
+    clock.setInstant(Instant.ofEpochMilli(100));
+    slowReport.reportMainLogicEnd(KRYON_ID, KRYON_LOGIC_ID, Results.empty());
+    assertThat(sampling.sampleTail(slowReport)).isTrue();
+  }
+
+  @Test
+  void reportMainLogicStart_beyondMaxLogicExecutions_isDropped() {
+    DefaultKryonExecutionReport report =
+        new DefaultKryonExecutionReport(new FakeClock(Instant.EPOCH), false, 1);
+
+    report.reportMainLogicStart(KRYON_ID, KRYON_LOGIC_ID, ImmutableList.of());
+    report.reportMainLogicStart(
+        new KryonId("kryon_2"), KRYON_LOGIC_ID, ImmutableList.of(new Facets(ImmutableMap.of())));
+
+    assertThat(report.getMainLogicExecInfos()).hasSize(1);
+    assertThat(report.getDroppedLogicExecutionCount()).isEqualTo(1);
+  }
+}
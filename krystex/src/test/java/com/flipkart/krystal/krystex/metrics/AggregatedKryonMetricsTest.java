@@ -0,0 +1,41 @@
+package com.flipkart.krystal.krystex.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import org.junit.jupiter.api.Test;
+
+class AggregatedKryonMetricsTest {
+
+  @Test
+  void snapshot_recordedValues_included() {
+    AggregatedKryonMetrics metrics = new AggregatedKryonMetrics();
+    metrics.commandQueued(10);
+    metrics.commandExecuted(new KryonId("kryon"), 20);
+    metrics.executionStarted();
+
+    KryonMetricsSnapshot snapshot = metrics.snapshot();
+
+    assertThat(snapshot.commandQueuedCount()).isEqualTo(1);
+    assertThat(snapshot.commandQueueWait().maxNanos()).isEqualTo(10);
+    assertThat(snapshot.commandExecutionTimesByKryon().get("kryon").count()).isEqualTo(1);
+    assertThat(snapshot.pendingExecutionCount()).isEqualTo(1);
+  }
+
+  @Test
+  void noOp_recordedValues_ignored() {
+    AggregatedKryonMetrics metrics = AggregatedKryonMetrics.noOp();
+    metrics.commandQueued(10);
+    metrics.commandExecuted(new KryonId("kryon"), 20);
+    metrics.executionStarted();
+    metrics.executionCompleted(30);
+
+    KryonMetricsSnapshot snapshot = metrics.snapshot();
+
+    assertThat(snapshot.commandQueuedCount()).isZero();
+    assertThat(snapshot.commandQueueWait().count()).isZero();
+    assertThat(snapshot.commandExecutionTimesByKryon()).isEmpty();
+    assertThat(snapshot.pendingExecutionCount()).isZero();
+    assertThat(snapshot.requestLatency().count()).isZero();
+  }
+}
@@ -0,0 +1,98 @@
+package com.flipkart.krystal.krystex.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.krystex.metrics.LatencyHistogram.Snapshot;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+  @Test
+  void bucketUpperBound_containsEveryValueOfTheBucket() {
+    for (long value : new long[] {0, 1, 15, 16, 17, 31, 32, 33, 1_000, 123_456_789, 1L << 40}) {
+      int index = LatencyHistogram.bucketIndex(value);
+      assertThat(LatencyHistogram.bucketUpperBound(index)).isGreaterThanOrEqualTo(value);
+      if (index > 0) {
+        assertThat(LatencyHistogram.bucketUpperBound(index - 1)).isLessThan(value);
+      }
+    }
+  }
+
+  @Test
+  void percentileNanos_isAccurateWithinBucketPrecision() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i * 1_000L);
+    }
+    Snapshot snapshot = histogram.snapshot();
+
+    assertThat(snapshot.count()).isEqualTo(1000);
+    assertThat(snapshot.maxNanos()).isEqualTo(1_000_000);
+    assertThat(snapshot.meanNanos()).isEqualTo(500_500);
+    assertThat(snapshot.percentileNanos(50)).isBetween(500_000L, 500_000L * 17 / 16);
+    assertThat(snapshot.percentileNanos(99)).isBetween(990_000L, 1_000_000L);
+    assertThat(snapshot.percentileNanos(100)).isEqualTo(1_000_000);
+  }
+
+  @Test
+  void merge_combinesCountsOfBothSnapshots() {
+    LatencyHistogram first = new LatencyHistogram();
+    LatencyHistogram second = new LatencyHistogram();
+    first.record(10);
+    second.record(20);
+    second.record(-5);
+
+    Snapshot merged = first.snapshot().merge(second.snapshot());
+
+    assertThat(merged.count()).isEqualTo(3);
+    assertThat(merged.sumNanos()).isEqualTo(30);
+    assertThat(merged.maxNanos()).isEqualTo(20);
+    assertThat(merged.percentileNanos(0)).isEqualTo(0);
+    assertThat(Snapshot.empty().merge(merged).percentileNanos(100)).isEqualTo(20);
+  }
+
+  @Test
+  void snapshot_recordedFromManyThreads_mergesAllStripes() throws Exception {
+    LatencyHistogram histogram = new LatencyHistogram();
+    int threadCount = 8;
+    ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threadCount; t++) {
+        long value = (t + 1) * 100L;
+        futures.add(
+            executorService.submit(
+                () -> {
+                  for (int i = 0; i < 1000; i++) {
+                    histogram.record(value);
+                  }
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executorService.shutdown();
+    }
+
+    Snapshot snapshot = histogram.snapshot();
+
+    assertThat(snapshot.count()).isEqualTo(threadCount * 1000);
+    assertThat(snapshot.sumNanos()).isEqualTo(1000 * 100L * (threadCount * (threadCount + 1) / 2));
+    assertThat(snapshot.maxNanos()).isEqualTo(threadCount * 100L);
+  }
+
+  @Test
+  void stripeCount_isPowerOfTwoCoveringProcessors() {
+    assertThat(LatencyHistogram.stripeCount(1)).isEqualTo(1);
+    assertThat(LatencyHistogram.stripeCount(2)).isEqualTo(2);
+    assertThat(LatencyHistogram.stripeCount(6)).isEqualTo(8);
+    assertThat(LatencyHistogram.stripeCount(8)).isEqualTo(8);
+    assertThat(LatencyHistogram.stripeCount(1000)).isEqualTo(64);
+  }
+}
@@ -0,0 +1,49 @@
+package com.flipkart.krystal.krystex.request;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+class RequestIdGeneratorTest {
+
+  private static final Supplier<String> UNUSED_SUPPLIER =
+      () -> {
+        throw new AssertionError("Label supplier must not be called");
+      };
+
+  @Test
+  void longReqGenerator_newRequests_distinctIdsWithoutLabels() {
+    LongReqGenerator generator = new LongReqGenerator();
+
+    RequestId request = generator.newRequest(UNUSED_SUPPLIER);
+    RequestId subRequest = generator.newSubRequest(request, UNUSED_SUPPLIER);
+    RequestId otherSubRequest = generator.newSubRequest(request, UNUSED_SUPPLIER);
+
+    assertThat(request).isEqualTo(new RequestId(0));
+    assertThat(subRequest).isEqualTo(new RequestId(1));
+    assertThat(otherSubRequest).isEqualTo(new RequestId(2));
+    assertThat(subRequest.label()).isNull();
+    assertThat(subRequest.toString()).isEqualTo("1");
+  }
+
+  @Test
+  void stringReqGenerator_sameParentAndSuffix_equalIds() {
+    StringReqGenerator generator = new StringReqGenerator();
+    RequestId request = generator.newRequest(() -> "root");
+
+    RequestId subRequest = generator.newSubRequest(request, () -> "dep");
+
+    assertThat(subRequest).isEqualTo(new RequestId("root:dep"));
+    assertThat(generator.newSubRequest(request, () -> "dep")).isEqualTo(subRequest);
+    assertThat(generator.newSubRequest(request, () -> "other")).isNotEqualTo(subRequest);
+    assertThat(subRequest.id()).isEqualTo(0);
+    assertThat(subRequest.toString()).isEqualTo("root:dep");
+  }
+
+  @Test
+  void equals_sameIdDifferentLabels_notEqual() {
+    assertThat(new RequestId(0)).isNotEqualTo(new RequestId("0"));
+    assertThat(new RequestId(7)).isEqualTo(new RequestId(7, null));
+  }
+}
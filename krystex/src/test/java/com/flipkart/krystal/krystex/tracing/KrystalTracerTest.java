@@ -0,0 +1,137 @@
+package com.flipkart.krystal.krystex.tracing;
+
+import static com.flipkart.krystal.data.Errable.withValue;
+import static com.flipkart.krystal.krystex.kryon.KryonExecutor.KryonExecStrategy.BATCH;
+import static com.flipkart.krystal.krystex.kryon.KryonExecutor.KryonExecStrategy.GRANULAR;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.util.Collections.emptySet;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.function.Function.identity;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.ComputeLogicDefinition;
+import com.flipkart.krystal.krystex.ForkJoinExecutorPool;
+import com.flipkart.krystal.krystex.LogicDefinitionRegistry;
+import com.flipkart.krystal.krystex.kryon.DependantChain;
+import com.flipkart.krystal.krystex.kryon.KryonDefinition;
+import com.flipkart.krystal.krystex.kryon.KryonDefinitionRegistry;
+import com.flipkart.krystal.krystex.kryon.KryonExecutionConfig;
+import com.flipkart.krystal.krystex.kryon.KryonExecutor;
+import com.flipkart.krystal.krystex.kryon.KryonExecutor.KryonExecStrategy;
+import com.flipkart.krystal.krystex.kryon.KryonExecutorConfig;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.krystex.kryon.KryonLogicId;
+import com.flipkart.krystal.krystex.tracing.Span.Kind;
+import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class KrystalTracerTest {
+
+  private LogicDefinitionRegistry logicDefinitionRegistry;
+  private KryonDefinitionRegistry kryonDefinitionRegistry;
+  private List<Span> exportedSpans;
+  private KrystalTracer tracer;
+
+  @BeforeEach
+  void setUp() {
+    this.logicDefinitionRegistry = new LogicDefinitionRegistry();
+    this.kryonDefinitionRegistry = new KryonDefinitionRegistry(logicDefinitionRegistry);
+    this.exportedSpans = new ArrayList<>();
+    // Spans are exported only from the export thread of the tracer (see SpanSink)
+    this.tracer = new KrystalTracer(exportedSpans::addAll, 1024, 512, Duration.ofHours(1));
+  }
+
+  @AfterEach
+  void tearDown() {
+    tracer.close();
+  }
+
+  @ParameterizedTest
+  @MethodSource("executorConfigsToTest")
+  void executeKryon_twoLevelGraph_spansParentedAlongDependantChain(
+      KryonExecStrategy kryonExecStrategy) throws Exception {
+    KryonDefinition leaf =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "leaf", emptySet(), newComputeLogic("leaf", emptySet(), "leaf_value").kryonLogicId());
+    KryonDefinition root =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "root",
+            emptySet(),
+            newComputeLogic("root", Set.of("dep"), "root_value").kryonLogicId(),
+            ImmutableMap.of("dep", leaf.kryonId()));
+    KryonExecutor kryonExecutor =
+        new KryonExecutor(
+            kryonDefinitionRegistry,
+            new ForkJoinExecutorPool(1),
+            KryonExecutorConfig.builder()
+                .kryonExecStrategy(kryonExecStrategy)
+                .requestScopedKryonDecoratorConfig(
+                    KrystalTracer.KRYON_DECORATOR_TYPE, tracer.kryonDecoratorConfig())
+                .requestScopedLogicDecoratorConfigs(
+                    ImmutableMap.of(
+                        KrystalTracer.LOGIC_DECORATOR_TYPE, List.of(tracer.logicDecoratorConfig())))
+                .build(),
+            "test");
+
+    CompletableFuture<Object> result =
+        kryonExecutor.executeKryon(
+            root.kryonId(),
+            Facets.empty(),
+            KryonExecutionConfig.builder().executionId("r1").build());
+    kryonExecutor.close();
+    assertThat(result).succeedsWithin(1, SECONDS).isEqualTo("root_value");
+    kryonExecutor.terminationFuture().get(1, SECONDS);
+    tracer.flush();
+
+    assertThat(exportedSpans).hasSize(4);
+    assertThat(exportedSpans)
+        .extracting(Span::traceId)
+        .containsOnly(exportedSpans.get(0).traceId());
+    assertThat(exportedSpans).extracting(Span::failed).containsOnly(false);
+    DependantChain start = kryonDefinitionRegistry.getDependantChainsStart();
+    Span rootSpan = span(Kind.KRYON, root.kryonId());
+    Span leafSpan = span(Kind.KRYON, leaf.kryonId());
+    assertThat(rootSpan.parentSpanId()).isZero();
+    assertThat(rootSpan.dependantChain()).isEqualTo(start.toString());
+    assertThat(leafSpan.parentSpanId()).isEqualTo(rootSpan.spanId());
+    assertThat(leafSpan.dependantChain()).isEqualTo(start.extend(root.kryonId(), "dep").toString());
+    assertThat(span(Kind.OUTPUT_LOGIC, root.kryonId()).parentSpanId()).isEqualTo(rootSpan.spanId());
+    assertThat(span(Kind.OUTPUT_LOGIC, leaf.kryonId()).parentSpanId()).isEqualTo(leafSpan.spanId());
+  }
+
+  private Span span(Kind kind, KryonId kryonId) {
+    return exportedSpans.stream()
+        .filter(span -> span.kind() == kind && span.kryonId().equals(kryonId.value()))
+        .findFirst()
+        .orElseThrow(() -> new AssertionError("No %s span of %s".formatted(kind, kryonId)));
+  }
+
+  private ComputeLogicDefinition<Object> newComputeLogic(
+      String kryonId, Set<String> inputs, Object value) {
+    ComputeLogicDefinition<Object> def =
+        new ComputeLogicDefinition<>(
+            new KryonLogicId(new KryonId(kryonId), kryonId),
+            inputs,
+            inputsList ->
+                inputsList.stream()
+                    .collect(toImmutableMap(identity(), facets -> withValue(value).toFuture())),
+            ImmutableMap.of());
+    logicDefinitionRegistry.addOutputLogic(def);
+    return def;
+  }
+
+  public static Stream<Arguments> executorConfigsToTest() {
+    return Stream.of(Arguments.of(BATCH), Arguments.of(GRANULAR));
+  }
+}
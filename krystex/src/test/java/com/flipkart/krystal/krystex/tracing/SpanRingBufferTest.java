@@ -0,0 +1,66 @@
+package com.flipkart.krystal.krystex.tracing;
+
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.krystex.tracing.Span.Kind;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import org.junit.jupiter.api.Test;
+
+class SpanRingBufferTest {
+
+  @Test
+  void offer_whenFull_dropsNewSpans() {
+    SpanRingBuffer buffer = new SpanRingBuffer(5); // Rounded up to 8
+    for (int i = 0; i < 10; i++) {
+      buffer.offer(span(i));
+    }
+    List<Span> drained = new ArrayList<>();
+
+    assertThat(buffer.drainTo(drained, 100)).isEqualTo(8);
+    assertThat(drained).extracting(Span::spanId).containsExactly(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L);
+    assertThat(buffer.droppedCount()).isEqualTo(2);
+    assertThat(buffer.offer(span(10))).isTrue();
+  }
+
+  @Test
+  void offer_concurrentProducers_everySpanDrainedOrDroppedOnce() throws Exception {
+    SpanRingBuffer buffer = new SpanRingBuffer(256);
+    int producers = 4;
+    int spansPerProducer = 10_000;
+    ExecutorService executor = newFixedThreadPool(producers);
+    for (int p = 0; p < producers; p++) {
+      long firstId = (long) p * spansPerProducer;
+      executor.execute(
+          () -> {
+            for (int i = 0; i < spansPerProducer; i++) {
+              buffer.offer(span(firstId + i));
+            }
+          });
+    }
+    executor.shutdown();
+    Set<Long> drainedIds = new HashSet<>();
+    List<Span> drained = new ArrayList<>();
+    boolean producersDone = false;
+    while (!producersDone || buffer.drainTo(drained, 64) > 0) {
+      producersDone = executor.awaitTermination(0, SECONDS);
+      buffer.drainTo(drained, 64);
+      for (Span span : drained) {
+        assertThat(drainedIds.add(span.spanId())).isTrue();
+      }
+      drained.clear();
+    }
+
+    assertThat(drainedIds.size() + buffer.droppedCount())
+        .isEqualTo((long) producers * spansPerProducer);
+  }
+
+  private static Span span(long spanId) {
+    return new Span(1, spanId, 0, Kind.KRYON, "kryon", "chain", 1, 0, 0, false);
+  }
+}
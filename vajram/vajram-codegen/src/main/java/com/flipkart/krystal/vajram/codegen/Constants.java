@@ -5,7 +5,6 @@ public final class Constants {
   public static final String COGENGEN_PHASE_KEY = "krystal.vajram.codegen.phase";
 
   public static final String VAL_ERR = "valErr";
-  public static final String DEP_RESP = "depResp";
   public static final String RESOLVABLE_INPUTS = "resolvableInputs";
   public static final String INPUT_SRC = "inputSrc";
   public static final String INPUT_BATCHING = "inputBatching";
@@ -20,19 +19,16 @@ public final class Constants {
   public static final String MAP = "map";
   public static final String LIST = "list";
   public static final String FACET_DEFINITIONS_VAR = "facetDefinitions";
+  public static final String FACETS_SCHEMA_VAR = "FACETS_SCHEMA";
+  public static final String FACETS_FACTORY_VAR = "FACTORY";
   public static final String FACET_NAME_SUFFIX = "_n";
   public static final String FACET_SPEC_SUFFIX = "_s";
 
   public static final char DOT_SEPARATOR = '.';
 
-  public static final String RESPONSE = "response";
-  public static final String VARIABLE = "variable";
-  public static final String DEP_RESPONSE = "depResponse";
-  public static final String SKIPPED_EXCEPTION = "skippedException";
-  public static final String ILLEGAL_ARGUMENT = "illegalArgument";
-  public static final String REQUEST = "request";
   public static final String RESPONSES_SUFFIX = "Responses";
   public static final String METHOD_GET_FACETS_CONVERTOR = "getBatchFacetsConvertor";
+  public static final String METHOD_GET_FACETS_FACTORY = "getFacetsFactory";
   public static final String METHOD_EXECUTE = "execute";
   public static final String METHOD_RESOLVE_INPUT_OF_DEPENDENCY = "resolveInputOfDependency";
   public static final String METHOD_EXECUTE_COMPUTE = "executeCompute";
@@ -3,15 +3,14 @@ package com.flipkart.krystal.vajram.codegen;
 import static com.flipkart.krystal.vajram.codegen.Constants.ARRAY_LIST;
 import static com.flipkart.krystal.vajram.codegen.Constants.COMMON_INPUT;
 import static com.flipkart.krystal.vajram.codegen.Constants.COM_FUTURE;
-import static com.flipkart.krystal.vajram.codegen.Constants.DEP_RESP;
-import static com.flipkart.krystal.vajram.codegen.Constants.DEP_RESPONSE;
+import static com.flipkart.krystal.vajram.codegen.Constants.FACETS_FACTORY_VAR;
+import static com.flipkart.krystal.vajram.codegen.Constants.FACETS_SCHEMA_VAR;
 import static com.flipkart.krystal.vajram.codegen.Constants.FACET_DEFINITIONS_VAR;
 import static com.flipkart.krystal.vajram.codegen.Constants.FACET_NAME_SUFFIX;
 import static com.flipkart.krystal.vajram.codegen.Constants.FACET_SPEC_SUFFIX;
 import static com.flipkart.krystal.vajram.codegen.Constants.FUNCTION;
 import static com.flipkart.krystal.vajram.codegen.Constants.GET_FACET_DEFINITIONS;
 import static com.flipkart.krystal.vajram.codegen.Constants.HASH_MAP;
-import static com.flipkart.krystal.vajram.codegen.Constants.ILLEGAL_ARGUMENT;
 import static com.flipkart.krystal.vajram.codegen.Constants.IM_LIST;
 import static com.flipkart.krystal.vajram.codegen.Constants.IM_MAP;
 import static com.flipkart.krystal.vajram.codegen.Constants.INPUTS;
@@ -25,19 +24,16 @@ import static com.flipkart.krystal.vajram.codegen.Constants.MAP;
 import static com.flipkart.krystal.vajram.codegen.Constants.METHOD_EXECUTE;
 import static com.flipkart.krystal.vajram.codegen.Constants.METHOD_EXECUTE_COMPUTE;
 import static com.flipkart.krystal.vajram.codegen.Constants.METHOD_GET_FACETS_CONVERTOR;
+import static com.flipkart.krystal.vajram.codegen.Constants.METHOD_GET_FACETS_FACTORY;
 import static com.flipkart.krystal.vajram.codegen.Constants.METHOD_RESOLVE_INPUT_OF_DEPENDENCY;
 import static com.flipkart.krystal.vajram.codegen.Constants.MOD_INPUT;
 import static com.flipkart.krystal.vajram.codegen.Constants.OPTIONAL;
-import static com.flipkart.krystal.vajram.codegen.Constants.REQUEST;
 import static com.flipkart.krystal.vajram.codegen.Constants.RESOLVABLE_INPUTS;
-import static com.flipkart.krystal.vajram.codegen.Constants.RESPONSE;
 import static com.flipkart.krystal.vajram.codegen.Constants.RESPONSES_SUFFIX;
 import static com.flipkart.krystal.vajram.codegen.Constants.RETURN_TYPE;
-import static com.flipkart.krystal.vajram.codegen.Constants.SKIPPED_EXCEPTION;
 import static com.flipkart.krystal.vajram.codegen.Constants.UNMOD_INPUT;
 import static com.flipkart.krystal.vajram.codegen.Constants.VAJRAM_LOGIC_METHOD;
 import static com.flipkart.krystal.vajram.codegen.Constants.VAL_ERR;
-import static com.flipkart.krystal.vajram.codegen.Constants.VARIABLE;
 import static com.flipkart.krystal.vajram.codegen.Utils.COMMA;
 import static com.flipkart.krystal.vajram.codegen.Utils.CONVERTER;
 import static com.flipkart.krystal.vajram.codegen.Utils.DOT;
@@ -48,6 +44,9 @@ import static com.flipkart.krystal.vajram.codegen.Utils.getFacetUtilClassName;
 import static com.flipkart.krystal.vajram.codegen.Utils.getTypeParameters;
 import static com.flipkart.krystal.vajram.codegen.Utils.getVajramImplClassName;
 import static com.flipkart.krystal.vajram.codegen.models.ParsedVajramData.fromVajram;
+import static com.google.common.base.CaseFormat.LOWER_CAMEL;
+import static com.google.common.base.CaseFormat.UPPER_CAMEL;
+import static com.google.common.base.CaseFormat.UPPER_UNDERSCORE;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
@@ -60,7 +59,10 @@ import static javax.lang.model.element.Modifier.PUBLIC;
 import static javax.lang.model.element.Modifier.STATIC;
 
 import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.data.FacetValue;
 import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.data.FacetsFactory;
+import com.flipkart.krystal.data.FacetsSchema;
 import com.flipkart.krystal.datatypes.DataType;
 import com.flipkart.krystal.datatypes.JavaType;
 import com.flipkart.krystal.utils.SkippedExecutionException;
@@ -95,6 +97,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ArrayTypeName;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.FieldSpec;
@@ -104,6 +107,7 @@ import com.squareup.javapoet.ParameterSpec;
 import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.util.ArrayList;
@@ -147,6 +151,10 @@ public class VajramCodeGenerator {
   private final Map<String, FacetGenModel> facetModels;
   private final boolean needsBatching;
   private @MonotonicNonNull ParsedVajramData parsedVajramData;
+
+  /** The facets read by slot in the class being generated. See {@link #slotAccessor(String)} */
+  private final Set<String> facetsReadBySlot = new LinkedHashSet<>();
+
   private final Utils util;
 
   public VajramCodeGenerator(
@@ -196,6 +204,7 @@ public class VajramCodeGenerator {
                         FACET_DEFINITIONS_VAR)
                     .addModifiers(PRIVATE)
                     .build());
+    facetsReadBySlot.clear();
     List<MethodSpec> methodSpecs = new ArrayList<>();
     // Add superclass
     vajramImplClass
@@ -233,7 +242,8 @@ public class VajramCodeGenerator {
 
     MethodSpec facetDefinitionsMethod = createFacetDefinitions();
     methodSpecs.add(facetDefinitionsMethod);
-    Optional<MethodSpec> inputResolverMethod = createResolvers(resolverMap, depFanoutMap);
+    Optional<MethodSpec> inputResolverMethod =
+        createResolvers(vajramImplClass, resolverMap, depFanoutMap);
     inputResolverMethod.ifPresent(methodSpecs::add);
 
     if (util.isRawAssignable(
@@ -248,7 +258,10 @@ public class VajramCodeGenerator {
     }
     if (needsBatching) {
       methodSpecs.add(createBatchFacetConvertersMethod(inputBatch, commonInputs));
+    } else {
+      methodSpecs.add(createFacetsFactoryMethod());
     }
+    addFacetsSchemaFields(vajramImplClass);
 
     StringWriter writer = new StringWriter();
     try {
@@ -262,6 +275,49 @@ public class VajramCodeGenerator {
     return writer.toString();
   }
 
+  /**
+   * Adds the {@link FacetsSchema} of the vajram's facets and the slot of each facet read by the
+   * generated code as constants to the given generated class. The facets are in the same order
+   * (inputs, then dependencies) as in the kryon of the vajram, so that the generated code reads
+   * facet values by slot instead of by name. Must be called after the code which reads the facets
+   * is generated.
+   */
+  private void addFacetsSchemaFields(TypeSpec.Builder generatedClass) {
+    if (facetsReadBySlot.isEmpty()) {
+      return;
+    }
+    List<String> facetNames = vajramInfo.facetStream().map(FacetGenModel::name).toList();
+    generatedClass.addField(
+        FieldSpec.builder(FacetsSchema.class, FACETS_SCHEMA_VAR, PRIVATE, STATIC, FINAL)
+            .initializer(
+                "$T.of($T.of($L))",
+                FacetsSchema.class,
+                List.class,
+                facetNames.stream()
+                    .map(facetName -> CodeBlock.of("$S", facetName))
+                    .collect(CodeBlock.joining(", ")))
+            .build());
+    for (int slot = 0; slot < facetNames.size(); slot++) {
+      if (!facetsReadBySlot.contains(facetNames.get(slot))) {
+        continue;
+      }
+      generatedClass.addField(
+          FieldSpec.builder(int.class, slotConstant(facetNames.get(slot)), PRIVATE, STATIC, FINAL)
+              .initializer("$L", slot)
+              .build());
+    }
+  }
+
+  private static String slotConstant(String facetName) {
+    return LOWER_CAMEL.to(UPPER_UNDERSCORE, toJavaName(facetName)) + "_SLOT";
+  }
+
+  /** The arguments with which the slot-indexed accessors of {@link Facets} read the facet. */
+  private CodeBlock slotAccessor(String facetName) {
+    facetsReadBySlot.add(facetName);
+    return CodeBlock.of("$L, $L", FACETS_SCHEMA_VAR, slotConstant(facetName));
+  }
+
   private @NonNull ParsedVajramData initParsedVajramData() {
     if (parsedVajramData == null) {
       this.parsedVajramData =
@@ -325,8 +381,17 @@ public class VajramCodeGenerator {
     return executeBuilder.build();
   }
 
+  /**
+   * The output logic of a vajram whose inputs are not batched is called with the all-facets class
+   * of the vajram (or with its fields). Kryons create facets of that class via {@link
+   * #createFacetsFactoryMethod()}, so the facets are only converted if they were created elsewhere
+   * (for example, by an output logic decorator).
+   */
   private void nonBatchedExecuteMethodBuilder(
       MethodSpec.Builder executeBuilder, boolean isIOVajram) {
+    ClassName allFacetsClass =
+        ClassName.get(
+            packageName, getFacetUtilClassName(vajramName), getAllFacetsClassname(vajramName));
     CodeBlock.Builder returnBuilder =
         CodeBlock.builder()
             .add(
@@ -334,29 +399,24 @@ public class VajramCodeGenerator {
                 return facetsList.stream().collect(
                      $T.toImmutableMap($T.identity(),
                      element -> {
+                       $T facets = $T.from(element);
                 """,
                 ImmutableMap.class,
-                Function.class);
-    List<CodeBlock> inputCodeBlocks = new ArrayList<>();
-    ClassName allFacetsClass =
-        ClassName.get(
-            packageName, getFacetUtilClassName(vajramName), getAllFacetsClassname(vajramName));
+                Function.class,
+                allFacetsClass,
+                allFacetsClass);
     List<? extends VariableElement> outputLogicParams =
         getParsedVajramData().outputLogic().getParameters();
-    boolean outputLogicNeedsAllFacetsObject;
-    List<FacetGenModel> neededFacetsInOrder;
+    CodeBlock outputLogicArgs;
     if (outputLogicParams.size() == 1
         && util.getProcessingEnv()
             .getTypeUtils()
             .isAssignable(
                 outputLogicParams.get(0).asType(),
                 util.getTypeElement(allFacetsClass.canonicalName()).asType())) {
-      // Since the execute method consumes the all facets class, it means the output logic needs all
-      // facets of the vajram except the output facet.
-      neededFacetsInOrder = facetModels.values().stream().toList();
-      outputLogicNeedsAllFacetsObject = true;
+      outputLogicArgs = CodeBlock.of("facets");
     } else {
-      neededFacetsInOrder =
+      outputLogicArgs =
           outputLogicParams.stream()
               .map(
                   param -> {
@@ -367,116 +427,18 @@ public class VajramCodeGenerator {
                       util.error(message, param);
                       throw new VajramValidationException(message);
                     }
-                    return facet;
+                    // The getters of mandatory facets throw the error of the facet if it has no
+                    // value. Other facets are passed as is.
+                    boolean throwsIfMissing =
+                        facet.isMandatory()
+                            && !(facet instanceof DependencyModel dependencyModel
+                                && dependencyModel.canFanout());
+                    return throwsIfMissing
+                        ? CodeBlock.of("facets.$L()", toJavaName(facetName))
+                        : CodeBlock.of("facets.$L", toJavaName(facetName));
                   })
-              .toList();
-      outputLogicNeedsAllFacetsObject = false;
+              .collect(CodeBlock.joining(",\n\t\t"));
     }
-
-    neededFacetsInOrder.forEach(
-        inputDef -> {
-          if (inputDef instanceof DependencyModel dependencyModel) {
-            VajramID depVajramId = dependencyModel.depVajramId();
-            String depRequestClass = dependencyModel.depReqClassQualifiedName();
-            VajramInfoLite depVajramInfo =
-                checkNotNull(
-                    vajramDefs.get(depVajramId),
-                    "Could not find ParsedVajramData for %s",
-                    depVajramId);
-            final TypeName boxedResponseType = util.toTypeName(depVajramInfo.responseType()).box();
-            final String variableName = toJavaName(inputDef.name());
-            final String depVariableName = variableName + RESPONSES_SUFFIX;
-            if (dependencyModel.canFanout()) {
-              CodeBlock.Builder codeBlock = CodeBlock.builder();
-              codeBlock.addNamed(
-                  """
-                            $depResp:T<$request:T, $response:T> $depResponse:L =
-                                 new $depResp:T<>(
-                                     element.<$response:T>getDepValue($variable:S).values().entrySet().stream()
-                                         .filter(
-                                             e ->
-                                                 e.getValue()
-                                                     .error()
-                                                     .filter(t -> t instanceof $skippedException:T)
-                                                     .isEmpty())
-                                         .collect(
-                                             $imMap:T.toImmutableMap(
-                                                 e -> $request:T.from(e.getKey()), java.util.Map.Entry::getValue)));
-                             """,
-                  ImmutableMap.of(
-                      DEP_RESP,
-                      DependencyResponse.class,
-                      REQUEST,
-                      toClassName(depRequestClass),
-                      RESPONSE,
-                      boxedResponseType,
-                      VARIABLE,
-                      inputDef.name(),
-                      DEP_RESPONSE,
-                      depVariableName,
-                      IM_MAP,
-                      ImmutableMap.class,
-                      SKIPPED_EXCEPTION,
-                      SkippedExecutionException.class));
-              inputCodeBlocks.add(CodeBlock.builder().add(depVariableName).build());
-              returnBuilder.add(codeBlock.build());
-            } else {
-              if (dependencyModel.isMandatory()) {
-                inputCodeBlocks.add(
-                    CodeBlock.builder()
-                        .addNamed(
-                            """
-                                    element.<$response:T>getDepValue($variable:S)
-                                        .values()
-                                        .entrySet()
-                                        .iterator()
-                                        .next()
-                                        .getValue()
-                                        .getValueOrThrow()
-                                        .orElseThrow(() -> new $illegalArgument:T("Missing mandatory dependencyDef '$variable:L' in vajram '$vajram:L'"))""",
-                            ImmutableMap.of(
-                                RESPONSE,
-                                boxedResponseType,
-                                VARIABLE,
-                                inputDef.name(),
-                                ILLEGAL_ARGUMENT,
-                                IllegalArgumentException.class,
-                                "vajram",
-                                vajramName))
-                        .build());
-              } else {
-                inputCodeBlocks.add(
-                    CodeBlock.builder()
-                        .addNamed(
-                            """
-                                  element.<$response:T>getDepValue($variable:S)
-                                      .values()
-                                      .entrySet()
-                                      .iterator()
-                                      .next()
-                                      .getValue()
-                                      .value()
-                                      .orElse(null)""",
-                            ImmutableMap.of(RESPONSE, boxedResponseType, VARIABLE, inputDef.name()))
-                        .build());
-              }
-            }
-          } else {
-            // call output logic method with all inputDef values
-            if (inputDef.isMandatory()) {
-              inputCodeBlocks.add(
-                  CodeBlock.builder()
-                      .add("element.getInputValueOrThrow($S)", inputDef.name())
-                      .build());
-            } else {
-              inputCodeBlocks.add(
-                  CodeBlock.builder()
-                      .add("element.getInputValueOrDefault($S, null)", inputDef.name())
-                      .build());
-            }
-          }
-        });
-    String methodCallSuffix;
     if (isIOVajram) {
       TypeMirror returnType = getParsedVajramData().outputLogic().getReturnType();
       if (!util.isRawAssignable(returnType, CompletableFuture.class)) {
@@ -487,46 +449,37 @@ public class VajramCodeGenerator {
         util.error(errorMessage, getParsedVajramData().outputLogic());
         throw new VajramValidationException(errorMessage);
       }
-      if (outputLogicNeedsAllFacetsObject) {
-        returnBuilder.add(
-            "\nreturn ($L(new $T(\n",
-            getParsedVajramData().outputLogic().getSimpleName(),
-            allFacetsClass);
-        methodCallSuffix = ")));\n";
-      } else {
-        returnBuilder.add("\nreturn $L(\n", getParsedVajramData().outputLogic().getSimpleName());
-        methodCallSuffix = ");\n";
-      }
+      returnBuilder.add(
+          "return $L(\n\t\t$L);\n",
+          getParsedVajramData().outputLogic().getSimpleName(),
+          outputLogicArgs);
     } else {
-      if (outputLogicNeedsAllFacetsObject) {
-        returnBuilder.add(
-            "\nreturn $T.errableFrom(() -> $L(new $T(\n",
-            Errable.class,
-            getParsedVajramData().outputLogic().getSimpleName(),
-            allFacetsClass);
-        methodCallSuffix = ")));\n";
-      } else {
-        returnBuilder.add(
-            "\nreturn $T.errableFrom(() -> $L(\n",
-            Errable.class,
-            getParsedVajramData().outputLogic().getSimpleName());
-        methodCallSuffix = "));\n";
-      }
-    }
-    // merge the code blocks for facets
-    for (int i = 0; i < inputCodeBlocks.size(); i++) {
-      // for formatting
-      returnBuilder.add("\t\t");
-      returnBuilder.add(inputCodeBlocks.get(i));
-      if (i != inputCodeBlocks.size() - 1) {
-        returnBuilder.add(",\n");
-      }
+      returnBuilder.add(
+          "return $T.errableFrom(() -> $L(\n\t\t$L));\n",
+          Errable.class,
+          getParsedVajramData().outputLogic().getSimpleName(),
+          outputLogicArgs);
     }
-    returnBuilder.add(methodCallSuffix);
     returnBuilder.add("}));\n");
     executeBuilder.addCode(returnBuilder.build());
   }
 
+  /** Returns the factory of the all-facets class, so that kryons create the typed facets. */
+  private MethodSpec createFacetsFactoryMethod() {
+    return methodBuilder(METHOD_GET_FACETS_FACTORY)
+        .addModifiers(PUBLIC)
+        .returns(
+            ParameterizedTypeName.get(
+                ClassName.get(FacetsFactory.class), WildcardTypeName.subtypeOf(Object.class)))
+        .addAnnotation(Override.class)
+        .addStatement(
+            "return $T.$L",
+            ClassName.get(
+                packageName, getFacetUtilClassName(vajramName), getAllFacetsClassname(vajramName)),
+            FACETS_FACTORY_VAR)
+        .build();
+  }
+
   /**
    * Method to generate "getFacetsConvertor" function
    *
@@ -631,24 +584,34 @@ public class VajramCodeGenerator {
    * Method to generate "resolveInputOfDependency" function code for Vajrams. If there are no
    * resolvers defined in the Vajram, {@link Optional}.empty() is returned.
    *
+   * <p>"resolveInputOfDependency" only dispatches on the dependency name. The resolvers of each
+   * dependency are generated into a dedicated private method (added to the {@code vajramImplClass})
+   * so that every dependency's resolution stays small and monomorphic. The resolvable inputs of
+   * each resolver are hoisted into a constant so that matching a resolution request does not
+   * allocate.
+   *
+   * @param vajramImplClass The builder of the vajram impl class to which the per-dependency resolve
+   *     methods and the resolvable input constants are added
    * @param depFanoutMap Map of all the dependencies and their resolvers defintions are fanout or
    *     not
    * @return generated code for "resolveInputOfDependency" {@link MethodSpec}
    */
   private Optional<MethodSpec> createResolvers(
+      TypeSpec.Builder vajramImplClass,
       Map<String, ? extends List<ExecutableElement>> resolverMap,
       Map<String, Boolean> depFanoutMap) {
     String dependencyDef = "dependencyDef";
+    TypeName resolvableInputsType = ParameterizedTypeName.get(ImmutableSet.class, String.class);
+    TypeName dependencyCommandType =
+        ParameterizedTypeName.get(
+            ClassName.get(DependencyCommand.class), ClassName.get(Facets.class));
     MethodSpec.Builder resolveInputsBuilder =
         methodBuilder(METHOD_RESOLVE_INPUT_OF_DEPENDENCY)
             .addModifiers(PUBLIC)
             .addParameter(String.class, dependencyDef)
-            .addParameter(
-                ParameterizedTypeName.get(ImmutableSet.class, String.class), RESOLVABLE_INPUTS)
+            .addParameter(resolvableInputsType, RESOLVABLE_INPUTS)
             .addParameter(Facets.class, INPUTS)
-            .returns(
-                ParameterizedTypeName.get(
-                    ClassName.get(DependencyCommand.class), ClassName.get(Facets.class)));
+            .returns(dependencyCommandType);
     if (Objects.nonNull(getParsedVajramData())) {
       resolveInputsBuilder.beginControlFlow("switch ($L) ", dependencyDef);
       if (getParsedVajramData().resolvers().isEmpty()) {
@@ -659,38 +622,55 @@ public class VajramCodeGenerator {
 
       resolverMap.forEach(
           (variable, methods) -> {
-            CodeBlock.Builder caseBuilder =
-                CodeBlock.builder().beginControlFlow("case $S -> ", variable);
-            methods.forEach(
-                method -> {
-                  AtomicBoolean fanout = new AtomicBoolean(false);
-                  // TODO : confirm if this logic is correct for all parameters for a resolve method
-                  method
-                      .getParameters()
-                      .forEach(
-                          parameter -> {
-                            String bindParamName = util.inferFacetName(parameter);
-                            if (!fanout.get()
-                                && depFanoutMap.containsKey(
-                                    bindParamName)) { // if fanout is already set skip resetting it.
-                              fanout.set(depFanoutMap.get(bindParamName));
-                            }
-                            // validating if the bind parameter has a resolver binding or defined as
-                            // inputDef
-                            if (!(facetModels.containsKey(bindParamName)
-                                || resolvedVariables.contains(bindParamName))) {
-                              String message =
-                                  "Parameter binding incorrect for inputDef - " + bindParamName;
-                              util.error(message, parameter);
-                              throw new VajramValidationException(message);
-                            }
-                          });
-                  CodeBlock.Builder ifBlockBuilder =
-                      buildInputResolver(method, depFanoutMap, fanout.get());
-                  caseBuilder.add(ifBlockBuilder.build());
-                });
-            caseBuilder.endControlFlow();
-            resolveInputsBuilder.addCode(caseBuilder.build());
+            MethodSpec.Builder depResolverBuilder =
+                methodBuilder("resolveInputsOf" + LOWER_CAMEL.to(UPPER_CAMEL, toJavaName(variable)))
+                    .addModifiers(PRIVATE)
+                    .addParameter(resolvableInputsType, RESOLVABLE_INPUTS)
+                    .addParameter(Facets.class, INPUTS)
+                    .returns(dependencyCommandType);
+            for (int resolverIndex = 0; resolverIndex < methods.size(); resolverIndex++) {
+              ExecutableElement method = methods.get(resolverIndex);
+              AtomicBoolean fanout = new AtomicBoolean(false);
+              // TODO : confirm if this logic is correct for all parameters for a resolve method
+              method
+                  .getParameters()
+                  .forEach(
+                      parameter -> {
+                        String bindParamName = util.inferFacetName(parameter);
+                        if (!fanout.get()
+                            && depFanoutMap.containsKey(
+                                bindParamName)) { // if fanout is already set skip resetting it.
+                          fanout.set(depFanoutMap.get(bindParamName));
+                        }
+                        // validating if the bind parameter has a resolver binding or defined as
+                        // inputDef
+                        if (!(facetModels.containsKey(bindParamName)
+                            || resolvedVariables.contains(bindParamName))) {
+                          String message =
+                              "Parameter binding incorrect for inputDef - " + bindParamName;
+                          util.error(message, parameter);
+                          throw new VajramValidationException(message);
+                        }
+                      });
+              FieldSpec resolvableInputs =
+                  createResolvableInputsField(variable, method, resolverIndex);
+              vajramImplClass.addField(resolvableInputs);
+              CodeBlock.Builder ifBlockBuilder =
+                  buildInputResolver(method, resolvableInputs, depFanoutMap, fanout.get());
+              depResolverBuilder.addCode(ifBlockBuilder.build());
+            }
+            depResolverBuilder.addStatement(
+                "throw new $T($S)",
+                ClassName.get(VajramValidationException.class),
+                "Unresolvable dependencyDef");
+            MethodSpec depResolver = depResolverBuilder.build();
+            vajramImplClass.addMethod(depResolver);
+            resolveInputsBuilder.addCode(
+                "case $S -> {\n$>return $N($L, $L);\n$<}\n",
+                variable,
+                depResolver,
+                RESOLVABLE_INPUTS,
+                INPUTS);
           });
       resolveInputsBuilder.endControlFlow();
       resolveInputsBuilder.addStatement(
@@ -706,10 +686,41 @@ public class VajramCodeGenerator {
     return Optional.of(resolveInputsBuilder.build());
   }
 
+  /**
+   * Method to generate the constant holding the names of the dependency inputs resolved by the
+   * given resolver method. The constant name includes the dependency name and the index of the
+   * resolver among the resolvers of that dependency so that overloaded resolver methods get
+   * distinct constants.
+   */
+  private static FieldSpec createResolvableInputsField(
+      String depName, ExecutableElement method, int resolverIndex) {
+    Resolve resolve =
+        checkNotNull(
+            method.getAnnotation(Resolve.class), "Resolver method must have 'Resolve' annotation");
+    String[] depInputs = resolve.depInputs();
+    return FieldSpec.builder(
+            ParameterizedTypeName.get(ImmutableSet.class, String.class),
+            LOWER_CAMEL.to(UPPER_UNDERSCORE, toJavaName(depName))
+                + "_"
+                + LOWER_CAMEL.to(UPPER_UNDERSCORE, method.getSimpleName().toString())
+                + "_"
+                + resolverIndex
+                + "_RESOLVABLE_INPUTS",
+            PRIVATE,
+            STATIC,
+            FINAL)
+        .initializer(
+            "$T.of($L)",
+            ImmutableSet.class,
+            stream(depInputs).map(s -> CodeBlock.of("$S", s)).collect(CodeBlock.joining(", ")))
+        .build();
+  }
+
   /**
    * Method to generate resolver code for inputDef binding
    *
    * @param method Vajram resolve method
+   * @param resolvableInputs The constant holding the dependency inputs resolved by the method
    * @param depFanoutMap Map of all the dependencies and their resolvers defintions are fanout or
    *     not
    * @param isParamFanoutDependency Variable mentioning if the resolved variable uses a fanout
@@ -718,6 +729,7 @@ public class VajramCodeGenerator {
    */
   private CodeBlock.Builder buildInputResolver(
       ExecutableElement method,
+      FieldSpec resolvableInputs,
       Map<String, Boolean> depFanoutMap,
       boolean isParamFanoutDependency) {
     Resolve resolve =
@@ -727,8 +739,7 @@ public class VajramCodeGenerator {
     String depName = resolve.depName();
     // check if the inputDef is satisfied by inputDef or other resolved variables
     CodeBlock.Builder ifBlockBuilder = CodeBlock.builder();
-    ifBlockBuilder.beginControlFlow(
-        "if ($T.of($S).equals(resolvableInputs))", Set.class, String.join(",", facets));
+    ifBlockBuilder.beginControlFlow("if ($N.equals($L))", resolvableInputs, RESOLVABLE_INPUTS);
     // TODO : add validation if fanout, then method should accept dependencyDef response for the
     // bind
     // type parameter else error
@@ -750,22 +761,22 @@ public class VajramCodeGenerator {
                   ifBlockBuilder.add(
                       CodeBlock.builder()
                           .addStatement(
-                              "$T $L = $L.getInputValueOrThrow($S)",
+                              "$T $L = $L.getInputValueOrThrow($L)",
                               parameterType,
                               variable,
                               INPUTS,
-                              usingInputName)
+                              slotAccessor(usingInputName))
                           .build());
                 } else {
                   if (util.isRawAssignable(parameter.asType(), Optional.class)) {
                     ifBlockBuilder.add(
                         CodeBlock.builder()
                             .addStatement(
-                                "$T $L = $L.getInputValueOpt($S)",
+                                "$T $L = $L.getInputValueOpt($L)",
                                 parameterType,
                                 variable,
                                 INPUTS,
-                                usingInputName)
+                                slotAccessor(usingInputName))
                             .build());
                   } else {
                     String message =
@@ -836,7 +847,7 @@ public class VajramCodeGenerator {
         String depValueAccessorCode =
             """
             $1T $2L =
-             new $3T<>(facets.<$4T>getDepValue($5S)
+             new $3T<>(facets.<$4T>getDepValue($5L)
                   .values().entrySet().stream()
                   .collect($6T.toImmutableMap(e -> $7T.from(e.getKey()),
                   $8T::getValue)))""";
@@ -847,7 +858,7 @@ public class VajramCodeGenerator {
             variableName,
             DependencyResponse.class,
             boxedDepType,
-            usingInputName,
+            slotAccessor(usingInputName),
             ImmutableMap.class,
             toClassName(requestClass),
             ClassName.get(Map.Entry.class));
@@ -855,12 +866,8 @@ public class VajramCodeGenerator {
         String depValueAccessorCode =
             """
             $1T $2L =
-              facets.<$3T>getDepValue($4S)
-                 .values()
-                 .entrySet()
-                 .iterator()
-                 .next()
-                 .getValue()""";
+              facets.<$3T>getDepValue($4L)
+                 .outcomeAt(0)""";
         if (facetDef.isMandatory()) {
           if (unboxedDepType.equals(TypeName.get(parameter.asType()))) {
             // This means this dependencyDef in "Using" annotation is not a fanout and the dev has
@@ -878,7 +885,7 @@ public class VajramCodeGenerator {
                 unboxedDepType,
                 variableName,
                 boxedDepType,
-                usingInputName,
+                slotAccessor(usingInputName),
                 IllegalArgumentException.class,
                 usingInputName,
                 vajramName);
@@ -901,7 +908,7 @@ public class VajramCodeGenerator {
                 ParameterizedTypeName.get(ClassName.get(Errable.class), boxedDepType),
                 variableName,
                 boxedDepType,
-                usingInputName);
+                slotAccessor(usingInputName));
           } else if (util.isRawAssignable(parameter.asType(), Optional.class)) {
             // This means this dependencyDef in "Using" annotation is not a fanout and the dev has
             // requested an 'Optional'. So we retrieve the only Errable from the dependencyDef
@@ -912,7 +919,7 @@ public class VajramCodeGenerator {
                 ParameterizedTypeName.get(ClassName.get(Optional.class), boxedDepType),
                 variableName,
                 boxedDepType,
-                usingInputName);
+                slotAccessor(usingInputName));
           } else {
             String message =
                 "Unrecognized parameter type %s in resolver %s of vajram %s"
@@ -929,7 +936,7 @@ public class VajramCodeGenerator {
    * Method to generate resolver code for variables having single resolver. Fanout case - Iterable
    * of normal type => fanout loop and create facets - Iterable Vajram Request -
    * DependencyCommand.MultiExecute<NormalType> Non- fanout - Normal datatype - Vajram Request =>
-   * toInputValues() - DependencyCommand.executeWith
+   * toFacetValues() - DependencyCommand.executeWith
    *
    * @param method Resolve method
    * @param facets Resolve facets
@@ -995,7 +1002,7 @@ public class VajramCodeGenerator {
                       $L.stream()
                           .map(
                               element ->
-                                  element.toInputValues()))
+                                  element.toFacetValues())
                       .toList())""";
           ifBlockBuilder.addStatement(code, MultiExecute.class, variableName);
         } else {
@@ -1028,7 +1035,7 @@ public class VajramCodeGenerator {
     } else {
       if (util.isRawAssignable(returnType, VajramRequest.class)) {
         ifBlockBuilder.addStatement(
-            "return $T.executeWith($L.toInputValues())", SingleExecute.class, variableName);
+            "return $T.executeWith($L.toFacetValues())", SingleExecute.class, variableName);
       } else if (util.isRawAssignable(returnType, SingleExecute.class)) {
         ifBlockBuilder.addStatement(
             """
@@ -1447,6 +1454,22 @@ public class VajramCodeGenerator {
   }
 
   private MethodSpec getterCodeForInput(FacetGenModel facet, String name, TypeAndName typeAndName) {
+    return getterCodeForInput(
+        facet,
+        name,
+        typeAndName,
+        CodeBlock.of(
+            "new IllegalStateException($S)",
+            "The inputDef '%s' is not optional, but has null value. This should not happen"
+                .formatted(name)));
+  }
+
+  /**
+   * @param missingValueException the exception thrown by the getter of a mandatory facet if the
+   *     facet has no value
+   */
+  private MethodSpec getterCodeForInput(
+      FacetGenModel facet, String name, TypeAndName typeAndName, CodeBlock missingValueException) {
     boolean wrapWithOptional =
         !facet.isMandatory()
             && (facet instanceof InputModel<?>
@@ -1470,10 +1493,10 @@ public class VajramCodeGenerator {
                 ? CodeBlock.of(
                     """
                       if($L == null) {
-                        throw new IllegalStateException("The inputDef '$L' is not optional, but has null value. This should not happen");
+                        throw $L;
                       }""",
                     name,
-                    name)
+                    missingValueException)
                 : CodeBlock.builder().build())
         .addCode(
             wrapWithOptional
@@ -1508,14 +1531,41 @@ public class VajramCodeGenerator {
     }
   }
 
+  /**
+   * Generates the all-facets class of the vajram: a subclass of {@link Facets} which is created by
+   * the kryon of the vajram (via the {@link FacetsFactory} returned by the vajram impl) and which
+   * exposes the facet values as typed fields. The facet values are unwrapped once, when the facets
+   * are created, so that the output logic reads them without any lookups or boxing.
+   */
   private String codeGenSimpleInputUtil() {
     TypeSpec.Builder inputUtilClass = createInputUtilClass();
+    ClassName allFacetsClassName =
+        ClassName.get(
+            packageName, getFacetUtilClassName(vajramName), getAllFacetsClassname(vajramName));
     TypeSpec.Builder allInputsClass =
         util.classBuilder(getAllFacetsClassname(vajramName))
             .addModifiers(FINAL, STATIC)
-            .addSuperinterface(FacetContainer.class)
-            .addAnnotations(recordAnnotations());
-    List<FieldTypeName> fieldsList = new ArrayList<>();
+            .superclass(Facets.class)
+            .addSuperinterface(FacetContainer.class);
+    facetsReadBySlot.clear();
+    allInputsClass.addField(
+        FieldSpec.builder(
+                ParameterizedTypeName.get(ClassName.get(FacetsFactory.class), allFacetsClassName),
+                FACETS_FACTORY_VAR,
+                STATIC,
+                FINAL)
+            .initializer("$T::new", allFacetsClassName)
+            .build());
+    MethodSpec.Builder constructor =
+        constructorBuilder()
+            .addModifiers(PRIVATE)
+            .addParameter(FacetsSchema.class, "schema")
+            .addParameter(
+                ArrayTypeName.of(
+                    ParameterizedTypeName.get(FacetValue.class, Object.class)
+                        .annotated(AnnotationSpec.builder(Nullable.class).build())),
+                "slotValues")
+            .addStatement("super(schema, slotValues)");
     vajramInfo
         .inputs()
         .forEach(
@@ -1525,9 +1575,16 @@ public class VajramCodeGenerator {
                   getTypeName(
                       inputDef.type(), List.of(AnnotationSpec.builder(Nullable.class).build()));
               TypeAndName boxedInputType = boxPrimitive(inputType);
-              allInputsClass.addField(boxedInputType.typeName(), inputJavaName, PRIVATE, FINAL);
-              allInputsClass.addMethod(getterCodeForInput(inputDef, inputJavaName, inputType));
-              fieldsList.add(new FieldTypeName(boxedInputType.typeName(), inputJavaName));
+              // Not private, so that the generated vajram impl can read the field directly
+              allInputsClass.addField(boxedInputType.typeName(), inputJavaName, FINAL);
+              allInputsClass.addMethod(
+                  getterCodeForInput(
+                      inputDef, inputJavaName, inputType, missingMandatoryFacet(inputDef)));
+              constructor.addStatement(
+                  "this.$L = this.<$T>getInputValue($L).valueOrNull()",
+                  inputJavaName,
+                  boxedInputType.typeName().withoutAnnotations(),
+                  slotAccessor(inputDef.name()));
             });
 
     vajramInfo
@@ -1537,13 +1594,71 @@ public class VajramCodeGenerator {
               String inputJavaName = toJavaName(dependencyDef.name());
               TypeAndName depType = getDependencyOutputsType(dependencyDef);
               TypeAndName boxedDepType = boxPrimitive(depType);
-              allInputsClass.addField(boxedDepType.typeName(), inputJavaName, PRIVATE, FINAL);
-              allInputsClass.addMethod(getterCodeForInput(dependencyDef, inputJavaName, depType));
-              fieldsList.add(new FieldTypeName(boxedDepType.typeName(), inputJavaName));
+              allInputsClass.addField(boxedDepType.typeName(), inputJavaName, FINAL);
+              allInputsClass.addMethod(
+                  getterCodeForInput(
+                      dependencyDef, inputJavaName, depType, missingMandatoryFacet(dependencyDef)));
+              TypeName boxedResponseType =
+                  boxPrimitive(getTypeName(dependencyDef.responseType())).typeName();
+              if (dependencyDef.canFanout()) {
+                // Skipped executions of a fanout are not part of the dependency response
+                String responsesVariable = inputJavaName + RESPONSES_SUFFIX;
+                ClassName depRequestClass = toClassName(dependencyDef.depReqClassQualifiedName());
+                constructor.addStatement(
+                    "$T<$T, $T<$T>> $L = $T.builder()",
+                    ImmutableMap.Builder.class,
+                    depRequestClass,
+                    Errable.class,
+                    boxedResponseType,
+                    responsesVariable,
+                    ImmutableMap.class);
+                constructor.addStatement(
+                    """
+                        this.<$T>getDepValue($L)
+                            .forEach(
+                                (request, outcome) -> {
+                                  if (!(outcome.errorOrNull() instanceof $T)) {
+                                    $L.put($T.from(request), outcome);
+                                  }
+                                })""",
+                    boxedResponseType,
+                    slotAccessor(dependencyDef.name()),
+                    SkippedExecutionException.class,
+                    responsesVariable,
+                    depRequestClass);
+                constructor.addStatement(
+                    "this.$L = new $T<>($L.build())",
+                    inputJavaName,
+                    DependencyResponse.class,
+                    responsesVariable);
+              } else {
+                constructor.addStatement(
+                    "this.$L = this.<$T>getSingleDepValueOrNull($L)",
+                    inputJavaName,
+                    boxedResponseType,
+                    slotAccessor(dependencyDef.name()));
+              }
             });
-
-    // generate all args constructor and add to class
-    generateConstructor(fieldsList).ifPresent(allInputsClass::addMethod);
+    constructor
+        .addComment("The results of output logics are keyed by their facets, so the fingerprint is")
+        .addComment("always needed")
+        .addStatement("fingerprint()");
+    allInputsClass.addMethod(constructor.build());
+    allInputsClass.addMethod(
+        methodBuilder("from")
+            .addJavadoc(
+                "Returns the given facets if they were created by {@link #$L}, else a typed copy.\n",
+                FACETS_FACTORY_VAR)
+            .addModifiers(STATIC)
+            .addParameter(Facets.class, "facets")
+            .returns(allFacetsClassName)
+            .addStatement(
+                "return facets instanceof $T typed ? typed : facets.toSchema($L, $L)",
+                allFacetsClassName,
+                FACETS_SCHEMA_VAR,
+                FACETS_FACTORY_VAR)
+            .build());
+    addFacetsSchemaFields(allInputsClass);
 
     StringWriter writer = new StringWriter();
     try {
@@ -1556,6 +1671,11 @@ public class VajramCodeGenerator {
     return writer.toString();
   }
 
+  /** Throws the error because of which the facet could not be computed, if any. */
+  private CodeBlock missingMandatoryFacet(FacetGenModel facet) {
+    return CodeBlock.of("missingMandatoryFacet($L)", slotAccessor(facet.name()));
+  }
+
   private Optional<MethodSpec> generateConstructor(List<FieldTypeName> fieldsList) {
     // by default no args constructor is created so no need to generate
     if (fieldsList.isEmpty()) {
@@ -1,21 +1,32 @@
 package com.flipkart.krystal.vajram.codegen;
 
+import static com.flipkart.krystal.vajram.VajramLoader.VAJRAM_INDEX_RESOURCE;
 import static com.flipkart.krystal.vajram.codegen.Constants.COGENGEN_PHASE_KEY;
 import static com.flipkart.krystal.vajram.codegen.Utils.getVajramImplClassName;
 import static com.flipkart.krystal.vajram.codegen.models.CodegenPhase.IMPLS;
 import static java.lang.System.lineSeparator;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.stream.Collectors.joining;
+import static javax.tools.StandardLocation.CLASS_OUTPUT;
 
 import com.flipkart.krystal.vajram.codegen.models.CodegenPhase;
 import com.flipkart.krystal.vajram.codegen.models.VajramInfo;
+import com.flipkart.krystal.vajram.VajramLoader;
 import com.google.auto.service.AutoService;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
 import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
 import javax.annotation.processing.Processor;
 import javax.annotation.processing.RoundEnvironment;
 import javax.annotation.processing.SupportedAnnotationTypes;
@@ -23,6 +34,7 @@ import javax.annotation.processing.SupportedOptions;
 import javax.annotation.processing.SupportedSourceVersion;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.TypeElement;
+import javax.tools.FileObject;
 
 @SupportedAnnotationTypes("com.flipkart.krystal.vajram.VajramDef")
 @SupportedSourceVersion(SourceVersion.RELEASE_17)
@@ -30,6 +42,9 @@ import javax.lang.model.element.TypeElement;
 @SupportedOptions(COGENGEN_PHASE_KEY)
 public class VajramImplGenProcessor extends AbstractProcessor {
 
+  /** Fully qualified names of the vajram impls generated across all rounds of this compilation. */
+  private final Set<String> generatedImpls = new LinkedHashSet<>();
+
   @Override
   public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
     Utils util = new Utils(processingEnv, this.getClass());
@@ -52,6 +67,10 @@ public class VajramImplGenProcessor extends AbstractProcessor {
                   COGENGEN_PHASE_KEY),
           null);
     }
+    if (roundEnv.processingOver()) {
+      writeVajramIndex(util);
+      return false;
+    }
     List<TypeElement> vajramDefinitions = util.getVajramClasses(roundEnv);
     util.note(
         "Vajram Defs received by VajramImplGenProcessor: %s"
@@ -70,6 +89,7 @@ public class VajramImplGenProcessor extends AbstractProcessor {
               + getVajramImplClassName(vajramInfo.vajramId().vajramId());
       try {
         util.generateSourceFile(className, vajramCodeGenerator.codeGenVajramImpl(), vajramClass);
+        generatedImpls.add(className);
       } catch (Exception e) {
         StringWriter exception = new StringWriter();
         e.printStackTrace(new PrintWriter(exception));
@@ -81,4 +101,41 @@ public class VajramImplGenProcessor extends AbstractProcessor {
     }
     return false;
   }
+
+  /**
+   * Writes the {@link VajramLoader#VAJRAM_INDEX_RESOURCE vajram index} so that vajrams can be
+   * loaded at runtime without scanning the classpath. Entries of an existing index in the class
+   * output are retained, so that incremental compilations which regenerate only some of the
+   * vajrams do not drop the others from the index.
+   */
+  private void writeVajramIndex(Utils util) {
+    if (generatedImpls.isEmpty()) {
+      return;
+    }
+    Filer filer = processingEnv.getFiler();
+    Set<String> indexedImpls = new TreeSet<>(generatedImpls);
+    try {
+      FileObject existingIndex = filer.getResource(CLASS_OUTPUT, "", VAJRAM_INDEX_RESOURCE);
+      try (BufferedReader reader =
+          new BufferedReader(new InputStreamReader(existingIndex.openInputStream(), UTF_8))) {
+        reader
+            .lines()
+            .map(String::strip)
+            .filter(line -> !line.isEmpty())
+            .forEach(indexedImpls::add);
+      }
+    } catch (IOException e) {
+      // There is no existing index
+    }
+    try {
+      FileObject index = filer.createResource(CLASS_OUTPUT, "", VAJRAM_INDEX_RESOURCE);
+      try (PrintWriter out =
+          new PrintWriter(new OutputStreamWriter(index.openOutputStream(), UTF_8))) {
+        indexedImpls.forEach(out::println);
+      }
+      util.note("Wrote %s vajrams to %s".formatted(indexedImpls.size(), VAJRAM_INDEX_RESOURCE));
+    } catch (IOException e) {
+      util.error("Error while writing vajram index. Exception: %s".formatted(e), null);
+    }
+  }
 }
@@ -3,6 +3,7 @@ package com.flipkart.krystal.vajram;
 import static com.flipkart.krystal.vajram.facets.MultiExecute.executeFanoutWith;
 
 import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.data.FacetsFactory;
 import com.flipkart.krystal.vajram.facets.DependencyCommand;
 import com.flipkart.krystal.vajram.facets.VajramFacetDefinition;
 import com.flipkart.krystal.vajram.facets.resolution.InputResolver;
@@ -68,5 +69,14 @@ public sealed interface Vajram<T> permits AbstractVajram, BatchableVajram {
 
   ImmutableCollection<VajramFacetDefinition> getFacetDefinitions();
 
+  /**
+   * Creates the facets with which the output logic of this vajram is executed. Generated vajram
+   * implementations return a factory of a typed facets class so that the output logic can read
+   * facet values from fields.
+   */
+  default FacetsFactory<?> getFacetsFactory() {
+    return FacetsFactory.DEFAULT;
+  }
+
   ImmutableMap<Facets, CompletableFuture<@Nullable T>> execute(ImmutableList<Facets> inputs);
 }
@@ -1,25 +1,178 @@
 package com.flipkart.krystal.vajram;
 
 import static java.lang.reflect.Modifier.isFinal;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
 import org.reflections.Reflections;
+import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
 
+@Slf4j
 public final class VajramLoader {
 
+  /**
+   * The classpath resource in which the vajram codegen lists the fully qualified class names of all
+   * the generated vajram impls of a compilation unit - one per line.
+   */
+  public static final String VAJRAM_INDEX_RESOURCE = "META-INF/krystal/vajrams.index";
+
+  /**
+   * Loads all the vajrams in the given package from the vajram indices generated at build time,
+   * without scanning the classpath. Equivalent to {@link #loadVajramsFromClassPath(String, boolean)
+   * loadVajramsFromClassPath(packagePrefix, false)}.
+   */
   public static List<? extends Vajram> loadVajramsFromClassPath(String packagePrefix) {
-    return new Reflections(packagePrefix)
+    return loadVajramsFromClassPath(packagePrefix, false);
+  }
+
+  /**
+   * Loads all the vajrams in the given package from the vajram indices generated at build time.
+   *
+   * @param packagePrefix The package whose vajrams (including those of its sub-packages) are loaded
+   * @param scanUnindexedRoots Whether classpath roots (directories or jars) which contain the
+   *     package but do not have a vajram index - for example, jars compiled by an older version of
+   *     the vajram codegen - are scanned, and the vajrams found there added to the indexed ones.
+   *     Scanning reads every class of the package in those roots, which is the startup cost the
+   *     index avoids, so it is opt-in. If this is false, such roots are only logged.
+   */
+  public static List<? extends Vajram> loadVajramsFromClassPath(
+      String packagePrefix, boolean scanUnindexedRoots) {
+    ClassLoader classLoader = classLoader();
+    List<Vajram> vajrams = new ArrayList<>(loadVajramsFromIndex(packagePrefix));
+    List<URL> unindexedRoots = unindexedRoots(classLoader, packagePrefix);
+    if (unindexedRoots.isEmpty()) {
+      return vajrams;
+    }
+    if (!scanUnindexedRoots) {
+      log.warn(
+          "Classpath roots {} contain the package {} but no vajram index. Vajrams in these roots"
+              + " are not loaded unless scanning of unindexed roots is enabled",
+          unindexedRoots,
+          packagePrefix);
+      return vajrams;
+    }
+    log.debug("Scanning unindexed roots {} for vajrams in {}", unindexedRoots, packagePrefix);
+    Set<Class<?>> indexedClasses = new HashSet<>();
+    vajrams.forEach(vajram -> indexedClasses.add(vajram.getClass()));
+    new Reflections(
+            new ConfigurationBuilder()
+                .setUrls(unindexedRoots)
+                .setClassLoaders(new ClassLoader[] {classLoader})
+                .filterInputsBy(new FilterBuilder().includePackage(packagePrefix)))
         .getSubTypesOf(Vajram.class).stream()
             .filter(aClass -> isFinal(aClass.getModifiers()))
-            .map(
-                aClass -> {
-                  try {
-                    return aClass.getConstructor().newInstance();
-                  } catch (Throwable e) {
-                    throw new RuntimeException(e);
-                  }
-                })
-            .toList();
+            // The same class can be present in an indexed and an unindexed root
+            .filter(aClass -> !indexedClasses.contains(aClass))
+            .map(VajramLoader::instantiate)
+            .forEach(vajrams::add);
+    return vajrams;
+  }
+
+  /**
+   * Loads all the vajrams in the given package which are listed in the {@link
+   * #VAJRAM_INDEX_RESOURCE vajram indices} on the classpath, without scanning the classpath.
+   */
+  public static List<? extends Vajram> loadVajramsFromIndex(String packagePrefix) {
+    ClassLoader classLoader = classLoader();
+    List<Vajram> vajrams = new ArrayList<>();
+    for (String className : readIndex(classLoader)) {
+      // Like a package scan, "a.b" includes "a.b.c" but not "a.bc"
+      if (!className.startsWith(packagePrefix + ".")) {
+        continue;
+      }
+      Class<?> vajramClass;
+      try {
+        vajramClass = Class.forName(className, false, classLoader);
+      } catch (ClassNotFoundException e) {
+        // Stale entry of a vajram which has since been deleted
+        log.warn("Could not load indexed vajram {}", className, e);
+        continue;
+      }
+      vajrams.add(instantiate(vajramClass.asSubclass(Vajram.class)));
+    }
+    return vajrams;
+  }
+
+  private static Set<String> readIndex(ClassLoader classLoader) {
+    Set<String> classNames = new LinkedHashSet<>();
+    for (URL index : getResources(classLoader, VAJRAM_INDEX_RESOURCE)) {
+      try (BufferedReader reader =
+          new BufferedReader(new InputStreamReader(index.openStream(), UTF_8))) {
+        reader
+            .lines()
+            .map(String::strip)
+            .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+            .forEach(classNames::add);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Could not read vajram index " + index, e);
+      }
+    }
+    return classNames;
+  }
+
+  /** Returns the classpath roots which contain the given package but do not have a vajram index. */
+  private static List<URL> unindexedRoots(ClassLoader classLoader, String packagePrefix) {
+    Set<String> indexedRoots = new HashSet<>();
+    for (URL index : getResources(classLoader, VAJRAM_INDEX_RESOURCE)) {
+      indexedRoots.add(rootOf(index, VAJRAM_INDEX_RESOURCE));
+    }
+    String packagePath = packagePrefix.replace('.', '/');
+    List<URL> unindexedRoots = new ArrayList<>();
+    for (URL packageUrl : getResources(classLoader, packagePath)) {
+      String root = rootOf(packageUrl, packagePath);
+      if (!indexedRoots.contains(root)) {
+        try {
+          unindexedRoots.add(new URL(root));
+        } catch (MalformedURLException e) {
+          throw new IllegalStateException("Invalid classpath root " + root, e);
+        }
+      }
+    }
+    return unindexedRoots;
+  }
+
+  /** Returns the url of the classpath root (directory or jar) which contains the resource. */
+  private static String rootOf(URL resource, String resourceName) {
+    String url = resource.toExternalForm();
+    int index = url.lastIndexOf(resourceName);
+    return index < 0 ? url : url.substring(0, index);
+  }
+
+  private static List<URL> getResources(ClassLoader classLoader, String resourceName) {
+    try {
+      return Collections.list(classLoader.getResources(resourceName));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not find resources " + resourceName, e);
+    }
+  }
+
+  private static ClassLoader classLoader() {
+    ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+    if (classLoader == null) {
+      classLoader = VajramLoader.class.getClassLoader();
+    }
+    return classLoader;
+  }
+
+  private static Vajram instantiate(Class<? extends Vajram> vajramClass) {
+    try {
+      return vajramClass.getConstructor().newInstance();
+    } catch (Throwable e) {
+      throw new RuntimeException(e);
+    }
   }
 
   private VajramLoader() {}
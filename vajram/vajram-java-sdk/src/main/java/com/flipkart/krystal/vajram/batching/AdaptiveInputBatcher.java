@@ -0,0 +1,168 @@
+package com.flipkart.krystal.vajram.batching;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.flipkart.krystal.config.ConfigProvider;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
+import lombok.Getter;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An {@link InputBatcher} whose batch size and linger time are decided by an {@link
+ * AimdBatchSizer} based on the observed latency of downstream calls, instead of a static {@code
+ * min_batch_size}.
+ *
+ * <p>Pending inputs with the same common facets are emitted as a batch as soon as the target batch
+ * size is reached, or when the oldest pending input has lingered for longer than the linger time -
+ * whichever happens first. All remaining inputs are emitted when {@link #batch()} is called.
+ * Batches are never larger than the target batch size.
+ *
+ * <p>If a linger timer is provided, inputs which have lingered are emitted to the {@link
+ * #onBatching(Consumer) batching listener} when the linger time elapses. Otherwise, the linger time
+ * is only checked when an input is added.
+ */
+public final class AdaptiveInputBatcher<I, C> implements InputBatcher<I, C> {
+
+  private final AimdBatchSizer batchSizer;
+  private final @Nullable ScheduledExecutorService lingerTimer;
+  private final Executor batchingExecutor;
+  private @Nullable Consumer<ImmutableList<BatchedFacets<I, C>>> batchingListener;
+  private final Map<C, PendingInputs<I>> unBatchedRequests = new HashMap<>();
+  @Getter private final InputBatcherMetrics metrics = new InputBatcherMetrics();
+
+  /**
+   * @param batchSizer the batch sizer shared by all the batchers of an input batching decorator
+   *     instance id.
+   */
+  public AdaptiveInputBatcher(AimdBatchSizer batchSizer) {
+    this.batchSizer = batchSizer;
+    this.lingerTimer = null;
+    this.batchingExecutor = Runnable::run;
+  }
+
+  /**
+   * @param batchSizer the batch sizer shared by all the batchers of an input batching decorator
+   *     instance id.
+   * @param lingerTimer the timer on which the linger time of pending inputs is tracked.
+   * @param batchingExecutor the executor on which lingered inputs are emitted. This must be the
+   *     executor on which the other methods of this batcher are called (the command queue of the
+   *     kryon executor), since this class is not thread safe.
+   */
+  public AdaptiveInputBatcher(
+      AimdBatchSizer batchSizer, ScheduledExecutorService lingerTimer, Executor batchingExecutor) {
+    this.batchSizer = batchSizer;
+    this.lingerTimer = lingerTimer;
+    this.batchingExecutor = batchingExecutor;
+  }
+
+  @Override
+  public ImmutableList<BatchedFacets<I, C>> add(I batchableInputs, C commonFacets) {
+    PendingInputs<I> pendingInputs = unBatchedRequests.get(commonFacets);
+    if (pendingInputs == null) {
+      pendingInputs = new PendingInputs<>(System.nanoTime());
+      unBatchedRequests.put(commonFacets, pendingInputs);
+      scheduleLingerTimeout(commonFacets, pendingInputs);
+    }
+    pendingInputs.inputs.add(batchableInputs);
+    int targetBatchSize = batchSizer.getTargetBatchSize();
+    if (pendingInputs.inputs.size() >= targetBatchSize
+        || System.nanoTime() - pendingInputs.firstAddedAtNanos >= batchSizer.getLingerNanos()) {
+      return emit(commonFacets, targetBatchSize);
+    }
+    return ImmutableList.of();
+  }
+
+  private void scheduleLingerTimeout(C commonFacets, PendingInputs<I> pendingInputs) {
+    if (lingerTimer == null) {
+      return;
+    }
+    pendingInputs.lingerTimeout =
+        lingerTimer.schedule(
+            () -> batchingExecutor.execute(() -> onLingerTimeout(commonFacets, pendingInputs)),
+            batchSizer.getLingerNanos(),
+            NANOSECONDS);
+  }
+
+  private void onLingerTimeout(C commonFacets, PendingInputs<I> pendingInputs) {
+    if (unBatchedRequests.get(commonFacets) != pendingInputs) {
+      // Already emitted
+      return;
+    }
+    ImmutableList<BatchedFacets<I, C>> batches =
+        emit(commonFacets, batchSizer.getTargetBatchSize());
+    if (batchingListener != null) {
+      batchingListener.accept(batches);
+    }
+  }
+
+  private ImmutableList<BatchedFacets<I, C>> emit(C commonFacets, int targetBatchSize) {
+    PendingInputs<I> pendingInputs = unBatchedRequests.remove(commonFacets);
+    if (pendingInputs == null) {
+      return ImmutableList.of();
+    }
+    ScheduledFuture<?> lingerTimeout = pendingInputs.lingerTimeout;
+    if (lingerTimeout != null) {
+      lingerTimeout.cancel(false);
+    }
+    List<I> inputs = pendingInputs.inputs;
+    if (inputs.size() > targetBatchSize) {
+      metrics.batchSplit();
+    }
+    ImmutableList.Builder<BatchedFacets<I, C>> batches = ImmutableList.builder();
+    for (List<I> batch : Lists.partition(inputs, targetBatchSize)) {
+      metrics.batchEmitted(batch.size());
+      batches.add(new BatchedFacets<>(ImmutableList.copyOf(batch), commonFacets));
+    }
+    return batches.build();
+  }
+
+  @Override
+  public void batch() {
+    int targetBatchSize = batchSizer.getTargetBatchSize();
+    List<C> pendingCommonFacets = new ArrayList<>(unBatchedRequests.keySet());
+    ImmutableList<BatchedFacets<I, C>> batchedFacets =
+        pendingCommonFacets.stream()
+            .map(c -> emit(c, targetBatchSize))
+            .flatMap(Collection::stream)
+            .collect(toImmutableList());
+    if (batchingListener != null) {
+      batchingListener.accept(batchedFacets);
+    }
+  }
+
+  @Override
+  public void onBatching(Consumer<ImmutableList<BatchedFacets<I, C>>> listener) {
+    batchingListener = listener;
+  }
+
+  @Override
+  public void onBatchExecuted(int batchSize, long latencyNanos) {
+    batchSizer.onBatchExecuted(batchSize, latencyNanos);
+  }
+
+  @Override
+  public void onConfigUpdate(ConfigProvider configProvider) {
+    batchSizer.onConfigUpdate(configProvider);
+  }
+
+  private static final class PendingInputs<I> {
+    private final List<I> inputs = new ArrayList<>();
+    private final long firstAddedAtNanos;
+    private @Nullable ScheduledFuture<?> lingerTimeout;
+
+    private PendingInputs(long firstAddedAtNanos) {
+      this.firstAddedAtNanos = firstAddedAtNanos;
+    }
+  }
+}
@@ -0,0 +1,197 @@
+package com.flipkart.krystal.vajram.batching;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import com.flipkart.krystal.config.ConfigListener;
+import com.flipkart.krystal.config.ConfigProvider;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Decides the target batch size and linger time of {@link AdaptiveInputBatcher}s based on the
+ * observed latency of the downstream calls made with their batches. The decisions follow the
+ * additive-increase/multiplicative-decrease (AIMD) scheme, applied to the moving average of the
+ * latencies of batches of similar size (rather than to individual latencies, so that a single slow
+ * call does not halve the batch size):
+ *
+ * <ul>
+ *   <li>When a batch whose size was at least the target batch size completes, and the average
+ *       latency is within the latency objective, the target batch size and linger time are
+ *       increased additively.
+ *   <li>When the average latency misses the latency objective, the target batch size and linger
+ *       time are multiplied by the decrease factor. This happens at most once per observation
+ *       window: batches which were already in flight when the target was last decreased were sized
+ *       before that decrease, so their completions do not decrease the target again. Otherwise a
+ *       burst of slow batches completing together would collapse the target to the minimum.
+ * </ul>
+ *
+ * <p>Input batchers are scoped to a single executor, but latency observations need to outlive a
+ * single request. So a single instance of this class is meant to be shared by all the {@link
+ * AdaptiveInputBatcher}s of an input batching decorator instance id, across executors. This class
+ * is thread safe.
+ *
+ * <p>Supported configs:
+ *
+ * <ul>
+ *   <li>{@code adaptive.latency_objective_ms}
+ *   <li>{@code adaptive.min_batch_size}, {@code adaptive.max_batch_size}
+ *   <li>{@code adaptive.initial_batch_size}: the target batch size till the first adjustment
+ *   <li>{@code adaptive.additive_increase}: batch size increment per successful full batch
+ *   <li>{@code adaptive.decrease_percent}: the percentage of the target batch size and linger time
+ *       which is retained when the objective is missed
+ *   <li>{@code adaptive.min_linger_ms}, {@code adaptive.max_linger_ms}
+ * </ul>
+ */
+@Slf4j
+public final class AimdBatchSizer implements ConfigListener {
+
+  private static final int DEFAULT_LATENCY_OBJECTIVE_MS = 50;
+  private static final int DEFAULT_MIN_BATCH_SIZE = 1;
+  private static final int DEFAULT_MAX_BATCH_SIZE = 1000;
+  private static final int DEFAULT_INITIAL_BATCH_SIZE = 16;
+  private static final int DEFAULT_ADDITIVE_INCREASE = 1;
+  private static final int DEFAULT_DECREASE_PERCENT = 50;
+  private static final int DEFAULT_MIN_LINGER_MS = 1;
+  private static final int DEFAULT_MAX_LINGER_MS = 10;
+  private static final long LINGER_INCREASE_MICROS = 100;
+
+  /** Weight of the newest observation in the exponentially weighted moving average of latencies */
+  private static final double LATENCY_EWMA_ALPHA = 0.2;
+
+  private long latencyObjectiveNanos = DEFAULT_LATENCY_OBJECTIVE_MS * 1_000_000L;
+  private int minBatchSize = DEFAULT_MIN_BATCH_SIZE;
+  private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+  private int additiveIncrease = DEFAULT_ADDITIVE_INCREASE;
+  private int decreasePercent = DEFAULT_DECREASE_PERCENT;
+  private long minLingerMicros = DEFAULT_MIN_LINGER_MS * 1000L;
+  private long maxLingerMicros = DEFAULT_MAX_LINGER_MS * 1000L;
+  private final int initialBatchSize;
+
+  private int targetBatchSize;
+  private long lingerMicros;
+  private int increaseCount;
+  private int decreaseCount;
+
+  /** The {@link System#nanoTime()} at which the target was last decreased. */
+  private long lastDecreaseNanos;
+
+  /** Batch sizes are bucketed by powers of two - same as {@link InputBatcherMetrics} */
+  private final double[] latencyEwmaNanosByBucket = new double[Integer.SIZE];
+
+  public AimdBatchSizer() {
+    this(DEFAULT_LATENCY_OBJECTIVE_MS, DEFAULT_INITIAL_BATCH_SIZE);
+  }
+
+  public AimdBatchSizer(int latencyObjectiveMs, int initialBatchSize) {
+    this.latencyObjectiveNanos = latencyObjectiveMs * 1_000_000L;
+    this.initialBatchSize = initialBatchSize;
+    this.targetBatchSize = min(maxBatchSize, max(minBatchSize, initialBatchSize));
+    this.lingerMicros = maxLingerMicros;
+  }
+
+  /** Records the latency of a downstream call and adjusts the target batch size and linger time. */
+  public synchronized void onBatchExecuted(int batchSize, long latencyNanos) {
+    if (batchSize <= 0) {
+      return;
+    }
+    int bucket = Integer.SIZE - 1 - Integer.numberOfLeadingZeros(batchSize);
+    double ewma = latencyEwmaNanosByBucket[bucket];
+    ewma = ewma == 0 ? latencyNanos : ewma + LATENCY_EWMA_ALPHA * (latencyNanos - ewma);
+    latencyEwmaNanosByBucket[bucket] = ewma;
+
+    int oldTargetBatchSize = targetBatchSize;
+    if (ewma > latencyObjectiveNanos) {
+      long nowNanos = System.nanoTime();
+      long dispatchNanos = nowNanos - latencyNanos;
+      if (decreaseCount == 0 || dispatchNanos - lastDecreaseNanos >= 0) {
+        targetBatchSize = max(minBatchSize, (int) ((long) targetBatchSize * decreasePercent / 100));
+        lingerMicros = max(minLingerMicros, lingerMicros * decreasePercent / 100);
+        decreaseCount++;
+        lastDecreaseNanos = nowNanos;
+      }
+    } else if (batchSize >= targetBatchSize) {
+      // Only batches which were as large as the target are evidence that larger batches can still
+      // meet the objective
+      targetBatchSize = min(maxBatchSize, targetBatchSize + additiveIncrease);
+      lingerMicros = min(maxLingerMicros, lingerMicros + LINGER_INCREASE_MICROS);
+      increaseCount++;
+    }
+    if (oldTargetBatchSize != targetBatchSize) {
+      log.debug(
+          "Target batch size changed from {} to {}: a batch of size {} took {} ns (average {})",
+          oldTargetBatchSize,
+          targetBatchSize,
+          batchSize,
+          latencyNanos,
+          (long) ewma);
+    }
+  }
+
+  public synchronized int getTargetBatchSize() {
+    return targetBatchSize;
+  }
+
+  public synchronized long getLingerNanos() {
+    return lingerMicros * 1000;
+  }
+
+  /** The number of times the target batch size was increased. */
+  public synchronized int getIncreaseCount() {
+    return increaseCount;
+  }
+
+  /** The number of times the latency objective was missed and the target was decreased. */
+  public synchronized int getDecreaseCount() {
+    return decreaseCount;
+  }
+
+  /**
+   * The moving average of the observed latency of batches with sizes in the same power-of-two
+   * bucket as {@code batchSize}, or 0 if no such batch has been observed.
+   */
+  public synchronized double getObservedLatencyNanos(int batchSize) {
+    if (batchSize <= 0) {
+      return 0;
+    }
+    return latencyEwmaNanosByBucket[Integer.SIZE - 1 - Integer.numberOfLeadingZeros(batchSize)];
+  }
+
+  @Override
+  public synchronized void onConfigUpdate(ConfigProvider configProvider) {
+    this.latencyObjectiveNanos =
+        configProvider
+                .<Integer>getConfig("adaptive.latency_objective_ms")
+                .orElse(DEFAULT_LATENCY_OBJECTIVE_MS)
+            * 1_000_000L;
+    this.minBatchSize =
+        configProvider.<Integer>getConfig("adaptive.min_batch_size").orElse(DEFAULT_MIN_BATCH_SIZE);
+    this.maxBatchSize =
+        configProvider.<Integer>getConfig("adaptive.max_batch_size").orElse(DEFAULT_MAX_BATCH_SIZE);
+    this.additiveIncrease =
+        configProvider
+            .<Integer>getConfig("adaptive.additive_increase")
+            .orElse(DEFAULT_ADDITIVE_INCREASE);
+    this.decreasePercent =
+        configProvider
+            .<Integer>getConfig("adaptive.decrease_percent")
+            .orElse(DEFAULT_DECREASE_PERCENT);
+    this.minLingerMicros =
+        configProvider.<Integer>getConfig("adaptive.min_linger_ms").orElse(DEFAULT_MIN_LINGER_MS)
+            * 1000L;
+    this.maxLingerMicros =
+        configProvider.<Integer>getConfig("adaptive.max_linger_ms").orElse(DEFAULT_MAX_LINGER_MS)
+            * 1000L;
+    if (increaseCount == 0 && decreaseCount == 0) {
+      this.targetBatchSize =
+          configProvider.<Integer>getConfig("adaptive.initial_batch_size").orElse(initialBatchSize);
+    }
+    this.targetBatchSize = min(maxBatchSize, max(minBatchSize, targetBatchSize));
+    this.lingerMicros = min(maxLingerMicros, max(minLingerMicros, lingerMicros));
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "AimdBatchSizer{targetBatchSize=%s, lingerMicros=%s, increases=%s, decreases=%s}"
+        .formatted(targetBatchSize, lingerMicros, increaseCount, decreaseCount);
+  }
+}
@@ -31,4 +31,14 @@ public interface InputBatcher<BatchableInputs, CommonFacets> extends ConfigListe
    * the {@link #batch()} method is called, execute the given callback.
    */
   void onBatching(Consumer<ImmutableList<BatchedFacets<BatchableInputs, CommonFacets>>> callback);
+
+  /**
+   * Called once the downstream call for a batch emitted by this batcher has completed. This is
+   * called from the thread which completed the downstream call, and not necessarily the thread
+   * which calls the other methods of this batcher.
+   *
+   * @param batchSize the number of inputs in the batch
+   * @param latencyNanos the time between dispatching the batch and completion of all its results
+   */
+  default void onBatchExecuted(int batchSize, long latencyNanos) {}
 }
@@ -4,20 +4,30 @@ import static com.google.common.collect.ImmutableList.toImmutableList;
 
 import com.flipkart.krystal.config.ConfigProvider;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
+import lombok.Getter;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+/**
+ * Collects inputs until {@code min_batch_size} inputs with the same common facets are available (or
+ * until {@link #batch()} is called). Batches larger than {@code max_batch_size} are split into
+ * multiple batches of at most {@code max_batch_size} inputs each.
+ */
 public final class InputBatcherImpl<I, C> implements InputBatcher<I, C> {
 
   private static final int DEFAULT_BATCH_SIZE = 1;
+  private static final int DEFAULT_MAX_BATCH_SIZE = Integer.MAX_VALUE;
   private @Nullable Consumer<ImmutableList<BatchedFacets<I, C>>> batchingListener;
   private final Map<C, List<I>> unBatchedRequests = new HashMap<>();
   private int minBatchSize = DEFAULT_BATCH_SIZE;
+  private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+  @Getter private final InputBatcherMetrics metrics = new InputBatcherMetrics();
 
   public InputBatcherImpl() {}
 
@@ -25,6 +35,11 @@ public final class InputBatcherImpl<I, C> implements InputBatcher<I, C> {
     this.minBatchSize = minBatchSize;
   }
 
+  public InputBatcherImpl(int minBatchSize, int maxBatchSize) {
+    this.minBatchSize = minBatchSize;
+    this.maxBatchSize = maxBatchSize;
+  }
+
   @Override
   public ImmutableList<BatchedFacets<I, C>> add(I batchableInputs, C commonFacets) {
     unBatchedRequests.computeIfAbsent(commonFacets, k -> new ArrayList<>()).add(batchableInputs);
@@ -35,11 +50,27 @@ public final class InputBatcherImpl<I, C> implements InputBatcher<I, C> {
     if (commonFacets == null) {
       return ImmutableList.of();
     }
-    ImmutableList<I> batchableInputs =
-        ImmutableList.copyOf(unBatchedRequests.getOrDefault(commonFacets, ImmutableList.of()));
-    if (force || batchableInputs.size() >= minBatchSize) {
-      unBatchedRequests.put(commonFacets, new ArrayList<>());
-      return ImmutableList.of(new BatchedFacets<>(batchableInputs, commonFacets));
+    List<I> batchableInputs = unBatchedRequests.getOrDefault(commonFacets, ImmutableList.of());
+    int size = batchableInputs.size();
+    if (size == 0) {
+      return ImmutableList.of();
+    }
+    if (force || size >= minBatchSize || size >= maxBatchSize) {
+      // Removed (rather than reset to an empty list) so that a flush does not have to visit
+      // common facets whose inputs have all been emitted already
+      unBatchedRequests.remove(commonFacets);
+      if (size <= maxBatchSize) {
+        metrics.batchEmitted(size);
+        return ImmutableList.of(
+            new BatchedFacets<>(ImmutableList.copyOf(batchableInputs), commonFacets));
+      }
+      metrics.batchSplit();
+      ImmutableList.Builder<BatchedFacets<I, C>> chunks = ImmutableList.builder();
+      for (List<I> chunk : Lists.partition(batchableInputs, maxBatchSize)) {
+        metrics.batchEmitted(chunk.size());
+        chunks.add(new BatchedFacets<>(ImmutableList.copyOf(chunk), commonFacets));
+      }
+      return chunks.build();
     }
     return ImmutableList.of();
   }
@@ -47,7 +78,7 @@ public final class InputBatcherImpl<I, C> implements InputBatcher<I, C> {
   @Override
   public void batch() {
     ImmutableList<BatchedFacets<I, C>> batchedFacets =
-        unBatchedRequests.keySet().stream()
+        ImmutableList.copyOf(unBatchedRequests.keySet()).stream()
             .map(c -> getBatchedInputs(c, true))
             .flatMap(Collection::stream)
             .collect(toImmutableList());
@@ -65,5 +96,7 @@ public final class InputBatcherImpl<I, C> implements InputBatcher<I, C> {
   public void onConfigUpdate(ConfigProvider configProvider) {
     this.minBatchSize =
         configProvider.<Integer>getConfig("min_batch_size").orElse(DEFAULT_BATCH_SIZE);
+    this.maxBatchSize =
+        configProvider.<Integer>getConfig("max_batch_size").orElse(DEFAULT_MAX_BATCH_SIZE);
   }
 }
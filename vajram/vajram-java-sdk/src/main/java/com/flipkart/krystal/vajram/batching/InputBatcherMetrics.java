@@ -0,0 +1,55 @@
+package com.flipkart.krystal.vajram.batching;
+
+import static java.lang.Math.max;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/** Metrics describing the batches emitted by an {@link InputBatcherImpl}. */
+@Getter
+public final class InputBatcherMetrics {
+
+  /**
+   * Batch sizes are bucketed by powers of two. Bucket {@code i} counts batches whose size is in the
+   * range {@code [2^i, 2^(i+1))}
+   */
+  private static final int BUCKET_COUNT = Integer.SIZE;
+
+  private int batchCount;
+  private long batchedInputsCount;
+  private int largestBatchSize;
+
+  /** The number of times the pending inputs exceeded the max batch size and had to be split. */
+  private int splitCount;
+
+  @Getter(AccessLevel.NONE)
+  private final int[] batchSizeHistogram = new int[BUCKET_COUNT];
+
+  void batchEmitted(int batchSize) {
+    if (batchSize <= 0) {
+      return;
+    }
+    this.batchCount++;
+    this.batchedInputsCount += batchSize;
+    this.largestBatchSize = max(largestBatchSize, batchSize);
+    batchSizeHistogram[bucketOf(batchSize)]++;
+  }
+
+  void batchSplit() {
+    this.splitCount++;
+  }
+
+  /** The number of emitted batches whose size was in the range {@code [2^bucket, 2^(bucket+1))} */
+  public int batchCountInBucket(int bucket) {
+    return batchSizeHistogram[bucket];
+  }
+
+  /** The number of emitted batches with sizes in the same power-of-two bucket as {@code size}. */
+  public int batchCountForSize(int size) {
+    return size <= 0 ? 0 : batchSizeHistogram[bucketOf(size)];
+  }
+
+  private static int bucketOf(int batchSize) {
+    return Integer.SIZE - 1 - Integer.numberOfLeadingZeros(batchSize);
+  }
+}
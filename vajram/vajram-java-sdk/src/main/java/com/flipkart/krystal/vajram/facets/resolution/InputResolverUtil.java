@@ -2,13 +2,11 @@ package com.flipkart.krystal.vajram.facets.resolution;
 
 import static com.flipkart.krystal.vajram.facets.MultiExecute.skipFanout;
 import static com.flipkart.krystal.vajram.facets.SingleExecute.skipExecution;
-import static com.google.common.collect.ImmutableList.toImmutableList;
-import static java.util.Optional.ofNullable;
-import static java.util.function.Function.identity;
 
 import com.flipkart.krystal.data.Errable;
 import com.flipkart.krystal.data.FacetValue;
 import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.data.Results;
 import com.flipkart.krystal.utils.SkippedExecutionException;
 import com.flipkart.krystal.vajram.VajramRequest;
 import com.flipkart.krystal.vajram.facets.DependencyCommand;
@@ -25,7 +23,6 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Optional;
 import java.util.function.Function;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -146,7 +143,7 @@ public final class InputResolverUtil {
     if (o instanceof Facets facets) {
       for (Entry<String, FacetValue<Object>> e : facets.values().entrySet()) {
         //noinspection unchecked,rawtypes
-        if (valuesMap.put(e.getKey(), ((Errable) e.getValue()).value().orElse(null)) != null) {
+        if (valuesMap.put(e.getKey(), ((Errable) e.getValue()).valueOrNull()) != null) {
           throw new IllegalStateException("Duplicate key");
         }
       }
@@ -166,19 +163,21 @@ public final class InputResolverUtil {
       List<? extends SkipPredicate<?>> skipPredicates,
       Facets facets) {
     boolean fanout = fanoutTransformer != null;
-    List<Errable<?>> inputValues = new ArrayList<>();
+    List<Errable<?>> inputValues = new ArrayList<>(sourceInputs.size());
     for (VajramFacetSpec sourceInput : sourceInputs) {
       final Errable<Object> inputValue;
       if (sourceInput instanceof VajramDepSingleTypeSpec<?, ?, ?>) {
-        inputValue = facets.getDepValue(sourceInput.name()).values().values().iterator().next();
+        inputValue = facets.getDepValue(sourceInput.name()).outcomeAt(0);
       } else if (sourceInput instanceof VajramDepFanoutTypeSpec<?, ?, ?>) {
-        inputValue =
-            Errable.withValue(
-                facets.getDepValue(sourceInput.name()).values().values().stream()
-                    .map(Errable::value)
-                    .filter(Optional::isPresent)
-                    .map(Optional::get)
-                    .toList());
+        Results<Object> depValues = facets.getDepValue(sourceInput.name());
+        List<Object> values = new ArrayList<>(depValues.size());
+        for (int i = 0; i < depValues.size(); i++) {
+          Object value = depValues.outcomeAt(i).valueOrNull();
+          if (value != null) {
+            values.add(value);
+          }
+        }
+        inputValue = Errable.withValue(values);
       } else if (sourceInput != null) {
         inputValue = facets.getInputValue(sourceInput.name());
       } else {
@@ -187,44 +186,35 @@ public final class InputResolverUtil {
       inputValues.add(inputValue);
     }
 
-    //noinspection unchecked
-    Optional<SkipPredicate<Object>> skipPredicate =
-        skipPredicates.stream()
-            .map(p -> (SkipPredicate<Object>) p)
-            .filter(sSkipPredicate -> sSkipPredicate.condition().test(inputValues))
-            .findFirst();
-    if (skipPredicate.isPresent()) {
+    // Plain loops and branches instead of streams and composed functions - this runs for every
+    // resolution of every request
+    for (SkipPredicate<?> skipPredicate : skipPredicates) {
+      //noinspection unchecked
+      if (((SkipPredicate<Object>) skipPredicate).condition().test(inputValues)) {
+        if (fanout) {
+          return skipFanout(skipPredicate.reason());
+        } else {
+          return skipExecution(skipPredicate.reason());
+        }
+      }
+    }
+    if (oneToOneTransformer != null) {
+      //noinspection unchecked
+      T transformedInput = (T) oneToOneTransformer.apply(inputValues);
       if (fanout) {
-        return skipFanout(skipPredicate.get().reason());
+        //noinspection unchecked
+        return MultiExecute.executeFanoutWith(
+            transformedInput == null ? List.of() : (Collection<T>) transformedInput);
       } else {
-        return skipExecution(skipPredicate.get().reason());
+        return SingleExecute.executeWith(transformedInput);
       }
-    }
-    //noinspection unchecked
-    Function<List<Errable<?>>, Object> transformer =
-        ofNullable((Function<List<Errable<?>>, Object>) oneToOneTransformer)
-            .or(
-                () ->
-                    ofNullable(fanoutTransformer)
-                        .map(
-                            function ->
-                                (Function<List<Errable<?>>, Collection<Object>>)
-                                    function.andThen(objects -> (Collection<Object>) objects))
-                        .map(x -> x.andThen(identity())))
-            .orElse(
-                errables -> {
-                  throw new AssertionError();
-                });
-    Optional<Object> transformedInput = ofNullable(transformer.apply(inputValues));
-    if (fanout) {
+    } else if (fanoutTransformer != null) {
       //noinspection unchecked
+      Collection<T> transformedInputs = (Collection<T>) fanoutTransformer.apply(inputValues);
       return MultiExecute.executeFanoutWith(
-          transformedInput.map(ts -> ((Collection<T>) ts).stream()).stream()
-              .flatMap(identity())
-              .collect(toImmutableList()));
+          transformedInputs == null ? List.of() : transformedInputs);
     } else {
-      //noinspection unchecked
-      return SingleExecute.executeWith((T) transformedInput.orElse(null));
+      throw new AssertionError();
     }
   }
 
@@ -20,7 +20,6 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.concurrent.atomic.LongAdder;
 
 /** A resolver which resolves exactly one input of a dependency. */
@@ -87,7 +86,7 @@ public final class SimpleInputResolver<
                           new Facets(
                               ImmutableMap.of(
                                   resolverSpec.targetInput().name(),
-                                  new Errable<>(o, Optional.empty()))))
+                                  Errable.<Object>errableFrom(o, null))))
                   .toList());
       }
     } catch (Exception e) {
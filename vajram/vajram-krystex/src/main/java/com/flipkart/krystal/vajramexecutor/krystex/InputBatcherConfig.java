@@ -8,6 +8,9 @@ import com.flipkart.krystal.krystex.logicdecoration.LogicExecutionContext;
 import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecorator;
 import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecoratorConfig.LogicDecoratorContext;
 import com.flipkart.krystal.vajram.BatchableVajram;
+import com.flipkart.krystal.vajram.IOVajram;
+import com.flipkart.krystal.vajram.batching.AdaptiveInputBatcher;
+import com.flipkart.krystal.vajram.batching.AimdBatchSizer;
 import com.flipkart.krystal.vajram.batching.FacetsConverter;
 import com.flipkart.krystal.vajram.batching.InputBatcher;
 import com.flipkart.krystal.vajram.facets.FacetValuesAdaptor;
@@ -16,6 +19,7 @@ import com.flipkart.krystal.vajram.tags.VajramTags;
 import com.google.common.collect.ImmutableSet;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -39,6 +43,47 @@ public record InputBatcherConfig(
    */
   public static InputBatcherConfig simple(
       Supplier<InputBatcher<FacetValuesAdaptor, FacetValuesAdaptor>> inputBatcherSupplier) {
+    return perDependantChain(_context -> inputBatcherSupplier.get());
+  }
+
+  /**
+   * Same as {@link #simple(Supplier)}, except that every {@link InputBatchingDecorator} gets an
+   * {@link AdaptiveInputBatcher}. All the adaptive batchers with the same instance id (across
+   * executors) share the same {@link AimdBatchSizer}, so that latency observations made in one
+   * request inform the batch sizes of subsequent requests.
+   *
+   * <p>The linger time of pending inputs is only checked when inputs are added. Use {@link
+   * #adaptive(Function, ScheduledExecutorService)} to emit lingering inputs when their linger time
+   * elapses.
+   *
+   * @param batchSizers Returns the JVM-wide {@link AimdBatchSizer} for the given instance id. This
+   *     function must return the same instance every time it is called with the same instance id.
+   */
+  public static InputBatcherConfig adaptive(Function<String, AimdBatchSizer> batchSizers) {
+    return perDependantChain(
+        context -> new AdaptiveInputBatcher<>(batchSizers.apply(context.instanceId())));
+  }
+
+  /**
+   * Same as {@link #adaptive(Function)}, except that inputs which have lingered for longer than the
+   * linger time are emitted as soon as it elapses. The emission is done on the command queue of the
+   * executor which owns the batcher.
+   *
+   * @param lingerTimer the timer on which the linger times of all the adaptive batchers are
+   *     tracked. Since timers only hand the emission over to the command queue of an executor, a
+   *     single-threaded timer can be shared across executors.
+   */
+  public static InputBatcherConfig adaptive(
+      Function<String, AimdBatchSizer> batchSizers, ScheduledExecutorService lingerTimer) {
+    return perDependantChain(
+        context ->
+            new AdaptiveInputBatcher<>(
+                batchSizers.apply(context.instanceId()), lingerTimer, context.commandQueue()));
+  }
+
+  private static InputBatcherConfig perDependantChain(
+      Function<LogicDecoratorContext, InputBatcher<FacetValuesAdaptor, FacetValuesAdaptor>>
+          inputBatchers) {
     return new InputBatcherConfig(
         logicExecutionContext ->
             generateInstanceId(
@@ -55,16 +100,15 @@ public record InputBatcherConfig(
             throw new IllegalStateException(
                 "Cannot create decorator when vajram doesn't provide facets converter");
           }
+          LogicDecoratorContext logicDecoratorContext = batcherContext.logicDecoratorContext();
+          String instanceId = logicDecoratorContext.instanceId();
           return new InputBatchingDecorator<>(
-              batcherContext.logicDecoratorContext().instanceId(),
-              inputBatcherSupplier.get(),
+              instanceId,
+              inputBatchers.apply(logicDecoratorContext),
               facetsConvertor.get(),
               dependantChain ->
-                  batcherContext
-                      .logicDecoratorContext()
-                      .logicExecutionContext()
-                      .dependants()
-                      .equals(dependantChain));
+                  logicDecoratorContext.logicExecutionContext().dependants().equals(dependantChain),
+              logicDecoratorContext.commandQueue());
         });
   }
 
@@ -98,7 +142,50 @@ public record InputBatcherConfig(
               instanceId,
               inputBatcherSupplier.get(),
               facetsConvertor.get(),
-              dependantChains::contains);
+              dependantChains::contains,
+              batcherContext.logicDecoratorContext().commandQueue());
+        });
+  }
+
+  /**
+   * Creates an InputBatcherConfig which batches inputs across all the executors in the JVM. Just
+   * like {@link #simple(Supplier)}, every unique {@link DependantChain} of a vajram gets its own
+   * instance id, but all executors delegate to the same {@link SharedInputBatcher} for an instance
+   * id, so that concurrent requests share downstream calls.
+   *
+   * <p>Only {@link IOVajram}s are batched across executors. The output logic of a compute vajram
+   * runs on the calling thread, so sharing its batches would make one executor run the computations
+   * of others.
+   *
+   * @param sharedInputBatchers Returns the JVM-wide {@link SharedInputBatcher} for the given
+   *     instance id. This function must return the same instance every time it is called with the
+   *     same instance id (for example, by using {@link
+   *     java.util.concurrent.ConcurrentHashMap#computeIfAbsent}).
+   */
+  public static InputBatcherConfig sharedAcrossExecutors(
+      Function<String, SharedInputBatcher<FacetValuesAdaptor, FacetValuesAdaptor>>
+          sharedInputBatchers) {
+    return new InputBatcherConfig(
+        logicExecutionContext ->
+            generateInstanceId(
+                    logicExecutionContext.dependants(),
+                    logicExecutionContext.kryonDefinitionRegistry())
+                .toString(),
+        batcherContext ->
+            batcherContext.vajram() instanceof IOVajram<?>
+                && batcherContext.vajram().getBatchFacetsConvertor().isPresent(),
+        batcherContext -> {
+          @SuppressWarnings("unchecked")
+          Optional<FacetsConverter<FacetValuesAdaptor, FacetValuesAdaptor>> facetsConvertor =
+              (Optional<FacetsConverter<FacetValuesAdaptor, FacetValuesAdaptor>>)
+                  batcherContext.vajram().getBatchFacetsConvertor();
+          if (facetsConvertor.isEmpty()) {
+            throw new IllegalStateException(
+                "Cannot create decorator when vajram doesn't provide facets converter");
+          }
+          String instanceId = batcherContext.logicDecoratorContext().instanceId();
+          return new SharedInputBatchingDecorator<>(
+              instanceId, sharedInputBatchers.apply(instanceId), facetsConvertor.get());
         });
   }
 
@@ -2,17 +2,21 @@ package com.flipkart.krystal.vajramexecutor.krystex;
 
 import static com.flipkart.krystal.utils.Futures.linkFutures;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.concurrent.CompletableFuture.allOf;
 
 import com.flipkart.krystal.config.ConfigProvider;
 import com.flipkart.krystal.config.NestedConfig;
 import com.flipkart.krystal.data.Facets;
 import com.flipkart.krystal.krystex.OutputLogic;
 import com.flipkart.krystal.krystex.OutputLogicDefinition;
+import com.flipkart.krystal.krystex.jfr.InputBatchDispatchEvent;
 import com.flipkart.krystal.krystex.kryon.DependantChain;
+import com.flipkart.krystal.krystex.kryon.KryonId;
 import com.flipkart.krystal.krystex.logicdecoration.FlushCommand;
 import com.flipkart.krystal.krystex.logicdecoration.InitiateActiveDepChains;
 import com.flipkart.krystal.krystex.logicdecoration.LogicDecoratorCommand;
 import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecorator;
+import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecoratorConfig.LogicDecoratorContext;
 import com.flipkart.krystal.vajram.batching.BatchedFacets;
 import com.flipkart.krystal.vajram.batching.FacetsConverter;
 import com.flipkart.krystal.vajram.batching.InputBatcher;
@@ -21,14 +25,17 @@ import com.flipkart.krystal.vajram.facets.FacetValuesAdaptor;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -39,6 +46,7 @@ public final class InputBatchingDecorator<
     implements OutputLogicDecorator {
 
   public static final String DECORATOR_TYPE = InputBatchingDecorator.class.getName();
+  private static final int DEFAULT_MAX_IN_FLIGHT_BATCHES = Integer.MAX_VALUE;
   private final String instanceId;
   private final InputBatcher<I, C> inputBatcher;
   private final FacetsConverter<I, C> facetsConverter;
@@ -47,22 +55,52 @@ public final class InputBatchingDecorator<
   private ImmutableSet<DependantChain> activeDependantChains = ImmutableSet.of();
   private final Set<DependantChain> flushedDependantChains = new LinkedHashSet<>();
 
+  /** Runs the dispatch of queued batches. */
+  private final Executor dispatchExecutor;
+
+  /**
+   * Batches which could not be dispatched because {@code max_in_flight_batches} batches are already
+   * executing. These are dispatched as and when the in-flight batches complete.
+   */
+  private final Queue<Runnable> queuedBatches = new ArrayDeque<>();
+
+  private int inFlightBatches;
+  private boolean drainScheduled;
+  private volatile int maxInFlightBatches = DEFAULT_MAX_IN_FLIGHT_BATCHES;
+
   public InputBatchingDecorator(
       String instanceId,
       InputBatcher<I, C> inputBatcher,
       FacetsConverter<I, C> facetsConverter,
       Predicate<DependantChain> isApplicableToDependantChain) {
+    this(instanceId, inputBatcher, facetsConverter, isApplicableToDependantChain, Runnable::run);
+  }
+
+  /**
+   * @param dispatchExecutor Runs the dispatch of batches which were queued because of the {@code
+   *     max_in_flight_batches} limit. In-flight batches usually complete on IO threads, so this
+   *     should be the command queue of the executor ({@link LogicDecoratorContext#commandQueue()})
+   */
+  public InputBatchingDecorator(
+      String instanceId,
+      InputBatcher<I, C> inputBatcher,
+      FacetsConverter<I, C> facetsConverter,
+      Predicate<DependantChain> isApplicableToDependantChain,
+      Executor dispatchExecutor) {
     this.instanceId = instanceId;
     this.inputBatcher = inputBatcher;
     this.facetsConverter = facetsConverter;
     this.isApplicableToDependantChain = isApplicableToDependantChain;
+    this.dispatchExecutor = dispatchExecutor;
   }
 
   @Override
   public OutputLogic<Object> decorateLogic(
       OutputLogic<Object> logicToDecorate, OutputLogicDefinition<Object> originalLogicDefinition) {
+    KryonId kryonId = originalLogicDefinition.kryonLogicId().kryonId();
     inputBatcher.onBatching(
-        requests -> requests.forEach(request -> batchFacetsList(logicToDecorate, request)));
+        requests ->
+            requests.forEach(request -> batchFacetsList(logicToDecorate, kryonId, request)));
     return facetsList -> {
       List<UnBatchedFacets<I, C>> requests =
           facetsList.stream()
@@ -84,7 +122,7 @@ public final class InputBatchingDecorator<
               futureCache.computeIfAbsent(
                   request.toFacetValues(), e -> new CompletableFuture<@Nullable Object>()));
       for (BatchedFacets<I, C> batchedFacets : batchedFacetsList) {
-        batchFacetsList(logicToDecorate, batchedFacets);
+        batchFacetsList(logicToDecorate, kryonId, batchedFacets);
       }
       return requests.stream()
           .map(UnBatchedFacets::toFacetValues)
@@ -96,7 +134,8 @@ public final class InputBatchingDecorator<
                           .orElseThrow(
                               () ->
                                   new AssertionError(
-                                      "Future cache has been primed with values. This should never happen"))));
+                                      "Future cache has been primed with values. This should never"
+                                          + " happen"))));
     };
   }
 
@@ -118,26 +157,136 @@ public final class InputBatchingDecorator<
   }
 
   private void batchFacetsList(
-      OutputLogic<Object> logicToDecorate, BatchedFacets<I, C> batchedFacets) {
-    ImmutableList<UnBatchedFacets<I, C>> requests =
+      OutputLogic<Object> logicToDecorate, KryonId kryonId, BatchedFacets<I, C> batchedFacets) {
+    ImmutableList<Facets> requests =
         batchedFacets.batch().stream()
-            .map(each -> new UnBatchedFacets<>(each, batchedFacets.commonFacets()))
+            .map(each -> new UnBatchedFacets<>(each, batchedFacets.commonFacets()).toFacetValues())
             .collect(toImmutableList());
-    logicToDecorate
-        .execute(requests.stream().map(UnBatchedFacets::toFacetValues).collect(toImmutableList()))
-        .forEach(
-            (inputs, resultFuture) -> {
-              linkFutures(
-                  resultFuture,
-                  futureCache.computeIfAbsent(
-                      inputs, request -> new CompletableFuture<@Nullable Object>()));
-            });
+    // futureCache is accessed only here (and not in the dispatch) since a queued batch is
+    // dispatched via the dispatchExecutor, which need not be the thread calling this method.
+    Map<Facets, CompletableFuture<@Nullable Object>> resultFutures = new HashMap<>();
+    for (Facets request : requests) {
+      resultFutures.put(
+          request,
+          futureCache.computeIfAbsent(request, r -> new CompletableFuture<@Nullable Object>()));
+    }
+    long submittedNanos = System.nanoTime();
+    submitBatch(
+        () -> dispatchBatch(logicToDecorate, kryonId, requests, resultFutures, submittedNanos));
+  }
+
+  private void submitBatch(Runnable batchDispatch) {
+    synchronized (queuedBatches) {
+      // Batches already in the queue are dispatched first
+      if (inFlightBatches >= maxInFlightBatches || !queuedBatches.isEmpty()) {
+        queuedBatches.add(batchDispatch);
+        return;
+      }
+      inFlightBatches++;
+    }
+    batchDispatch.run();
+  }
+
+  private void dispatchBatch(
+      OutputLogic<Object> logicToDecorate,
+      KryonId kryonId,
+      ImmutableList<Facets> requests,
+      Map<Facets, CompletableFuture<@Nullable Object>> resultFutures,
+      long submittedNanos) {
+    long startNanos = System.nanoTime();
+    InputBatchDispatchEvent event =
+        InputBatchDispatchEvent.enabled() ? new InputBatchDispatchEvent() : null;
+    if (event != null) {
+      event.begin();
+    }
+    ImmutableMap<Facets, CompletableFuture<@Nullable Object>> results;
+    try {
+      results = logicToDecorate.execute(requests);
+    } catch (Throwable e) {
+      resultFutures.values().forEach(future -> future.completeExceptionally(e));
+      if (event != null) {
+        commitDispatchEvent(event, kryonId, requests.size(), startNanos - submittedNanos);
+      }
+      // A batch which fails fast still counts towards the batch latencies seen by the batcher
+      inputBatcher.onBatchExecuted(requests.size(), System.nanoTime() - startNanos);
+      onBatchComplete();
+      return;
+    }
+    results.forEach(
+        (inputs, resultFuture) -> {
+          CompletableFuture<@Nullable Object> destination = resultFutures.get(inputs);
+          if (destination != null) {
+            linkFutures(resultFuture, destination);
+          }
+        });
+    CompletableFuture<Void> allResults = allOf(results.values().toArray(CompletableFuture[]::new));
+    if (event != null) {
+      allResults.whenComplete(
+          (unused, throwable) ->
+              commitDispatchEvent(event, kryonId, requests.size(), startNanos - submittedNanos));
+    }
+    allResults.whenComplete(
+        (unused, throwable) -> {
+          inputBatcher.onBatchExecuted(requests.size(), System.nanoTime() - startNanos);
+          onBatchComplete();
+        });
+  }
+
+  private void commitDispatchEvent(
+      InputBatchDispatchEvent event, KryonId kryonId, int batchSize, long queueWaitNanos) {
+    event.end();
+    if (event.shouldCommit()) {
+      event.kryonId = kryonId.value();
+      event.decoratorId = instanceId;
+      event.batchSize = batchSize;
+      event.queueWait = queueWaitNanos;
+      event.commit();
+    }
+  }
+
+  private void onBatchComplete() {
+    synchronized (queuedBatches) {
+      inFlightBatches--;
+      if (queuedBatches.isEmpty() || drainScheduled) {
+        // If a drain is in progress, it picks up the freed slot in its next iteration
+        return;
+      }
+      drainScheduled = true;
+    }
+    // This is usually called on the thread which completed the batch (an IO thread, for example).
+    // Hand the queued batches back to the dispatch executor instead of running them here.
+    dispatchExecutor.execute(this::drainQueuedBatches);
+  }
+
+  /**
+   * Dispatches queued batches while in-flight slots are available. Batches which complete
+   * synchronously during the dispatch free up their slots for the next iteration of the loop
+   * instead of recursively dispatching the next batch, so a long queue cannot overflow the stack.
+   */
+  private void drainQueuedBatches() {
+    while (true) {
+      Runnable nextBatch;
+      synchronized (queuedBatches) {
+        if (inFlightBatches >= maxInFlightBatches || queuedBatches.isEmpty()) {
+          drainScheduled = false;
+          return;
+        }
+        nextBatch = queuedBatches.remove();
+        inFlightBatches++;
+      }
+      nextBatch.run();
+    }
   }
 
   @Override
   public void onConfigUpdate(ConfigProvider configProvider) {
-    inputBatcher.onConfigUpdate(
-        new NestedConfig(String.format("input_batching.%s.", instanceId), configProvider));
+    NestedConfig nestedConfig =
+        new NestedConfig(String.format("input_batching.%s.", instanceId), configProvider);
+    this.maxInFlightBatches =
+        nestedConfig
+            .<Integer>getConfig("max_in_flight_batches")
+            .orElse(DEFAULT_MAX_IN_FLIGHT_BATCHES);
+    inputBatcher.onConfigUpdate(nestedConfig);
   }
 
   @Override
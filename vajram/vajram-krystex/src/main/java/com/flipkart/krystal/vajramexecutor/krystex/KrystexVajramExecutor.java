@@ -4,16 +4,22 @@ import static com.flipkart.krystal.vajram.VajramID.vajramID;
 
 import com.flipkart.krystal.data.Facets;
 import com.flipkart.krystal.krystex.KrystalExecutor;
+import com.flipkart.krystal.krystex.caching.SessionLevelCache;
+import com.flipkart.krystal.krystex.caching.SingleFlightDecorator;
+import com.flipkart.krystal.krystex.kryon.AutoFlushConfig;
+import com.flipkart.krystal.krystex.kryon.AutoFlushingKryonExecutor;
 import com.flipkart.krystal.krystex.kryon.KryonExecutionConfig;
 import com.flipkart.krystal.krystex.kryon.KryonExecutor;
 import com.flipkart.krystal.krystex.kryondecoration.KryonDecoratorConfig;
 import com.flipkart.krystal.krystex.kryondecoration.KryonExecutionContext;
-import com.flipkart.krystal.utils.MultiLeasePool;
+import com.flipkart.krystal.krystex.tracing.KrystalTracer;
+import com.flipkart.krystal.utils.LeasePool;
 import com.flipkart.krystal.vajram.VajramID;
 import com.flipkart.krystal.vajram.VajramRequest;
 import com.flipkart.krystal.vajram.exec.VajramExecutor;
 import com.flipkart.krystal.vajramexecutor.krystex.inputinjection.KryonInputInjector;
 import com.flipkart.krystal.vajramexecutor.krystex.inputinjection.VajramInjectionProvider;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import lombok.Builder;
@@ -28,7 +34,7 @@ public class KrystexVajramExecutor implements VajramExecutor {
   @Builder
   public KrystexVajramExecutor(
       @NonNull VajramKryonGraph vajramKryonGraph,
-      MultiLeasePool<? extends ExecutorService> executorServicePool,
+      LeasePool<? extends ExecutorService> executorServicePool,
       @NonNull KrystexVajramExecutorConfig executorConfig) {
     this.vajramKryonGraph = vajramKryonGraph;
     VajramInjectionProvider inputInjectionProvider = executorConfig.inputInjectionProvider();
@@ -45,12 +51,49 @@ public class KrystexVajramExecutor implements VajramExecutor {
                   /* factory= */ decoratorContext ->
                       new KryonInputInjector(vajramKryonGraph, inputInjectionProvider)));
     }
-    this.krystalExecutor =
-        new KryonExecutor(
-            vajramKryonGraph.getKryonDefinitionRegistry(),
-            executorServicePool,
-            executorConfig.kryonExecutorConfigBuilder().build(),
-            executorConfig.requestId());
+    vajramKryonGraph
+        .getSessionLevelCache()
+        .ifPresent(
+            sessionLevelCache ->
+                executorConfig
+                    .kryonExecutorConfigBuilder()
+                    .requestScopedKryonDecoratorConfig(
+                        SessionLevelCache.DECORATOR_TYPE, sessionLevelCache.decoratorConfig()));
+    vajramKryonGraph
+        .getSingleFlightDecorator()
+        .ifPresent(
+            singleFlightDecorator ->
+                executorConfig
+                    .kryonExecutorConfigBuilder()
+                    .requestScopedKryonDecoratorConfig(
+                        SingleFlightDecorator.DECORATOR_TYPE,
+                        singleFlightDecorator.decoratorConfig()));
+    vajramKryonGraph
+        .getTracer()
+        .ifPresent(
+            tracer ->
+                executorConfig
+                    .kryonExecutorConfigBuilder()
+                    .requestScopedKryonDecoratorConfig(
+                        KrystalTracer.KRYON_DECORATOR_TYPE, tracer.kryonDecoratorConfig()));
+    executorConfig.kryonExecutorConfigBuilder().metrics(Optional.of(vajramKryonGraph.getMetrics()));
+    AutoFlushConfig autoFlushConfig = executorConfig.autoFlushConfig();
+    if (autoFlushConfig != null) {
+      this.krystalExecutor =
+          new AutoFlushingKryonExecutor(
+              vajramKryonGraph.getKryonDefinitionRegistry(),
+              executorServicePool,
+              executorConfig.kryonExecutorConfigBuilder().build(),
+              executorConfig.requestId(),
+              autoFlushConfig);
+    } else {
+      this.krystalExecutor =
+          new KryonExecutor(
+              vajramKryonGraph.getKryonDefinitionRegistry(),
+              executorServicePool,
+              executorConfig.kryonExecutorConfigBuilder().build(),
+              executorConfig.requestId());
+    }
   }
 
   private static boolean isInjectionNeeded(
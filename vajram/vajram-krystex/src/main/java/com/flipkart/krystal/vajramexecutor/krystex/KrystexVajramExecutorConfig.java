@@ -1,5 +1,6 @@
 package com.flipkart.krystal.vajramexecutor.krystex;
 
+import com.flipkart.krystal.krystex.kryon.AutoFlushConfig;
 import com.flipkart.krystal.krystex.kryon.KryonExecutorConfig;
 import com.flipkart.krystal.krystex.kryon.KryonExecutorConfig.KryonExecutorConfigBuilder;
 import com.flipkart.krystal.vajramexecutor.krystex.inputinjection.VajramInjectionProvider;
@@ -9,7 +10,8 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 public record KrystexVajramExecutorConfig(
     String requestId,
     KryonExecutorConfigBuilder kryonExecutorConfigBuilder,
-    @Nullable VajramInjectionProvider inputInjectionProvider) {
+    @Nullable VajramInjectionProvider inputInjectionProvider,
+    @Nullable AutoFlushConfig autoFlushConfig) {
 
   @Builder
   public KrystexVajramExecutorConfig {
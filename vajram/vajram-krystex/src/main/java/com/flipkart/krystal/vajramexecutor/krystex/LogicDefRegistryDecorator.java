@@ -1,6 +1,7 @@
 package com.flipkart.krystal.vajramexecutor.krystex;
 
 import com.flipkart.krystal.config.Tag;
+import com.flipkart.krystal.data.FacetsFactory;
 import com.flipkart.krystal.krystex.ComputeLogicDefinition;
 import com.flipkart.krystal.krystex.IOLogicDefinition;
 import com.flipkart.krystal.krystex.LogicDefinitionRegistry;
@@ -40,11 +41,13 @@ public record LogicDefRegistryDecorator(LogicDefinitionRegistry delegate) {
       KryonLogicId kryonLogicId,
       Set<String> inputs,
       OutputLogic<T> kryonLogic,
-      ImmutableMap<Object, Tag> logicTags) {
+      ImmutableMap<Object, Tag> logicTags,
+      FacetsFactory<?> facetsFactory) {
     OutputLogicDefinition<T> def =
         isIOLogic
-            ? new IOLogicDefinition<>(kryonLogicId, inputs, kryonLogic, logicTags)
-            : new ComputeLogicDefinition<>(kryonLogicId, inputs, kryonLogic, logicTags);
+            ? new IOLogicDefinition<>(kryonLogicId, inputs, kryonLogic, logicTags, facetsFactory)
+            : new ComputeLogicDefinition<>(
+                kryonLogicId, inputs, kryonLogic, logicTags, facetsFactory);
     delegate.addOutputLogic(def);
     return def;
   }
@@ -0,0 +1,189 @@
+package com.flipkart.krystal.vajramexecutor.krystex;
+
+import static com.flipkart.krystal.utils.Futures.linkFutures;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import com.flipkart.krystal.config.ConfigListener;
+import com.flipkart.krystal.config.ConfigProvider;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.OutputLogic;
+import com.flipkart.krystal.vajram.batching.UnBatchedFacets;
+import com.flipkart.krystal.vajram.facets.FacetValuesAdaptor;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A thread-safe input batcher which is meant to be shared by all the {@link
+ * com.flipkart.krystal.krystex.kryon.KryonExecutor}s in the JVM, so that concurrent client requests
+ * calling the same batchable vajram are merged into a single call to the vajram's output logic.
+ *
+ * <p>Unlike {@link com.flipkart.krystal.vajram.batching.InputBatcherImpl}, this batcher does not
+ * rely on the flush signals of a single executor, since it cannot know whether other executors are
+ * going to contribute to a batch. Instead, the first element added to a batch starts a timer, and
+ * the batch is dispatched when either {@code max_wait_ms} elapses or {@code max_batch_size}
+ * elements have been added - whichever happens first.
+ *
+ * <p>A batch holds elements of many executors and may be executed after the executor which added
+ * its first element has closed. So the batch is executed with the undecorated output logic of the
+ * vajram, and always on the dispatch executor - never on the thread of the timer or of an executor
+ * which added an element. Only IO vajrams, whose output logics do not block, should be batched this
+ * way. Results are returned to the callers as per-element futures, which the kryons of each
+ * executor already complete via their own command queues.
+ *
+ * <p>Supported configs (relative to the config prefix of the decorator using this batcher):
+ *
+ * <ul>
+ *   <li>{@code max_wait_ms}: The maximum time an element waits for more elements to be batched with
+ *       it. Defaults to {@value #DEFAULT_MAX_WAIT_MS}
+ *   <li>{@code max_batch_size}: The batch is dispatched as soon as this many unique elements have
+ *       been added to it. Defaults to {@value #DEFAULT_MAX_BATCH_SIZE}
+ * </ul>
+ */
+public final class SharedInputBatcher<I extends FacetValuesAdaptor, C extends FacetValuesAdaptor>
+    implements ConfigListener {
+
+  private static final long DEFAULT_MAX_WAIT_MS = 5;
+  private static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+  private final ScheduledExecutorService timer;
+  private final Executor dispatchExecutor;
+  private final Map<C, PendingBatch> pendingBatches = new LinkedHashMap<>();
+  private volatile long maxWaitMs;
+  private volatile int maxBatchSize;
+
+  /**
+   * @param timer used to track the max wait time of batches. No output logic is executed on it.
+   * @param dispatchExecutor used to execute the output logic of batches. This is shared by all the
+   *     executors using this batcher, so it must not be the command queue of any one of them.
+   */
+  public SharedInputBatcher(ScheduledExecutorService timer, Executor dispatchExecutor) {
+    this(timer, dispatchExecutor, DEFAULT_MAX_WAIT_MS, DEFAULT_MAX_BATCH_SIZE);
+  }
+
+  public SharedInputBatcher(
+      ScheduledExecutorService timer, Executor dispatchExecutor, long maxWaitMs, int maxBatchSize) {
+    this.timer = timer;
+    this.dispatchExecutor = dispatchExecutor;
+    this.maxWaitMs = maxWaitMs;
+    this.maxBatchSize = maxBatchSize;
+  }
+
+  /**
+   * Adds an element to the batch of its common facets.
+   *
+   * @param logic the logic used to execute the batch if this is the first element of the batch.
+   *     This must be the undecorated output logic of the vajram, since the batch contains elements
+   *     added by other executors.
+   * @return the future which is completed with the result of this element once its batch has been
+   *     executed. Identical elements added by different executors share the same future.
+   */
+  public CompletableFuture<@Nullable Object> add(
+      I batchableInputs, C commonFacets, OutputLogic<Object> logic) {
+    CompletableFuture<@Nullable Object> future;
+    @Nullable PendingBatch readyBatch = null;
+    synchronized (pendingBatches) {
+      PendingBatch pendingBatch = pendingBatches.get(commonFacets);
+      if (pendingBatch == null) {
+        pendingBatch = new PendingBatch(commonFacets, logic);
+        pendingBatches.put(commonFacets, pendingBatch);
+        PendingBatch scheduledBatch = pendingBatch;
+        pendingBatch.timeout =
+            timer.schedule(() -> dispatchIfPending(scheduledBatch), maxWaitMs, MILLISECONDS);
+      }
+      future =
+          pendingBatch.elements.computeIfAbsent(batchableInputs, _i -> new CompletableFuture<>());
+      if (pendingBatch.elements.size() >= maxBatchSize) {
+        pendingBatches.remove(commonFacets);
+        readyBatch = pendingBatch;
+      }
+    }
+    if (readyBatch != null) {
+      ScheduledFuture<?> timeout = readyBatch.timeout;
+      if (timeout != null) {
+        timeout.cancel(false);
+      }
+      dispatch(readyBatch);
+    }
+    return future;
+  }
+
+  private void dispatchIfPending(PendingBatch batch) {
+    synchronized (pendingBatches) {
+      if (!pendingBatches.remove(batch.commonFacets, batch)) {
+        // Already dispatched because it became full
+        return;
+      }
+    }
+    dispatch(batch);
+  }
+
+  private void dispatch(PendingBatch batch) {
+    try {
+      dispatchExecutor.execute(() -> execute(batch));
+    } catch (RejectedExecutionException e) {
+      batch.elements.values().forEach(future -> future.completeExceptionally(e));
+    }
+  }
+
+  private void execute(PendingBatch batch) {
+    List<Facets> facetsList = new ArrayList<>(batch.elements.size());
+    for (I batchableInputs : batch.elements.keySet()) {
+      facetsList.add(new UnBatchedFacets<>(batchableInputs, batch.commonFacets).toFacetValues());
+    }
+    ImmutableMap<Facets, CompletableFuture<@Nullable Object>> results;
+    try {
+      results = batch.logic.execute(ImmutableList.copyOf(facetsList));
+    } catch (Throwable e) {
+      batch.elements.values().forEach(future -> future.completeExceptionally(e));
+      return;
+    }
+    int index = 0;
+    for (Entry<I, CompletableFuture<@Nullable Object>> element : batch.elements.entrySet()) {
+      Facets facets = facetsList.get(index++);
+      CompletableFuture<@Nullable Object> result = results.get(facets);
+      if (result == null) {
+        element
+            .getValue()
+            .completeExceptionally(
+                new IllegalStateException(
+                    "Output logic did not return a result for facets %s".formatted(facets)));
+      } else {
+        linkFutures(result, element.getValue());
+      }
+    }
+  }
+
+  @Override
+  public void onConfigUpdate(ConfigProvider configProvider) {
+    this.maxWaitMs =
+        configProvider
+            .<Integer>getConfig("max_wait_ms")
+            .map(Integer::longValue)
+            .orElse(DEFAULT_MAX_WAIT_MS);
+    this.maxBatchSize =
+        configProvider.<Integer>getConfig("max_batch_size").orElse(DEFAULT_MAX_BATCH_SIZE);
+  }
+
+  private final class PendingBatch {
+    private final C commonFacets;
+    private final OutputLogic<Object> logic;
+    private final Map<I, CompletableFuture<@Nullable Object>> elements = new LinkedHashMap<>();
+    private @Nullable ScheduledFuture<?> timeout;
+
+    private PendingBatch(C commonFacets, OutputLogic<Object> logic) {
+      this.commonFacets = commonFacets;
+      this.logic = logic;
+    }
+  }
+}
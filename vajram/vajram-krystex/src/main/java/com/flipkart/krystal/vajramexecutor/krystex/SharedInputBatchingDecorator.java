@@ -0,0 +1,90 @@
+package com.flipkart.krystal.vajramexecutor.krystex;
+
+import com.flipkart.krystal.config.ConfigProvider;
+import com.flipkart.krystal.config.NestedConfig;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.IOLogicDefinition;
+import com.flipkart.krystal.krystex.OutputLogic;
+import com.flipkart.krystal.krystex.OutputLogicDefinition;
+import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecorator;
+import com.flipkart.krystal.vajram.batching.FacetsConverter;
+import com.flipkart.krystal.vajram.batching.UnBatchedFacets;
+import com.flipkart.krystal.vajram.facets.FacetValuesAdaptor;
+import com.google.common.collect.ImmutableMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The counterpart of {@link InputBatchingDecorator} which batches inputs across executors using a
+ * JVM-wide {@link SharedInputBatcher}. One instance of this decorator is created per executor, and
+ * all instances with the same instance id delegate to the same {@link SharedInputBatcher}.
+ *
+ * <p>Since batches are dispatched by the shared batcher based on time and size, flush commands from
+ * the executor are not needed and are ignored.
+ *
+ * <p>Batches are executed with the undecorated output logic of the vajram, so the decorators which
+ * are applied before this decorator (as per the {@link
+ * com.flipkart.krystal.krystex.logicdecoration.LogicDecorationOrdering}) are bypassed. This
+ * decorator can only decorate IO vajrams.
+ */
+public final class SharedInputBatchingDecorator<
+        I /*BatchableInputs*/ extends FacetValuesAdaptor,
+        C /*CommonFacets*/ extends FacetValuesAdaptor>
+    implements OutputLogicDecorator {
+
+  private final String instanceId;
+  private final SharedInputBatcher<I, C> sharedInputBatcher;
+  private final FacetsConverter<I, C> facetsConverter;
+  private final Map<Facets, CompletableFuture<@Nullable Object>> futureCache = new HashMap<>();
+
+  public SharedInputBatchingDecorator(
+      String instanceId,
+      SharedInputBatcher<I, C> sharedInputBatcher,
+      FacetsConverter<I, C> facetsConverter) {
+    this.instanceId = instanceId;
+    this.sharedInputBatcher = sharedInputBatcher;
+    this.facetsConverter = facetsConverter;
+  }
+
+  @Override
+  public OutputLogic<Object> decorateLogic(
+      OutputLogic<Object> logicToDecorate, OutputLogicDefinition<Object> originalLogicDefinition) {
+    if (!(originalLogicDefinition instanceof IOLogicDefinition<Object>)) {
+      throw new IllegalStateException(
+          "Cannot batch the inputs of %s across executors since it is not an IO logic"
+              .formatted(originalLogicDefinition.kryonLogicId()));
+    }
+    // Batches are shared with other executors, so they must not be executed with the logic
+    // decorated by this executor
+    OutputLogic<Object> sharedLogic = originalLogicDefinition.logic();
+    return facetsList -> {
+      //noinspection UnstableApiUsage
+      ImmutableMap.Builder<Facets, CompletableFuture<@Nullable Object>> results =
+          ImmutableMap.builderWithExpectedSize(facetsList.size());
+      for (Facets facets : facetsList) {
+        I batchableInputs = facetsConverter.getBatched(facets);
+        C commonFacets = facetsConverter.getCommon(facets);
+        Facets request = new UnBatchedFacets<>(batchableInputs, commonFacets).toFacetValues();
+        results.put(
+            request,
+            futureCache.computeIfAbsent(
+                request,
+                _r -> sharedInputBatcher.add(batchableInputs, commonFacets, sharedLogic)));
+      }
+      return results.build();
+    };
+  }
+
+  @Override
+  public void onConfigUpdate(ConfigProvider configProvider) {
+    sharedInputBatcher.onConfigUpdate(
+        new NestedConfig(String.format("input_batching.%s.", instanceId), configProvider));
+  }
+
+  @Override
+  public String getId() {
+    return instanceId;
+  }
+}
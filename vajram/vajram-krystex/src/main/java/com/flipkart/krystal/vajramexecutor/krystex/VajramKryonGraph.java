@@ -22,6 +22,8 @@ import com.flipkart.krystal.data.Facets;
 import com.flipkart.krystal.krystex.ForkJoinExecutorPool;
 import com.flipkart.krystal.krystex.LogicDefinitionRegistry;
 import com.flipkart.krystal.krystex.OutputLogicDefinition;
+import com.flipkart.krystal.krystex.caching.SessionLevelCache;
+import com.flipkart.krystal.krystex.caching.SingleFlightDecorator;
 import com.flipkart.krystal.krystex.kryon.DependantChain;
 import com.flipkart.krystal.krystex.kryon.KryonDefinition;
 import com.flipkart.krystal.krystex.kryon.KryonDefinitionRegistry;
@@ -31,18 +33,22 @@ import com.flipkart.krystal.krystex.kryon.KryonLogicId;
 import com.flipkart.krystal.krystex.logicdecoration.LogicExecutionContext;
 import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecoratorConfig;
 import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecoratorConfig.LogicDecoratorContext;
+import com.flipkart.krystal.krystex.metrics.AggregatedKryonMetrics;
+import com.flipkart.krystal.krystex.metrics.KryonMetricsExporter;
 import com.flipkart.krystal.krystex.resolution.DependencyResolutionRequest;
 import com.flipkart.krystal.krystex.resolution.MultiResolverDefinition;
 import com.flipkart.krystal.krystex.resolution.ResolverCommand;
 import com.flipkart.krystal.krystex.resolution.ResolverDefinition;
 import com.flipkart.krystal.krystex.resolution.ResolverLogicDefinition;
-import com.flipkart.krystal.utils.MultiLeasePool;
+import com.flipkart.krystal.krystex.tracing.KrystalTracer;
+import com.flipkart.krystal.utils.LeasePool;
 import com.flipkart.krystal.vajram.BatchableVajram;
 import com.flipkart.krystal.vajram.IOVajram;
 import com.flipkart.krystal.vajram.MandatoryFacetsMissingException;
 import com.flipkart.krystal.vajram.Vajram;
 import com.flipkart.krystal.vajram.VajramDefinitionException;
 import com.flipkart.krystal.vajram.VajramID;
+import com.flipkart.krystal.vajram.VajramLoader;
 import com.flipkart.krystal.vajram.das.AccessSpecMatchingResult;
 import com.flipkart.krystal.vajram.das.DataAccessSpec;
 import com.flipkart.krystal.vajram.das.VajramIndex;
@@ -62,6 +68,7 @@ import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -97,23 +104,35 @@ public final class VajramKryonGraph implements VajramExecutableGraph {
   /** LogicDecorator Id -> LogicDecoratorConfig */
   private final ImmutableMap<String, OutputLogicDecoratorConfig> sessionScopedDecoratorConfigs;
 
-  private final MultiLeasePool<? extends ExecutorService> executorPool;
+  private final LeasePool<? extends ExecutorService> executorPool;
+
+  private @Nullable SessionLevelCache sessionLevelCache;
+
+  private @Nullable SingleFlightDecorator singleFlightDecorator;
+
+  private final @Nullable KrystalTracer tracer;
+
+  /** The metrics of all the executors created by this graph. */
+  private final AggregatedKryonMetrics metrics = new AggregatedKryonMetrics();
 
   private VajramKryonGraph(
       String[] packagePrefixes,
+      boolean scanUnindexedRoots,
       ImmutableMap<String, OutputLogicDecoratorConfig> sessionScopedDecorators,
-      double maxParallelismPerCore) {
+      LeasePool<? extends ExecutorService> executorPool,
+      @Nullable KrystalTracer tracer) {
     this.sessionScopedDecoratorConfigs = sessionScopedDecorators;
-    this.executorPool = new ForkJoinExecutorPool(maxParallelismPerCore);
+    this.executorPool = executorPool;
+    this.tracer = tracer;
     LogicDefinitionRegistry logicDefinitionRegistry = new LogicDefinitionRegistry();
     this.kryonDefinitionRegistry = new KryonDefinitionRegistry(logicDefinitionRegistry);
     this.logicRegistryDecorator = new LogicDefRegistryDecorator(logicDefinitionRegistry);
     for (String packagePrefix : packagePrefixes) {
-      loadVajramsFromClassPath(packagePrefix).forEach(this::registerVajram);
+      loadVajramsFromClassPath(packagePrefix, scanUnindexedRoots).forEach(this::registerVajram);
     }
   }
 
-  public MultiLeasePool<? extends ExecutorService> getExecutorPool() {
+  public LeasePool<? extends ExecutorService> getExecutorPool() {
     return executorPool;
   }
 
@@ -176,6 +195,73 @@ public final class VajramKryonGraph implements VajramExecutableGraph {
     outputLogicDefinition.registerRequestScopedDecorator(outputLogicDecoratorConfigList);
   }
 
+  /**
+   * Caches the results of the given IO vajram in the given session level cache for the given
+   * duration. All executors created by this graph share the same cache. Only one cache can be
+   * registered per graph.
+   */
+  public void registerSessionLevelCache(
+      SessionLevelCache sessionLevelCache, VajramID vajramID, Duration ttl) {
+    VajramDefinition vajramDefinition = vajramDefinitions.get(vajramID);
+    if (vajramDefinition == null) {
+      throw new IllegalArgumentException("Unable to find vajram with id %s".formatted(vajramID));
+    }
+    if (!(vajramDefinition.getVajram() instanceof IOVajram<?>)) {
+      throw new VajramDefinitionException(
+          "Cannot cache vajram %s across requests since it is not an IOVajram"
+              .formatted(vajramID.vajramId()));
+    }
+    if (this.sessionLevelCache != null && this.sessionLevelCache != sessionLevelCache) {
+      throw new IllegalStateException(
+          "A different session level cache has already been registered in this graph");
+    }
+    this.sessionLevelCache = sessionLevelCache;
+    sessionLevelCache.cacheKryon(getKryonId(vajramID), ttl);
+  }
+
+  public Optional<SessionLevelCache> getSessionLevelCache() {
+    return Optional.ofNullable(sessionLevelCache);
+  }
+
+  /**
+   * Deduplicates concurrent executions of the given vajram with identical facets across all the
+   * executors created by this graph. Only one {@link SingleFlightDecorator} can be registered per
+   * graph.
+   */
+  public void registerSingleFlight(SingleFlightDecorator singleFlightDecorator, VajramID vajramID) {
+    if (!vajramDefinitions.containsKey(vajramID)) {
+      throw new IllegalArgumentException("Unable to find vajram with id %s".formatted(vajramID));
+    }
+    if (this.singleFlightDecorator != null && this.singleFlightDecorator != singleFlightDecorator) {
+      throw new IllegalStateException(
+          "A different single flight decorator has already been registered in this graph");
+    }
+    this.singleFlightDecorator = singleFlightDecorator;
+    singleFlightDecorator.deduplicateKryon(getKryonId(vajramID));
+  }
+
+  public Optional<SingleFlightDecorator> getSingleFlightDecorator() {
+    return Optional.ofNullable(singleFlightDecorator);
+  }
+
+  /** The tracer with which all the executors created by this graph record spans. */
+  public Optional<KrystalTracer> getTracer() {
+    return Optional.ofNullable(tracer);
+  }
+
+  /** Returns the metrics aggregated across all the executors created by this graph. */
+  public AggregatedKryonMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Exports the metrics aggregated across all the executors created by this graph to the given
+   * exporter. This is meant to be called periodically by the application.
+   */
+  public void exportMetrics(KryonMetricsExporter exporter) {
+    metrics.exportTo(exporter);
+  }
+
   /**
    * Returns a new {@link DependantChain} representing the given strings which are passed in trigger
    * order (from [Start] to immediate dependant.)
@@ -497,14 +583,14 @@ public final class VajramKryonGraph implements VajramExecutableGraph {
     Map<String, Throwable> missingMandatoryValues = new HashMap<>();
     for (VajramFacetDefinition mandatoryInput : mandatoryInputs) {
       Errable<?> value = facets.getInputValue(mandatoryInput.name());
-      if (value.error().isPresent() || value.value().isEmpty()) {
+      if (value.valueOrNull() == null) {
+        Throwable error = value.errorOrNull();
         missingMandatoryValues.put(
             mandatoryInput.name(),
-            value
-                .error()
-                .orElse(
-                    new NoSuchElementException(
-                        "No value present for input %s".formatted(mandatoryInput.name()))));
+            error != null
+                ? error
+                : new NoSuchElementException(
+                    "No value present for input %s".formatted(mandatoryInput.name())));
       }
     }
     if (missingMandatoryValues.isEmpty()) {
@@ -554,7 +640,8 @@ public final class VajramKryonGraph implements VajramExecutableGraph {
                   .putAll(failedValidations)
                   .build();
             },
-            ImmutableMap.copyOf(vajramDefinition.getOutputLogicTags()));
+            ImmutableMap.copyOf(vajramDefinition.getOutputLogicTags()),
+            vajramDefinition.getVajram().getFacetsFactory());
     sessionScopedDecoratorConfigs
         .values()
         .forEach(outputLogic::registerSessionScopedLogicDecorator);
@@ -593,7 +680,8 @@ public final class VajramKryonGraph implements VajramExecutableGraph {
         dependencies.add(definition);
       }
     }
-    Map<String, KryonId> depNameToProviderKryon = new HashMap<>();
+    // In declaration order, so that the facets schema of the kryon is the generated one
+    Map<String, KryonId> depNameToProviderKryon = new LinkedHashMap<>();
     // Create and register sub graphs for dependencies of this vajram
     for (DependencyDef<?> dependencyDef : dependencies) {
       var accessSpec = dependencyDef.dataAccessSpec();
@@ -631,15 +719,29 @@ public final class VajramKryonGraph implements VajramExecutableGraph {
 
   public static final class Builder {
     private final Set<String> packagePrefixes = new LinkedHashSet<>();
+    private boolean scanUnindexedRoots;
     private final Map<String, OutputLogicDecoratorConfig> sessionScopedDecoratorConfigs =
         new HashMap<>();
     private double maxParallelismPerCore = 1;
+    private @Nullable LeasePool<? extends ExecutorService> executorPool;
+    private @Nullable KrystalTracer tracer;
 
     public Builder loadFromPackage(String packagePrefix) {
       packagePrefixes.add(packagePrefix);
       return this;
     }
 
+    /**
+     * Whether classpath roots which contain the {@link #loadFromPackage(String) loaded packages}
+     * but do not have a vajram index (like jars compiled by an older version of the vajram codegen)
+     * are scanned for vajrams. Defaults to false. See {@link
+     * VajramLoader#loadVajramsFromClassPath(String, boolean)}.
+     */
+    public Builder scanUnindexedRoots(boolean scanUnindexedRoots) {
+      this.scanUnindexedRoots = scanUnindexedRoots;
+      return this;
+    }
+
     public Builder decorateOutputLogicForSession(OutputLogicDecoratorConfig logicDecoratorConfig) {
       if (sessionScopedDecoratorConfigs.putIfAbsent(
               logicDecoratorConfig.decoratorType(), logicDecoratorConfig)
@@ -651,16 +753,46 @@ public final class VajramKryonGraph implements VajramExecutableGraph {
       return this;
     }
 
+    /**
+     * Used to create the default {@link ForkJoinExecutorPool}. Ignored if a custom {@link
+     * #executorPool(LeasePool)} is provided.
+     */
     public Builder maxParallelismPerCore(double maxParallelismPerCore) {
       this.maxParallelismPerCore = maxParallelismPerCore;
       return this;
     }
 
+    /**
+     * The pool from which each executor created by the graph leases its command queue. For example,
+     * a {@link com.flipkart.krystal.krystex.VirtualThreadExecutorPool}. Defaults to a {@link
+     * ForkJoinExecutorPool} sized by {@link #maxParallelismPerCore(double)}.
+     */
+    public Builder executorPool(LeasePool<? extends ExecutorService> executorPool) {
+      this.executorPool = executorPool;
+      return this;
+    }
+
+    /**
+     * Records spans of all the executions of all the executors created by the graph with the given
+     * tracer - both of kryons and of their output logics.
+     */
+    public Builder tracer(KrystalTracer tracer) {
+      decorateOutputLogicForSession(tracer.logicDecoratorConfig());
+      this.tracer = tracer;
+      return this;
+    }
+
     public VajramKryonGraph build() {
+      LeasePool<? extends ExecutorService> executorPool = this.executorPool;
+      if (executorPool == null) {
+        executorPool = new ForkJoinExecutorPool(maxParallelismPerCore);
+      }
       return new VajramKryonGraph(
           packagePrefixes.toArray(String[]::new),
+          scanUnindexedRoots,
           ImmutableMap.copyOf(sessionScopedDecoratorConfigs),
-          maxParallelismPerCore);
+          executorPool,
+          tracer);
     }
   }
 }
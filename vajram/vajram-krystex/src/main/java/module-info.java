@@ -7,5 +7,6 @@ module flipkart.krystal.vajramexecutor.krystex {
   requires flipkart.krystal.common;
   requires jakarta.inject;
   requires jdk.compiler;
+  requires jdk.jfr;
   requires org.slf4j;
 }
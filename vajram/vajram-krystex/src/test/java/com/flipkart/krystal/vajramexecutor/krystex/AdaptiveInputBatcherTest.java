@@ -0,0 +1,61 @@
+package com.flipkart.krystal.vajramexecutor.krystex;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.config.MapConfigProvider;
+import com.flipkart.krystal.vajram.batching.AdaptiveInputBatcher;
+import com.flipkart.krystal.vajram.batching.AimdBatchSizer;
+import com.flipkart.krystal.vajram.batching.BatchedFacets;
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveInputBatcherTest {
+
+  @Test
+  void add_targetBatchSizeReached_emittedWithoutWaitingForLinger() {
+    AimdBatchSizer batchSizer = new AimdBatchSizer(50, 2);
+    AdaptiveInputBatcher<String, String> inputBatcher = new AdaptiveInputBatcher<>(batchSizer);
+
+    assertThat(inputBatcher.add("u1", "t1")).isEmpty();
+
+    assertThat(inputBatcher.add("u2", "t1"))
+        .containsExactly(new BatchedFacets<>(ImmutableList.of("u1", "u2"), "t1"));
+  }
+
+  @Test
+  void add_lingerTimerElapsed_pendingInputsEmittedOnBatchingExecutor() throws Exception {
+    AimdBatchSizer batchSizer = new AimdBatchSizer();
+    batchSizer.onConfigUpdate(
+        new MapConfigProvider(
+            Map.of("adaptive.min_linger_ms", 100, "adaptive.max_linger_ms", 100)));
+    ScheduledExecutorService lingerTimer = Executors.newSingleThreadScheduledExecutor();
+    BlockingQueue<Runnable> batchingTasks = new LinkedBlockingQueue<>();
+    try {
+      AdaptiveInputBatcher<String, String> inputBatcher =
+          new AdaptiveInputBatcher<>(batchSizer, lingerTimer, batchingTasks::add);
+      List<ImmutableList<BatchedFacets<String, String>>> emitted = new CopyOnWriteArrayList<>();
+      inputBatcher.onBatching(emitted::add);
+
+      assertThat(inputBatcher.add("u1", "t1")).isEmpty();
+      Runnable lingerTimeout = batchingTasks.poll(5, SECONDS);
+      assertThat(emitted).isEmpty();
+      lingerTimeout.run();
+
+      assertThat(emitted)
+          .containsExactly(ImmutableList.of(new BatchedFacets<>(ImmutableList.of("u1"), "t1")));
+      // Emitted inputs are not emitted again by a flush
+      inputBatcher.batch();
+      assertThat(emitted.get(1)).isEmpty();
+    } finally {
+      lingerTimer.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,152 @@
+package com.flipkart.krystal.vajramexecutor.krystex;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import com.flipkart.krystal.config.MapConfigProvider;
+import com.flipkart.krystal.vajram.batching.AimdBatchSizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class AimdBatchSizerTest {
+
+  private static final long FAST_NANOS = MILLISECONDS.toNanos(10);
+  private static final long SLOW_NANOS = MILLISECONDS.toNanos(100);
+
+  @Test
+  void getTargetBatchSize_noBatchExecuted_startsFromDefaultInitialBatchSize() {
+    AimdBatchSizer batchSizer = new AimdBatchSizer();
+
+    assertThat(batchSizer.getTargetBatchSize()).isEqualTo(16);
+  }
+
+  @Test
+  void onConfigUpdate_initialBatchSizeBeyondMax_clampedToMax() {
+    AimdBatchSizer batchSizer = new AimdBatchSizer();
+
+    batchSizer.onConfigUpdate(
+        new MapConfigProvider(
+            Map.of("adaptive.initial_batch_size", 50, "adaptive.max_batch_size", 20)));
+
+    assertThat(batchSizer.getTargetBatchSize()).isEqualTo(20);
+  }
+
+  @Test
+  void onBatchExecuted_fullBatchWithinObjective_targetIncreasedAdditively() {
+    AimdBatchSizer batchSizer = new AimdBatchSizer(50, 16);
+
+    batchSizer.onBatchExecuted(16, FAST_NANOS);
+    batchSizer.onBatchExecuted(17, FAST_NANOS);
+
+    assertThat(batchSizer.getTargetBatchSize()).isEqualTo(18);
+    assertThat(batchSizer.getIncreaseCount()).isEqualTo(2);
+  }
+
+  @Test
+  void onBatchExecuted_partialBatchWithinObjective_targetUnchanged() {
+    AimdBatchSizer batchSizer = new AimdBatchSizer(50, 16);
+
+    batchSizer.onBatchExecuted(4, FAST_NANOS);
+
+    assertThat(batchSizer.getTargetBatchSize()).isEqualTo(16);
+    assertThat(batchSizer.getIncreaseCount()).isZero();
+  }
+
+  @Test
+  void onBatchExecuted_singleSlowBatch_averageWithinObjectiveSoTargetNotDecreased() {
+    AimdBatchSizer batchSizer = new AimdBatchSizer(50, 16);
+    for (int i = 0; i < 4; i++) {
+      batchSizer.onBatchExecuted(16, FAST_NANOS);
+    }
+
+    batchSizer.onBatchExecuted(16, SLOW_NANOS);
+
+    assertThat(batchSizer.getDecreaseCount()).isZero();
+    // 10 ms + 0.2 * (100 ms - 10 ms)
+    assertThat(batchSizer.getObservedLatencyNanos(16))
+        .isCloseTo(MILLISECONDS.toNanos(28), within(1_000.0));
+  }
+
+  @Test
+  void onBatchExecuted_sustainedSlowBatches_targetDecreasedMultiplicatively() {
+    AimdBatchSizer batchSizer = new AimdBatchSizer(50, 16);
+    batchSizer.onBatchExecuted(16, FAST_NANOS);
+    int slowBatches = 0;
+    while (batchSizer.getDecreaseCount() == 0) {
+      batchSizer.onBatchExecuted(17, SLOW_NANOS);
+      slowBatches++;
+    }
+
+    // The average crosses the objective only after a few slow batches
+    assertThat(slowBatches).isEqualTo(3);
+    assertThat(batchSizer.getTargetBatchSize()).isEqualTo(9);
+  }
+
+  @Test
+  void onBatchExecuted_concurrentSlowCompletionsOfOneWindow_targetDecreasedOnce() throws Exception {
+    AimdBatchSizer batchSizer = new AimdBatchSizer(50, 64);
+    int threadCount = 8;
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+    try {
+      List<Future<?>> completions = new ArrayList<>();
+      for (int i = 0; i < threadCount; i++) {
+        completions.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  // Each of these batches was dispatched about SLOW_NANOS ago, which is before
+                  // the first of them completes and decreases the target
+                  for (int j = 0; j < 10; j++) {
+                    batchSizer.onBatchExecuted(64, SLOW_NANOS);
+                  }
+                  return null;
+                }));
+      }
+      start.countDown();
+      for (Future<?> completion : completions) {
+        completion.get(5, SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(batchSizer.getDecreaseCount()).isEqualTo(1);
+    assertThat(batchSizer.getTargetBatchSize()).isEqualTo(32);
+  }
+
+  @Test
+  void onBatchExecuted_slowBatchDispatchedAfterDecrease_targetDecreasedAgain() throws Exception {
+    AimdBatchSizer batchSizer = new AimdBatchSizer(50, 64);
+    batchSizer.onBatchExecuted(64, SLOW_NANOS);
+    Thread.sleep(5);
+    // Dispatched before the decrease
+    batchSizer.onBatchExecuted(32, SLOW_NANOS);
+    assertThat(batchSizer.getDecreaseCount()).isEqualTo(1);
+
+    // Dispatched after the decrease, while the average latency still misses the objective
+    batchSizer.onBatchExecuted(32, MILLISECONDS.toNanos(1));
+
+    assertThat(batchSizer.getDecreaseCount()).isEqualTo(2);
+    assertThat(batchSizer.getTargetBatchSize()).isEqualTo(16);
+  }
+
+  @Test
+  void onBatchExecuted_slowBatchesOfOneSize_latencyOfOtherSizesNotAffected() {
+    AimdBatchSizer batchSizer = new AimdBatchSizer(50, 16);
+
+    batchSizer.onBatchExecuted(64, SLOW_NANOS);
+    batchSizer.onBatchExecuted(16, FAST_NANOS);
+
+    assertThat(batchSizer.getObservedLatencyNanos(100)).isEqualTo((double) SLOW_NANOS);
+    assertThat(batchSizer.getObservedLatencyNanos(31)).isEqualTo((double) FAST_NANOS);
+  }
+}
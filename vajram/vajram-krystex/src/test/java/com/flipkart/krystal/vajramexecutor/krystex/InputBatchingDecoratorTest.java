@@ -0,0 +1,335 @@
+package com.flipkart.krystal.vajramexecutor.krystex;
+
+import static com.flipkart.krystal.data.Errable.withValue;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.config.ConfigProvider;
+import com.flipkart.krystal.config.MapConfigProvider;
+import com.flipkart.krystal.data.FacetValue;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.IOLogicDefinition;
+import com.flipkart.krystal.krystex.LogicDefinitionRegistry;
+import com.flipkart.krystal.krystex.OutputLogic;
+import com.flipkart.krystal.krystex.kryon.DependantChain;
+import com.flipkart.krystal.krystex.kryon.KryonDefinitionRegistry;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.krystex.kryon.KryonLogicId;
+import com.flipkart.krystal.krystex.logicdecoration.FlushCommand;
+import com.flipkart.krystal.vajram.batching.BatchedFacets;
+import com.flipkart.krystal.vajram.batching.FacetsConverter;
+import com.flipkart.krystal.vajram.batching.InputBatcher;
+import com.flipkart.krystal.vajram.batching.InputBatcherImpl;
+import com.flipkart.krystal.vajram.batching.InputBatcherMetrics;
+import com.flipkart.krystal.vajram.facets.FacetValuesAdaptor;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class InputBatchingDecoratorTest {
+
+  private static final String INSTANCE_ID = "test_batcher";
+  private static final FacetsConverter<UserId, Tenant> FACETS_CONVERTER =
+      new FacetsConverter<>() {
+        @Override
+        public UserId getBatched(Facets facets) {
+          return new UserId(facets.getInputValueOrThrow("user_id"));
+        }
+
+        @Override
+        public Tenant getCommon(Facets facets) {
+          return new Tenant(facets.getInputValueOrThrow("tenant"));
+        }
+      };
+
+  private final DependantChain dependantChain =
+      new KryonDefinitionRegistry(new LogicDefinitionRegistry()).getDependantChainsStart();
+
+  /** The batches executed by the logic, along with their (incomplete) result futures. */
+  private List<Map<Facets, CompletableFuture<@Nullable Object>>> executedBatches;
+
+  private boolean completeSynchronously;
+  private boolean throwSynchronously;
+
+  @BeforeEach
+  void setUp() {
+    this.executedBatches = new ArrayList<>();
+    this.completeSynchronously = false;
+    this.throwSynchronously = false;
+  }
+
+  @Test
+  void execute_pendingInputsReachMaxBatchSize_dispatchedWithoutWaitingForMinBatchSize() {
+    InputBatcherImpl<UserId, Tenant> inputBatcher = new InputBatcherImpl<>();
+    InputBatchingDecorator<UserId, Tenant> decorator = newDecorator(inputBatcher, Runnable::run);
+    decorator.onConfigUpdate(
+        configs(
+            Map.of(
+                "input_batching.test_batcher.min_batch_size", 100,
+                "input_batching.test_batcher.max_batch_size", 2)));
+    OutputLogic<Object> decoratedLogic = decorate(decorator);
+
+    decoratedLogic.execute(requests(0, 5));
+    assertThat(batchSizes()).containsExactly(2, 2);
+    decorator.executeCommand(new FlushCommand(dependantChain));
+
+    assertThat(batchSizes()).containsExactly(2, 2, 1);
+    InputBatcherMetrics metrics = inputBatcher.getMetrics();
+    assertThat(metrics.getBatchCount()).isEqualTo(3);
+    assertThat(metrics.getBatchedInputsCount()).isEqualTo(5);
+    assertThat(metrics.getLargestBatchSize()).isEqualTo(2);
+    assertThat(metrics.getSplitCount()).isZero();
+    assertThat(metrics.batchCountForSize(1)).isEqualTo(1);
+    assertThat(metrics.batchCountForSize(2)).isEqualTo(2);
+  }
+
+  @Test
+  void flush_maxBatchSizeLoweredWhileInputsPending_splitIntoBatchesOfAtMostMaxBatchSize() {
+    InputBatcherImpl<UserId, Tenant> inputBatcher = new InputBatcherImpl<>(100);
+    InputBatchingDecorator<UserId, Tenant> decorator = newDecorator(inputBatcher, Runnable::run);
+    OutputLogic<Object> decoratedLogic = decorate(decorator);
+
+    decoratedLogic.execute(requests(0, 7));
+    assertThat(executedBatches).isEmpty();
+    decorator.onConfigUpdate(
+        configs(
+            Map.of(
+                "input_batching.test_batcher.min_batch_size", 100,
+                "input_batching.test_batcher.max_batch_size", 3)));
+    decorator.executeCommand(new FlushCommand(dependantChain));
+
+    assertThat(batchSizes()).containsExactly(3, 3, 1);
+    InputBatcherMetrics metrics = inputBatcher.getMetrics();
+    assertThat(metrics.getBatchCount()).isEqualTo(3);
+    assertThat(metrics.getBatchedInputsCount()).isEqualTo(7);
+    assertThat(metrics.getLargestBatchSize()).isEqualTo(3);
+    assertThat(metrics.getSplitCount()).isEqualTo(1);
+    // Sizes 2 and 3 share the power-of-two bucket 1
+    assertThat(metrics.batchCountInBucket(1)).isEqualTo(2);
+    assertThat(metrics.batchCountForSize(2)).isEqualTo(2);
+    assertThat(metrics.batchCountInBucket(0)).isEqualTo(1);
+  }
+
+  @Test
+  void execute_maxInFlightBatchesReached_queuedBatchDispatchedOnDispatchExecutor() {
+    Queue<Runnable> dispatchTasks = new ArrayDeque<>();
+    InputBatchingDecorator<UserId, Tenant> decorator =
+        newDecorator(new InputBatcherImpl<>(), dispatchTasks::add);
+    decorator.onConfigUpdate(
+        configs(Map.of("input_batching.test_batcher.max_in_flight_batches", 1)));
+    OutputLogic<Object> decoratedLogic = decorate(decorator);
+
+    ImmutableMap<Facets, CompletableFuture<@Nullable Object>> first =
+        decoratedLogic.execute(requests(0, 1));
+    ImmutableMap<Facets, CompletableFuture<@Nullable Object>> second =
+        decoratedLogic.execute(requests(1, 2));
+    assertThat(executedBatches).hasSize(1);
+
+    completeBatch(0);
+    assertThat(first.values()).allMatch(CompletableFuture::isDone);
+    // The queued batch must not be dispatched on the thread which completed the in-flight batch
+    assertThat(executedBatches).hasSize(1);
+    assertThat(dispatchTasks).hasSize(1);
+
+    dispatchTasks.remove().run();
+    assertThat(executedBatches).hasSize(2);
+    completeBatch(1);
+    assertThat(second.values()).allMatch(CompletableFuture::isDone);
+    assertThat(dispatchTasks).isEmpty();
+  }
+
+  @Test
+  void execute_maxInFlightBatchesReached_newBatchQueuedBehindPendingBatches() {
+    Queue<Runnable> dispatchTasks = new ArrayDeque<>();
+    InputBatchingDecorator<UserId, Tenant> decorator =
+        newDecorator(new InputBatcherImpl<>(), dispatchTasks::add);
+    decorator.onConfigUpdate(
+        configs(Map.of("input_batching.test_batcher.max_in_flight_batches", 2)));
+    OutputLogic<Object> decoratedLogic = decorate(decorator);
+
+    decoratedLogic.execute(requests(0, 4));
+    assertThat(executedBatches).hasSize(2);
+    completeBatch(0);
+    // A slot is free, but the third batch is still waiting in the queue for its dispatch
+    decoratedLogic.execute(requests(4, 5));
+    assertThat(executedBatches).hasSize(2);
+
+    dispatchTasks.remove().run();
+    assertThat(executedUserIds()).containsExactly("u0", "u1", "u2");
+  }
+
+  @Test
+  void completeInFlightBatch_manySynchronouslyCompletingQueuedBatches_drainedWithoutRecursion() {
+    InputBatchingDecorator<UserId, Tenant> decorator =
+        newDecorator(new InputBatcherImpl<>(), Runnable::run);
+    decorator.onConfigUpdate(
+        configs(Map.of("input_batching.test_batcher.max_in_flight_batches", 1)));
+    OutputLogic<Object> decoratedLogic = decorate(decorator);
+    int queuedBatchCount = 100_000;
+
+    decoratedLogic.execute(requests(0, 1));
+    completeSynchronously = true;
+    ImmutableMap<Facets, CompletableFuture<@Nullable Object>> queued =
+        decoratedLogic.execute(requests(1, 1 + queuedBatchCount));
+    assertThat(executedBatches).hasSize(1);
+
+    completeBatch(0);
+
+    assertThat(executedBatches).hasSize(1 + queuedBatchCount);
+    assertThat(queued.values()).allMatch(CompletableFuture::isDone);
+  }
+
+  @Test
+  void flush_allInputsAlreadyDispatched_noEmptyBatchDispatched() {
+    InputBatcherImpl<UserId, Tenant> inputBatcher = new InputBatcherImpl<>();
+    InputBatchingDecorator<UserId, Tenant> decorator = newDecorator(inputBatcher, Runnable::run);
+    OutputLogic<Object> decoratedLogic = decorate(decorator);
+
+    decoratedLogic.execute(requests(0, 2));
+    decorator.executeCommand(new FlushCommand(dependantChain));
+    decorator.executeCommand(new FlushCommand(dependantChain));
+
+    assertThat(batchSizes()).containsExactly(1, 1);
+    InputBatcherMetrics metrics = inputBatcher.getMetrics();
+    assertThat(metrics.getBatchCount()).isEqualTo(2);
+    assertThat(metrics.batchCountForSize(0)).isZero();
+  }
+
+  @Test
+  void execute_logicThrowsSynchronously_batchExecutionReportedToBatcher() {
+    List<Integer> executedBatchSizes = new ArrayList<>();
+    InputBatcher<UserId, Tenant> inputBatcher =
+        new ForwardingInputBatcher(new InputBatcherImpl<>(2)) {
+          @Override
+          public void onBatchExecuted(int batchSize, long latencyNanos) {
+            assertThat(latencyNanos).isNotNegative();
+            executedBatchSizes.add(batchSize);
+          }
+        };
+    InputBatchingDecorator<UserId, Tenant> decorator = newDecorator(inputBatcher, Runnable::run);
+    OutputLogic<Object> decoratedLogic = decorate(decorator);
+    throwSynchronously = true;
+
+    ImmutableMap<Facets, CompletableFuture<@Nullable Object>> results =
+        decoratedLogic.execute(requests(0, 2));
+
+    assertThat(results.values()).allMatch(CompletableFuture::isCompletedExceptionally);
+    assertThat(executedBatchSizes).containsExactly(2);
+  }
+
+  private InputBatchingDecorator<UserId, Tenant> newDecorator(
+      InputBatcher<UserId, Tenant> inputBatcher, Executor dispatchExecutor) {
+    return new InputBatchingDecorator<>(
+        INSTANCE_ID, inputBatcher, FACETS_CONVERTER, _d -> true, dispatchExecutor);
+  }
+
+  private OutputLogic<Object> decorate(InputBatchingDecorator<UserId, Tenant> decorator) {
+    OutputLogic<Object> logic =
+        facetsList -> {
+          if (throwSynchronously) {
+            throw new IllegalStateException("Synchronous failure");
+          }
+          ImmutableMap.Builder<Facets, CompletableFuture<@Nullable Object>> results =
+              ImmutableMap.builder();
+          for (Facets facets : facetsList) {
+            results.put(
+                facets,
+                completeSynchronously
+                    ? CompletableFuture.completedFuture("result")
+                    : new CompletableFuture<>());
+          }
+          ImmutableMap<Facets, CompletableFuture<@Nullable Object>> batchResults = results.build();
+          executedBatches.add(batchResults);
+          return batchResults;
+        };
+    IOLogicDefinition<Object> logicDefinition =
+        new IOLogicDefinition<>(
+            new KryonLogicId(new KryonId("kryon"), "logic"),
+            Set.of("user_id", "tenant"),
+            logic,
+            ImmutableMap.of());
+    return decorator.decorateLogic(logic, logicDefinition);
+  }
+
+  private List<Integer> batchSizes() {
+    return executedBatches.stream().map(Map::size).toList();
+  }
+
+  private List<Object> executedUserIds() {
+    return executedBatches.stream()
+        .flatMap(batch -> batch.keySet().stream())
+        .map(facets -> facets.getInputValueOrThrow("user_id"))
+        .toList();
+  }
+
+  private void completeBatch(int index) {
+    executedBatches.get(index).values().forEach(future -> future.complete("result"));
+  }
+
+  private static ImmutableList<Facets> requests(int fromUser, int toUser) {
+    return IntStream.range(fromUser, toUser)
+        .mapToObj(
+            i ->
+                new Facets(
+                    Map.<String, FacetValue<Object>>of(
+                        "user_id", withValue("u" + i), "tenant", withValue("t1"))))
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  private static MapConfigProvider configs(Map<String, Object> configs) {
+    return new MapConfigProvider(configs);
+  }
+
+  private static class ForwardingInputBatcher implements InputBatcher<UserId, Tenant> {
+    private final InputBatcher<UserId, Tenant> delegate;
+
+    private ForwardingInputBatcher(InputBatcher<UserId, Tenant> delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public ImmutableList<BatchedFacets<UserId, Tenant>> add(UserId userId, Tenant tenant) {
+      return delegate.add(userId, tenant);
+    }
+
+    @Override
+    public void batch() {
+      delegate.batch();
+    }
+
+    @Override
+    public void onBatching(Consumer<ImmutableList<BatchedFacets<UserId, Tenant>>> callback) {
+      delegate.onBatching(callback);
+    }
+
+    @Override
+    public void onConfigUpdate(ConfigProvider configProvider) {
+      delegate.onConfigUpdate(configProvider);
+    }
+  }
+
+  private record UserId(String userId) implements FacetValuesAdaptor {
+    @Override
+    public Facets toFacetValues() {
+      return new Facets(Map.<String, FacetValue<Object>>of("user_id", withValue(userId)));
+    }
+  }
+
+  private record Tenant(String tenant) implements FacetValuesAdaptor {
+    @Override
+    public Facets toFacetValues() {
+      return new Facets(Map.<String, FacetValue<Object>>of("tenant", withValue(tenant)));
+    }
+  }
+}
@@ -22,6 +22,7 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.flipkart.krystal.config.Tag;
 import com.flipkart.krystal.krystex.OutputLogic;
 import com.flipkart.krystal.krystex.OutputLogicDefinition;
+import com.flipkart.krystal.krystex.VirtualThreadExecutorPool;
 import com.flipkart.krystal.krystex.caching.RequestLevelCache;
 import com.flipkart.krystal.krystex.kryon.KryonExecutionConfig;
 import com.flipkart.krystal.krystex.kryon.KryonExecutor.GraphTraversalStrategy;
@@ -42,6 +43,7 @@ import com.flipkart.krystal.krystex.logicdecorators.resilience4j.Resilience4JBul
 import com.flipkart.krystal.krystex.logicdecorators.resilience4j.Resilience4JCircuitBreaker;
 import com.flipkart.krystal.vajram.MandatoryFacetsMissingException;
 import com.flipkart.krystal.vajram.batching.InputBatcherImpl;
+import com.flipkart.krystal.vajram.facets.FacetValuesAdaptor;
 import com.flipkart.krystal.vajram.tags.NamedValueTag;
 import com.flipkart.krystal.vajram.tags.Service;
 import com.flipkart.krystal.vajram.tags.ServiceApi;
@@ -49,6 +51,8 @@ import com.flipkart.krystal.vajram.tags.VajramTags;
 import com.flipkart.krystal.vajram.tags.VajramTags.VajramTypes;
 import com.flipkart.krystal.vajramexecutor.krystex.KrystexVajramExecutorConfig.KrystexVajramExecutorConfigBuilder;
 import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.friendsservice.FriendsService;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.greetings.Greetings;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.greetings.GreetingsRequest;
 import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.hello.Hello;
 import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.hello.HelloRequest;
 import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.hellofriends.HelloFriends;
@@ -71,10 +75,15 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -139,6 +148,27 @@ class KrystexVajramExecutorTest {
     assertThat(result).succeedsWithin(TIMEOUT).isEqualTo("Hello! user_id_1");
   }
 
+  @ParameterizedTest
+  @MethodSource("executorConfigsToTest")
+  void executeCompute_virtualThreadExecutorPool_success(
+      KryonExecStrategy kryonExecStrategy, GraphTraversalStrategy graphTraversalStrategy) {
+    graph =
+        loadFromClasspath("com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.hello")
+            .executorPool(new VirtualThreadExecutorPool())
+            .build();
+    CompletableFuture<String> result;
+    requestContext.requestId("virtualThreadExecutorPool");
+    try (KrystexVajramExecutor krystexVajramExecutor =
+        graph.createExecutor(
+            getExecutorConfig(kryonExecStrategy, graphTraversalStrategy)
+                .requestId("virtualThreadExecutorPool")
+                .build())) {
+      result =
+          krystexVajramExecutor.execute(ofVajram(Hello.class), this.helloRequest(requestContext));
+    }
+    assertThat(result).succeedsWithin(TIMEOUT).isEqualTo("Hello! user_id_1");
+  }
+
   @ParameterizedTest
   @MethodSource("executorConfigsToTest")
   void executeCompute_optionalInputProvided_success(
@@ -221,6 +251,54 @@ class KrystexVajramExecutorTest {
     assertThat(TestUserService.CALL_COUNTER.sum()).isEqualTo(1);
   }
 
+  @ParameterizedTest
+  @MethodSource("executorConfigsToTest")
+  void executeIo_sharedAcrossExecutorsBatcher_requestsOfConcurrentExecutorsBatchedTogether(
+      KryonExecStrategy kryonExecStrategy, GraphTraversalStrategy graphTraversalStrategy) {
+    graph =
+        loadFromClasspath("com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.userservice")
+            .build();
+    ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+    ExecutorService dispatcher = Executors.newSingleThreadExecutor();
+    Map<String, SharedInputBatcher<FacetValuesAdaptor, FacetValuesAdaptor>> sharedInputBatchers =
+        new ConcurrentHashMap<>();
+    graph.registerInputBatchers(
+        ofVajram(TestUserService.class),
+        InputBatcherConfig.sharedAcrossExecutors(
+            instanceId ->
+                sharedInputBatchers.computeIfAbsent(
+                    instanceId, _i -> new SharedInputBatcher<>(timer, dispatcher, 300, 100))));
+    List<CompletableFuture<TestUserInfo>> userInfos = new ArrayList<>();
+    try {
+      for (String userId : List.of("user_id_1", "user_id_2")) {
+        try (KrystexVajramExecutor krystexVajramExecutor =
+            graph.createExecutor(
+                getExecutorConfig(kryonExecStrategy, graphTraversalStrategy)
+                    .requestId("sharedAcrossExecutors_" + userId)
+                    .build())) {
+          userInfos.add(
+              krystexVajramExecutor.execute(
+                  ofVajram(TestUserService.class),
+                  TestUserServiceRequest.builder().userId(userId).build()));
+        }
+      }
+      assertThat(userInfos.get(0))
+          .succeedsWithin(TIMEOUT)
+          .extracting(TestUserInfo::userName)
+          .isEqualTo("Firstname Lastname (user_id_1)");
+      assertThat(userInfos.get(1))
+          .succeedsWithin(TIMEOUT)
+          .extracting(TestUserInfo::userName)
+          .isEqualTo("Firstname Lastname (user_id_2)");
+    } finally {
+      timer.shutdownNow();
+      dispatcher.shutdownNow();
+    }
+    // Both executors closed before the batch was dispatched - one call served both of them
+    assertThat(TestUserService.CALL_COUNTER.sum()).isEqualTo(1);
+    assertThat(sharedInputBatchers).hasSize(1);
+  }
+
   @ParameterizedTest
   @MethodSource("executorConfigsToTest")
   void executeCompute_sequentialDependency_success(
@@ -252,6 +330,32 @@ class KrystexVajramExecutorTest {
     assertEquals(1, TestUserService.CALL_COUNTER.sum());
   }
 
+  @ParameterizedTest
+  @MethodSource("executorConfigsToTest")
+  void executeCompute_overloadedMultiInputResolvers_eachDependencyResolvedByItsResolver(
+      KryonExecStrategy kryonExecStrategy, GraphTraversalStrategy graphTraversalStrategy) {
+    graph =
+        loadFromClasspath(
+                "com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.hello",
+                "com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.greetings")
+            .build();
+    CompletableFuture<String> result;
+    requestContext.requestId("overloadedMultiInputResolvers");
+    try (KrystexVajramExecutor krystexVajramExecutor =
+        graph.createExecutor(
+            getExecutorConfig(kryonExecStrategy, graphTraversalStrategy)
+                .requestId(requestContext.requestId())
+                .build())) {
+      result =
+          krystexVajramExecutor.execute(
+              ofVajram(Greetings.class),
+              GreetingsRequest.builder().name("user_id_1").title("Dr.").build());
+    }
+    assertThat(result)
+        .succeedsWithin(TIMEOUT)
+        .isEqualTo("Good day! Dr. user_id_1 / Hi! user_id_1");
+  }
+
   @ParameterizedTest
   @MethodSource("executorConfigsToTest")
   void executeWithFacets_success(
@@ -0,0 +1,160 @@
+package com.flipkart.krystal.vajramexecutor.krystex;
+
+import static com.flipkart.krystal.data.Errable.withValue;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.data.FacetValue;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.OutputLogic;
+import com.flipkart.krystal.vajram.facets.FacetValuesAdaptor;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SharedInputBatcherTest {
+
+  private ScheduledExecutorService timer;
+  private ExecutorService dispatcher;
+  private List<ImmutableList<Facets>> executedBatches;
+  private List<Thread> executingThreads;
+  private OutputLogic<Object> logic;
+
+  @BeforeEach
+  void setUp() {
+    this.timer = Executors.newSingleThreadScheduledExecutor();
+    this.dispatcher = Executors.newSingleThreadExecutor();
+    this.executedBatches = new CopyOnWriteArrayList<>();
+    this.executingThreads = new CopyOnWriteArrayList<>();
+    this.logic =
+        facetsList -> {
+          executedBatches.add(facetsList);
+          executingThreads.add(Thread.currentThread());
+          ImmutableMap.Builder<Facets, CompletableFuture<@Nullable Object>> results =
+              ImmutableMap.builder();
+          facetsList.forEach(
+              facets ->
+                  results.put(
+                      facets,
+                      CompletableFuture.completedFuture(
+                          facets.getInputValueOrThrow("user_id") + "_result")));
+          return results.build();
+        };
+  }
+
+  @AfterEach
+  void tearDown() {
+    timer.shutdownNow();
+    dispatcher.shutdownNow();
+  }
+
+  @Test
+  void add_fromMultipleCallers_mergedIntoOneBatchAfterMaxWait() throws Exception {
+    SharedInputBatcher<UserId, Tenant> batcher =
+        new SharedInputBatcher<>(timer, dispatcher, 50, 100);
+    CompletableFuture<@Nullable Object> first =
+        batcher.add(new UserId("u1"), new Tenant("t1"), logic);
+    CompletableFuture<@Nullable Object> second =
+        batcher.add(new UserId("u2"), new Tenant("t1"), logic);
+
+    assertThat(first.get(5, SECONDS)).isEqualTo("u1_result");
+    assertThat(second.get(5, SECONDS)).isEqualTo("u2_result");
+    assertThat(executedBatches).hasSize(1);
+    assertThat(executedBatches.get(0)).hasSize(2);
+  }
+
+  @Test
+  void add_maxBatchSizeReached_dispatchedWithoutWaiting() throws Exception {
+    SharedInputBatcher<UserId, Tenant> batcher =
+        new SharedInputBatcher<>(timer, dispatcher, 60_000, 2);
+    CompletableFuture<@Nullable Object> first =
+        batcher.add(new UserId("u1"), new Tenant("t1"), logic);
+    CompletableFuture<@Nullable Object> second =
+        batcher.add(new UserId("u2"), new Tenant("t1"), logic);
+
+    assertThat(first.get(5, SECONDS)).isEqualTo("u1_result");
+    assertThat(second.get(5, SECONDS)).isEqualTo("u2_result");
+    assertThat(executedBatches).hasSize(1);
+  }
+
+  @Test
+  void add_batchDispatched_executedOnDispatchExecutor() throws Exception {
+    Thread dispatcherThread = dispatcher.submit(Thread::currentThread).get(5, SECONDS);
+    Thread timerThread = timer.submit(Thread::currentThread).get(5, SECONDS);
+    SharedInputBatcher<UserId, Tenant> batcher =
+        new SharedInputBatcher<>(timer, dispatcher, 50, 2);
+
+    // Dispatched by the timer
+    batcher.add(new UserId("u1"), new Tenant("t1"), logic).get(5, SECONDS);
+    // Dispatched by the caller since the batch is full
+    batcher.add(new UserId("u2"), new Tenant("t2"), logic);
+    batcher.add(new UserId("u3"), new Tenant("t2"), logic).get(5, SECONDS);
+
+    assertThat(executingThreads).containsExactly(dispatcherThread, dispatcherThread);
+    assertThat(executingThreads).doesNotContain(timerThread, Thread.currentThread());
+  }
+
+  @Test
+  void add_dispatchExecutorRejects_futuresCompletedExceptionally() throws Exception {
+    dispatcher.shutdown();
+    SharedInputBatcher<UserId, Tenant> batcher =
+        new SharedInputBatcher<>(timer, dispatcher, 60_000, 1);
+
+    CompletableFuture<@Nullable Object> future =
+        batcher.add(new UserId("u1"), new Tenant("t1"), logic);
+
+    assertThat(future.isCompletedExceptionally()).isTrue();
+    assertThat(executedBatches).isEmpty();
+  }
+
+  @Test
+  void add_duplicateElements_shareTheSameFuture() throws Exception {
+    SharedInputBatcher<UserId, Tenant> batcher =
+        new SharedInputBatcher<>(timer, dispatcher, 50, 100);
+    CompletableFuture<@Nullable Object> first =
+        batcher.add(new UserId("u1"), new Tenant("t1"), logic);
+    CompletableFuture<@Nullable Object> duplicate =
+        batcher.add(new UserId("u1"), new Tenant("t1"), logic);
+
+    assertThat(duplicate).isSameAs(first);
+    assertThat(first.get(5, SECONDS)).isEqualTo("u1_result");
+    assertThat(executedBatches.get(0)).hasSize(1);
+  }
+
+  @Test
+  void add_differentCommonFacets_batchedSeparately() throws Exception {
+    SharedInputBatcher<UserId, Tenant> batcher =
+        new SharedInputBatcher<>(timer, dispatcher, 50, 100);
+    CompletableFuture<@Nullable Object> first =
+        batcher.add(new UserId("u1"), new Tenant("t1"), logic);
+    CompletableFuture<@Nullable Object> second =
+        batcher.add(new UserId("u2"), new Tenant("t2"), logic);
+
+    CompletableFuture.allOf(first, second).get(5, SECONDS);
+    assertThat(executedBatches).hasSize(2);
+  }
+
+  private record UserId(String userId) implements FacetValuesAdaptor {
+    @Override
+    public Facets toFacetValues() {
+      return new Facets(Map.<String, FacetValue<Object>>of("user_id", withValue(userId)));
+    }
+  }
+
+  private record Tenant(String tenant) implements FacetValuesAdaptor {
+    @Override
+    public Facets toFacetValues() {
+      return new Facets(Map.<String, FacetValue<Object>>of("tenant", withValue(tenant)));
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package com.flipkart.krystal.vajramexecutor.krystex;
+
+import static com.flipkart.krystal.vajram.VajramID.ofVajram;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.data.FacetsSchema;
+import com.flipkart.krystal.krystex.kryon.KryonDefinition;
+import com.flipkart.krystal.vajram.VajramID;
+import com.flipkart.krystal.vajram.facets.FacetContainer;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.hellofriends.HelloFriends;
+import java.lang.reflect.Field;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class VajramKryonGraphTest {
+
+  private VajramKryonGraph graph;
+
+  @AfterEach
+  void tearDown() {
+    graph.close();
+  }
+
+  @Test
+  void kryonDefinition_vajramWithDependencies_facetsSchemaIsTheGeneratedSchema() throws Exception {
+    graph =
+        VajramKryonGraph.builder()
+            .loadFromPackage("com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.userservice")
+            .loadFromPackage(
+                "com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.hellofriends")
+            .build();
+    VajramID vajramID = ofVajram(HelloFriends.class);
+
+    KryonDefinition kryonDefinition =
+        graph.getKryonDefinitionRegistry().get(graph.getKryonId(vajramID));
+    // Facets are built by the kryon like this for the output logic
+    Facets facets =
+        Facets.builder(
+                kryonDefinition.facetsSchema(),
+                kryonDefinition.getOutputLogicDefinition().facetsFactory())
+            .build();
+    Field generatedSchema = facets.getClass().getDeclaredField("FACETS_SCHEMA");
+    generatedSchema.setAccessible(true);
+
+    // The generated facets class of the vajram
+    assertThat(facets).isInstanceOf(FacetContainer.class);
+    // Inputs, then dependencies, each in declaration order
+    assertThat(kryonDefinition.facetsSchema().facetNames())
+        .containsExactly("userId", "numberOfFriends", "userInfo", "friendInfos");
+    // Same instance, so that facets built by the kryon are read by slot in the generated code
+    assertThat(kryonDefinition.facetsSchema()).isSameAs((FacetsSchema) generatedSchema.get(null));
+  }
+}
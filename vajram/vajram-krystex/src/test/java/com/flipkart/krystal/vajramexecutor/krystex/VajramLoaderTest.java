@@ -0,0 +1,79 @@
+package com.flipkart.krystal.vajramexecutor.krystex;
+
+import static com.flipkart.krystal.vajram.VajramLoader.VAJRAM_INDEX_RESOURCE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.vajram.Vajram;
+import com.flipkart.krystal.vajram.VajramLoader;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.hello.Hello;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class VajramLoaderTest {
+
+  private static final String HELLO_PACKAGE = Hello.class.getPackageName();
+  private static final String HELLO_IMPL = Hello.class.getName() + "Impl";
+
+  @TempDir Path unindexedRoot;
+
+  @Test
+  void vajramIndex_vajramsCompiledByCodegen_generatedImplsListed() throws IOException {
+    List<String> indexedImpls = new ArrayList<>();
+    for (URL index : Collections.list(classLoader().getResources(VAJRAM_INDEX_RESOURCE))) {
+      try (InputStream in = index.openStream()) {
+        indexedImpls.addAll(new String(in.readAllBytes(), UTF_8).lines().toList());
+      }
+    }
+
+    assertThat(indexedImpls).contains(HELLO_IMPL).doesNotContain(Hello.class.getName());
+  }
+
+  @Test
+  void loadVajramsFromIndex_packageWithIndexedVajram_implInstantiated() {
+    List<? extends Vajram> vajrams = VajramLoader.loadVajramsFromIndex(HELLO_PACKAGE);
+
+    assertThat(vajrams).singleElement().isInstanceOf(Hello.class);
+    assertThat(vajrams.get(0).getClass().getName()).isEqualTo(HELLO_IMPL);
+  }
+
+  @Test
+  void loadVajramsFromClassPath_packageAlsoInUnindexedRoot_unindexedRootScannedWithoutDuplicates()
+      throws Exception {
+    // A copy of the package's classes without an index, like a jar built by an older codegen
+    Path helloClass = Path.of(Hello.class.getResource("Hello.class").toURI());
+    Path packageDir = unindexedRoot.resolve(HELLO_PACKAGE.replace('.', '/'));
+    Files.createDirectories(packageDir);
+    try (Stream<Path> classFiles = Files.list(helloClass.getParent())) {
+      for (Path classFile : classFiles.toList()) {
+        Files.copy(classFile, packageDir.resolve(classFile.getFileName().toString()));
+      }
+    }
+    Thread thread = Thread.currentThread();
+    ClassLoader contextClassLoader = thread.getContextClassLoader();
+    try (URLClassLoader classLoader =
+        new URLClassLoader(new URL[] {unindexedRoot.toUri().toURL()}, classLoader())) {
+      thread.setContextClassLoader(classLoader);
+
+      List<? extends Vajram> vajrams = VajramLoader.loadVajramsFromClassPath(HELLO_PACKAGE, true);
+
+      assertThat(vajrams).singleElement().isInstanceOf(Hello.class);
+    } finally {
+      thread.setContextClassLoader(contextClassLoader);
+    }
+  }
+
+  private static ClassLoader classLoader() {
+    return VajramLoaderTest.class.getClassLoader();
+  }
+}
@@ -0,0 +1,54 @@
+package com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.greetings;
+
+import static com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.greetings.GreetingsRequest.casualHello_n;
+import static com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.greetings.GreetingsRequest.formalHello_n;
+import static com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.greetings.GreetingsRequest.name_n;
+import static com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.greetings.GreetingsRequest.title_n;
+
+import com.flipkart.krystal.vajram.ComputeVajram;
+import com.flipkart.krystal.vajram.Dependency;
+import com.flipkart.krystal.vajram.Input;
+import com.flipkart.krystal.vajram.Output;
+import com.flipkart.krystal.vajram.VajramDef;
+import com.flipkart.krystal.vajram.facets.Using;
+import com.flipkart.krystal.vajram.facets.resolution.sdk.Resolve;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.greetings.GreetingsFacetUtil.GreetingsFacets;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.hello.Hello;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.hello.HelloRequest;
+
+/** Greets a user twice, with resolvers which are overloads of the same method. */
+@VajramDef
+public abstract class Greetings extends ComputeVajram<String> {
+  static class _Facets {
+    @Input String name;
+    @Input String title;
+
+    @Dependency(onVajram = Hello.class)
+    String formalHello;
+
+    @Dependency(onVajram = Hello.class)
+    String casualHello;
+  }
+
+  @Output
+  static String greet(GreetingsFacets facets) {
+    return facets.formalHello() + " / " + facets.casualHello();
+  }
+
+  @Resolve(
+      depName = formalHello_n,
+      depInputs = {HelloRequest.name_n, HelloRequest.greeting_n})
+  public static HelloRequest hello(@Using(name_n) String name, @Using(title_n) String title) {
+    return HelloRequest.builder().name(title + " " + name).greeting("Good day").build();
+  }
+
+  @Resolve(depName = casualHello_n, depInputs = HelloRequest.name_n)
+  public static String hello(@Using(name_n) String name) {
+    return name;
+  }
+
+  @Resolve(depName = casualHello_n, depInputs = HelloRequest.greeting_n)
+  public static String casualGreeting(@Using(title_n) String title) {
+    return title.isEmpty() ? "Hello" : "Hi";
+  }
+}
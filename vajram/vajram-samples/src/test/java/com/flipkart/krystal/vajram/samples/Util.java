@@ -5,6 +5,7 @@ import static java.util.Arrays.stream;
 import static java.util.concurrent.CompletableFuture.allOf;
 
 import com.flipkart.krystal.krystex.kryon.KryonExecutorMetrics;
+import com.flipkart.krystal.utils.MultiLeasePool;
 import com.flipkart.krystal.vajramexecutor.krystex.VajramKryonGraph;
 import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
@@ -93,12 +94,14 @@ public final class Util {
             (1.0 * vajramTimeNs - javaNativeTimeNs) / loopCount)
         .printf(
             "Platform overhead over reactive code: %,.0f ns per request%n",
-            (1.0 * vajramTimeNs - javaFuturesTimeNs) / loopCount)
-        .printf(
-            "maxActiveLeasesPerObject: %s, peakAvgActiveLeasesPerObject: %s, maxPoolSize: %s%n",
-            graph.getExecutorPool().maxActiveLeasesPerObject(),
-            graph.getExecutorPool().peakAvgActiveLeasesPerObject(),
-            graph.getExecutorPool().maxPoolSize());
+            (1.0 * vajramTimeNs - javaFuturesTimeNs) / loopCount);
+    if (graph.getExecutorPool() instanceof MultiLeasePool<?> executorPool) {
+      System.out.printf(
+          "maxActiveLeasesPerObject: %s, peakAvgActiveLeasesPerObject: %s, maxPoolSize: %s%n",
+          executorPool.maxActiveLeasesPerObject(),
+          executorPool.peakAvgActiveLeasesPerObject(),
+          executorPool.maxPoolSize());
+    }
   }
 
   public static VajramKryonGraph.Builder loadFromClasspath(String... packagePrefixes) {
@@ -6,6 +6,7 @@ import static com.flipkart.krystal.vajram.samples.Util.javaMethodBenchmark;
 import static com.flipkart.krystal.vajram.samples.Util.printStats;
 import static com.flipkart.krystal.vajram.samples.calculator.adder.Adder.add;
 import static com.flipkart.krystal.vajram.samples.calculator.divider.Divider.divide;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static java.time.Duration.ofSeconds;
 import static java.util.concurrent.CompletableFuture.allOf;
 import static java.util.concurrent.CompletableFuture.completedFuture;
@@ -13,6 +14,9 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.OutputLogic;
+import com.flipkart.krystal.krystex.OutputLogicDefinition;
 import com.flipkart.krystal.krystex.caching.RequestLevelCache;
 import com.flipkart.krystal.krystex.kryon.KryonExecutionConfig;
 import com.flipkart.krystal.krystex.kryon.KryonExecutor;
@@ -20,8 +24,11 @@ import com.flipkart.krystal.krystex.kryon.KryonExecutor.GraphTraversalStrategy;
 import com.flipkart.krystal.krystex.kryon.KryonExecutor.KryonExecStrategy;
 import com.flipkart.krystal.krystex.kryon.KryonExecutorConfig;
 import com.flipkart.krystal.krystex.kryon.KryonExecutorMetrics;
+import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecorator;
+import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecoratorConfig;
 import com.flipkart.krystal.vajram.batching.InputBatcherImpl;
 import com.flipkart.krystal.vajram.samples.Util;
+import com.flipkart.krystal.vajram.samples.calculator.FormulaFacetUtil.FormulaFacets;
 import com.flipkart.krystal.vajram.samples.calculator.adder.Adder;
 import com.flipkart.krystal.vajram.samples.calculator.adder.AdderRequest;
 import com.flipkart.krystal.vajram.samples.calculator.divider.DividerRequest;
@@ -30,11 +37,17 @@ import com.flipkart.krystal.vajramexecutor.krystex.KrystexVajramExecutor;
 import com.flipkart.krystal.vajramexecutor.krystex.KrystexVajramExecutorConfig;
 import com.flipkart.krystal.vajramexecutor.krystex.VajramKryonGraph;
 import com.flipkart.krystal.vajramexecutor.krystex.testharness.VajramTestHarness;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 class FormulaTest {
 
@@ -65,6 +78,45 @@ class FormulaTest {
     assertThat(Adder.CALL_COUNTER.sum()).isEqualTo(1);
   }
 
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void formula_facetsPassedToOutputLogic_convertedToTypedFacetsOnlyIfNeeded(
+      boolean decoratorPassesGenericFacets) {
+    CompletableFuture<Integer> future;
+    VajramKryonGraph graph = this.graph.build();
+    FacetsRecordingDecorator decorator = new FacetsRecordingDecorator(decoratorPassesGenericFacets);
+    try (KrystexVajramExecutor krystexVajramExecutor =
+        graph.createExecutor(
+            KrystexVajramExecutorConfig.builder()
+                .requestId(REQUEST_ID)
+                .kryonExecutorConfigBuilder(
+                    KryonExecutorConfig.builder()
+                        .requestScopedLogicDecoratorConfigs(
+                            ImmutableMap.of(
+                                decorator.getId(),
+                                List.of(
+                                    new OutputLogicDecoratorConfig(
+                                        decorator.getId(),
+                                        logicExecutionContext ->
+                                            logicExecutionContext
+                                                .kryonId()
+                                                .value()
+                                                .equals(getVajramIdString(Formula.class)),
+                                        logicExecutionContext -> decorator.getId(),
+                                        decoratorContext -> decorator)))))
+                .build())) {
+      future =
+          executeVajram(
+              krystexVajramExecutor, 0, new FormulaRequestContext(100, 20, 5, REQUEST_ID));
+    }
+    assertThat(future).succeedsWithin(1, SECONDS).isEqualTo(4);
+    // The kryon creates the typed facets of the vajram, so they are converted only if a decorator
+    // replaces them
+    assertThat(decorator.recordedFacets)
+        .singleElement()
+        .isInstanceOf(decoratorPassesGenericFacets ? Facets.class : FormulaFacets.class);
+  }
+
   @Disabled("Long running benchmark (~16s)")
   @Test
   void vajram_benchmark() throws Exception {
@@ -246,6 +298,40 @@ class FormulaTest {
 
   private record FormulaRequestContext(int a, int p, int q, String requestId) {}
 
+  /**
+   * Records the facets with which the output logic is called. Optionally replaces them with generic
+   * map-backed facets, like a decorator which modifies the facets would.
+   */
+  private static final class FacetsRecordingDecorator implements OutputLogicDecorator {
+    private final boolean passGenericFacets;
+    private final List<Facets> recordedFacets = new ArrayList<>();
+
+    private FacetsRecordingDecorator(boolean passGenericFacets) {
+      this.passGenericFacets = passGenericFacets;
+    }
+
+    @Override
+    public OutputLogic<Object> decorateLogic(
+        OutputLogic<Object> logicToDecorate,
+        OutputLogicDefinition<Object> originalLogicDefinition) {
+      return facetsList -> {
+        ImmutableList<Facets> passedFacets =
+            passGenericFacets
+                ? facetsList.stream()
+                    .map(facets -> new Facets(facets.values()))
+                    .collect(toImmutableList())
+                : facetsList;
+        recordedFacets.addAll(passedFacets);
+        return logicToDecorate.execute(passedFacets);
+      };
+    }
+
+    @Override
+    public String getId() {
+      return "FacetsRecordingDecorator";
+    }
+  }
+
   @Test
   void formula_success_withAllMockedDependencies() throws Exception {
     CompletableFuture<Integer> future;